@@ -0,0 +1,144 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.tools.BackwardsFileStream;
+import psiprobe.tools.BackwardsLineReader;
+
+/**
+ * Reads a log file backwards, the last lines only as the log follower does when it is opened, and
+ * the whole file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackwardsLineReaderBenchmark {
+
+  /** The levels of the lines logged. */
+  private static final String[] LEVELS = {"DEBUG", "INFO", "INFO", "INFO", "WARN", "ERROR"};
+
+  /** The size of the log, in megabytes. */
+  @Param({"1", "20"})
+  private int megabytes;
+
+  /** The number of lines read from the end of the log. */
+  @Param({"1000"})
+  private int tailLines;
+
+  /** The log file. */
+  private File file;
+
+  /**
+   * Writes the log file.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file = Files.createTempFile("psi-probe-log", ".log").toFile();
+    Random random = new Random(megabytes);
+    long size = megabytes * 1024L * 1024L;
+    long written = 0;
+    try (Writer out =
+        new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+      for (long line = 0; written < size; line++) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("2018-06-01 12:").append(line / 60 % 60).append(':').append(line % 60)
+            .append(",").append(line % 1000).append(' ')
+            .append(LEVELS[random.nextInt(LEVELS.length)])
+            .append(" [http-nio-8080-exec-").append(random.nextInt(200)).append("] ")
+            .append("psiprobe.controllers.SomeController - request ").append(line)
+            .append(" served in ").append(random.nextInt(5000)).append(" ms\n");
+        if (random.nextInt(50) == 0) {
+          sb.append("java.lang.IllegalStateException: failed\n")
+              .append("\tat psiprobe.SomeClass.someMethod(SomeClass.java:42)\n");
+        }
+        out.write(sb.toString());
+        written += sb.length();
+      }
+    }
+  }
+
+  /**
+   * Deletes the log file.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.delete(file.toPath());
+  }
+
+  /**
+   * Reads the last lines of the log.
+   *
+   * @return the number of characters read
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public long readTail() throws IOException {
+    long chars = 0;
+    try (BackwardsFileStream bfs = new BackwardsFileStream(file)) {
+      BackwardsLineReader br = new BackwardsLineReader(bfs, "UTF-8");
+      String line;
+      for (int i = 0; i < tailLines && (line = br.readLine()) != null; i++) {
+        chars += line.length();
+      }
+    }
+    return chars;
+  }
+
+  /**
+   * Reads the whole log.
+   *
+   * @return the number of characters read
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Measurement(iterations = 5)
+  public long readAll() throws IOException {
+    long chars = 0;
+    try (BackwardsFileStream bfs = new BackwardsFileStream(file)) {
+      BackwardsLineReader br = new BackwardsLineReader(bfs, "UTF-8");
+      String line;
+      while ((line = br.readLine()) != null) {
+        chars += line.length();
+      }
+    }
+    return chars;
+  }
+
+}
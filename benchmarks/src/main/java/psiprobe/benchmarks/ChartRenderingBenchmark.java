@@ -0,0 +1,102 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.renderer.xy.XYAreaRenderer;
+import org.jfree.data.xy.DefaultTableXYDataset;
+import org.jfree.ui.RectangleInsets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.beans.stats.providers.MultipleSeriesProvider;
+
+/**
+ * Renders the area chart of the busiest applications to a PNG image, the way the chart controller
+ * does with its default colors and size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ChartRenderingBenchmark {
+
+  /** The number of series charted. */
+  @Param({"1", "4"})
+  private int top;
+
+  /** The width of the image. */
+  @Param({"800"})
+  private int width;
+
+  /** The height of the image. */
+  @Param({"400"})
+  private int height;
+
+  /** The dataset. */
+  private DefaultTableXYDataset dataset;
+
+  /**
+   * Populates the dataset.
+   */
+  @Setup
+  public void setUp() {
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setMovingAvgFrame(10);
+    provider.setStatNamePrefix("app.requests.");
+    provider.setTop(top);
+    dataset = new DefaultTableXYDataset();
+    provider.populate(dataset, StatsData.newStatsCollection(100, 240), null);
+  }
+
+  /**
+   * Builds the chart and encodes it.
+   *
+   * @return the image
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public byte[] renderPng() throws IOException {
+    JFreeChart chart = ChartFactory.createXYAreaChart("", "", "", dataset,
+        PlotOrientation.VERTICAL, true, false, false);
+    ((XYAreaRenderer) chart.getXYPlot().getRenderer()).setOutline(true);
+    chart.setAntiAlias(true);
+    chart.setBackgroundPaint(new Color(0xFFFFFF));
+    chart.getXYPlot().getRenderer().setSeriesPaint(0, new Color(0x9bd2fb));
+    chart.getXYPlot().getRenderer().setSeriesPaint(1, new Color(0xFF0606));
+    chart.getXYPlot().getRenderer().setSeriesOutlinePaint(0, new Color(0x0665aa));
+    chart.getXYPlot().getRenderer().setSeriesOutlinePaint(1, new Color(0x9d0000));
+    chart.getXYPlot().setDomainGridlinePaint(new Color(0));
+    chart.getXYPlot().setRangeGridlinePaint(new Color(0));
+    chart.getXYPlot().setDomainAxis(0, new DateAxis());
+    chart.getXYPlot().setDomainAxis(1, new DateAxis());
+    chart.getXYPlot().setInsets(new RectangleInsets(-15, 0, 0, 10));
+    return ChartUtilities.encodeAsPNG(chart.createBufferedImage(width, height));
+  }
+
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.io.Writer;
+
+/**
+ * Writer counting the characters written to it and dropping them, standing for a response.
+ */
+public class NullWriter extends Writer {
+
+  /** The number of characters written. */
+  private long count;
+
+  /**
+   * Gets the number of characters written.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public void write(int c) {
+    count++;
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) {
+    count += len;
+  }
+
+  @Override
+  public void write(String str, int off, int len) {
+    count += len;
+  }
+
+  @Override
+  public void flush() {
+    // nothing to flush
+  }
+
+  @Override
+  public void close() {
+    // nothing to close
+  }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jfree.data.xy.DefaultTableXYDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.beans.stats.providers.MultipleSeriesProvider;
+import psiprobe.model.stats.StatsCollection;
+
+/**
+ * Populates the dataset of the chart of the busiest applications, as configured for requests of
+ * all applications, from the stats of a server hosting many applications.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeriesProviderBenchmark {
+
+  /** The number of applications. */
+  @Param({"100", "500"})
+  private int apps;
+
+  /** The number of series charted, 0 for all of them. */
+  @Param({"4", "0"})
+  private int top;
+
+  /** The stats collection. */
+  private StatsCollection statsCollection;
+
+  /** The provider. */
+  private MultipleSeriesProvider provider;
+
+  /**
+   * Sets the stats and the provider up.
+   */
+  @Setup
+  public void setUp() {
+    statsCollection = StatsData.newStatsCollection(apps, 240);
+    provider = new MultipleSeriesProvider();
+    provider.setMovingAvgFrame(10);
+    provider.setStatNamePrefix("app.requests.");
+    provider.setTop(top);
+  }
+
+  /**
+   * Populates the dataset.
+   *
+   * @return the dataset
+   */
+  @Benchmark
+  public DefaultTableXYDataset populate() {
+    DefaultTableXYDataset dataset = new DefaultTableXYDataset();
+    provider.populate(dataset, statsCollection, null);
+    return dataset;
+  }
+
+}
@@ -0,0 +1,194 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.tools.Instruments;
+
+/**
+ * Sizes the attributes of sessions of a shop like application: a user profile, a cart, a browsing
+ * history, a captcha image and a few small values, some of them shared by all the sessions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SizeOfBenchmark {
+
+  /** The number of sessions. */
+  @Param({"100", "1000"})
+  private int sessions;
+
+  /** The number of items in a cart. */
+  @Param({"10", "100"})
+  private int cartItems;
+
+  /** The attributes of the sessions. */
+  private List<Map<String, Object>> attributes;
+
+  /**
+   * Sets the sessions up.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(sessions * 31L + cartItems);
+    List<Item> catalog = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      catalog.add(new Item("SKU-" + i, "Product number " + i, new BigDecimal(random.nextInt(10000))
+          .movePointLeft(2)));
+    }
+    attributes = new ArrayList<>(sessions);
+    for (int s = 0; s < sessions; s++) {
+      Map<String, Object> session = new LinkedHashMap<>();
+      Profile profile = new Profile();
+      profile.login = "user" + s;
+      profile.email = "user" + s + "@example.com";
+      profile.locale = Locale.ENGLISH;
+      profile.roles.add("customer");
+      profile.preferences.put("currency", "EUR");
+      profile.preferences.put("newsletter", Boolean.TRUE);
+      session.put("user", profile);
+      List<Item> cart = new ArrayList<>();
+      for (int i = 0; i < cartItems; i++) {
+        cart.add(catalog.get(random.nextInt(catalog.size())));
+      }
+      session.put("cart", cart);
+      LinkedList<String> history = new LinkedList<>();
+      for (int i = 0; i < 20; i++) {
+        history.add("/product/" + random.nextInt(catalog.size()));
+      }
+      session.put("history", history);
+      session.put("captcha", new byte[4096]);
+      session.put("csrfToken", Long.toHexString(random.nextLong()));
+      session.put("visits", Integer.valueOf(random.nextInt(100)));
+      attributes.add(session);
+    }
+  }
+
+  /**
+   * Sizes every attribute on its own.
+   *
+   * @return the total size
+   */
+  @Benchmark
+  public long sizeOfAttributes() {
+    long size = 0;
+    for (Map<String, Object> session : attributes) {
+      for (Map.Entry<String, Object> attribute : session.entrySet()) {
+        size += Instruments.sizeOf(attribute.getKey());
+        size += Instruments.sizeOf(attribute.getValue());
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Sizes the attributes of each session together, objects shared by its attributes being
+   * counted once, as the session list does.
+   *
+   * @return the total size
+   */
+  @Benchmark
+  public long sizeOfSessions() {
+    long size = 0;
+    for (Map<String, Object> session : attributes) {
+      Set<Object> processedObjects = new HashSet<>(1000);
+      for (Map.Entry<String, Object> attribute : session.entrySet()) {
+        size += Instruments.sizeOf(attribute.getKey(), processedObjects);
+        size += Instruments.sizeOf(attribute.getValue(), processedObjects);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * A user profile.
+   */
+  static class Profile implements Serializable {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The login. */
+    String login;
+
+    /** The email. */
+    String email;
+
+    /** The locale. */
+    Locale locale;
+
+    /** The roles. */
+    final List<String> roles = new ArrayList<>();
+
+    /** The preferences. */
+    final Map<String, Object> preferences = new HashMap<>();
+
+  }
+
+  /**
+   * An item of the catalog.
+   */
+  static class Item implements Serializable {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The sku. */
+    final String sku;
+
+    /** The name. */
+    final String name;
+
+    /** The price. */
+    final BigDecimal price;
+
+    /**
+     * Instantiates a new item.
+     *
+     * @param sku the sku
+     * @param name the name
+     * @param price the price
+     */
+    Item(String sku, String name, BigDecimal price) {
+      this.sku = sku;
+      this.name = name;
+      this.price = price;
+    }
+
+  }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jfree.data.xy.XYDataItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.Utils;
+import psiprobe.model.stats.StatsCollection;
+
+/**
+ * Reads, writes to disk and reads back from disk the stats of a server hosting many applications.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsCollectionBenchmark {
+
+  /** The number of applications. */
+  @Param({"100", "500"})
+  private int apps;
+
+  /** The number of samples of each series, two hours worth by default. */
+  @Param({"240"})
+  private int points;
+
+  /** The stats collection. */
+  private StatsCollection statsCollection;
+
+  /** The directory the stats are written to. */
+  private File storage;
+
+  /** The name of the application whose stats are read. */
+  private String appName;
+
+  /**
+   * Sets the stats up and writes them once, so that there is a file to read back.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   * @throws InterruptedException the interrupted exception
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, InterruptedException {
+    storage = Files.createTempDirectory("psi-probe-stats").toFile();
+    statsCollection = StatsData.newStatsCollection(apps, points);
+    statsCollection.setStoragePath(storage.getAbsolutePath());
+    statsCollection.setSwapFileName("stats.xml");
+    statsCollection.serialize();
+    appName = StatsData.appName(apps / 2);
+  }
+
+  /**
+   * Deletes the files written.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    Utils.delete(storage);
+  }
+
+  /**
+   * Gets the series of every application with a prefix, as the charts of all applications do.
+   *
+   * @return the series
+   */
+  @Benchmark
+  public Map<String, List<XYDataItem>> getStatsByPrefix() {
+    return statsCollection.getStatsByPrefix("app.requests.");
+  }
+
+  /**
+   * Gets the last value of the series of one application, as the application list does.
+   *
+   * @return the last value
+   */
+  @Benchmark
+  public long getLastValueForStat() {
+    return statsCollection.getLastValueForStat("app.requests." + appName);
+  }
+
+  /**
+   * Writes the stats to disk.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10)
+  public void serialize() throws InterruptedException {
+    statsCollection.serialize();
+  }
+
+  /**
+   * Reads the stats back from disk, as happens when the application starts.
+   *
+   * @return the stats collection read
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10)
+  public StatsCollection deserialize() {
+    StatsCollection restored = new StatsCollection();
+    restored.setStoragePath(storage.getAbsolutePath());
+    restored.setSwapFileName("stats.xml");
+    restored.afterPropertiesSet();
+    return restored;
+  }
+
+}
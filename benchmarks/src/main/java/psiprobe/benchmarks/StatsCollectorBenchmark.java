@@ -0,0 +1,130 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.beans.stats.collectors.AbstractStatsCollectorBean;
+
+/**
+ * Appends one sample to every series of every application, as a collection pass of the
+ * application stats collector does once the series are full and the oldest sample goes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsCollectorBenchmark {
+
+  /** The number of applications. */
+  @Param({"100", "500"})
+  private int apps;
+
+  /** The collector. */
+  private Collector collector;
+
+  /** The stat names, by application and series. */
+  private String[][] names;
+
+  /** The time of the next pass. */
+  private long time;
+
+  /** The counter the deltas are built from. */
+  private long counter;
+
+  /**
+   * Sets the collector up with full series.
+   */
+  @Setup
+  public void setUp() {
+    collector = new Collector();
+    collector.setStatsCollection(StatsData.newStatsCollection(apps, collector.getMaxSeries()));
+    names = new String[apps][StatsData.APP_SERIES.length];
+    for (int app = 0; app < apps; app++) {
+      for (int i = 0; i < StatsData.APP_SERIES.length; i++) {
+        names[app][i] = StatsData.APP_SERIES[i] + StatsData.appName(app);
+      }
+    }
+    time = System.currentTimeMillis();
+  }
+
+  /**
+   * Builds the delta stats of every series.
+   *
+   * @return the sum of the deltas
+   * @throws InterruptedException the interrupted exception
+   */
+  @Benchmark
+  public long buildDeltaStats() throws InterruptedException {
+    time += StatsData.INTERVAL;
+    counter += 7;
+    long sum = 0;
+    for (String[] appNames : names) {
+      for (String name : appNames) {
+        sum += collector.buildDeltaStats(name, counter, time);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Builds the absolute stats of every series.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Benchmark
+  public void buildAbsoluteStats() throws InterruptedException {
+    time += StatsData.INTERVAL;
+    counter += 7;
+    for (String[] appNames : names) {
+      for (String name : appNames) {
+        collector.buildAbsoluteStats(name, counter, time);
+      }
+    }
+  }
+
+  /**
+   * Exposes the stats building methods of the collectors.
+   */
+  static class Collector extends AbstractStatsCollectorBean {
+
+    @Override
+    public void collect() {
+      // driven by the benchmark
+    }
+
+    @Override
+    protected long buildDeltaStats(String name, long value, long time)
+        throws InterruptedException {
+      return super.buildDeltaStats(name, value, time);
+    }
+
+    @Override
+    protected void buildAbsoluteStats(String name, long value, long time)
+        throws InterruptedException {
+      super.buildAbsoluteStats(name, value, time);
+    }
+
+  }
+
+}
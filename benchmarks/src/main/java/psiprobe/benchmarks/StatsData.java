@@ -0,0 +1,74 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import org.jfree.data.xy.XYDataItem;
+import psiprobe.model.stats.StatsCollection;
+
+/**
+ * Generates the stats of a server hosting many applications, the way the collectors name them.
+ * The values are random but the same from one run to the next, so that runs can be compared.
+ */
+public final class StatsData {
+
+  /** The series collected for every application. */
+  public static final String[] APP_SERIES = {"app.requests.", "app.errors.", "app.proc_time.",
+      "app.avg_proc_time.", "app.sessions.active.", "app.sessions.created.",
+      "app.sessions.expired.", "app.sessions.rejected.", "app.sessions.alive_time.",
+      "app.heap.sessions."};
+
+  /** The interval between two samples, as collected by default. */
+  public static final long INTERVAL = 30000;
+
+  /**
+   * Prevent Instantiation.
+   */
+  private StatsData() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Gets the name of an application.
+   *
+   * @param app the index of the application
+   * @return the application name
+   */
+  public static String appName(int app) {
+    return "/app" + app;
+  }
+
+  /**
+   * Creates a stats collection holding every series of every application.
+   *
+   * @param apps the number of applications
+   * @param points the number of samples of each series
+   * @return the stats collection
+   */
+  public static StatsCollection newStatsCollection(int apps, int points) {
+    StatsCollection statsCollection = new StatsCollection();
+    Random random = new Random(apps * 31L + points);
+    long start = System.currentTimeMillis() - points * INTERVAL;
+    for (int app = 0; app < apps; app++) {
+      // a few busy applications and a long tail of quiet ones
+      int load = app % 10 == 0 ? 1000 : 10;
+      for (String prefix : APP_SERIES) {
+        List<XYDataItem> stats = statsCollection.newStats(prefix + appName(app), points);
+        for (int i = 0; i < points; i++) {
+          stats.add(new XYDataItem(start + i * INTERVAL, random.nextInt(load)));
+        }
+      }
+    }
+    return statsCollection;
+  }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.Utils;
+import psiprobe.beans.SourceHighlighterBean;
+import psiprobe.model.HighlightedSource;
+
+/**
+ * Tokenizes and highlights the source of a JSP, as viewing it does: finding its encoding from its
+ * directives, highlighting it, getting it again from the cache and writing a window of its lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+  /** The number of lines of the JSP. */
+  @Param({"500", "20000"})
+  private int lines;
+
+  /** The JSP. */
+  private byte[] jsp;
+
+  /** The highlighter, holding the JSP in its cache. */
+  private SourceHighlighterBean highlighter;
+
+  /** The highlighted JSP. */
+  private HighlightedSource source;
+
+  /**
+   * Generates the JSP and highlights it once.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    StringBuilder sb = new StringBuilder(lines * 60);
+    sb.append("<%@ page contentType=\"text/html;charset=UTF-8\" session=\"false\" %>\n");
+    sb.append("<%@ taglib uri=\"http://java.sun.com/jsp/jstl/core\" prefix=\"c\" %>\n");
+    sb.append("<%@ taglib uri=\"http://java.sun.com/jsp/jstl/fmt\" prefix=\"fmt\" %>\n");
+    for (int i = 3; i < lines; i++) {
+      switch (i % 8) {
+        case 0:
+          sb.append("<%@ include file=\"/WEB-INF/jspf/part").append(i).append(".jspf\" %>\n");
+          break;
+        case 1:
+          sb.append("<c:forEach items=\"${items}\" var=\"item\" varStatus=\"status\">\n");
+          break;
+        case 2:
+          sb.append("  <tr class=\"${status.index % 2 == 0 ? 'even' : 'odd'}\">\n");
+          break;
+        case 3:
+          sb.append("    <td><c:out value=\"${item.name}\"/></td>\n");
+          break;
+        case 4:
+          sb.append("    <td><fmt:formatNumber value=\"${item.price}\"/></td>\n");
+          break;
+        case 5:
+          sb.append("    <% int total").append(i).append(" = 0; // scriptlet %>\n");
+          break;
+        case 6:
+          sb.append("  </tr>\n");
+          break;
+        default:
+          sb.append("</c:forEach>\n");
+          break;
+      }
+    }
+    jsp = sb.toString().getBytes(StandardCharsets.UTF_8);
+    highlighter = new SourceHighlighterBean();
+    source = cachedSource();
+  }
+
+  /**
+   * Finds the encoding of the JSP from its directives.
+   *
+   * @return the encoding
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public String getJspEncoding() throws IOException {
+    return Utils.getJspEncoding(new ByteArrayInputStream(jsp));
+  }
+
+  /**
+   * Highlights the JSP.
+   *
+   * @return the highlighted lines
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public String[] highlightLines() throws IOException {
+    return Utils.highlightLines("test.jsp", new ByteArrayInputStream(jsp), "xhtml", "UTF-8");
+  }
+
+  /**
+   * Gets the highlighted JSP from the cache of the highlighter.
+   *
+   * @return the highlighted source
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public HighlightedSource cachedSource() throws IOException {
+    return highlighter.getSource("/test.jsp", 1L, "UTF-8", "xhtml",
+        new SourceHighlighterBean.SourceStream() {
+          @Override
+          public InputStream open() {
+            return new ByteArrayInputStream(jsp);
+          }
+        });
+  }
+
+  /**
+   * Writes the first window of lines of the highlighted JSP.
+   *
+   * @return the number of characters written
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Benchmark
+  public long writeWindow() throws IOException {
+    NullWriter out = new NullWriter();
+    source.write(out, 1, HighlightedSource.DEFAULT_WINDOW);
+    return out.getCount();
+  }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.benchmarks;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.json.JsonWriter;
+import com.thoughtworks.xstream.io.xml.CompactWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import psiprobe.model.Application;
+import psiprobe.model.TransportableModel;
+
+/**
+ * Renders the model of the application list as XML and JSON, with one serializer shared by all
+ * requests as the bean to XML controller does, and with a serializer made for each request as it
+ * used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportableModelBenchmark {
+
+  /** The JSON format of the controller. */
+  private static final JsonWriter.Format JSON_FORMAT =
+      new JsonWriter.Format(new char[0], new char[0], JsonWriter.Format.COMPACT_EMPTY_ELEMENT);
+
+  /** The number of applications. */
+  @Param({"10", "300"})
+  private int apps;
+
+  /** The shared serializer. */
+  private XStream xstream;
+
+  /** The model. */
+  private TransportableModel model;
+
+  /**
+   * Sets the model and the shared serializer up.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(apps);
+    List<Application> applications = new ArrayList<>(apps);
+    for (int i = 0; i < apps; i++) {
+      Application app = new Application();
+      app.setName(StatsData.appName(i));
+      app.setDisplayName("Application " + i);
+      app.setDocBase("/opt/tomcat/webapps/app" + i);
+      app.setAvailable(true);
+      app.setSessionCount(random.nextInt(1000));
+      app.setSessionAttributeCount(random.nextInt(10000));
+      app.setSessionTimeout(30);
+      app.setServletVersion("3.1");
+      app.setServletCount(random.nextInt(20));
+      app.setRequestCount(random.nextInt(1000000));
+      app.setProcessingTime(random.nextInt(100000000));
+      app.setErrorCount(random.nextInt(100));
+      app.setMinTime(random.nextInt(10));
+      app.setMaxTime(random.nextInt(60000));
+      app.setAvgTime(random.nextInt(1000));
+      applications.add(app);
+    }
+    Map<String, Object> items = new HashMap<>();
+    items.put("apps", applications);
+    model = new TransportableModel();
+    model.putAll(items);
+    xstream = newXStream();
+  }
+
+  /**
+   * Renders the model as XML with the shared serializer.
+   *
+   * @return the number of characters written
+   */
+  @Benchmark
+  public long sharedXml() {
+    return marshal(xstream, false);
+  }
+
+  /**
+   * Renders the model as XML with a serializer of its own.
+   *
+   * @return the number of characters written
+   */
+  @Benchmark
+  public long newXml() {
+    return marshal(newXStream(), false);
+  }
+
+  /**
+   * Renders the model as JSON with the shared serializer.
+   *
+   * @return the number of characters written
+   */
+  @Benchmark
+  public long sharedJson() {
+    return marshal(xstream, true);
+  }
+
+  /**
+   * Renders the model as JSON with a serializer of its own.
+   *
+   * @return the number of characters written
+   */
+  @Benchmark
+  public long newJson() {
+    return marshal(newXStream(), true);
+  }
+
+  /**
+   * Renders the model the way the controller does.
+   *
+   * @param serializer the serializer
+   * @param json whether to render JSON rather than XML
+   * @return the number of characters written
+   */
+  private long marshal(XStream serializer, boolean json) {
+    NullWriter out = new NullWriter();
+    HierarchicalStreamWriter writer =
+        json ? new JsonWriter(out, JsonWriter.DROP_ROOT_MODE, JSON_FORMAT)
+            : new CompactWriter(out);
+    serializer.marshal(model, writer);
+    writer.flush();
+    return out.getCount();
+  }
+
+  /**
+   * Creates a serializer configured as the controller does.
+   *
+   * @return the XStream
+   */
+  private static XStream newXStream() {
+    XStream xstream = new XStream();
+    XStream.setupDefaultSecurity(xstream);
+    xstream.allowTypesByWildcard(new String[] {"psiprobe.**"});
+    return xstream;
+  }
+
+}
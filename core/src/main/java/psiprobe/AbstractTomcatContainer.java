@@ -20,10 +20,18 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
@@ -46,10 +54,12 @@ import org.apache.jasper.compiler.JspRuntimeContext;
 import org.apache.naming.ContextBindings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.ClassUtils;
 import psiprobe.model.FilterMapping;
 import psiprobe.model.jsp.Item;
 import psiprobe.model.jsp.Summary;
+import psiprobe.tools.SessionSizeCache;
 
 /**
  * Abstraction layer to implement some functionality, which is common between different container
@@ -75,6 +85,18 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
   /** The mbean server. */
   protected MBeanServer mbeanServer;
 
+  /** The maximum number of threads compiling JSPs at once, shared by all contexts. */
+  private int jspCompilerThreads = Runtime.getRuntime().availableProcessors();
+
+  /** The threads compiling JSPs, created on first use. */
+  private ThreadPoolExecutor jspCompilerExecutor;
+
+  /** The thread running background compilations of contexts one after another. */
+  private ThreadPoolExecutor jspCompilationExecutor;
+
+  /** The summaries of the compilations in progress by context name. */
+  private final ConcurrentMap<String, Summary> jspCompilations = new ConcurrentHashMap<>();
+
   /** The Enum FilterMapType. */
   public enum FilterMapType {
 
@@ -103,6 +125,79 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
       mbeanServer = ManagementFactory.getPlatformMBeanServer();
     } else if (host != null) {
       host.getPipeline().removeValve(valve);
+      SessionSizeCache.getInstance().unwatchAll();
+      shutdownJspCompilers();
+    }
+  }
+
+  /**
+   * Gets the jsp compiler threads.
+   *
+   * @return the jsp compiler threads
+   */
+  public int getJspCompilerThreads() {
+    return jspCompilerThreads;
+  }
+
+  /**
+   * Sets the jsp compiler threads.
+   *
+   * @param jspCompilerThreads the new jsp compiler threads
+   */
+  public void setJspCompilerThreads(int jspCompilerThreads) {
+    this.jspCompilerThreads = jspCompilerThreads;
+  }
+
+  /**
+   * Gets the threads compiling JSPs, whose number is bounded whatever the number of compilations
+   * in progress. Idle threads do not stay around.
+   *
+   * @return the jsp compiler executor
+   */
+  protected synchronized ExecutorService getJspCompilerExecutor() {
+    if (jspCompilerExecutor == null) {
+      CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("psi-probe-jsp-");
+      threadFactory.setDaemon(true);
+      int threads = Math.max(1, jspCompilerThreads);
+      jspCompilerExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), threadFactory);
+      jspCompilerExecutor.allowCoreThreadTimeOut(true);
+    }
+    return jspCompilerExecutor;
+  }
+
+  /**
+   * Gets the thread running background compilations. Compilations of several contexts wait for
+   * each other, as each of them already keeps all the compiler threads busy.
+   *
+   * @return the jsp compilation executor
+   */
+  protected synchronized ExecutorService getJspCompilationExecutor() {
+    if (jspCompilationExecutor == null) {
+      CustomizableThreadFactory threadFactory =
+          new CustomizableThreadFactory("psi-probe-jsp-compile-");
+      threadFactory.setDaemon(true);
+      jspCompilationExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), threadFactory);
+      jspCompilationExecutor.allowCoreThreadTimeOut(true);
+    }
+    return jspCompilationExecutor;
+  }
+
+  /**
+   * Stops the JSP compiler threads, cancelling the compilations in progress.
+   */
+  private synchronized void shutdownJspCompilers() {
+    for (Summary summary : jspCompilations.values()) {
+      summary.setCancelled(true);
+    }
+    if (jspCompilationExecutor != null) {
+      jspCompilationExecutor.shutdownNow();
+      jspCompilationExecutor = null;
+    }
+    if (jspCompilerExecutor != null) {
+      jspCompilerExecutor.shutdownNow();
+      jspCompilerExecutor = null;
     }
   }
 
@@ -330,10 +425,26 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
     ServletConfig servletConfig = (ServletConfig) context.findChild("jsp");
     if (servletConfig != null) {
       if (summary != null) {
-        synchronized (servletConfig) {
+        if (jspCompilations.putIfAbsent(context.getName(), summary) != null) {
+          logger.info("JSPs of '{}' are being compiled already, request ignored",
+              context.getName());
+          return;
+        }
+        summary.setCancelled(false);
+        try {
           ServletContext sctx = context.getServletContext();
           Options opt = new EmbeddedServletOptions(servletConfig, sctx);
 
+          List<Item> items = new ArrayList<>();
+          for (String name : names) {
+            Item item = summary.getItems().get(name);
+            if (item != null) {
+              items.add(item);
+            } else {
+              logger.error("{} is not on the summary list, ignored", name);
+            }
+          }
+
           JspRuntimeContext jrctx = new JspRuntimeContext(sctx, opt);
           /*
            * we need to pass context classloader here, so the jsps can reference /WEB-INF/classes
@@ -341,38 +452,14 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
            */
           try (URLClassLoader classLoader =
               new URLClassLoader(new URL[0], context.getLoader().getClassLoader())) {
-            for (String name : names) {
-              long time = System.currentTimeMillis();
-              JspCompilationContext jcctx =
-                  createJspCompilationContext(name, opt, sctx, jrctx, classLoader);
-              ClassLoader prevCl = ClassUtils.overrideThreadContextClassLoader(classLoader);
-              try {
-                Item item = summary.getItems().get(name);
-                if (item != null) {
-                  try {
-                    org.apache.jasper.compiler.Compiler compiler = jcctx.createCompiler();
-                    compiler.compile();
-                    item.setState(Item.STATE_READY);
-                    item.setException(null);
-                    logger.info("Compiled '{}': OK", name);
-                  } catch (Exception e) {
-                    item.setState(Item.STATE_FAILED);
-                    item.setException(e);
-                    logger.error("Compiled '{}': FAILED", name, e);
-                  }
-                  item.setCompileTime(System.currentTimeMillis() - time);
-                } else {
-                  logger.error("{} is not on the summary list, ignored", name);
-                }
-              } finally {
-                ClassUtils.overrideThreadContextClassLoader(prevCl);
-              }
-            }
+            compileItems(items, opt, context, jrctx, summary, classLoader, true, true);
           } catch (IOException e) {
             this.logger.error("", e);
           } finally {
             jrctx.destroy();
           }
+        } finally {
+          jspCompilations.remove(context.getName(), summary);
         }
       } else {
         logger.error("summary is null for '{}', request ignored", context.getName());
@@ -384,45 +471,108 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
 
   @Override
   public void listContextJsps(Context context, Summary summary, boolean compile) {
+    if (!compile) {
+      if (jspCompilations.get(context.getName()) != summary) {
+        // a cancel only applies to the run it was asked for
+        summary.setCancelled(false);
+      }
+      listJsps(context, summary, false);
+    } else if (jspCompilations.putIfAbsent(context.getName(), summary) == null) {
+      summary.setCancelled(false);
+      try {
+        listJsps(context, summary, true);
+      } finally {
+        jspCompilations.remove(context.getName(), summary);
+      }
+    } else {
+      logger.info("JSPs of '{}' are being compiled already, request ignored", context.getName());
+    }
+  }
+
+  @Override
+  public Summary compileContextJsps(final Context context, final Summary summary) {
+    Summary inProgress = jspCompilations.putIfAbsent(context.getName(), summary);
+    if (inProgress != null) {
+      return inProgress;
+    }
+    summary.setCancelled(false);
+    summary.setRunning(true);
+    try {
+      getJspCompilationExecutor().execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            if (!summary.isCancelled()) {
+              listJsps(context, summary, true);
+            }
+          } finally {
+            summary.setRunning(false);
+            jspCompilations.remove(context.getName(), summary);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.error("Could not start compiling JSPs of '{}'", context.getName(), e);
+      summary.setRunning(false);
+      jspCompilations.remove(context.getName(), summary);
+    }
+    return summary;
+  }
+
+  /**
+   * Lists and optionally compiles all JSPs of a context. Compiling is not guarded against another
+   * compilation of the same context here.
+   *
+   * @param context the context
+   * @param summary the summary in which the output is stored
+   * @param compile whether to compile all of the JSPs or not
+   */
+  private void listJsps(Context context, Summary summary, boolean compile) {
     ServletConfig servletConfig = (ServletConfig) context.findChild("jsp");
     if (servletConfig != null) {
-      synchronized (servletConfig) {
-        ServletContext sctx = context.getServletContext();
-        Options opt = new EmbeddedServletOptions(servletConfig, sctx);
+      ServletContext sctx = context.getServletContext();
+      Options opt = new EmbeddedServletOptions(servletConfig, sctx);
 
-        JspRuntimeContext jrctx = new JspRuntimeContext(sctx, opt);
-        try {
-          if (summary.getItems() == null) {
-            summary.setItems(new HashMap<String, Item>());
-          }
+      JspRuntimeContext jrctx = new JspRuntimeContext(sctx, opt);
+      try {
+        /*
+         * compiler threads update the items concurrently
+         */
+        if (summary.getItems() == null) {
+          summary.setItems(new ConcurrentHashMap<String, Item>());
+        } else if (!(summary.getItems() instanceof ConcurrentHashMap)) {
+          summary.setItems(new ConcurrentHashMap<>(summary.getItems()));
+        }
 
-          /*
-           * mark all items as missing
-           */
-          for (Item item : summary.getItems().values()) {
-            item.setMissing(true);
-          }
+        /*
+         * mark all items as missing
+         */
+        for (Item item : summary.getItems().values()) {
+          item.setMissing(true);
+        }
 
-          /*
-           * we need to pass context classloader here, so the jsps can reference /WEB-INF/classes
-           * and /WEB-INF/lib. JspCompilationContext would only take URLClassLoader, so we fake it
-           */
-          try (URLClassLoader urlcl =
-              new URLClassLoader(new URL[0], context.getLoader().getClassLoader())) {
+        List<Item> items = new ArrayList<>();
+        listItems("/", opt, context, summary, 0, items);
 
-            compileItem("/", opt, context, jrctx, summary, urlcl, 0, compile);
-          } catch (IOException e) {
-            this.logger.error("", e);
-          }
-        } finally {
-          jrctx.destroy();
+        /*
+         * we need to pass context classloader here, so the jsps can reference /WEB-INF/classes
+         * and /WEB-INF/lib. JspCompilationContext would only take URLClassLoader, so we fake it
+         */
+        try (URLClassLoader urlcl =
+            new URLClassLoader(new URL[0], context.getLoader().getClassLoader())) {
+
+          compileItems(items, opt, context, jrctx, summary, urlcl, compile, false);
+        } catch (IOException e) {
+          this.logger.error("", e);
         }
+      } finally {
+        jrctx.destroy();
       }
 
       //
       // delete "missing" items by keeping "not missing" ones
       //
-      Map<String, Item> hashMap = new HashMap<>();
+      Map<String, Item> hashMap = new ConcurrentHashMap<>();
       for (String key : summary.getItems().keySet()) {
         Item item = summary.getItems().get(key);
         if (!item.isMissing()) {
@@ -485,19 +635,18 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
   }
 
   /**
-   * Lists and optionally compiles a directory recursively.
+   * Lists a directory recursively, adding the JSPs found to the summary and to the list of items
+   * to be processed. Nothing is compiled here, so the resource tree is walked only once.
    *
-   * @param jspName name of JSP file or directory to be listed and compiled.
+   * @param jspName name of JSP file or directory to be listed.
    * @param opt the JSP compiler options
    * @param ctx the context
-   * @param jrctx the runtime context used to create the compilation context
    * @param summary the summary in which the output is stored
-   * @param classLoader the classloader used by the compiler
    * @param level the depth in the tree at which the item was encountered
-   * @param compile whether or not to compile the item or just to check whether it's out of date
+   * @param items the list the items found are added to
    */
-  protected void compileItem(String jspName, Options opt, Context ctx, JspRuntimeContext jrctx,
-      Summary summary, URLClassLoader classLoader, int level, boolean compile) {
+  protected void listItems(String jspName, Options opt, Context ctx, Summary summary, int level,
+      List<Item> items) {
     ServletContext sctx = ctx.getServletContext();
     Set<String> paths = sctx.getResourcePaths(jspName);
 
@@ -514,60 +663,140 @@ public abstract class AbstractTomcatContainer implements TomcatContainer {
         }
 
         if (isJsp) {
-          JspCompilationContext jcctx =
-              createJspCompilationContext(name, opt, sctx, jrctx, classLoader);
-          ClassLoader prevCl = ClassUtils.overrideThreadContextClassLoader(classLoader);
-          try {
-            Item item = summary.getItems().get(name);
+          Item item = summary.getItems().get(name);
 
-            if (item == null) {
-              item = new Item();
-              item.setName(name);
-            }
+          if (item == null) {
+            item = new Item();
+            item.setName(name);
+          }
 
-            item.setLevel(level);
-            item.setCompileTime(-1);
+          item.setLevel(level);
+          item.setCompileTime(-1);
 
-            Long[] objects = this.getResourceAttributes(name, ctx);
-            item.setSize(objects[0]);
-            item.setLastModified(objects[1]);
+          Long[] objects = this.getResourceAttributes(name, ctx);
+          item.setSize(objects[0]);
+          item.setLastModified(objects[1]);
 
-            long time = System.currentTimeMillis();
+          item.setMissing(false);
+          summary.getItems().put(name, item);
+          items.add(item);
+        } else {
+          listItems(name, opt, ctx, summary, level + 1, items);
+        }
+      }
+    } else {
+      logger.debug("getResourcePaths() is null for '{}'. Empty dir? Or Tomcat bug?", jspName);
+    }
+  }
+
+  /**
+   * Checks and optionally compiles the items on the compiler threads shared by all contexts.
+   * Progress is reported through the summary, which also lets the caller cancel the items not
+   * started yet.
+   *
+   * @param items the items to process
+   * @param opt the JSP compiler options
+   * @param ctx the context
+   * @param jrctx the runtime context used to create the compilation contexts
+   * @param summary the summary in which the output and progress are stored
+   * @param classLoader the classloader used by the compiler
+   * @param compile whether or not to compile the items or just to check whether they're out of
+   *        date
+   * @param force whether to compile the items even if they're up to date
+   */
+  protected void compileItems(List<Item> items, final Options opt, final Context ctx,
+      final JspRuntimeContext jrctx, final Summary summary, final URLClassLoader classLoader,
+      final boolean compile, final boolean force) {
+
+    summary.setTotal(items.size());
+    summary.setProcessed(0);
+    summary.setStartTime(System.currentTimeMillis());
+    summary.setRunning(true);
+
+    ExecutorService executor = getJspCompilerExecutor();
+    List<Future<?>> futures = new ArrayList<>(items.size());
+    try {
+      for (final Item item : items) {
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
             try {
-              org.apache.jasper.compiler.Compiler compiler = jcctx.createCompiler();
-              if (compile) {
-                compiler.compile();
-                item.setState(Item.STATE_READY);
-                item.setException(null);
-              } else {
-                if (!compiler.isOutDated()) {
-                  item.setState(Item.STATE_READY);
-                  item.setException(null);
-                } else if (item.getState() != Item.STATE_FAILED) {
-                  item.setState(Item.STATE_OOD);
-                  item.setException(null);
-                }
+              if (!summary.isCancelled()) {
+                compileItem(item, opt, ctx, jrctx, classLoader, compile, force);
               }
-              logger.info("Compiled '{}': OK", name);
-            } catch (Exception e) {
-              item.setState(Item.STATE_FAILED);
-              item.setException(e);
-              logger.info("Compiled '{}': FAILED", name, e);
+            } finally {
+              summary.incrementProcessed();
             }
-            if (compile) {
-              item.setCompileTime(System.currentTimeMillis() - time);
-            }
-            item.setMissing(false);
-            summary.getItems().put(name, item);
-          } finally {
-            ClassUtils.overrideThreadContextClassLoader(prevCl);
           }
-        } else {
-          compileItem(name, opt, ctx, jrctx, summary, classLoader, level + 1, compile);
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      logger.info("Compilation of '{}' interrupted", ctx.getName());
+      logger.trace("", e);
+      summary.setCancelled(true);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.error("Compilation of '{}' failed", ctx.getName(), e);
+    } catch (RejectedExecutionException e) {
+      logger.error("Compilation of '{}' could not be started", ctx.getName(), e);
+      summary.setCancelled(true);
+    } finally {
+      // the items left are skipped, while the threads go on with other contexts
+      for (Future<?> future : futures) {
+        future.cancel(false);
+      }
+      summary.setRunning(false);
+    }
+  }
+
+  /**
+   * Checks whether an item is out of date and compiles it if requested.
+   *
+   * @param item the item
+   * @param opt the JSP compiler options
+   * @param ctx the context
+   * @param jrctx the runtime context used to create the compilation context
+   * @param classLoader the classloader used by the compiler
+   * @param compile whether or not to compile the item or just to check whether it's out of date
+   * @param force whether to compile the item even if it's up to date
+   */
+  protected void compileItem(Item item, Options opt, Context ctx, JspRuntimeContext jrctx,
+      URLClassLoader classLoader, boolean compile, boolean force) {
+    String name = item.getName();
+    JspCompilationContext jcctx =
+        createJspCompilationContext(name, opt, ctx.getServletContext(), jrctx, classLoader);
+    ClassLoader prevCl = ClassUtils.overrideThreadContextClassLoader(classLoader);
+    try {
+      long time = System.currentTimeMillis();
+      try {
+        org.apache.jasper.compiler.Compiler compiler = jcctx.createCompiler();
+        boolean outDated = force || compiler.isOutDated();
+        if (compile && outDated) {
+          compiler.compile();
+          item.setState(Item.STATE_READY);
+          item.setException(null);
+          item.setCompileTime(System.currentTimeMillis() - time);
+          logger.info("Compiled '{}': OK", name);
+        } else if (!outDated) {
+          item.setState(Item.STATE_READY);
+          item.setException(null);
+        } else if (item.getState() != Item.STATE_FAILED) {
+          item.setState(Item.STATE_OOD);
+          item.setException(null);
         }
+      } catch (Exception e) {
+        item.setState(Item.STATE_FAILED);
+        item.setException(e);
+        if (compile) {
+          item.setCompileTime(System.currentTimeMillis() - time);
+        }
+        logger.info("Compiled '{}': FAILED", name, e);
       }
-    } else {
-      logger.debug("getResourcePaths() is null for '{}'. Empty dir? Or Tomcat bug?", jspName);
+    } finally {
+      ClassUtils.overrideThreadContextClassLoader(prevCl);
     }
   }
 
@@ -41,41 +41,73 @@ import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.theme.FixedThemeResolver;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
+import psiprobe.beans.ClassHistogramBean;
 import psiprobe.beans.ClusterWrapperBean;
 import psiprobe.beans.ContainerListenerBean;
 import psiprobe.beans.ContainerWrapperBean;
+import psiprobe.beans.DashboardBean;
 import psiprobe.beans.JBossResourceResolverBean;
 import psiprobe.beans.JvmMemoryInfoAccessorBean;
 import psiprobe.beans.LogResolverBean;
+import psiprobe.beans.LogSearchBean;
+import psiprobe.beans.OshiInfoAccessorBean;
 import psiprobe.beans.ResourceResolver;
 import psiprobe.beans.ResourceResolverBean;
 import psiprobe.beans.RuntimeInfoAccessorBean;
+import psiprobe.beans.SessionExpiryBean;
+import psiprobe.beans.SessionSizeEstimatorBean;
+import psiprobe.beans.SourceHighlighterBean;
+import psiprobe.beans.StuckRequestDetectorBean;
+import psiprobe.beans.ThreadDumpBean;
+import psiprobe.beans.stats.collectors.AppHeapStatsCollectorBean;
 import psiprobe.beans.stats.collectors.AppStatsCollectorBean;
+import psiprobe.beans.stats.collectors.ClassLoaderLeakCollectorBean;
 import psiprobe.beans.stats.collectors.ClusterStatsCollectorBean;
 import psiprobe.beans.stats.collectors.ConnectorStatsCollectorBean;
 import psiprobe.beans.stats.collectors.DatasourceStatsCollectorBean;
+import psiprobe.beans.stats.collectors.JvmGcStatsCollectorBean;
 import psiprobe.beans.stats.collectors.JvmMemoryStatsCollectorBean;
+import psiprobe.beans.stats.collectors.OshiStatsCollectorBean;
 import psiprobe.beans.stats.collectors.RuntimeStatsCollectorBean;
+import psiprobe.beans.stats.collectors.SessionStatsCollectorBean;
+import psiprobe.beans.stats.collectors.ThreadPoolStatsCollectorBean;
 import psiprobe.beans.stats.listeners.MemoryPoolMailingListener;
 import psiprobe.beans.stats.listeners.StatsCollectionListener;
+import psiprobe.beans.stats.listeners.ThreadDumpListener;
 import psiprobe.beans.stats.providers.ConnectorSeriesProvider;
 import psiprobe.beans.stats.providers.MultipleSeriesProvider;
 import psiprobe.beans.stats.providers.StandardSeriesProvider;
 import psiprobe.model.stats.StatsCollection;
+import psiprobe.scheduler.jobs.AppHeapStatsJobDetail;
 import psiprobe.scheduler.jobs.AppStatsJobDetail;
+import psiprobe.scheduler.jobs.ClassHistogramJobDetail;
+import psiprobe.scheduler.jobs.ClassLoaderLeakJobDetail;
 import psiprobe.scheduler.jobs.ClusterStatsJobDetail;
 import psiprobe.scheduler.jobs.ConnectorStatsJobDetail;
 import psiprobe.scheduler.jobs.DatasourceStatsJobDetail;
 import psiprobe.scheduler.jobs.MemoryStatsJobDetail;
+import psiprobe.scheduler.jobs.OshiStatsJobDetail;
 import psiprobe.scheduler.jobs.RuntimeStatsJobDetail;
+import psiprobe.scheduler.jobs.SessionSizeJobDetail;
+import psiprobe.scheduler.jobs.SessionStatsJobDetail;
 import psiprobe.scheduler.jobs.StatsSerializerJobDetail;
+import psiprobe.scheduler.jobs.StuckRequestJobDetail;
+import psiprobe.scheduler.jobs.ThreadPoolStatsJobDetail;
+import psiprobe.scheduler.triggers.AppHeapStatsTrigger;
 import psiprobe.scheduler.triggers.AppStatsTrigger;
+import psiprobe.scheduler.triggers.ClassHistogramTrigger;
+import psiprobe.scheduler.triggers.ClassLoaderLeakTrigger;
 import psiprobe.scheduler.triggers.ClusterStatsTrigger;
 import psiprobe.scheduler.triggers.ConnectorStatsTrigger;
 import psiprobe.scheduler.triggers.DatasourceStatsTrigger;
 import psiprobe.scheduler.triggers.MemoryStatsTrigger;
+import psiprobe.scheduler.triggers.OshiStatsTrigger;
 import psiprobe.scheduler.triggers.RuntimeStatsTrigger;
+import psiprobe.scheduler.triggers.SessionSizeTrigger;
+import psiprobe.scheduler.triggers.SessionStatsTrigger;
 import psiprobe.scheduler.triggers.StatsSerializerTrigger;
+import psiprobe.scheduler.triggers.StuckRequestTrigger;
+import psiprobe.scheduler.triggers.ThreadPoolStatsTrigger;
 import psiprobe.tools.Mailer;
 
 /**
@@ -246,6 +278,94 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new LogResolverBean();
   }
 
+  /**
+   * Gets the log search bean.
+   *
+   * @return the log search bean
+   */
+  @Bean(name = "logSearch")
+  public LogSearchBean getLogSearchBean() {
+    logger.debug("Instantiated logSearch");
+    return new LogSearchBean();
+  }
+
+  /**
+   * Gets the source highlighter bean.
+   *
+   * @return the source highlighter bean
+   */
+  @Bean(name = "sourceHighlighter")
+  public SourceHighlighterBean getSourceHighlighterBean() {
+    logger.debug("Instantiated sourceHighlighter");
+    return new SourceHighlighterBean();
+  }
+
+  /**
+   * Gets the dashboard bean.
+   *
+   * @return the dashboard bean
+   */
+  @Bean(name = "dashboard")
+  public DashboardBean getDashboardBean() {
+    logger.debug("Instantiated dashboard");
+    return new DashboardBean();
+  }
+
+  /**
+   * Gets the session size estimator bean.
+   *
+   * @return the session size estimator bean
+   */
+  @Bean(name = "sessionSizeEstimator")
+  public SessionSizeEstimatorBean getSessionSizeEstimatorBean() {
+    logger.debug("Instantiated sessionSizeEstimator");
+    return new SessionSizeEstimatorBean();
+  }
+
+  /**
+   * Gets the session expiry bean.
+   *
+   * @return the session expiry bean
+   */
+  @Bean(name = "sessionExpiry")
+  public SessionExpiryBean getSessionExpiryBean() {
+    logger.debug("Instantiated sessionExpiry");
+    return new SessionExpiryBean();
+  }
+
+  /**
+   * Gets the class histogram bean.
+   *
+   * @return the class histogram bean
+   */
+  @Bean(name = "classHistogram")
+  public ClassHistogramBean getClassHistogramBean() {
+    logger.debug("Instantiated classHistogram");
+    return new ClassHistogramBean();
+  }
+
+  /**
+   * Gets the stuck request detector bean.
+   *
+   * @return the stuck request detector bean
+   */
+  @Bean(name = "stuckRequestDetector")
+  public StuckRequestDetectorBean getStuckRequestDetectorBean() {
+    logger.debug("Instantiated stuckRequestDetector");
+    return new StuckRequestDetectorBean();
+  }
+
+  /**
+   * Gets the thread dump bean.
+   *
+   * @return the thread dump bean
+   */
+  @Bean(name = "threadDump")
+  public ThreadDumpBean getThreadDumpBean() {
+    logger.debug("Instantiated threadDump");
+    return new ThreadDumpBean();
+  }
+
   /**
    * Gets the stats collection.
    *
@@ -301,6 +421,17 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new AppStatsCollectorBean();
   }
 
+  /**
+   * Gets the session stats collector bean.
+   *
+   * @return the session stats collector bean
+   */
+  @Bean(name = "sessionStatsCollector")
+  public SessionStatsCollectorBean getSessionStatsCollectorBean() {
+    logger.debug("Instantiated sessionStatsCollector");
+    return new SessionStatsCollectorBean();
+  }
+
   /**
    * Gets the jvm memory stats collector bean.
    *
@@ -312,6 +443,50 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new JvmMemoryStatsCollectorBean();
   }
 
+  /**
+   * Gets the jvm gc stats collector bean.
+   *
+   * @return the jvm gc stats collector bean
+   */
+  @Bean(name = "gcStatsCollector")
+  public JvmGcStatsCollectorBean getJvmGcStatsCollectorBean() {
+    logger.debug("Instantiated gcStatsCollector");
+    return new JvmGcStatsCollectorBean();
+  }
+
+  /**
+   * Gets the class loader leak collector bean.
+   *
+   * @return the class loader leak collector bean
+   */
+  @Bean(name = "classLoaderLeakCollector")
+  public ClassLoaderLeakCollectorBean getClassLoaderLeakCollectorBean() {
+    logger.debug("Instantiated classLoaderLeakCollector");
+    return new ClassLoaderLeakCollectorBean();
+  }
+
+  /**
+   * Gets the thread pool stats collector bean.
+   *
+   * @return the thread pool stats collector bean
+   */
+  @Bean(name = "threadPoolStatsCollector")
+  public ThreadPoolStatsCollectorBean getThreadPoolStatsCollectorBean() {
+    logger.debug("Instantiated threadPoolStatsCollector");
+    return new ThreadPoolStatsCollectorBean();
+  }
+
+  /**
+   * Gets the app heap stats collector bean.
+   *
+   * @return the app heap stats collector bean
+   */
+  @Bean(name = "appHeapStatsCollector")
+  public AppHeapStatsCollectorBean getAppHeapStatsCollectorBean() {
+    logger.debug("Instantiated appHeapStatsCollector");
+    return new AppHeapStatsCollectorBean();
+  }
+
   /**
    * Gets the datasource stats collector bean.
    *
@@ -323,6 +498,17 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new DatasourceStatsCollectorBean();
   }
 
+  /**
+   * Gets the oshi stats collector bean.
+   *
+   * @return the oshi stats collector bean
+   */
+  @Bean(name = "oshiStatsCollector")
+  public OshiStatsCollectorBean getOshiStatsCollectorBean() {
+    logger.debug("Instantiated oshiStatsCollector");
+    return new OshiStatsCollectorBean();
+  }
+
   /**
    * Gets the jvm memory info accessor bean.
    *
@@ -345,16 +531,41 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new RuntimeInfoAccessorBean();
   }
 
+  /**
+   * Gets the oshi info accessor bean.
+   *
+   * @return the oshi info accessor bean
+   */
+  @Bean(name = "oshiInfoAccessor")
+  public OshiInfoAccessorBean getOshiInfoAccessorBean() {
+    logger.debug("Instantiated oshiInfoAccessorBean");
+    return new OshiInfoAccessorBean();
+  }
+
+  /**
+   * Gets the thread dump listener.
+   *
+   * @return the thread dump listener
+   */
+  @Bean(name = "threadDumpListener")
+  public ThreadDumpListener getThreadDumpListener() {
+    logger.debug("Instantiated threadDumpListener");
+    return new ThreadDumpListener();
+  }
+
   /**
    * Gets the memory pool mailing listener.
    *
+   * @param threadDumpListener the thread dump listener
    * @return the memory pool mailing listener
    */
   @Bean(name = "listeners")
-  public List<StatsCollectionListener> getMemoryPoolMailingListener() {
+  public List<StatsCollectionListener> getMemoryPoolMailingListener(
+      @Autowired ThreadDumpListener threadDumpListener) {
     logger.debug("Instantiated listeners");
     List<StatsCollectionListener> list = new ArrayList<>();
     list.add(new MemoryPoolMailingListener());
+    list.add(threadDumpListener);
     return list;
   }
 
@@ -528,6 +739,62 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the cl member time.
+   *
+   * @return the cl member time
+   */
+  @Bean(name = "cl_member_time")
+  public MultipleSeriesProvider getClMemberTime() {
+    logger.debug("Instantiated cl_member_time");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix(ClusterStatsCollectorBean.MEMBER_TIME_PREFIX);
+    provider.setTop(5);
+    return provider;
+  }
+
+  /**
+   * Gets the cl member queue.
+   *
+   * @return the cl member queue
+   */
+  @Bean(name = "cl_member_queue")
+  public MultipleSeriesProvider getClMemberQueue() {
+    logger.debug("Instantiated cl_member_queue");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix(ClusterStatsCollectorBean.MEMBER_QUEUE_PREFIX);
+    provider.setTop(5);
+    return provider;
+  }
+
+  /**
+   * Gets the cl member failures.
+   *
+   * @return the cl member failures
+   */
+  @Bean(name = "cl_member_failures")
+  public MultipleSeriesProvider getClMemberFailures() {
+    logger.debug("Instantiated cl_member_failures");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix(ClusterStatsCollectorBean.MEMBER_FAILURES_PREFIX);
+    provider.setTop(5);
+    return provider;
+  }
+
+  /**
+   * Gets the cl member sent.
+   *
+   * @return the cl member sent
+   */
+  @Bean(name = "cl_member_sent")
+  public MultipleSeriesProvider getClMemberSent() {
+    logger.debug("Instantiated cl_member_sent");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix(ClusterStatsCollectorBean.MEMBER_SENT_PREFIX);
+    provider.setTop(5);
+    return provider;
+  }
+
   /**
    * Gets the connector.
    *
@@ -545,6 +812,41 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the thread pool threads.
+   *
+   * @return the thread pool threads
+   */
+  @Bean(name = "threadpool_threads")
+  public StandardSeriesProvider getThreadPoolThreads() {
+    logger.debug("Instantiated threadpool_threads");
+    List<String> list = new ArrayList<>();
+    list.add(ThreadPoolStatsCollectorBean.PREFIX + "{0}.busy");
+    list.add(ThreadPoolStatsCollectorBean.PREFIX + "{0}.current");
+    list.add(ThreadPoolStatsCollectorBean.PREFIX + "{0}.max");
+    list.add(ThreadPoolStatsCollectorBean.PREFIX + "{0}.queue");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the thread pool saturation.
+   *
+   * @return the thread pool saturation
+   */
+  @Bean(name = "threadpool_saturation")
+  public StandardSeriesProvider getThreadPoolSaturation() {
+    logger.debug("Instantiated threadpool_saturation");
+    List<String> list = new ArrayList<>();
+    list.add(ThreadPoolStatsCollectorBean.PREFIX + "{0}.saturation");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
   /**
    * Gets the traffic.
    *
@@ -594,6 +896,53 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the gc pause.
+   *
+   * @return the gc pause
+   */
+  @Bean(name = "gc_pause")
+  public MultipleSeriesProvider getGcPause() {
+    logger.debug("Instantiated gc_pause");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix("gc.pause.");
+    provider.setTop(4);
+    return provider;
+  }
+
+  /**
+   * Gets the gc allocation.
+   *
+   * @return the gc allocation
+   */
+  @Bean(name = "gc_allocation")
+  public StandardSeriesProvider getGcAllocation() {
+    logger.debug("Instantiated gc_allocation");
+    List<String> list = new ArrayList<>();
+    list.add("gc.allocation.rate");
+    list.add("gc.promoted");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the leaked class loaders.
+   *
+   * @return the leaked class loaders
+   */
+  @Bean(name = "leaked_classloaders")
+  public StandardSeriesProvider getLeakedClassLoaders() {
+    logger.debug("Instantiated leaked_classloaders");
+    List<String> list = new ArrayList<>();
+    list.add(ClassLoaderLeakCollectorBean.LEAKED);
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
   /**
    * Gets the os memory.
    *
@@ -660,6 +1009,102 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the os load.
+   *
+   * @return the os load
+   */
+  @Bean(name = "os_load")
+  public StandardSeriesProvider getOsLoad() {
+    logger.debug("Instantiated os_load");
+    List<String> list = new ArrayList<>();
+    list.add("os.load");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the os disk io.
+   *
+   * @return the os disk io
+   */
+  @Bean(name = "os_disk_io")
+  public StandardSeriesProvider getOsDiskIo() {
+    logger.debug("Instantiated os_disk_io");
+    List<String> list = new ArrayList<>();
+    list.add("os.disk.read.{0}");
+    list.add("os.disk.write.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the os disk ops.
+   *
+   * @return the os disk ops
+   */
+  @Bean(name = "os_disk_ops")
+  public StandardSeriesProvider getOsDiskOps() {
+    logger.debug("Instantiated os_disk_ops");
+    List<String> list = new ArrayList<>();
+    list.add("os.disk.reads.{0}");
+    list.add("os.disk.writes.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the os net traffic.
+   *
+   * @return the os net traffic
+   */
+  @Bean(name = "os_net_traffic")
+  public StandardSeriesProvider getOsNetTraffic() {
+    logger.debug("Instantiated os_net_traffic");
+    List<String> list = new ArrayList<>();
+    list.add("os.net.received.{0}");
+    list.add("os.net.sent.{0}");
+    list.add("os.net.errors.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the all cpu core usage.
+   *
+   * @return the all cpu core usage
+   */
+  @Bean(name = "all_cpu_core_usage")
+  public MultipleSeriesProvider getAllCpuCoreUsage() {
+    logger.debug("Instantiated all_cpu_core_usage");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix("os.cpu.core.");
+    provider.setTop(8);
+    return provider;
+  }
+
+  /**
+   * Gets the all fs usage.
+   *
+   * @return the all fs usage
+   */
+  @Bean(name = "all_fs_usage")
+  public MultipleSeriesProvider getAllFsUsage() {
+    logger.debug("Instantiated all_fs_usage");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix("os.fs.used.");
+    provider.setTop(4);
+    return provider;
+  }
+
   /**
    * Gets the app req.
    *
@@ -693,6 +1138,77 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the app sessions.
+   *
+   * @return the app sessions
+   */
+  @Bean(name = "app_sessions")
+  public StandardSeriesProvider getAppSessions() {
+    logger.debug("Instantiated app_sessions");
+    List<String> list = new ArrayList<>();
+    list.add("app.sessions.active.{0}");
+    list.add("app.sessions.created.{0}");
+    list.add("app.sessions.expired.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the app heap.
+   *
+   * @return the app heap
+   */
+  @Bean(name = "app_heap")
+  public StandardSeriesProvider getAppHeap() {
+    logger.debug("Instantiated app_heap");
+    List<String> list = new ArrayList<>();
+    list.add(AppHeapStatsCollectorBean.PREFIX + "{0}");
+    list.add(AppHeapStatsCollectorBean.PREFIX + "context.{0}");
+    list.add(AppHeapStatsCollectorBean.PREFIX + "sessions.{0}");
+    list.add(AppHeapStatsCollectorBean.PREFIX + "statics.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the app session rates.
+   *
+   * @return the app session rates
+   */
+  @Bean(name = "app_session_rates")
+  public StandardSeriesProvider getAppSessionRates() {
+    logger.debug("Instantiated app_session_rates");
+    List<String> list = new ArrayList<>();
+    list.add("app.sessions.create_rate.{0}");
+    list.add("app.sessions.expire_rate.{0}");
+    list.add("app.sessions.rejected.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the app session alive time.
+   *
+   * @return the app session alive time
+   */
+  @Bean(name = "app_session_alive_time")
+  public StandardSeriesProvider getAppSessionAliveTime() {
+    logger.debug("Instantiated app_session_alive_time");
+    List<String> list = new ArrayList<>();
+    list.add("app.sessions.alive_time.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
   /**
    * Gets the total avg proc time.
    *
@@ -726,6 +1242,24 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the total sessions.
+   *
+   * @return the total sessions
+   */
+  @Bean(name = "total_sessions")
+  public StandardSeriesProvider getTotalSessions() {
+    logger.debug("Instantiated total_sessions");
+    List<String> list = new ArrayList<>();
+    list.add("total.sessions.active");
+    list.add("total.sessions.created");
+    list.add("total.sessions.expired");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
   /**
    * Gets the datasource usage.
    *
@@ -743,6 +1277,56 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the datasource waiting.
+   *
+   * @return the datasource waiting
+   */
+  @Bean(name = "datasource_waiting")
+  public StandardSeriesProvider getDatasourceWaiting() {
+    logger.debug("Instantiated datasource_waiting");
+    List<String> list = new ArrayList<>();
+    list.add("ds.waiting.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the datasource wait time.
+   *
+   * @return the datasource wait time
+   */
+  @Bean(name = "datasource_wait_time")
+  public StandardSeriesProvider getDatasourceWaitTime() {
+    logger.debug("Instantiated datasource_wait_time");
+    List<String> list = new ArrayList<>();
+    list.add("ds.wait.mean.{0}");
+    list.add("ds.wait.max.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
+  /**
+   * Gets the datasource throughput.
+   *
+   * @return the datasource throughput
+   */
+  @Bean(name = "datasource_throughput")
+  public StandardSeriesProvider getDatasourceThroughput() {
+    logger.debug("Instantiated datasource_throughput");
+    List<String> list = new ArrayList<>();
+    list.add("ds.borrowed.{0}");
+    list.add("ds.returned.{0}");
+
+    StandardSeriesProvider provider = new StandardSeriesProvider();
+    provider.setStatNames(list);
+    return provider;
+  }
+
   /**
    * Gets the all app avg proc time.
    *
@@ -773,6 +1357,20 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Gets the all app sessions.
+   *
+   * @return the all app sessions
+   */
+  @Bean(name = "all_app_sessions")
+  public MultipleSeriesProvider getAllAppSessions() {
+    logger.debug("Instantiated all_app_sessions");
+    MultipleSeriesProvider provider = new MultipleSeriesProvider();
+    provider.setStatNamePrefix("app.sessions.active.");
+    provider.setTop(4);
+    return provider;
+  }
+
   /**
    * Gets the connector stats job detail.
    *
@@ -806,6 +1404,50 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new MemoryStatsJobDetail();
   }
 
+  /**
+   * Gets the class loader leak job detail.
+   *
+   * @return the class loader leak job detail
+   */
+  @Bean(name = "classLoaderLeakJobDetail")
+  public ClassLoaderLeakJobDetail getClassLoaderLeakJobDetail() {
+    logger.debug("Instantiated classLoaderLeakJobDetail");
+    return new ClassLoaderLeakJobDetail();
+  }
+
+  /**
+   * Gets the thread pool stats job detail.
+   *
+   * @return the thread pool stats job detail
+   */
+  @Bean(name = "threadPoolStatsJobDetail")
+  public ThreadPoolStatsJobDetail getThreadPoolStatsJobDetail() {
+    logger.debug("Instantiated threadPoolStatsJobDetail");
+    return new ThreadPoolStatsJobDetail();
+  }
+
+  /**
+   * Gets the app heap stats job detail.
+   *
+   * @return the app heap stats job detail
+   */
+  @Bean(name = "appHeapStatsJobDetail")
+  public AppHeapStatsJobDetail getAppHeapStatsJobDetail() {
+    logger.debug("Instantiated appHeapStatsJobDetail");
+    return new AppHeapStatsJobDetail();
+  }
+
+  /**
+   * Gets the oshi stats job detail.
+   *
+   * @return the oshi stats job detail
+   */
+  @Bean(name = "oshiStatsJobDetail")
+  public OshiStatsJobDetail getOshiStatsJobDetail() {
+    logger.debug("Instantiated oshiStatsJobDetail");
+    return new OshiStatsJobDetail();
+  }
+
   /**
    * Gets the runtime stats job detail.
    *
@@ -817,6 +1459,50 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return new RuntimeStatsJobDetail();
   }
 
+  /**
+   * Gets the session stats job detail.
+   *
+   * @return the session stats job detail
+   */
+  @Bean(name = "sessionStatsJobDetail")
+  public SessionStatsJobDetail getSessionStatsJobDetail() {
+    logger.debug("Instantiated sessionStatsJobDetail");
+    return new SessionStatsJobDetail();
+  }
+
+  /**
+   * Gets the session size job detail.
+   *
+   * @return the session size job detail
+   */
+  @Bean(name = "sessionSizeJobDetail")
+  public SessionSizeJobDetail getSessionSizeJobDetail() {
+    logger.debug("Instantiated sessionSizeJobDetail");
+    return new SessionSizeJobDetail();
+  }
+
+  /**
+   * Gets the stuck request job detail.
+   *
+   * @return the stuck request job detail
+   */
+  @Bean(name = "stuckRequestJobDetail")
+  public StuckRequestJobDetail getStuckRequestJobDetail() {
+    logger.debug("Instantiated stuckRequestJobDetail");
+    return new StuckRequestJobDetail();
+  }
+
+  /**
+   * Gets the class histogram job detail.
+   *
+   * @return the class histogram job detail
+   */
+  @Bean(name = "classHistogramJobDetail")
+  public ClassHistogramJobDetail getClassHistogramJobDetail() {
+    logger.debug("Instantiated classHistogramJobDetail");
+    return new ClassHistogramJobDetail();
+  }
+
   /**
    * Gets the app stats job detail.
    *
@@ -889,6 +1575,58 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return trigger;
   }
 
+  /**
+   * Gets the class loader leak trigger.
+   *
+   * @return the class loader leak trigger
+   */
+  @Bean(name = "classLoaderLeakTrigger")
+  public ClassLoaderLeakTrigger getClassLoaderLeakTrigger() {
+    logger.debug("Instantiated classLoaderLeakTrigger");
+    ClassLoaderLeakTrigger trigger = new ClassLoaderLeakTrigger();
+    trigger.setJobDetail(getClassLoaderLeakJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the thread pool stats trigger.
+   *
+   * @return the thread pool stats trigger
+   */
+  @Bean(name = "threadPoolStatsTrigger")
+  public ThreadPoolStatsTrigger getThreadPoolStatsTrigger() {
+    logger.debug("Instantiated threadPoolStatsTrigger");
+    ThreadPoolStatsTrigger trigger = new ThreadPoolStatsTrigger();
+    trigger.setJobDetail(getThreadPoolStatsJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the app heap stats trigger.
+   *
+   * @return the app heap stats trigger
+   */
+  @Bean(name = "appHeapStatsTrigger")
+  public AppHeapStatsTrigger getAppHeapStatsTrigger() {
+    logger.debug("Instantiated appHeapStatsTrigger");
+    AppHeapStatsTrigger trigger = new AppHeapStatsTrigger();
+    trigger.setJobDetail(getAppHeapStatsJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the oshi stats trigger.
+   *
+   * @return the oshi stats trigger
+   */
+  @Bean(name = "oshiStatsTrigger")
+  public OshiStatsTrigger getOshiStatsTrigger() {
+    logger.debug("Instantiated oshiStatsTrigger");
+    OshiStatsTrigger trigger = new OshiStatsTrigger();
+    trigger.setJobDetail(getOshiStatsJobDetail().getObject());
+    return trigger;
+  }
+
   /**
    * Gets the runtime stats trigger.
    *
@@ -902,6 +1640,58 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
     return trigger;
   }
 
+  /**
+   * Gets the session stats trigger.
+   *
+   * @return the session stats trigger
+   */
+  @Bean(name = "sessionStatsTrigger")
+  public SessionStatsTrigger getSessionStatsTrigger() {
+    logger.debug("Instantiated sessionStatsTrigger");
+    SessionStatsTrigger trigger = new SessionStatsTrigger();
+    trigger.setJobDetail(getSessionStatsJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the session size trigger.
+   *
+   * @return the session size trigger
+   */
+  @Bean(name = "sessionSizeTrigger")
+  public SessionSizeTrigger getSessionSizeTrigger() {
+    logger.debug("Instantiated sessionSizeTrigger");
+    SessionSizeTrigger trigger = new SessionSizeTrigger();
+    trigger.setJobDetail(getSessionSizeJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the stuck request trigger.
+   *
+   * @return the stuck request trigger
+   */
+  @Bean(name = "stuckRequestTrigger")
+  public StuckRequestTrigger getStuckRequestTrigger() {
+    logger.debug("Instantiated stuckRequestTrigger");
+    StuckRequestTrigger trigger = new StuckRequestTrigger();
+    trigger.setJobDetail(getStuckRequestJobDetail().getObject());
+    return trigger;
+  }
+
+  /**
+   * Gets the class histogram trigger.
+   *
+   * @return the class histogram trigger
+   */
+  @Bean(name = "classHistogramTrigger")
+  public ClassHistogramTrigger getClassHistogramTrigger() {
+    logger.debug("Instantiated classHistogramTrigger");
+    ClassHistogramTrigger trigger = new ClassHistogramTrigger();
+    trigger.setJobDetail(getClassHistogramJobDetail().getObject());
+    return trigger;
+  }
+
   /**
    * Gets the app stats trigger.
    *
@@ -947,9 +1737,17 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
    * @param appStatsTrigger the app stats trigger
    * @param clusterStatsTrigger the cluster stats trigger
    * @param connectorStatsTrigger the connector stats trigger
+   * @param threadPoolStatsTrigger the thread pool stats trigger
    * @param datasourceStatsTrigger the datasource stats trigger
    * @param memoryStatsTrigger the memory stats trigger
+   * @param classLoaderLeakTrigger the class loader leak trigger
+   * @param appHeapStatsTrigger the app heap stats trigger
+   * @param oshiStatsTrigger the oshi stats trigger
    * @param runtimeStatsTrigger the runtime stats trigger
+   * @param sessionStatsTrigger the session stats trigger
+   * @param sessionSizeTrigger the session size trigger
+   * @param stuckRequestTrigger the stuck request trigger
+   * @param classHistogramTrigger the class histogram trigger
    * @param statsSerializerTrigger the stats serializer trigger
    * @return the scheduler factory bean
    */
@@ -957,9 +1755,17 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
   public SchedulerFactoryBean getSchedulerFactoryBean(@Autowired AppStatsTrigger appStatsTrigger,
       @Autowired ClusterStatsTrigger clusterStatsTrigger,
       @Autowired ConnectorStatsTrigger connectorStatsTrigger,
+      @Autowired ThreadPoolStatsTrigger threadPoolStatsTrigger,
       @Autowired DatasourceStatsTrigger datasourceStatsTrigger,
       @Autowired MemoryStatsTrigger memoryStatsTrigger,
+      @Autowired ClassLoaderLeakTrigger classLoaderLeakTrigger,
+      @Autowired AppHeapStatsTrigger appHeapStatsTrigger,
+      @Autowired OshiStatsTrigger oshiStatsTrigger,
       @Autowired RuntimeStatsTrigger runtimeStatsTrigger,
+      @Autowired SessionStatsTrigger sessionStatsTrigger,
+      @Autowired SessionSizeTrigger sessionSizeTrigger,
+      @Autowired StuckRequestTrigger stuckRequestTrigger,
+      @Autowired ClassHistogramTrigger classHistogramTrigger,
       @Autowired StatsSerializerTrigger statsSerializerTrigger) {
 
     logger.debug("Instantiated scheduler");
@@ -967,8 +1773,12 @@ public class ProbeConfig extends WebMvcConfigurerAdapter {
 
     // Add Triggers
     bean.setTriggers(appStatsTrigger.getObject(), clusterStatsTrigger.getObject(),
-        connectorStatsTrigger.getObject(), datasourceStatsTrigger.getObject(),
-        memoryStatsTrigger.getObject(), runtimeStatsTrigger.getObject(),
+        connectorStatsTrigger.getObject(), threadPoolStatsTrigger.getObject(),
+        datasourceStatsTrigger.getObject(), memoryStatsTrigger.getObject(),
+        classLoaderLeakTrigger.getObject(), appHeapStatsTrigger.getObject(),
+        oshiStatsTrigger.getObject(), runtimeStatsTrigger.getObject(),
+        sessionStatsTrigger.getObject(), sessionSizeTrigger.getObject(),
+        stuckRequestTrigger.getObject(), classHistogramTrigger.getObject(),
         statsSerializerTrigger.getObject());
 
     // Add Properties
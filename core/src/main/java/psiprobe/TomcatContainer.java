@@ -160,6 +160,17 @@ public interface TomcatContainer {
    */
   void listContextJsps(Context context, Summary summary, boolean compile);
 
+  /**
+   * Lists and compiles all JSPs for the given context in the background, unless they are being
+   * compiled already, in which case the compilation in progress is joined. Compilation details and
+   * progress are added to the summary returned.
+   *
+   * @param context the context
+   * @param summary the summary in which the output is to be stored
+   * @return the summary of the compilation in progress, the given one if it was started
+   */
+  Summary compileContextJsps(Context context, Summary summary);
+
   /**
    * Compiles a list of JSPs. Names of JSP files are expected to be relative to the webapp root. The
    * method updates summary with compilation details.
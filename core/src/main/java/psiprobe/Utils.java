@@ -13,28 +13,30 @@ package psiprobe;
 import com.google.common.base.Strings;
 import com.uwyn.jhighlight.renderer.Renderer;
 import com.uwyn.jhighlight.renderer.XhtmlRendererFactory;
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Scanner;
 import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectInstance;
@@ -43,10 +45,12 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import psiprobe.model.HighlightedSource;
 import psiprobe.tokenizer.StringTokenizer;
 import psiprobe.tokenizer.Token;
 import psiprobe.tokenizer.Tokenizer;
 import psiprobe.tokenizer.TokenizerSymbol;
+import psiprobe.tools.BlockGzip;
 
 /**
  * Misc. static helper methods.
@@ -56,6 +60,21 @@ public final class Utils {
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(Utils.class);
 
+  /** The request attribute set by Tomcat when the connector can send files itself. */
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+  /** The Constant SENDFILE_FILENAME. */
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+  /** The Constant SENDFILE_START. */
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+  /** The Constant SENDFILE_END. */
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  /** The maximum number of ranges honoured in a Range header. */
+  private static final int MAX_RANGES = 32;
+
   /**
    * Prevent Instantiation.
    */
@@ -298,7 +317,8 @@ public final class Utils {
   }
 
   /**
-   * Send file.
+   * Send file, honouring single and multiple byte ranges. The content is transferred by the
+   * connector itself where Tomcat supports sendfile, otherwise through a {@link FileChannel}.
    *
    * @param request the request
    * @param response the response
@@ -307,78 +327,193 @@ public final class Utils {
    */
   public static void sendFile(HttpServletRequest request, HttpServletResponse response, File file)
       throws IOException {
+    sendFile(request, response, file, file.getName(), "application/x-download");
+  }
 
-    try (OutputStream out = response.getOutputStream();
-        RandomAccessFile raf = new RandomAccessFile(file, "r")) {
-      long fileSize = raf.length();
-      long rangeStart = 0;
-      long rangeFinish = fileSize - 1;
+  /**
+   * Send file.
+   *
+   * @param request the request
+   * @param response the response
+   * @param file the file
+   * @param fileName the file name offered to the client
+   * @param contentType the content type
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void sendFile(HttpServletRequest request, HttpServletResponse response, File file,
+      String fileName, String contentType) throws IOException {
 
-      // accept attempts to resume download (if any)
-      String range = request.getHeader("Range");
-      if (range != null && range.startsWith("bytes=")) {
-        String pureRange = range.replaceAll("bytes=", "");
-        int rangeSep = pureRange.indexOf('-');
+    long fileSize = file.length();
+    // accept attempts to resume download (if any)
+    List<long[]> ranges = getRanges(request.getHeader("Range"), fileSize);
 
-        try {
-          rangeStart = Long.parseLong(pureRange.substring(0, rangeSep));
-          if (rangeStart > fileSize || rangeStart < 0) {
-            rangeStart = 0;
-          }
-        } catch (NumberFormatException e) {
-          // keep rangeStart unchanged
-          logger.trace("", e);
-        }
+    // set some headers
+    response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+    response.setHeader("Accept-Ranges", "bytes");
 
-        if (rangeSep < pureRange.length() - 1) {
-          try {
-            rangeFinish = Long.parseLong(pureRange.substring(rangeSep + 1));
-            if (rangeFinish < 0 || rangeFinish >= fileSize) {
-              rangeFinish = fileSize - 1;
-            }
-          } catch (NumberFormatException e) {
-            logger.trace("", e);
-          }
-        }
-      }
+    if (ranges == null) {
+      response.setHeader("Content-Range", "bytes */" + fileSize);
+      response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+      return;
+    }
 
-      // set some headers
-      response.setContentType("application/x-download");
-      response.setHeader("Content-Disposition", "attachment; filename=" + file.getName());
-      response.setHeader("Accept-Ranges", "bytes");
-      response.setHeader("Content-Length", Long.toString(rangeFinish - rangeStart + 1));
+    if (ranges.size() > 1) {
+      sendRanges(response, file, ranges, fileSize, contentType);
+      return;
+    }
+
+    long rangeStart = 0;
+    long rangeFinish = fileSize - 1;
+    if (!ranges.isEmpty()) {
+      rangeStart = ranges.get(0)[0];
+      rangeFinish = ranges.get(0)[1];
+      response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
       response.setHeader("Content-Range",
           "bytes " + rangeStart + "-" + rangeFinish + "/" + fileSize);
+    }
+    long length = rangeFinish - rangeStart + 1;
+    response.setContentType(contentType);
+    response.setHeader("Content-Length", Long.toString(length));
+
+    if (length > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+      request.setAttribute(SENDFILE_START, rangeStart);
+      request.setAttribute(SENDFILE_END, rangeFinish + 1);
+      return;
+    }
 
-      // seek to the requested offset
-      raf.seek(rangeStart);
-
-      // send the file
-      byte[] buffer = new byte[4096];
-
-      long len;
-      int totalRead = 0;
-      boolean nomore = false;
-      while (true) {
-        len = raf.read(buffer);
-        if (len > 0 && totalRead + len > rangeFinish - rangeStart + 1) {
-          // read more then required?
-          // adjust the length
-          len = rangeFinish - rangeStart + 1 - totalRead;
-          nomore = true;
-        }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        OutputStream out = response.getOutputStream()) {
+      transfer(channel, rangeStart, length, Channels.newChannel(out));
+    }
+  }
+
+  /**
+   * Sends several ranges of a file as a multipart/byteranges response.
+   *
+   * @param response the response
+   * @param file the file
+   * @param ranges the ranges
+   * @param fileSize the file size
+   * @param contentType the content type of every part
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void sendRanges(HttpServletResponse response, File file, List<long[]> ranges,
+      long fileSize, String contentType) throws IOException {
+
+    String boundary = "PSI_PROBE_" + Long.toHexString(System.nanoTime());
+    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        OutputStream out = response.getOutputStream()) {
+      WritableByteChannel target = Channels.newChannel(out);
+      for (long[] range : ranges) {
+        out.write(("\r\n--" + boundary + "\r\nContent-Type: " + contentType
+            + "\r\nContent-Range: bytes " + range[0] + "-" + range[1] + "/" + fileSize + "\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        transfer(channel, range[0], range[1] - range[0] + 1, target);
+      }
+      out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+    }
+  }
+
+  /**
+   * Transfers a region of a file to the target, stopping early should the file shrink.
+   *
+   * @param channel the channel
+   * @param position the position
+   * @param count the count
+   * @param target the target
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void transfer(FileChannel channel, long position, long count,
+      WritableByteChannel target) throws IOException {
+    long end = position + count;
+    while (position < end) {
+      long sent = channel.transferTo(position, end - position, target);
+      if (sent <= 0) {
+        break;
+      }
+      position += sent;
+    }
+  }
 
-        if (len > 0) {
-          out.write(buffer, 0, (int) len);
-          totalRead += len;
-          if (nomore) {
-            break;
+  /**
+   * Parses the value of a Range header. Overlapping and adjacent ranges are merged.
+   *
+   * @param range the Range header value
+   * @param fileSize the file size
+   * @return the inclusive [start, end] ranges in ascending order, an empty list for the whole file
+   *         (no or unusable header), or null if no range can be satisfied
+   */
+  public static List<long[]> getRanges(String range, long fileSize) {
+    List<long[]> ranges = new ArrayList<>();
+    if (range == null || !range.startsWith("bytes=")) {
+      return ranges;
+    }
+    String[] specs = range.substring("bytes=".length()).split(",");
+    if (specs.length > MAX_RANGES) {
+      return ranges;
+    }
+    for (String spec : specs) {
+      String pureRange = spec.trim();
+      int rangeSep = pureRange.indexOf('-');
+      if (rangeSep < 0) {
+        return new ArrayList<>();
+      }
+      long rangeStart;
+      long rangeFinish;
+      try {
+        if (rangeSep == 0) {
+          // suffix range, the last n bytes
+          long suffix = Long.parseLong(pureRange.substring(1));
+          if (suffix <= 0) {
+            continue;
           }
+          rangeStart = Math.max(0, fileSize - suffix);
+          rangeFinish = fileSize - 1;
         } else {
-          break;
+          rangeStart = Long.parseLong(pureRange.substring(0, rangeSep));
+          if (rangeSep < pureRange.length() - 1) {
+            rangeFinish = Long.parseLong(pureRange.substring(rangeSep + 1));
+            if (rangeFinish < rangeStart) {
+              return new ArrayList<>();
+            }
+            rangeFinish = Math.min(rangeFinish, fileSize - 1);
+          } else {
+            rangeFinish = fileSize - 1;
+          }
         }
+      } catch (NumberFormatException e) {
+        logger.trace("", e);
+        return new ArrayList<>();
+      }
+      if (rangeStart < fileSize) {
+        ranges.add(new long[] {rangeStart, rangeFinish});
+      }
+    }
+    if (ranges.isEmpty()) {
+      return null;
+    }
+
+    Collections.sort(ranges, new Comparator<long[]>() {
+      @Override
+      public int compare(long[] o1, long[] o2) {
+        return Long.compare(o1[0], o2[0]);
+      }
+    });
+    List<long[]> merged = new ArrayList<>();
+    long[] last = null;
+    for (long[] current : ranges) {
+      if (last != null && current[0] <= last[1] + 1) {
+        last[1] = Math.max(last[1], current[1]);
+      } else {
+        last = current;
+        merged.add(last);
       }
     }
+    return merged;
   }
 
   /**
@@ -420,6 +555,31 @@ public final class Utils {
   public static String highlightStream(String name, InputStream input, String rendererName,
       String encoding) throws IOException {
 
+    String[] lines = highlightLines(name, input, rendererName, encoding);
+    if (lines == null) {
+      return null;
+    }
+    StringWriter buffer = new StringWriter();
+    // JHighlight adds HTML comment as the first line, which highlightLines drops
+    buffer.write('\n');
+    new HighlightedSource(lines).write(buffer, 1, lines.length);
+    return buffer.toString();
+  }
+
+  /**
+   * Highlights a stream and splits the result into lines. Lines are split on the highlighted text
+   * directly, "\r\n" and "\n" both ending a line.
+   *
+   * @param name the name
+   * @param input the input
+   * @param rendererName the renderer name
+   * @param encoding the encoding
+   * @return the highlighted lines, or null if there is no such renderer
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static String[] highlightLines(String name, InputStream input, String rendererName,
+      String encoding) throws IOException {
+
     Renderer jspRenderer = XhtmlRendererFactory.getRenderer(rendererName);
     if (jspRenderer == null) {
       return null;
@@ -427,65 +587,61 @@ public final class Utils {
 
     ByteArrayOutputStream bos = new ByteArrayOutputStream();
     jspRenderer.highlight(name, input, bos, encoding, true);
-
-    ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
-
-    Tokenizer tokenizer = new Tokenizer(new InputStreamReader(bis, Charset.forName(encoding)));
-    tokenizer.addSymbol(new TokenizerSymbol("EOL", "\n", null, false, false, true, false));
-    tokenizer.addSymbol(new TokenizerSymbol("EOL", "\r\n", null, false, false, true, false));
+    String highlighted = new String(bos.toByteArray(), Charset.forName(encoding));
 
     //
     // JHighlight adds HTML comment as the first line, so if
     // we number the lines we could end up with a line number and no line
     // to avoid that we just ignore the first line all together.
     //
-    StringBuilder buffer = new StringBuilder();
-    long counter = 0;
-    while (tokenizer.hasMore()) {
-      Token tk = tokenizer.nextToken();
-      if ("EOL".equals(tk.getName())) {
-        counter++;
-        buffer.append(tk.getText());
-      } else if (counter > 0) {
-        buffer.append("<span class=\"codeline\">");
-        buffer.append("<span class=\"linenum\">");
-        buffer.append(leftPad(Long.toString(counter), 6, " ").replace(" ", "&nbsp;"));
-        buffer.append("</span>");
-        buffer.append(tk.getText());
-        buffer.append("</span>");
-      }
+    List<String> lines = new ArrayList<>();
+    int start = highlighted.indexOf('\n') + 1;
+    if (start == 0) {
+      return new String[0];
     }
-    return buffer.toString();
+    while (start < highlighted.length()) {
+      int eol = highlighted.indexOf('\n', start);
+      int end = eol == -1 ? highlighted.length() : eol;
+      int contentEnd = end > start && highlighted.charAt(end - 1) == '\r' ? end - 1 : end;
+      lines.add(highlighted.substring(start, contentEnd));
+      start = end + 1;
+    }
+    return lines.toArray(new String[lines.size()]);
   }
 
   /**
-   * Send compressed file.
+   * Send compressed file, as a gzip file made of independently compressed blocks. Files no longer
+   * being written to, such as rotated logs, are compressed once into an artifact cached under the
+   * temporary directory of the context, which is then sent like any other file, ranges included.
    *
+   * @param request the request
    * @param response the response
    * @param file the file
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  public static void sendCompressedFile(HttpServletResponse response, File file)
-      throws IOException {
-    try (ZipOutputStream zip = new ZipOutputStream(response.getOutputStream());
-        InputStream fileInput = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
-
-      String fileName = file.getName();
-
-      // set some headers
-      response.setContentType("application/zip");
-      response.setHeader("Content-Disposition", "attachment; filename=" + fileName + ".zip");
-
-      zip.putNextEntry(new ZipEntry(fileName));
+  public static void sendCompressedFile(HttpServletRequest request, HttpServletResponse response,
+      File file) throws IOException {
+
+    String fileName = file.getName() + ".gz";
+    File tempDir =
+        (File) request.getServletContext().getAttribute("javax.servlet.context.tempdir");
+    File compressed = BlockGzip.getCompressedFile(file, tempDir);
+    if (compressed != null) {
+      try {
+        sendFile(request, response, compressed, fileName, "application/gzip");
+      } finally {
+        // with sendfile, the connector only opens the artifact once the request returns
+        BlockGzip.release(compressed, request.getAttribute(SENDFILE_FILENAME) != null);
+      }
+      return;
+    }
 
-      // send the file
-      byte[] buffer = new byte[4096];
-      long len;
+    // set some headers
+    response.setContentType("application/gzip");
+    response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
 
-      while ((len = fileInput.read(buffer)) > 0) {
-        zip.write(buffer, 0, (int) len);
-      }
-      zip.closeEntry();
+    try (OutputStream out = response.getOutputStream()) {
+      BlockGzip.compress(file, out);
     }
   }
 
@@ -0,0 +1,297 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.model.jmx.ClassHistogram;
+import psiprobe.model.jmx.ClassHistogramDelta;
+import psiprobe.tools.ClassHistogramParser;
+
+/**
+ * Takes class histograms of the heap through the {@code DiagnosticCommand} MBean and keeps the
+ * latest ones, so that any two of them can be compared to find the classes whose instances keep
+ * growing. Taking a histogram of live objects runs a full garbage collection.
+ */
+public class ClassHistogramBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(ClassHistogramBean.class);
+
+  /** The name of the diagnostic command MBean. */
+  private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+  /** The maximum number of histograms kept. */
+  private int maxSnapshots = 10;
+
+  /** Whether the scheduled job takes histograms. */
+  private boolean scheduled;
+
+  /** The parser, also guarding the snapshots. */
+  private final ClassHistogramParser parser = new ClassHistogramParser();
+
+  /** The histograms kept, oldest first. */
+  private final Deque<ClassHistogram> snapshots = new ArrayDeque<>();
+
+  /** The id of the latest histogram. */
+  private int lastId;
+
+  /**
+   * Gets the max snapshots.
+   *
+   * @return the max snapshots
+   */
+  public int getMaxSnapshots() {
+    return maxSnapshots;
+  }
+
+  /**
+   * Sets the max snapshots.
+   *
+   * @param maxSnapshots the new max snapshots
+   */
+  @Value("${psiprobe.beans.histogram.snapshots}")
+  public void setMaxSnapshots(int maxSnapshots) {
+    this.maxSnapshots = maxSnapshots;
+  }
+
+  /**
+   * Checks if the scheduled job takes histograms.
+   *
+   * @return true, if scheduled
+   */
+  public boolean isScheduled() {
+    return scheduled;
+  }
+
+  /**
+   * Sets whether the scheduled job takes histograms.
+   *
+   * @param scheduled the new scheduled
+   */
+  @Value("${psiprobe.beans.histogram.scheduled}")
+  public void setScheduled(boolean scheduled) {
+    this.scheduled = scheduled;
+  }
+
+  /**
+   * Takes a histogram if scheduled histograms are enabled, called by the scheduled job.
+   *
+   * @throws JMException if the histogram cannot be taken
+   */
+  public void collect() throws JMException {
+    if (scheduled && isSupported()) {
+      takeSnapshot();
+    }
+  }
+
+  /**
+   * Checks if this JVM can take class histograms.
+   *
+   * @return true, if supported
+   */
+  public boolean isSupported() {
+    try {
+      return getMBeanServer().isRegistered(new ObjectName(DIAGNOSTIC_COMMAND));
+    } catch (MalformedObjectNameException e) {
+      logger.trace("", e);
+      return false;
+    }
+  }
+
+  /**
+   * Takes a histogram and keeps it, dropping the oldest one if there are too many.
+   *
+   * @return the histogram
+   * @throws JMException if the histogram cannot be taken
+   */
+  public ClassHistogram takeSnapshot() throws JMException {
+    long start = System.currentTimeMillis();
+    String text = readHistogram();
+    synchronized (parser) {
+      ClassHistogram histogram = parser.parse(text, ++lastId, start);
+      snapshots.addLast(histogram);
+      if (snapshots.size() > Math.max(maxSnapshots, 1)) {
+        while (snapshots.size() > Math.max(maxSnapshots, 1)) {
+          snapshots.removeFirst();
+        }
+        parser.retain(snapshots);
+      }
+      logger.debug("Took class histogram {} of {} classes in {} ms", histogram.getId(),
+          histogram.getClassCount(), System.currentTimeMillis() - start);
+      return histogram;
+    }
+  }
+
+  /**
+   * Gets the histograms kept, oldest first.
+   *
+   * @return the snapshots
+   */
+  public List<ClassHistogram> getSnapshots() {
+    synchronized (parser) {
+      return new ArrayList<>(snapshots);
+    }
+  }
+
+  /**
+   * Gets a histogram kept.
+   *
+   * @param id the id of the histogram
+   * @return the histogram, or null if it is not kept
+   */
+  public ClassHistogram getSnapshot(int id) {
+    synchronized (parser) {
+      for (ClassHistogram histogram : snapshots) {
+        if (histogram.getId() == id) {
+          return histogram;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Ranks the classes by their growth from one histogram to another. Classes of the same name
+   * loaded by different class loaders are listed once, with their counts summed.
+   *
+   * @param from the earlier histogram, or null to rank the later one by size
+   * @param to the later histogram
+   * @param byInstances whether to rank by instance count rather than bytes
+   * @param top the number of classes to return
+   * @return the fastest growing classes, fastest first
+   */
+  public static List<ClassHistogramDelta> diff(ClassHistogram from, ClassHistogram to,
+      final boolean byInstances, int top) {
+
+    Map<String, long[]> fromTotals =
+        from != null ? totals(from) : Collections.<String, long[]>emptyMap();
+
+    // keep the top entries in a min-heap, so that only they are ever allocated
+    Comparator<ClassHistogramDelta> byGrowth = new Comparator<ClassHistogramDelta>() {
+      @Override
+      public int compare(ClassHistogramDelta o1, ClassHistogramDelta o2) {
+        return Long.compare(growth(o1, byInstances), growth(o2, byInstances));
+      }
+    };
+    PriorityQueue<ClassHistogramDelta> heap = new PriorityQueue<>(Math.max(top, 1), byGrowth);
+    for (Map.Entry<String, long[]> entry : totals(to).entrySet()) {
+      long[] now = entry.getValue();
+      long[] before = fromTotals.remove(entry.getKey());
+      long instancesDelta = now[0] - (before != null ? before[0] : 0);
+      long bytesDelta = now[1] - (before != null ? before[1] : 0);
+      offer(heap, top, byInstances, entry.getKey(), now[0], now[1], instancesDelta, bytesDelta);
+    }
+    // classes gone since the earlier histogram
+    for (Map.Entry<String, long[]> entry : fromTotals.entrySet()) {
+      long[] before = entry.getValue();
+      offer(heap, top, byInstances, entry.getKey(), 0, 0, -before[0], -before[1]);
+    }
+
+    List<ClassHistogramDelta> deltas = new ArrayList<>(heap);
+    Collections.sort(deltas, Collections.reverseOrder(byGrowth));
+    return deltas;
+  }
+
+  /**
+   * Sums the instance count and bytes of the classes of a histogram by class name.
+   *
+   * @param histogram the histogram
+   * @return the instance count and bytes by class name, in histogram order
+   */
+  private static Map<String, long[]> totals(ClassHistogram histogram) {
+    Map<String, long[]> totals = new LinkedHashMap<>(histogram.getClassCount() * 4 / 3 + 1);
+    for (int i = 0; i < histogram.getClassCount(); i++) {
+      long[] total = totals.get(histogram.getClassName(i));
+      if (total == null) {
+        total = new long[2];
+        totals.put(histogram.getClassName(i), total);
+      }
+      total[0] += histogram.getInstances(i);
+      total[1] += histogram.getBytes(i);
+    }
+    return totals;
+  }
+
+  /**
+   * Adds a delta to the top entries if it grew more than the least of them.
+   *
+   * @param heap the top entries
+   * @param top the number of top entries
+   * @param byInstances whether to rank by instance count
+   * @param className the class name
+   * @param instances the instance count
+   * @param bytes the bytes
+   * @param instancesDelta the growth of the instance count
+   * @param bytesDelta the growth of the bytes
+   */
+  private static void offer(PriorityQueue<ClassHistogramDelta> heap, int top, boolean byInstances,
+      String className, long instances, long bytes, long instancesDelta, long bytesDelta) {
+    if (top <= 0) {
+      return;
+    }
+    long growth = byInstances ? instancesDelta : bytesDelta;
+    if (heap.size() < top) {
+      heap.add(new ClassHistogramDelta(className, instances, bytes, instancesDelta, bytesDelta));
+    } else if (growth > growth(heap.peek(), byInstances)) {
+      heap.poll();
+      heap.add(new ClassHistogramDelta(className, instances, bytes, instancesDelta, bytesDelta));
+    }
+  }
+
+  /**
+   * Gets the growth a delta is ranked by.
+   *
+   * @param delta the delta
+   * @param byInstances whether to rank by instance count
+   * @return the growth
+   */
+  private static long growth(ClassHistogramDelta delta, boolean byInstances) {
+    return byInstances ? delta.getInstancesDelta() : delta.getBytesDelta();
+  }
+
+  /**
+   * Runs the class histogram diagnostic command.
+   *
+   * @return the output of the command
+   * @throws JMException if the command fails
+   */
+  protected String readHistogram() throws JMException {
+    return (String) getMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND),
+        "gcClassHistogram", new Object[] {new String[0]},
+        new String[] {String[].class.getName()});
+  }
+
+  /**
+   * Gets the MBean server.
+   *
+   * @return the platform MBean server
+   */
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+}
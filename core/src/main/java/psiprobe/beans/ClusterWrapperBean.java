@@ -11,10 +11,22 @@
 package psiprobe.beans;
 
 import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
+import javax.management.Notification;
+import javax.management.NotificationListener;
 import javax.management.ObjectInstance;
 import javax.management.ObjectName;
+import javax.management.relation.MBeanServerNotificationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import psiprobe.model.jmx.AsyncClusterSender;
 import psiprobe.model.jmx.Cluster;
 import psiprobe.model.jmx.ClusterSender;
@@ -23,9 +35,52 @@ import psiprobe.model.jmx.SyncClusterSender;
 import psiprobe.tools.JmxTools;
 
 /**
- * The Class ClusterWrapperBean.
+ * Reads the cluster configuration and statistics from the cluster MBeans.
+ *
+ * <p>
+ * The object names of the cluster, membership, receiver, sender and member senders are resolved
+ * once per server and host and kept until an MBean of one of these types is registered or
+ * unregistered, as reported by the MBean server delegate. Attributes are read with a single
+ * {@link MBeanServer#getAttributes(ObjectName, String[])} call per MBean.
+ * </p>
  */
-public class ClusterWrapperBean {
+public class ClusterWrapperBean implements NotificationListener, DisposableBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(ClusterWrapperBean.class);
+
+  /** The Constant CLUSTER_ATTRIBUTES. */
+  private static final String[] CLUSTER_ATTRIBUTES = {"clusterName", "info", "managerClassName"};
+
+  /** The Constant MEMBERSHIP_ATTRIBUTES. */
+  private static final String[] MEMBERSHIP_ATTRIBUTES = {"mcastAddr", "mcastBindAddress",
+      "mcastClusterDomain", "mcastDropTime", "mcastFrequency", "mcastPort", "mcastSoTimeout",
+      "mcastTTL"};
+
+  /** The Constant RECEIVER_ATTRIBUTES. */
+  private static final String[] RECEIVER_ATTRIBUTES =
+      {"tcpListenAddress", "tcpListenPort", "nrOfMsgsReceived", "totalReceivedBytes"};
+
+  /** The Constant SENDER_ATTRIBUTES. */
+  private static final String[] SENDER_ATTRIBUTES = {"ackTimeout", "autoConnect",
+      "failureCounter", "nrOfRequests", "replicationMode", "totalBytes"};
+
+  /** The attributes of all kinds of member senders; those a sender lacks are simply not read. */
+  private static final String[] MEMBER_ATTRIBUTES = {"address", "port", "avgMessageSize",
+      "avgProcessingTime", "connectCounter", "disconnectCounter", "connected", "keepAliveTimeout",
+      "nrOfRequests", "totalBytes", "resend", "suspect", "maxPoolSocketLimit",
+      "dataFailureCounter", "dataResendCounter", "socketOpenCounter", "socketCloseCounter",
+      "socketOpenFailureCounter", "inQueueCounter", "outQueueCounter", "queueSize",
+      "queuedNrOfBytes"};
+
+  /** The resolved topologies by server and host name; a null value means no cluster. */
+  private final Map<String, Topology> topologies = new HashMap<>();
+
+  /** Incremented on every invalidation, so that stale resolutions are not cached. */
+  private long generation;
+
+  /** The mbean server this bean listens to, or null if not listening yet. */
+  private MBeanServer listenedServer;
 
   /**
    * Gets the cluster.
@@ -39,14 +94,148 @@ public class ClusterWrapperBean {
   public Cluster getCluster(String serverName, String hostName, boolean loadMembers)
       throws Exception {
 
-    Cluster cluster = null;
-
     MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    Topology topology = getTopology(mbeanServer, serverName, hostName);
+    if (topology == null) {
+      return null;
+    }
+
+    try {
+      Cluster cluster = new Cluster();
+
+      Map<String, Object> attrs =
+          JmxTools.getAttributes(mbeanServer, topology.cluster, CLUSTER_ATTRIBUTES);
+      cluster.setName(JmxTools.getStringAttr(attrs, "clusterName"));
+      cluster.setInfo(JmxTools.getStringAttr(attrs, "info"));
+      cluster.setManagerClassName(JmxTools.getStringAttr(attrs, "managerClassName"));
+
+      attrs = JmxTools.getAttributes(mbeanServer, topology.membership, MEMBERSHIP_ATTRIBUTES);
+      cluster.setMcastAddress(JmxTools.getStringAttr(attrs, "mcastAddr"));
+      cluster.setMcastBindAddress(JmxTools.getStringAttr(attrs, "mcastBindAddress"));
+      cluster.setMcastClusterDomain(JmxTools.getStringAttr(attrs, "mcastClusterDomain"));
+      cluster.setMcastDropTime(JmxTools.getLongAttr(attrs, "mcastDropTime", 0));
+      cluster.setMcastFrequency(JmxTools.getLongAttr(attrs, "mcastFrequency", 0));
+      cluster.setMcastPort(JmxTools.getIntAttr(attrs, "mcastPort", 0));
+      cluster.setMcastSoTimeout(JmxTools.getIntAttr(attrs, "mcastSoTimeout", 0));
+      cluster.setMcastTtl(JmxTools.getIntAttr(attrs, "mcastTTL", 0));
+
+      attrs = JmxTools.getAttributes(mbeanServer, topology.receiver, RECEIVER_ATTRIBUTES);
+      cluster.setTcpListenAddress(JmxTools.getStringAttr(attrs, "tcpListenAddress"));
+      cluster.setTcpListenPort(JmxTools.getIntAttr(attrs, "tcpListenPort", 0));
+      cluster.setNrOfMsgsReceived(JmxTools.getLongAttr(attrs, "nrOfMsgsReceived", 0));
+      cluster.setTotalReceivedBytes(JmxTools.getLongAttr(attrs, "totalReceivedBytes", 0));
+
+      attrs = JmxTools.getAttributes(mbeanServer, topology.sender, SENDER_ATTRIBUTES);
+      cluster.setSenderAckTimeout(JmxTools.getLongAttr(attrs, "ackTimeout", 0));
+      cluster.setSenderAutoConnect(JmxTools.getBooleanAttr(attrs, "autoConnect"));
+      cluster.setSenderFailureCounter(JmxTools.getLongAttr(attrs, "failureCounter", 0));
+      cluster.setSenderNrOfRequests(JmxTools.getLongAttr(attrs, "nrOfRequests", 0));
+      cluster.setSenderReplicationMode(JmxTools.getStringAttr(attrs, "replicationMode"));
+      cluster.setSenderTotalBytes(JmxTools.getLongAttr(attrs, "totalBytes", 0));
+
+      if (loadMembers) {
+        for (ObjectName memberOName : getMemberSenders(mbeanServer, topology)) {
+          cluster.getMembers().add(getMember(mbeanServer, memberOName,
+              cluster.getSenderReplicationMode()));
+        }
+      }
+      return cluster;
+    } catch (InstanceNotFoundException e) {
+      // an MBean went away without us noticing, resolve the topology again next time
+      invalidate();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads a member sender.
+   *
+   * @param mbeanServer the mbean server
+   * @param memberOName the member sender object name
+   * @param replicationMode the replication mode of the cluster
+   * @return the sender
+   * @throws Exception the exception
+   */
+  private static ClusterSender getMember(MBeanServer mbeanServer, ObjectName memberOName,
+      String replicationMode) throws Exception {
+
+    ClusterSender sender;
+    if ("pooled".equals(replicationMode)) {
+      sender = new PooledClusterSender();
+    } else if ("synchronous".equals(replicationMode)) {
+      sender = new SyncClusterSender();
+    } else if ("asynchronous".equals(replicationMode)
+        || "fastasyncqueue".equals(replicationMode)) {
+      sender = new AsyncClusterSender();
+    } else {
+      sender = new ClusterSender();
+    }
+
+    Map<String, Object> attrs =
+        JmxTools.getAttributes(mbeanServer, memberOName, MEMBER_ATTRIBUTES);
+    sender.setAddress(JmxTools.getStringAttr(attrs, "address"));
+    sender.setPort(JmxTools.getIntAttr(attrs, "port", 0));
+    sender.setAvgMessageSize(JmxTools.getLongAttr(attrs, "avgMessageSize", -1));
+    sender.setAvgProcessingTime(JmxTools.getLongAttr(attrs, "avgProcessingTime", -1));
+    sender.setConnectCounter(JmxTools.getLongAttr(attrs, "connectCounter", 0));
+    sender.setDisconnectCounter(JmxTools.getLongAttr(attrs, "disconnectCounter", 0));
+    sender.setConnected(JmxTools.getBooleanAttr(attrs, "connected"));
+    sender.setKeepAliveTimeout(JmxTools.getLongAttr(attrs, "keepAliveTimeout", 0));
+    sender.setNrOfRequests(JmxTools.getLongAttr(attrs, "nrOfRequests", 0));
+    sender.setTotalBytes(JmxTools.getLongAttr(attrs, "totalBytes", 0));
+    sender.setResend(JmxTools.getBooleanAttr(attrs, "resend"));
+    sender.setSuspect(JmxTools.getBooleanAttr(attrs, "suspect"));
+
+    if (sender instanceof PooledClusterSender) {
+      ((PooledClusterSender) sender)
+          .setMaxPoolSocketLimit(JmxTools.getIntAttr(attrs, "maxPoolSocketLimit", 0));
+    }
+
+    if (sender instanceof SyncClusterSender) {
+      SyncClusterSender syncSender = (SyncClusterSender) sender;
+      syncSender.setDataFailureCounter(JmxTools.getLongAttr(attrs, "dataFailureCounter", 0));
+      syncSender.setDataResendCounter(JmxTools.getLongAttr(attrs, "dataResendCounter", 0));
+      syncSender.setSocketOpenCounter(JmxTools.getIntAttr(attrs, "socketOpenCounter", 0));
+      syncSender.setSocketCloseCounter(JmxTools.getIntAttr(attrs, "socketCloseCounter", 0));
+      syncSender.setSocketOpenFailureCounter(
+          JmxTools.getIntAttr(attrs, "socketOpenFailureCounter", 0));
+    }
+
+    if (sender instanceof AsyncClusterSender) {
+      AsyncClusterSender asyncSender = (AsyncClusterSender) sender;
+      asyncSender.setInQueueCounter(JmxTools.getLongAttr(attrs, "inQueueCounter", 0));
+      asyncSender.setOutQueueCounter(JmxTools.getLongAttr(attrs, "outQueueCounter", 0));
+      asyncSender.setQueueSize(JmxTools.getIntAttr(attrs, "queueSize", 0));
+      asyncSender.setQueuedNrOfBytes(JmxTools.getLongAttr(attrs, "queuedNrOfBytes", 0));
+    }
+    return sender;
+  }
+
+  /**
+   * Gets the topology of a host, resolving it if needed.
+   *
+   * @param mbeanServer the mbean server
+   * @param serverName the server name
+   * @param hostName the host name
+   * @return the topology, or null if the host is not clustered
+   * @throws Exception the exception
+   */
+  private Topology getTopology(MBeanServer mbeanServer, String serverName, String hostName)
+      throws Exception {
+
+    String key = serverName + ':' + hostName;
+    long resolvedGeneration;
+    synchronized (topologies) {
+      listen(mbeanServer);
+      if (topologies.containsKey(key)) {
+        return topologies.get(key);
+      }
+      resolvedGeneration = generation;
+    }
+
+    Topology topology = null;
     ObjectName membershipOName =
         new ObjectName(serverName + ":type=ClusterMembership,host=" + hostName);
-    ObjectName receiverOName =
-        new ObjectName(serverName + ":type=ClusterReceiver,host=" + hostName);
-    ObjectName senderOName = new ObjectName(serverName + ":type=ClusterSender,host=" + hostName);
 
     /*
      * should be just one set, this is just to find out if this instance is cluster-enabled and the
@@ -56,121 +245,129 @@ public class ClusterWrapperBean {
         mbeanServer.queryMBeans(new ObjectName("*:type=Cluster,host=" + hostName), null);
     Set<ObjectInstance> membership = mbeanServer.queryMBeans(membershipOName, null);
     if (clusters != null && !clusters.isEmpty() && membership != null && !membership.isEmpty()) {
-      ObjectName clusterOName = clusters.iterator().next().getObjectName();
-      cluster = new Cluster();
-
-      cluster.setName(JmxTools.getStringAttr(mbeanServer, clusterOName, "clusterName"));
-      cluster.setInfo(JmxTools.getStringAttr(mbeanServer, clusterOName, "info"));
-      cluster.setManagerClassName(
-          JmxTools.getStringAttr(mbeanServer, clusterOName, "managerClassName"));
-
-      cluster.setMcastAddress(JmxTools.getStringAttr(mbeanServer, membershipOName, "mcastAddr"));
-      cluster.setMcastBindAddress(
-          JmxTools.getStringAttr(mbeanServer, membershipOName, "mcastBindAddress"));
-      cluster.setMcastClusterDomain(
-          JmxTools.getStringAttr(mbeanServer, membershipOName, "mcastClusterDomain"));
-      cluster.setMcastDropTime(JmxTools.getLongAttr(mbeanServer, membershipOName, "mcastDropTime"));
-      cluster
-          .setMcastFrequency(JmxTools.getLongAttr(mbeanServer, membershipOName, "mcastFrequency"));
-      cluster.setMcastPort(JmxTools.getIntAttr(mbeanServer, membershipOName, "mcastPort"));
-      cluster
-          .setMcastSoTimeout(JmxTools.getIntAttr(mbeanServer, membershipOName, "mcastSoTimeout"));
-      cluster.setMcastTtl(JmxTools.getIntAttr(mbeanServer, membershipOName, "mcastTTL"));
-
-      cluster.setTcpListenAddress(
-          JmxTools.getStringAttr(mbeanServer, receiverOName, "tcpListenAddress"));
-      cluster.setTcpListenPort(JmxTools.getIntAttr(mbeanServer, receiverOName, "tcpListenPort"));
-      cluster.setNrOfMsgsReceived(
-          JmxTools.getLongAttr(mbeanServer, receiverOName, "nrOfMsgsReceived"));
-      cluster.setTotalReceivedBytes(
-          JmxTools.getLongAttr(mbeanServer, receiverOName, "totalReceivedBytes"));
-      // cluster.setTcpSelectorTimeout(
-      // JmxTools.getLongAttr(mbeanServer, receiverOName, "tcpSelectorTimeout"));
-      // cluster.setTcpThreadCount(
-      // JmxTools.getIntAttr(mbeanServer, receiverOName, "tcpThreadCount"));
-
-      cluster.setSenderAckTimeout(JmxTools.getLongAttr(mbeanServer, senderOName, "ackTimeout"));
-      cluster.setSenderAutoConnect((Boolean) mbeanServer.getAttribute(senderOName, "autoConnect"));
-      cluster.setSenderFailureCounter(
-          JmxTools.getLongAttr(mbeanServer, senderOName, "failureCounter"));
-      cluster.setSenderNrOfRequests(JmxTools.getLongAttr(mbeanServer, senderOName, "nrOfRequests"));
-      cluster.setSenderReplicationMode(
-          JmxTools.getStringAttr(mbeanServer, senderOName, "replicationMode"));
-      cluster.setSenderTotalBytes(JmxTools.getLongAttr(mbeanServer, senderOName, "totalBytes"));
+      topology = new Topology(clusters.iterator().next().getObjectName(), membershipOName,
+          new ObjectName(serverName + ":type=ClusterReceiver,host=" + hostName),
+          new ObjectName(serverName + ":type=ClusterSender,host=" + hostName));
+    }
+    logger.debug("Resolved cluster topology of '{}': {}", key, topology != null);
 
-      if (loadMembers) {
-        ObjectName[] senders =
-            (ObjectName[]) mbeanServer.getAttribute(senderOName, "senderObjectNames");
-        for (ObjectName localSenderOName : senders) {
-          ClusterSender sender;
-
-          if ("pooled".equals(cluster.getSenderReplicationMode())) {
-            sender = new PooledClusterSender();
-          } else if ("synchronous".equals(cluster.getSenderReplicationMode())) {
-            sender = new SyncClusterSender();
-          } else if ("asynchronous".equals(cluster.getSenderReplicationMode())
-              || "fastasyncqueue".equals(cluster.getSenderReplicationMode())) {
-            sender = new AsyncClusterSender();
-          } else {
-            sender = new ClusterSender();
-          }
-
-          sender.setAddress(JmxTools.getStringAttr(mbeanServer, localSenderOName, "address"));
-          sender.setPort(JmxTools.getIntAttr(mbeanServer, localSenderOName, "port"));
-
-          sender.setAvgMessageSize(
-              JmxTools.getLongAttr(mbeanServer, localSenderOName, "avgMessageSize", -1));
-          sender.setAvgProcessingTime(
-              JmxTools.getLongAttr(mbeanServer, localSenderOName, "avgProcessingTime", -1));
-
-          sender.setConnectCounter(
-              JmxTools.getLongAttr(mbeanServer, localSenderOName, "connectCounter"));
-          sender.setDisconnectCounter(
-              JmxTools.getLongAttr(mbeanServer, localSenderOName, "disconnectCounter"));
-          sender.setConnected((Boolean) mbeanServer.getAttribute(localSenderOName, "connected"));
-          sender.setKeepAliveTimeout(
-              JmxTools.getLongAttr(mbeanServer, localSenderOName, "keepAliveTimeout"));
-          sender
-              .setNrOfRequests(JmxTools.getLongAttr(mbeanServer, localSenderOName, "nrOfRequests"));
-          sender.setTotalBytes(JmxTools.getLongAttr(mbeanServer, localSenderOName, "totalBytes"));
-          sender.setResend((Boolean) mbeanServer.getAttribute(localSenderOName, "resend"));
-          sender.setSuspect((Boolean) mbeanServer.getAttribute(localSenderOName, "suspect"));
-
-          if (sender instanceof PooledClusterSender) {
-            ((PooledClusterSender) sender).setMaxPoolSocketLimit(
-                JmxTools.getIntAttr(mbeanServer, localSenderOName, "maxPoolSocketLimit"));
-          }
-
-          if (sender instanceof SyncClusterSender) {
-            SyncClusterSender syncSender = (SyncClusterSender) sender;
-            syncSender.setDataFailureCounter(
-                JmxTools.getLongAttr(mbeanServer, localSenderOName, "dataFailureCounter"));
-            syncSender.setDataResendCounter(
-                JmxTools.getLongAttr(mbeanServer, localSenderOName, "dataResendCounter"));
-            syncSender.setSocketOpenCounter(
-                JmxTools.getIntAttr(mbeanServer, localSenderOName, "socketOpenCounter"));
-            syncSender.setSocketCloseCounter(
-                JmxTools.getIntAttr(mbeanServer, localSenderOName, "socketCloseCounter"));
-            syncSender.setSocketOpenFailureCounter(
-                JmxTools.getIntAttr(mbeanServer, localSenderOName, "socketOpenFailureCounter"));
-          }
-
-          if (sender instanceof AsyncClusterSender) {
-            AsyncClusterSender asyncSender = (AsyncClusterSender) sender;
-            asyncSender.setInQueueCounter(
-                JmxTools.getLongAttr(mbeanServer, localSenderOName, "inQueueCounter"));
-            asyncSender.setOutQueueCounter(
-                JmxTools.getLongAttr(mbeanServer, localSenderOName, "outQueueCounter"));
-            asyncSender
-                .setQueueSize(JmxTools.getIntAttr(mbeanServer, localSenderOName, "queueSize"));
-            asyncSender.setQueuedNrOfBytes(
-                JmxTools.getLongAttr(mbeanServer, localSenderOName, "queuedNrOfBytes"));
-          }
-          cluster.getMembers().add(sender);
+    synchronized (topologies) {
+      if (resolvedGeneration == generation) {
+        topologies.put(key, topology);
+      }
+    }
+    return topology;
+  }
+
+  /**
+   * Gets the member senders of a topology, reading them if needed.
+   *
+   * @param mbeanServer the mbean server
+   * @param topology the topology
+   * @return the member sender object names
+   * @throws Exception the exception
+   */
+  private static ObjectName[] getMemberSenders(MBeanServer mbeanServer, Topology topology)
+      throws Exception {
+
+    ObjectName[] senders = topology.memberSenders;
+    if (senders == null) {
+      senders = (ObjectName[]) mbeanServer.getAttribute(topology.sender, "senderObjectNames");
+      if (senders == null) {
+        senders = new ObjectName[0];
+      }
+      topology.memberSenders = senders;
+    }
+    return senders;
+  }
+
+  /**
+   * Starts listening to MBean registrations, if not done yet. Must be called holding the lock on
+   * the topologies.
+   *
+   * @param mbeanServer the mbean server
+   * @throws InstanceNotFoundException if the mbean server has no delegate
+   */
+  private void listen(MBeanServer mbeanServer) throws InstanceNotFoundException {
+    if (listenedServer == null) {
+      MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+      filter.enableAllObjectNames();
+      mbeanServer.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, this, filter, null);
+      listenedServer = mbeanServer;
+    }
+  }
+
+  /**
+   * Forgets all resolved topologies.
+   */
+  private void invalidate() {
+    synchronized (topologies) {
+      topologies.clear();
+      generation++;
+    }
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (notification instanceof MBeanServerNotification) {
+      String type = ((MBeanServerNotification) notification).getMBeanName().getKeyProperty("type");
+      if (type != null && (type.startsWith("Cluster") || type.endsWith("Sender"))) {
+        logger.debug("Cluster MBean '{}' {}", type, notification.getType());
+        invalidate();
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    synchronized (topologies) {
+      if (listenedServer != null) {
+        try {
+          listenedServer.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, this);
+        } catch (InstanceNotFoundException | ListenerNotFoundException e) {
+          logger.trace("", e);
         }
+        listenedServer = null;
       }
+      topologies.clear();
     }
-    return cluster;
+  }
+
+  /**
+   * The object names of the cluster MBeans of a host.
+   */
+  private static class Topology {
+
+    /** The cluster. */
+    final ObjectName cluster;
+
+    /** The membership. */
+    final ObjectName membership;
+
+    /** The receiver. */
+    final ObjectName receiver;
+
+    /** The sender. */
+    final ObjectName sender;
+
+    /** The member senders, or null until read. */
+    volatile ObjectName[] memberSenders;
+
+    /**
+     * Instantiates a new topology.
+     *
+     * @param cluster the cluster
+     * @param membership the membership
+     * @param receiver the receiver
+     * @param sender the sender
+     */
+    Topology(ObjectName cluster, ObjectName membership, ObjectName receiver, ObjectName sender) {
+      this.cluster = cluster;
+      this.membership = membership;
+      this.receiver = receiver;
+      this.sender = sender;
+    }
+
   }
 
 }
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
 import javax.management.InstanceNotFoundException;
@@ -49,6 +50,21 @@ public class ContainerListenerBean implements NotificationListener {
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(ContainerListenerBean.class);
 
+  /** The stage of a request processor servicing a request, as in org.apache.coyote.Constants. */
+  public static final int STAGE_SERVICE = 3;
+
+  /** The attributes read from executors. */
+  private static final String[] EXECUTOR_ATTRIBUTES = {"maxThreads", "largestPoolSize",
+      "minSpareThreads", "activeCount", "poolSize", "queueSize"};
+
+  /** The attributes read from connector thread pools. */
+  private static final String[] POOL_ATTRIBUTES = {"maxThreads", "maxSpareThreads",
+      "minSpareThreads", "currentThreadsBusy", "currentThreadCount"};
+
+  /** The attributes read from request processors to find the busy ones. */
+  private static final String[] BUSY_PROCESSOR_ATTRIBUTES = {"stage", "requestProcessingTime",
+      "method", "currentUri", "currentQueryString", "workerThreadName"};
+
   private Set<String> allowedOperation =
       new HashSet<>(Arrays.asList("start", "stop", "pause", "resume"));
 
@@ -206,34 +222,38 @@ public class ContainerListenerBean implements NotificationListener {
 
     MBeanServer server = getContainerWrapper().getResourceResolver().getMBeanServer();
 
+    // one getAttributes call per MBean, attributes a pool does not have are simply left out
     for (ObjectName executorName : executorNames) {
-      ThreadPool threadPool = new ThreadPool();
-      threadPool.setName(executorName.getKeyProperty("name"));
-      threadPool.setMaxThreads(JmxTools.getIntAttr(server, executorName, "maxThreads"));
-      threadPool.setMaxSpareThreads(JmxTools.getIntAttr(server, executorName, "largestPoolSize"));
-      threadPool.setMinSpareThreads(JmxTools.getIntAttr(server, executorName, "minSpareThreads"));
-      threadPool.setCurrentThreadsBusy(JmxTools.getIntAttr(server, executorName, "activeCount"));
-      threadPool.setCurrentThreadCount(JmxTools.getIntAttr(server, executorName, "poolSize"));
-      threadPools.add(threadPool);
+      try {
+        Map<String, Object> attrs =
+            JmxTools.getAttributes(server, executorName, EXECUTOR_ATTRIBUTES);
+        ThreadPool threadPool = new ThreadPool();
+        threadPool.setName(executorName.getKeyProperty("name"));
+        threadPool.setMaxThreads(JmxTools.getIntAttr(attrs, "maxThreads", -1));
+        threadPool.setMaxSpareThreads(JmxTools.getIntAttr(attrs, "largestPoolSize", 0));
+        threadPool.setMinSpareThreads(JmxTools.getIntAttr(attrs, "minSpareThreads", 0));
+        threadPool.setCurrentThreadsBusy(JmxTools.getIntAttr(attrs, "activeCount", 0));
+        threadPool.setCurrentThreadCount(JmxTools.getIntAttr(attrs, "poolSize", 0));
+        threadPool.setQueueSize(JmxTools.getIntAttr(attrs, "queueSize", -1));
+        threadPools.add(threadPool);
+      } catch (InstanceNotFoundException e) {
+        logger.error("Failed to query executor {}", executorName);
+        logger.debug("", e);
+      }
     }
 
     for (ThreadPoolObjectName threadPoolObjectName : poolNames) {
       try {
         ObjectName poolName = threadPoolObjectName.getThreadPoolName();
+        Map<String, Object> attrs = JmxTools.getAttributes(server, poolName, POOL_ATTRIBUTES);
 
         ThreadPool threadPool = new ThreadPool();
         threadPool.setName(poolName.getKeyProperty("name"));
-        threadPool.setMaxThreads(JmxTools.getIntAttr(server, poolName, "maxThreads"));
-
-        if (JmxTools.hasAttribute(server, poolName, "maxSpareThreads")) {
-          threadPool.setMaxSpareThreads(JmxTools.getIntAttr(server, poolName, "maxSpareThreads"));
-          threadPool.setMinSpareThreads(JmxTools.getIntAttr(server, poolName, "minSpareThreads"));
-        }
-
-        threadPool
-            .setCurrentThreadsBusy(JmxTools.getIntAttr(server, poolName, "currentThreadsBusy"));
-        threadPool
-            .setCurrentThreadCount(JmxTools.getIntAttr(server, poolName, "currentThreadCount"));
+        threadPool.setMaxThreads(JmxTools.getIntAttr(attrs, "maxThreads", -1));
+        threadPool.setMaxSpareThreads(JmxTools.getIntAttr(attrs, "maxSpareThreads", 0));
+        threadPool.setMinSpareThreads(JmxTools.getIntAttr(attrs, "minSpareThreads", 0));
+        threadPool.setCurrentThreadsBusy(JmxTools.getIntAttr(attrs, "currentThreadsBusy", 0));
+        threadPool.setCurrentThreadCount(JmxTools.getIntAttr(attrs, "currentThreadCount", 0));
 
         /*
          * Tomcat will return -1 for maxThreads if the connector uses an executor for its threads.
@@ -250,6 +270,47 @@ public class ContainerListenerBean implements NotificationListener {
     return threadPools;
   }
 
+  /**
+   * Gets the request processors servicing a request. Only what tells which request runs for how
+   * long and on which thread is read, with one call per request processor, so that this can be
+   * polled far more often than {@link #getConnectors(boolean)}.
+   *
+   * @return the busy request processors
+   * @throws Exception the exception
+   */
+  public synchronized List<RequestProcessor> getBusyRequestProcessors() throws Exception {
+    if (!isInitialized()) {
+      initialize();
+    }
+
+    List<RequestProcessor> processors = new ArrayList<>();
+    MBeanServer server = getContainerWrapper().getResourceResolver().getMBeanServer();
+    for (ThreadPoolObjectName threadPoolObjectName : poolNames) {
+      for (ObjectName wrkName : threadPoolObjectName.getRequestProcessorNames()) {
+        try {
+          Map<String, Object> attrs =
+              JmxTools.getAttributes(server, wrkName, BUSY_PROCESSOR_ATTRIBUTES);
+          if (JmxTools.getIntAttr(attrs, "stage", -1) == STAGE_SERVICE) {
+            RequestProcessor rp = new RequestProcessor();
+            rp.setName(wrkName.getKeyProperty("name"));
+            rp.setStage(STAGE_SERVICE);
+            rp.setProcessingTime(JmxTools.getLongAttr(attrs, "requestProcessingTime", 0));
+            rp.setMethod(JmxTools.getStringAttr(attrs, "method"));
+            rp.setCurrentUri(JmxTools.getStringAttr(attrs, "currentUri"));
+            rp.setCurrentQueryString(JmxTools.getStringAttr(attrs, "currentQueryString"));
+            rp.setWorkerThreadName(JmxTools.getStringAttr(attrs, "workerThreadName"));
+            rp.setWorkerThreadNameSupported(rp.getWorkerThreadName() != null);
+            processors.add(rp);
+          }
+        } catch (InstanceNotFoundException e) {
+          logger.debug("Request processor {} is gone", wrkName);
+          logger.trace("", e);
+        }
+      }
+    }
+    return processors;
+  }
+
   /**
    * Toggle connector status.
    *
@@ -20,6 +20,7 @@ import org.apache.catalina.util.ServerInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import psiprobe.AbstractTomcatContainer;
 import psiprobe.TomcatContainer;
 import psiprobe.model.ApplicationResource;
 
@@ -50,6 +51,9 @@ public class ContainerWrapperBean {
   /** The force first adapter. */
   private boolean forceFirstAdapter;
 
+  /** The maximum number of threads compiling JSPs at once, or 0 for one per processor. */
+  private int jspCompilerThreads;
+
   /** The resource resolvers. */
   @Inject
   private Map<String, ResourceResolver> resourceResolvers;
@@ -76,6 +80,25 @@ public class ContainerWrapperBean {
     this.forceFirstAdapter = forceFirstAdapter;
   }
 
+  /**
+   * Gets the jsp compiler threads.
+   *
+   * @return the jsp compiler threads, or 0 for one per processor
+   */
+  public int getJspCompilerThreads() {
+    return jspCompilerThreads;
+  }
+
+  /**
+   * Sets the jsp compiler threads, handed to the container adapter when it is bound.
+   *
+   * @param jspCompilerThreads the new jsp compiler threads, or 0 for one per processor
+   */
+  @Value("${psiprobe.beans.jsp.compilerThreads}")
+  public void setJspCompilerThreads(int jspCompilerThreads) {
+    this.jspCompilerThreads = jspCompilerThreads;
+  }
+
   /**
    * Sets the wrapper.
    *
@@ -98,6 +121,9 @@ public class ContainerWrapperBean {
                 if (forceFirstAdapter || ((TomcatContainer) obj).canBoundTo(serverInfo)) {
                   logger.info("Using {}", className);
                   tomcatContainer = (TomcatContainer) obj;
+                  if (jspCompilerThreads > 0 && obj instanceof AbstractTomcatContainer) {
+                    ((AbstractTomcatContainer) obj).setJspCompilerThreads(jspCompilerThreads);
+                  }
                   tomcatContainer.setWrapper(wrapper);
                   break;
                 }
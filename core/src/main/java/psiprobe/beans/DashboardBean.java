@@ -0,0 +1,528 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import org.apache.catalina.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import psiprobe.TomcatContainer;
+import psiprobe.model.Application;
+import psiprobe.model.Connector;
+import psiprobe.model.DashboardUpdate;
+import psiprobe.model.jmx.Cluster;
+import psiprobe.model.stats.StatsCollection;
+import psiprobe.tools.ApplicationUtils;
+import psiprobe.tools.SizeExpression;
+
+/**
+ * Computes the values shown by the live panels of the application, connector and cluster pages
+ * once per tick for all clients, and hands each client only the values that changed since it last
+ * asked. Panels are identified as {@code type} or {@code type:name}, for example
+ * {@code app.requests:/manager} or {@code cluster.traffic}. A panel is computed for as long as some
+ * client keeps asking for it.
+ */
+public class DashboardBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(DashboardBean.class);
+
+  /** Request and error counts of a web application. */
+  public static final String APP_REQUESTS = "app.requests";
+
+  /** Processing times of a web application. */
+  public static final String APP_PROC_TIME = "app.proc_time";
+
+  /** Request and error counts of a connector. */
+  public static final String CONNECTOR_REQUESTS = "connector.requests";
+
+  /** Processing times of a connector. */
+  public static final String CONNECTOR_PROC_TIME = "connector.proc_time";
+
+  /** Bytes sent and received by a connector. */
+  public static final String CONNECTOR_TRAFFIC = "connector.traffic";
+
+  /** Bytes sent and received by the cluster. */
+  public static final String CLUSTER_TRAFFIC = "cluster.traffic";
+
+  /** Requests sent and messages received by the cluster. */
+  public static final String CLUSTER_REQUESTS = "cluster.requests";
+
+  /** The maximum number of panels computed at once. */
+  private static final int MAX_PANELS = 1000;
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The container listener. */
+  @Inject
+  private ContainerListenerBean containerListener;
+
+  /** The cluster wrapper. */
+  @Inject
+  private ClusterWrapperBean clusterWrapper;
+
+  /** The stats collection. */
+  @Inject
+  private StatsCollection statsCollection;
+
+  /** The minimum time between two computations of the panels, in milliseconds. */
+  private long tickInterval = 3000;
+
+  /** The maximum time a client waits for a change, in milliseconds. */
+  private long maxWait = 25000;
+
+  /**
+   * The time after which a panel no client asked for is no longer computed, in milliseconds. Must
+   * be well above the max wait.
+   */
+  private long subscriptionTimeout = 60000;
+
+  /** The panels by id, also guarding the state below. */
+  private final Map<String, Panel> panels = new HashMap<>();
+
+  /** The version of the latest change. */
+  private long version;
+
+  /** The time the panels were last computed. */
+  private long lastTick;
+
+  /** Whether panels were added that have not been computed yet. */
+  private boolean pending;
+
+  /** Whether some client is computing the panels. */
+  private boolean refreshing;
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  /**
+   * Gets the container listener.
+   *
+   * @return the container listener
+   */
+  public ContainerListenerBean getContainerListener() {
+    return containerListener;
+  }
+
+  /**
+   * Sets the container listener.
+   *
+   * @param containerListener the new container listener
+   */
+  public void setContainerListener(ContainerListenerBean containerListener) {
+    this.containerListener = containerListener;
+  }
+
+  /**
+   * Gets the cluster wrapper.
+   *
+   * @return the cluster wrapper
+   */
+  public ClusterWrapperBean getClusterWrapper() {
+    return clusterWrapper;
+  }
+
+  /**
+   * Sets the cluster wrapper.
+   *
+   * @param clusterWrapper the new cluster wrapper
+   */
+  public void setClusterWrapper(ClusterWrapperBean clusterWrapper) {
+    this.clusterWrapper = clusterWrapper;
+  }
+
+  /**
+   * Gets the stats collection.
+   *
+   * @return the stats collection
+   */
+  public StatsCollection getStatsCollection() {
+    return statsCollection;
+  }
+
+  /**
+   * Sets the stats collection.
+   *
+   * @param statsCollection the new stats collection
+   */
+  public void setStatsCollection(StatsCollection statsCollection) {
+    this.statsCollection = statsCollection;
+  }
+
+  /**
+   * Gets the tick interval.
+   *
+   * @return the tick interval in milliseconds
+   */
+  public long getTickInterval() {
+    return tickInterval;
+  }
+
+  /**
+   * Sets the tick interval.
+   *
+   * @param tickInterval the new tick interval in milliseconds
+   */
+  public void setTickInterval(long tickInterval) {
+    this.tickInterval = tickInterval;
+  }
+
+  /**
+   * Gets the max wait.
+   *
+   * @return the max wait in milliseconds
+   */
+  public long getMaxWait() {
+    return maxWait;
+  }
+
+  /**
+   * Sets the max wait.
+   *
+   * @param maxWait the new max wait in milliseconds
+   */
+  public void setMaxWait(long maxWait) {
+    this.maxWait = maxWait;
+  }
+
+  /**
+   * Gets the subscription timeout.
+   *
+   * @return the subscription timeout in milliseconds
+   */
+  public long getSubscriptionTimeout() {
+    return subscriptionTimeout;
+  }
+
+  /**
+   * Sets the subscription timeout.
+   *
+   * @param subscriptionTimeout the new subscription timeout in milliseconds
+   */
+  public void setSubscriptionTimeout(long subscriptionTimeout) {
+    this.subscriptionTimeout = subscriptionTimeout;
+  }
+
+  /**
+   * Waits until any of the given panels changed after the given version, or the timeout elapsed.
+   * Whichever waiting client finds the panels due computes them for everybody.
+   *
+   * @param panelIds the panels the client shows
+   * @param since the version of the last update the client received, 0 for all values
+   * @param timeout the maximum time to wait in milliseconds, capped by the max wait
+   * @return the changed values, empty if nothing changed in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public DashboardUpdate poll(Collection<String> panelIds, long since, long timeout)
+      throws InterruptedException {
+
+    long deadline = System.currentTimeMillis() + Math.max(0, Math.min(timeout, maxWait));
+    while (true) {
+      List<String> subscribed;
+      synchronized (panels) {
+        subscribe(panelIds, System.currentTimeMillis());
+        while (true) {
+          DashboardUpdate update = changesSince(panelIds, since);
+          long now = System.currentTimeMillis();
+          if (!update.isEmpty() || now >= deadline) {
+            return update;
+          }
+          if (!refreshing && (pending || now - lastTick >= tickInterval)) {
+            refreshing = true;
+            pending = false;
+            subscribed = expire(now);
+            break;
+          }
+          long wakeUp = refreshing ? deadline : Math.min(deadline, lastTick + tickInterval);
+          panels.wait(Math.max(wakeUp - now, 1));
+        }
+      }
+
+      // collect outside of the lock so that clients with changes pending are not held up
+      Map<String, Map<String, String>> values = Collections.emptyMap();
+      try {
+        values = collect(subscribed);
+      } catch (Exception e) {
+        logger.error("Could not compute dashboard panels", e);
+      } finally {
+        synchronized (panels) {
+          publish(values);
+          lastTick = System.currentTimeMillis();
+          refreshing = false;
+          panels.notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the values of the given panels. Panels that do not exist are left out.
+   *
+   * @param panelIds the panel ids
+   * @return the values by panel and field
+   * @throws Exception if the values cannot be retrieved
+   */
+  protected Map<String, Map<String, String>> collect(Collection<String> panelIds)
+      throws Exception {
+
+    TomcatContainer container = containerWrapper.getTomcatContainer();
+    Map<String, Map<String, String>> result = new HashMap<>();
+    Map<String, Application> apps = new HashMap<>();
+    Map<String, Connector> connectors = null;
+    Cluster cluster = null;
+    boolean clusterLoaded = false;
+
+    for (String id : panelIds) {
+      int colon = id.indexOf(':');
+      String type = colon < 0 ? id : id.substring(0, colon);
+      String name = colon < 0 ? null : id.substring(colon + 1);
+      Map<String, String> values = new HashMap<>();
+
+      if (APP_REQUESTS.equals(type) || APP_PROC_TIME.equals(type)) {
+        if (!apps.containsKey(name)) {
+          apps.put(name, getApplication(container, name));
+        }
+        Application app = apps.get(name);
+        if (app == null) {
+          continue;
+        }
+        if (APP_REQUESTS.equals(type)) {
+          values.put("requestCount", Integer.toString(app.getRequestCount()));
+          values.put("errorCount", Integer.toString(app.getErrorCount()));
+        } else {
+          values.put("processingTime", Long.toString(app.getProcessingTime()));
+          values.put("minTime", Long.toString(app.getMinTime()));
+          values.put("maxTime", Long.toString(app.getMaxTime()));
+          values.put("avgTime", Long.toString(app.getAvgTime()));
+        }
+      } else if (CONNECTOR_REQUESTS.equals(type) || CONNECTOR_PROC_TIME.equals(type)
+          || CONNECTOR_TRAFFIC.equals(type)) {
+        if (connectors == null) {
+          connectors = getConnectors();
+        }
+        Connector connector = connectors.get(name);
+        if (connector == null) {
+          continue;
+        }
+        if (CONNECTOR_REQUESTS.equals(type)) {
+          values.put("requestCount", Integer.toString(connector.getRequestCount()));
+          values.put("errorCount", Integer.toString(connector.getErrorCount()));
+        } else if (CONNECTOR_PROC_TIME.equals(type)) {
+          values.put("processingTime", Long.toString(connector.getProcessingTime()));
+          values.put("maxTime", Long.toString(connector.getMaxTime()));
+        } else {
+          values.put("bytesSent", SizeExpression.format(connector.getBytesSent(), 0, true));
+          values.put("bytesReceived",
+              SizeExpression.format(connector.getBytesReceived(), 0, true));
+        }
+      } else if (CLUSTER_TRAFFIC.equals(type) || CLUSTER_REQUESTS.equals(type)) {
+        if (!clusterLoaded) {
+          cluster = getCluster(container);
+          clusterLoaded = true;
+        }
+        if (cluster == null) {
+          continue;
+        }
+        if (CLUSTER_TRAFFIC.equals(type)) {
+          values.put("sent", SizeExpression.format(cluster.getSenderTotalBytes(), 0, true));
+          values.put("received", SizeExpression.format(cluster.getTotalReceivedBytes(), 0, true));
+        } else {
+          values.put("sent", Long.toString(cluster.getSenderNrOfRequests()));
+          values.put("received", Long.toString(cluster.getNrOfMsgsReceived()));
+        }
+      } else {
+        continue;
+      }
+      result.put(id, values);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the servlet statistics of a web application.
+   *
+   * @param container the container
+   * @param name the context name
+   * @return the application, or null if there is no such context
+   */
+  private Application getApplication(TomcatContainer container, String name) {
+    if (container == null || name == null) {
+      return null;
+    }
+    Context context = container.findContext(container.formatContextName(name));
+    if (context == null) {
+      return null;
+    }
+    Application app = new Application();
+    app.setName(context.getName().isEmpty() ? "/" : context.getName());
+    ApplicationUtils.collectApplicationServletStats(context, app);
+    if (statsCollection != null) {
+      app.setAvgTime(statsCollection.getLastValueForStat("app.avg_proc_time." + app.getName()));
+    }
+    return app;
+  }
+
+  /**
+   * Gets the connectors by protocol handler.
+   *
+   * @return the connectors, empty if they cannot be retrieved
+   */
+  private Map<String, Connector> getConnectors() {
+    Map<String, Connector> connectors = new HashMap<>();
+    try {
+      for (Connector connector : containerListener.getConnectors(false)) {
+        connectors.put(connector.getProtocolHandler(), connector);
+      }
+    } catch (Exception e) {
+      logger.debug("Could not retrieve connectors", e);
+    }
+    return connectors;
+  }
+
+  /**
+   * Gets the cluster without its members.
+   *
+   * @param container the container
+   * @return the cluster, or null if there is none or it cannot be retrieved
+   */
+  private Cluster getCluster(TomcatContainer container) {
+    if (container == null) {
+      return null;
+    }
+    try {
+      return clusterWrapper.getCluster(container.getName(), container.getHostName(), false);
+    } catch (Exception e) {
+      logger.debug("Could not retrieve cluster", e);
+      return null;
+    }
+  }
+
+  /**
+   * Registers the panels a client asks for, must hold the lock.
+   *
+   * @param panelIds the panel ids
+   * @param now the current time
+   */
+  private void subscribe(Collection<String> panelIds, long now) {
+    for (String id : panelIds) {
+      Panel panel = panels.get(id);
+      if (panel == null) {
+        if (panels.size() >= MAX_PANELS) {
+          logger.debug("Not computing dashboard panel '{}', too many panels", id);
+          continue;
+        }
+        panel = new Panel();
+        panels.put(id, panel);
+        pending = true;
+      }
+      panel.lastPolled = now;
+    }
+  }
+
+  /**
+   * Drops the panels no client asked for lately, must hold the lock.
+   *
+   * @param now the current time
+   * @return the ids of the remaining panels
+   */
+  private List<String> expire(long now) {
+    Iterator<Panel> it = panels.values().iterator();
+    while (it.hasNext()) {
+      if (now - it.next().lastPolled > subscriptionTimeout) {
+        it.remove();
+      }
+    }
+    return new ArrayList<>(panels.keySet());
+  }
+
+  /**
+   * Stores freshly computed values, must hold the lock. Only values that differ from the previous
+   * ones get the new version.
+   *
+   * @param values the values by panel and field
+   */
+  private void publish(Map<String, Map<String, String>> values) {
+    long next = version + 1;
+    boolean changed = false;
+    for (Map.Entry<String, Map<String, String>> entry : values.entrySet()) {
+      Panel panel = panels.get(entry.getKey());
+      if (panel != null && !entry.getValue().equals(panel.values)) {
+        panel.values = entry.getValue();
+        panel.version = next;
+        changed = true;
+      }
+    }
+    if (changed) {
+      version = next;
+    }
+  }
+
+  /**
+   * Gets the values of the given panels that changed after a version, must hold the lock.
+   *
+   * @param panelIds the panel ids
+   * @param since the version, reset to 0 if it is ahead of the current one as it then comes from
+   *        before a restart
+   * @return the update
+   */
+  private DashboardUpdate changesSince(Collection<String> panelIds, long since) {
+    long base = since > version ? 0 : since;
+    Map<String, Map<String, String>> changed = new HashMap<>();
+    for (String id : panelIds) {
+      Panel panel = panels.get(id);
+      if (panel != null && panel.values != null && panel.version > base) {
+        changed.put(id, panel.values);
+      }
+    }
+    return new DashboardUpdate(version, changed);
+  }
+
+  /**
+   * The latest values of a panel.
+   */
+  private static class Panel {
+
+    /** The values by field, null until first computed. */
+    Map<String, String> values;
+
+    /** The version the values last changed in. */
+    long version;
+
+    /** The time a client last asked for the panel. */
+    long lastPolled;
+
+  }
+
+}
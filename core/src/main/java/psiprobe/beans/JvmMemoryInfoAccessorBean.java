@@ -11,9 +11,13 @@
 package psiprobe.beans;
 
 import java.lang.management.ManagementFactory;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.management.InstanceNotFoundException;
 import javax.management.MBeanServer;
 import javax.management.ObjectInstance;
 import javax.management.ObjectName;
@@ -25,12 +29,47 @@ import psiprobe.tools.JmxTools;
 
 /**
  * The Class JvmMemoryInfoAccessorBean.
+ *
+ * <p>
+ * Memory pools of a running JVM do not come and go, so their object names, names and types are
+ * looked up once and cached. Only the "Usage" attribute is read on every call. The cache is
+ * rebuilt should a pool ever disappear.
+ * </p>
  */
 public class JvmMemoryInfoAccessorBean {
 
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(JvmMemoryInfoAccessorBean.class);
 
+  /** The pool object names mapped to the pool names and types, lazily populated. */
+  private volatile Map<ObjectName, String[]> poolObjectNames;
+
+  /**
+   * Gets the pool object names, querying the mbean server on first use only.
+   *
+   * @param mbeanServer the mbean server
+   * @return the pool object names mapped to pool name and type
+   * @throws Exception the exception
+   */
+  protected Map<ObjectName, String[]> getPoolObjectNames(MBeanServer mbeanServer)
+      throws Exception {
+
+    Map<ObjectName, String[]> result = poolObjectNames;
+    if (result == null) {
+      Set<ObjectInstance> memoryOPools =
+          mbeanServer.queryMBeans(new ObjectName("java.lang:type=MemoryPool,*"), null);
+      result = new LinkedHashMap<>();
+      for (ObjectInstance oi : memoryOPools) {
+        ObjectName objName = oi.getObjectName();
+        result.put(objName, new String[] {JmxTools.getStringAttr(mbeanServer, objName, "Name"),
+            JmxTools.getStringAttr(mbeanServer, objName, "Type")});
+      }
+      result = Collections.unmodifiableMap(result);
+      poolObjectNames = result;
+    }
+    return result;
+  }
+
   /**
    * Gets the pools.
    *
@@ -39,10 +78,9 @@ public class JvmMemoryInfoAccessorBean {
    */
   public List<MemoryPool> getPools() throws Exception {
 
-    List<MemoryPool> memoryPools = new LinkedList<>();
     MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
-    Set<ObjectInstance> memoryOPools =
-        mbeanServer.queryMBeans(new ObjectName("java.lang:type=MemoryPool,*"), null);
+    Map<ObjectName, String[]> memoryOPools = getPoolObjectNames(mbeanServer);
+    List<MemoryPool> memoryPools = new ArrayList<>(memoryOPools.size() + 1);
 
     // totals
     long totalInit = 0;
@@ -50,13 +88,21 @@ public class JvmMemoryInfoAccessorBean {
     long totalUsed = 0;
     long totalCommitted = 0;
 
-    for (ObjectInstance oi : memoryOPools) {
-      ObjectName objName = oi.getObjectName();
+    for (Map.Entry<ObjectName, String[]> entry : memoryOPools.entrySet()) {
+      ObjectName objName = entry.getKey();
       MemoryPool memoryPool = new MemoryPool();
-      memoryPool.setName(JmxTools.getStringAttr(mbeanServer, objName, "Name"));
-      memoryPool.setType(JmxTools.getStringAttr(mbeanServer, objName, "Type"));
+      memoryPool.setName(entry.getValue()[0]);
+      memoryPool.setType(entry.getValue()[1]);
 
-      CompositeDataSupport cd = (CompositeDataSupport) mbeanServer.getAttribute(objName, "Usage");
+      CompositeDataSupport cd;
+      try {
+        cd = (CompositeDataSupport) mbeanServer.getAttribute(objName, "Usage");
+      } catch (InstanceNotFoundException e) {
+        logger.debug("Memory pool {} is gone, refreshing pool names", objName);
+        logger.trace("", e);
+        poolObjectNames = null;
+        return getPools();
+      }
       /*
        * It seems that "Usage" attribute of one of the pools may turn into null intermittently. We
        * better have a dip in the graph then an NPE though.
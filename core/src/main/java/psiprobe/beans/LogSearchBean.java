@@ -0,0 +1,133 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import psiprobe.model.LogSearchHit;
+import psiprobe.model.LogSearchResult;
+import psiprobe.tools.logging.LogDestination;
+import psiprobe.tools.logging.LogScanner;
+import psiprobe.tools.logging.TimestampIndex;
+
+/**
+ * Searches log files. Keeps a timestamp index per file so that searches restricted to a period only
+ * scan the relevant part of the file; the index is built on the first such search and extended as
+ * the file grows.
+ */
+public class LogSearchBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(LogSearchBean.class);
+
+  /** The maximum number of indexed files. */
+  private static final int MAX_INDEXES = 64;
+
+  /** The timestamp indexes by file path, least recently used first. */
+  private final Map<String, TimestampIndex> indexes =
+      new LinkedHashMap<String, TimestampIndex>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TimestampIndex> eldest) {
+          return size() > MAX_INDEXES;
+        }
+      };
+
+  /**
+   * Searches a log file.
+   *
+   * @param logDest the log destination
+   * @param query the text to search for
+   * @param regex whether the text is a regular expression
+   * @param ignoreCase whether to ignore case
+   * @param from the start of the period to search, or null
+   * @param to the end of the period to search, or null
+   * @param contextLines the number of lines to show around each hit
+   * @param offset the offset to resume the search from, or 0
+   * @param page the page number, for display
+   * @param pageSize the maximum number of hits to return
+   * @return the result
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public LogSearchResult search(LogDestination logDest, String query, boolean regex,
+      boolean ignoreCase, String from, String to, int contextLines, long offset, int page,
+      int pageSize) throws IOException {
+
+    long start = System.currentTimeMillis();
+    File file = logDest.getFile();
+    Charset charset = logDest.getEncoding() != null ? Charset.forName(logDest.getEncoding())
+        : StandardCharsets.UTF_8;
+    long length = file.length();
+    long fromTime = TimestampIndex.parseQueryTime(from, file.lastModified());
+    long toTime = TimestampIndex.parseQueryTime(to, file.lastModified());
+
+    long[] range = {0, length};
+    if (fromTime >= 0 || toTime >= 0) {
+      TimestampIndex index = getIndex(file, charset);
+      index.update();
+      range = index.getRange(fromTime, toTime, length);
+    }
+
+    LogScanner scanner = new LogScanner(file, charset, query, regex, ignoreCase);
+    scanner.setPeriod(fromTime, toTime);
+    long scanStart = Math.max(range[0], offset);
+    List<Long> offsets = scanner.scan(scanStart, range[1], pageSize + 1);
+
+    List<LogSearchHit> hits = new ArrayList<>();
+    for (int i = 0; i < offsets.size() && i < pageSize; i++) {
+      hits.add(scanner.readHit(offsets.get(i), contextLines));
+    }
+
+    LogSearchResult result = new LogSearchResult();
+    result.setHits(hits);
+    result.setPage(page);
+    result.setPageSize(pageSize);
+    result.setMore(offsets.size() > pageSize);
+    result.setStartOffset(scanStart);
+    // the next page resumes after the last hit returned
+    result.setEndOffset(result.isMore() ? offsets.get(pageSize - 1) + 1 : range[1]);
+    result.setScanned(scanner.getScanned());
+    result.setTime(System.currentTimeMillis() - start);
+    logger.debug("Searched {} for '{}' in {} ms", file, query, result.getTime());
+    return result;
+  }
+
+  /**
+   * Gets the timestamp index of a file, creating an empty one if needed.
+   *
+   * @param file the file
+   * @param charset the charset
+   * @return the index
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private TimestampIndex getIndex(File file, Charset charset) throws IOException {
+    String path = file.getCanonicalPath();
+    synchronized (indexes) {
+      TimestampIndex index = indexes.get(path);
+      if (index == null) {
+        index = new TimestampIndex(file, charset);
+        indexes.put(path, index);
+      }
+      return index;
+    }
+  }
+
+}
@@ -0,0 +1,497 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.ComputerSystem;
+import oshi.hardware.Display;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+import oshi.hardware.PowerSource;
+import oshi.hardware.Sensors;
+import oshi.hardware.UsbDevice;
+import oshi.software.os.NetworkParams;
+import oshi.software.os.OSFileStore;
+import oshi.software.os.OperatingSystem;
+import oshi.software.os.OperatingSystem.ProcessSort;
+import psiprobe.model.oshi.ProcessesInfo;
+import psiprobe.model.oshi.SensorsInfo;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Provides OSHI operating system and hardware information. Every OSHI subsystem is probed through
+ * its own cache with a separate time to live, so that cheap counters (cpu ticks, disks, network
+ * interfaces) stay fresh while expensive probes (processes, sensors, hardware inventory) run
+ * rarely no matter how often the information is requested.
+ */
+public class OshiInfoAccessorBean {
+
+  /** The number of top processes retained in the processes snapshot. */
+  private static final int TOP_PROCESSES = 5;
+
+  /** The system info, created on first use. */
+  private volatile SystemInfo systemInfo;
+
+  /** The cpu ticks supplier. */
+  private volatile Supplier<long[][]> cpuTicks;
+
+  /** The load average supplier. */
+  private volatile Supplier<double[]> loadAverage;
+
+  /** The memory supplier. */
+  private volatile Supplier<long[]> memory;
+
+  /** The disk stores supplier. */
+  private volatile Supplier<HWDiskStore[]> diskStores;
+
+  /** The network interfaces supplier. */
+  private volatile Supplier<NetworkIF[]> networkIfs;
+
+  /** The file stores supplier. */
+  private volatile Supplier<OSFileStore[]> fileStores;
+
+  /** The processes supplier. */
+  private volatile Supplier<ProcessesInfo> processes;
+
+  /** The sensors supplier. */
+  private volatile Supplier<SensorsInfo> sensors;
+
+  /** The power sources supplier. */
+  private volatile Supplier<PowerSource[]> powerSources;
+
+  /** The displays supplier. */
+  private volatile Supplier<Display[]> displays;
+
+  /** The usb devices supplier. */
+  private volatile Supplier<UsbDevice[]> usbDevices;
+
+  /**
+   * Instantiates a new oshi info accessor bean with the default time to live of every subsystem.
+   */
+  public OshiInfoAccessorBean() {
+    setCpuTtl(5);
+    setMemoryTtl(5);
+    setDisksTtl(5);
+    setNetworkTtl(5);
+    setFileSystemTtl(30);
+    setProcessesTtl(60);
+    setSensorsTtl(300);
+    setHardwareTtl(3600);
+  }
+
+  /**
+   * Sets the cpu time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setCpuTtl(long ttl) {
+    cpuTicks = cache(new Supplier<long[][]>() {
+      @Override
+      public long[][] get() {
+        return getProcessor().getProcessorCpuLoadTicks();
+      }
+    }, ttl);
+    loadAverage = cache(new Supplier<double[]>() {
+      @Override
+      public double[] get() {
+        return getProcessor().getSystemLoadAverage(3);
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the cpu time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.cpu}")
+  public void setCpuTtl(String ttl) {
+    setCpuTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the memory time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setMemoryTtl(long ttl) {
+    memory = cache(new Supplier<long[]>() {
+      @Override
+      public long[] get() {
+        GlobalMemory mem = getHardware().getMemory();
+        return new long[] {mem.getTotal(), mem.getAvailable(), mem.getSwapTotal(),
+            mem.getSwapUsed()};
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the memory time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.memory}")
+  public void setMemoryTtl(String ttl) {
+    setMemoryTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the disks time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setDisksTtl(long ttl) {
+    diskStores = cache(new Supplier<HWDiskStore[]>() {
+      @Override
+      public HWDiskStore[] get() {
+        return getHardware().getDiskStores();
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the disks time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.disks}")
+  public void setDisksTtl(String ttl) {
+    setDisksTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the network time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setNetworkTtl(long ttl) {
+    networkIfs = cache(new Supplier<NetworkIF[]>() {
+      @Override
+      public NetworkIF[] get() {
+        return getHardware().getNetworkIFs();
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the network time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.network}")
+  public void setNetworkTtl(String ttl) {
+    setNetworkTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the file system time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setFileSystemTtl(long ttl) {
+    fileStores = cache(new Supplier<OSFileStore[]>() {
+      @Override
+      public OSFileStore[] get() {
+        return getOperatingSystem().getFileSystem().getFileStores();
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the file system time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.filesystem}")
+  public void setFileSystemTtl(String ttl) {
+    setFileSystemTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the processes time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setProcessesTtl(long ttl) {
+    processes = cache(new Supplier<ProcessesInfo>() {
+      @Override
+      public ProcessesInfo get() {
+        OperatingSystem os = getOperatingSystem();
+        ProcessesInfo info = new ProcessesInfo();
+        info.setProcessCount(os.getProcessCount());
+        info.setThreadCount(os.getThreadCount());
+        info.setTopProcesses(Arrays.asList(os.getProcesses(TOP_PROCESSES, ProcessSort.CPU)));
+        return info;
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the processes time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.processes}")
+  public void setProcessesTtl(String ttl) {
+    setProcessesTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the sensors time to live.
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setSensorsTtl(long ttl) {
+    sensors = cache(new Supplier<SensorsInfo>() {
+      @Override
+      public SensorsInfo get() {
+        Sensors hwSensors = getHardware().getSensors();
+        SensorsInfo info = new SensorsInfo();
+        info.setCpuTemperature(hwSensors.getCpuTemperature());
+        info.setFanSpeeds(hwSensors.getFanSpeeds());
+        info.setCpuVoltage(hwSensors.getCpuVoltage());
+        return info;
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the sensors time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.sensors}")
+  public void setSensorsTtl(String ttl) {
+    setSensorsTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Sets the time to live of the hardware inventory (power sources, displays and usb devices).
+   *
+   * @param ttl the time to live in seconds
+   */
+  public void setHardwareTtl(long ttl) {
+    powerSources = cache(new Supplier<PowerSource[]>() {
+      @Override
+      public PowerSource[] get() {
+        return getHardware().getPowerSources();
+      }
+    }, ttl);
+    displays = cache(new Supplier<Display[]>() {
+      @Override
+      public Display[] get() {
+        return getHardware().getDisplays();
+      }
+    }, ttl);
+    usbDevices = cache(new Supplier<UsbDevice[]>() {
+      @Override
+      public UsbDevice[] get() {
+        return getHardware().getUsbDevices(true);
+      }
+    }, ttl);
+  }
+
+  /**
+   * Sets the hardware inventory time to live using expression.
+   *
+   * @param ttl the time to live expression
+   */
+  @Value("${psiprobe.beans.oshi.ttl.hardware}")
+  public void setHardwareTtl(String ttl) {
+    setHardwareTtl(TimeExpression.inSeconds(ttl));
+  }
+
+  /**
+   * Gets the system info, creating it on first use.
+   *
+   * @return the system info
+   */
+  private SystemInfo getSystemInfo() {
+    SystemInfo si = systemInfo;
+    if (si == null) {
+      synchronized (this) {
+        si = systemInfo;
+        if (si == null) {
+          si = new SystemInfo();
+          systemInfo = si;
+        }
+      }
+    }
+    return si;
+  }
+
+  /**
+   * Gets the hardware abstraction layer.
+   *
+   * @return the hardware
+   */
+  public HardwareAbstractionLayer getHardware() {
+    return getSystemInfo().getHardware();
+  }
+
+  /**
+   * Gets the operating system.
+   *
+   * @return the operating system
+   */
+  public OperatingSystem getOperatingSystem() {
+    return getSystemInfo().getOperatingSystem();
+  }
+
+  /**
+   * Gets the computer system. OSHI resolves it once and keeps it.
+   *
+   * @return the computer system
+   */
+  public ComputerSystem getComputerSystem() {
+    return getHardware().getComputerSystem();
+  }
+
+  /**
+   * Gets the processor. OSHI resolves it once and keeps it.
+   *
+   * @return the processor
+   */
+  public CentralProcessor getProcessor() {
+    return getHardware().getProcessor();
+  }
+
+  /**
+   * Gets the network parameters.
+   *
+   * @return the network params
+   */
+  public NetworkParams getNetworkParams() {
+    return getOperatingSystem().getNetworkParams();
+  }
+
+  /**
+   * Gets the per processor cpu ticks, indexed by processor and then by
+   * {@link CentralProcessor.TickType#getIndex()}.
+   *
+   * @return the processor cpu load ticks
+   */
+  public long[][] getProcessorCpuLoadTicks() {
+    return cpuTicks.get();
+  }
+
+  /**
+   * Gets the 1, 5 and 15 minute system load averages. Negative values are not available.
+   *
+   * @return the system load average
+   */
+  public double[] getSystemLoadAverage() {
+    return loadAverage.get();
+  }
+
+  /**
+   * Gets the total, available, swap total and swap used memory in bytes.
+   *
+   * @return the memory
+   */
+  public long[] getMemory() {
+    return memory.get();
+  }
+
+  /**
+   * Gets the disk stores.
+   *
+   * @return the disk stores
+   */
+  public HWDiskStore[] getDiskStores() {
+    return diskStores.get();
+  }
+
+  /**
+   * Gets the network interfaces.
+   *
+   * @return the network interfaces
+   */
+  public NetworkIF[] getNetworkIfs() {
+    return networkIfs.get();
+  }
+
+  /**
+   * Gets the file stores.
+   *
+   * @return the file stores
+   */
+  public OSFileStore[] getFileStores() {
+    return fileStores.get();
+  }
+
+  /**
+   * Gets the processes.
+   *
+   * @return the processes
+   */
+  public ProcessesInfo getProcesses() {
+    return processes.get();
+  }
+
+  /**
+   * Gets the sensors.
+   *
+   * @return the sensors
+   */
+  public SensorsInfo getSensors() {
+    return sensors.get();
+  }
+
+  /**
+   * Gets the power sources.
+   *
+   * @return the power sources
+   */
+  public PowerSource[] getPowerSources() {
+    return powerSources.get();
+  }
+
+  /**
+   * Gets the displays.
+   *
+   * @return the displays
+   */
+  public Display[] getDisplays() {
+    return displays.get();
+  }
+
+  /**
+   * Gets the usb devices.
+   *
+   * @return the usb devices
+   */
+  public UsbDevice[] getUsbDevices() {
+    return usbDevices.get();
+  }
+
+  /**
+   * Wraps the probe into a cache expiring after the given time to live. A non positive time to live
+   * disables caching.
+   *
+   * @param <T> the probe result type
+   * @param probe the probe
+   * @param ttl the time to live in seconds
+   * @return the supplier
+   */
+  private static <T> Supplier<T> cache(Supplier<T> probe, long ttl) {
+    return ttl > 0 ? Suppliers.memoizeWithExpiration(probe, ttl, TimeUnit.SECONDS) : probe;
+  }
+
+}
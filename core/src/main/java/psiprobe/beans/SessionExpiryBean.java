@@ -0,0 +1,302 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.catalina.Context;
+import org.apache.catalina.Manager;
+import org.apache.catalina.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import psiprobe.model.SessionExpiry;
+import psiprobe.model.SessionSearchInfo;
+import psiprobe.tools.SessionMatcher;
+
+/**
+ * Expires the sessions matching a session search in the background, one run at a time.
+ *
+ * <p>
+ * The sessions are scanned in chunks by a few threads, while a single thread of minimum priority
+ * expires the matches at no more than the configured rate, so that the session listeners run by
+ * a large number of expiries do not take the processors from the request threads. A matched
+ * session is matched again just before it is expired, as it may have been used since the scan.
+ * </p>
+ */
+public class SessionExpiryBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SessionExpiryBean.class);
+
+  /** The number of sessions scanned by a task. */
+  private static final int CHUNK_SIZE = 1000;
+
+  /** The maximum number of sessions expired per second, or 0 for no limit. */
+  private int rate = 100;
+
+  /** The number of threads scanning sessions. */
+  private int scanThreads = 2;
+
+  /** The last run. */
+  private SessionExpiry expiry;
+
+  /**
+   * Gets the rate.
+   *
+   * @return the maximum number of sessions expired per second, or 0 for no limit
+   */
+  public int getRate() {
+    return rate;
+  }
+
+  /**
+   * Sets the rate.
+   *
+   * @param rate the maximum number of sessions expired per second, or 0 for no limit
+   */
+  @Value("${psiprobe.beans.sessions.expiry.rate}")
+  public void setRate(int rate) {
+    this.rate = rate;
+  }
+
+  /**
+   * Gets the scan threads.
+   *
+   * @return the scan threads
+   */
+  public int getScanThreads() {
+    return scanThreads;
+  }
+
+  /**
+   * Sets the scan threads.
+   *
+   * @param scanThreads the new scan threads
+   */
+  @Value("${psiprobe.beans.sessions.expiry.threads}")
+  public void setScanThreads(int scanThreads) {
+    this.scanThreads = scanThreads;
+  }
+
+  /**
+   * Gets the last run.
+   *
+   * @return the last run, or null if there has not been one
+   */
+  public synchronized SessionExpiry getExpiry() {
+    return expiry;
+  }
+
+  /**
+   * Starts expiring the sessions of some applications matching a search in the background.
+   *
+   * @param contexts the contexts of the applications
+   * @param searchInfo the search info, which must be in use, so that a run never expires all
+   *        sessions
+   * @param applicationName the application name, or null for all applications
+   * @param dryRun whether matching sessions are only counted, not expired
+   * @param rate the maximum number of sessions expired per second, or 0 for no limit
+   * @return the new run, or null if the last one is still going on
+   */
+  public synchronized SessionExpiry start(final List<Context> contexts,
+      SessionSearchInfo searchInfo, String applicationName, boolean dryRun, int rate) {
+
+    if (!searchInfo.isUseSearch()) {
+      throw new IllegalArgumentException("Session search is not in use");
+    }
+    if (expiry != null && expiry.isRunning()) {
+      return null;
+    }
+    final SessionExpiry run = new SessionExpiry();
+    run.setSearchInfo(searchInfo);
+    run.setApplicationName(applicationName);
+    run.setDryRun(dryRun);
+    run.setRate(Math.max(rate, 0));
+    run.setStartTime(System.currentTimeMillis());
+    run.setRunning(true);
+    expiry = run;
+
+    final SessionMatcher matcher = new SessionMatcher(searchInfo);
+    Thread expirer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        expire(run, findSessions(contexts), matcher);
+      }
+    }, "psi-probe-session-expiry");
+    expirer.setDaemon(true);
+    expirer.setPriority(Thread.MIN_PRIORITY);
+    expirer.start();
+    return run;
+  }
+
+  /**
+   * Cancels the last run.
+   */
+  public void cancel() {
+    SessionExpiry run = getExpiry();
+    if (run != null) {
+      run.setCancelled(true);
+    }
+  }
+
+  /**
+   * Finds the sessions of some applications.
+   *
+   * @param contexts the contexts of the applications
+   * @return the sessions
+   */
+  protected List<Session> findSessions(List<Context> contexts) {
+    List<Session> sessions = new ArrayList<>();
+    for (Context context : contexts) {
+      Manager manager = context != null ? context.getManager() : null;
+      if (manager != null) {
+        sessions.addAll(Arrays.asList(manager.findSessions()));
+      }
+    }
+    return sessions;
+  }
+
+  /**
+   * Scans sessions and expires the matching ones, keeping the counts of a run up to date.
+   *
+   * @param run the run
+   * @param sessions the sessions
+   * @param matcher the matcher
+   */
+  void expire(SessionExpiry run, List<Session> sessions, SessionMatcher matcher) {
+    run.setTotal(sessions.size());
+    int threads = Math.max(1, Math.min(scanThreads, sessions.size() / CHUNK_SIZE + 1));
+    CustomizableThreadFactory threadFactory =
+        new CustomizableThreadFactory("psi-probe-session-scan-");
+    threadFactory.setDaemon(true);
+    ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+    long now = System.currentTimeMillis();
+    long pace = run.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / run.getRate() : 0;
+    long due = System.nanoTime();
+    try {
+      Deque<Future<List<Session>>> pending = new ArrayDeque<>();
+      for (int start = 0; start < sessions.size(); start += CHUNK_SIZE) {
+        List<Session> chunk =
+            sessions.subList(start, Math.min(start + CHUNK_SIZE, sessions.size()));
+        pending.addLast(executor.submit(new ScanTask(chunk, matcher, now)));
+      }
+      while (!pending.isEmpty() && !run.isCancelled()) {
+        List<Session> matches = pending.removeFirst().get();
+        run.setMatched(run.getMatched() + matches.size());
+        run.setScanned(Math.min(run.getScanned() + CHUNK_SIZE, sessions.size()));
+        if (run.isDryRun()) {
+          continue;
+        }
+        for (Session session : matches) {
+          if (run.isCancelled()) {
+            break;
+          }
+          due += pace;
+          long wait = due - System.nanoTime();
+          if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+          } else {
+            // do not catch up on time lost to slow expiries with a burst
+            due -= wait;
+          }
+          expire(run, session, matcher);
+        }
+      }
+    } catch (InterruptedException e) {
+      logger.info("Session expiry interrupted");
+      logger.trace("", e);
+      run.setCancelled(true);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.error("Session expiry failed", e);
+    } finally {
+      executor.shutdownNow();
+      run.setEndTime(System.currentTimeMillis());
+      run.setRunning(false);
+      logger.info("{} sessions of {} matched, {} expired, {} skipped, {} failed{}",
+          run.getMatched(), run.getScanned(), run.getExpired(), run.getSkipped(),
+          run.getFailed(), run.isDryRun() ? " (dry run)" : "");
+    }
+  }
+
+  /**
+   * Expires a matched session unless it is gone or no longer matches.
+   *
+   * @param run the run
+   * @param session the session
+   * @param matcher the matcher
+   */
+  private void expire(SessionExpiry run, Session session, SessionMatcher matcher) {
+    if (!matcher.matches(session, System.currentTimeMillis())) {
+      run.setSkipped(run.getSkipped() + 1);
+      return;
+    }
+    try {
+      session.expire();
+      run.setExpired(run.getExpired() + 1);
+    } catch (RuntimeException e) {
+      logger.debug("Cannot expire session {}", session.getIdInternal(), e);
+      run.setFailed(run.getFailed() + 1);
+    }
+  }
+
+  /**
+   * Finds the matching sessions of a chunk.
+   */
+  private static class ScanTask implements Callable<List<Session>> {
+
+    /** The sessions. */
+    private final List<Session> sessions;
+
+    /** The matcher. */
+    private final SessionMatcher matcher;
+
+    /** The time the sessions are matched at. */
+    private final long now;
+
+    /**
+     * Instantiates a new scan task.
+     *
+     * @param sessions the sessions
+     * @param matcher the matcher
+     * @param now the time the sessions are matched at
+     */
+    ScanTask(List<Session> sessions, SessionMatcher matcher, long now) {
+      this.sessions = sessions;
+      this.matcher = matcher;
+      this.now = now;
+    }
+
+    @Override
+    public List<Session> call() {
+      List<Session> matches = new ArrayList<>();
+      for (Session session : sessions) {
+        if (matcher.matches(session, now)) {
+          matches.add(session);
+        }
+      }
+      return matches;
+    }
+
+  }
+
+}
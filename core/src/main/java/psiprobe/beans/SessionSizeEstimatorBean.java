@@ -0,0 +1,381 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import org.apache.catalina.Context;
+import org.apache.catalina.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import psiprobe.TomcatContainer;
+import psiprobe.model.ApplicationSession;
+import psiprobe.model.Attribute;
+import psiprobe.model.AttributeSizeEstimate;
+import psiprobe.model.SessionSizeEstimate;
+import psiprobe.tools.ApplicationUtils;
+import psiprobe.tools.SessionSizeCache;
+
+/**
+ * Estimates the memory held by the sessions of every web application by sizing a uniform random
+ * sample of them and extrapolating to all sessions, so that the cost of an estimate depends on the
+ * sample size rather than on the total session heap. Sizing stops early when the time budget of an
+ * application runs out. Estimates are made periodically and cached in between; an application
+ * without one yet gets it made in the background rather than on the thread asking for it.
+ */
+public class SessionSizeEstimatorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SessionSizeEstimatorBean.class);
+
+  /** The z value of a two-sided 95% confidence interval. */
+  private static final double Z_95 = 1.96;
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The maximum number of sessions sized per application. */
+  private int sampleSize = 100;
+
+  /** The maximum time spent sizing the sessions of one application, in milliseconds. */
+  private long timeBudget = 500;
+
+  /** The number of attributes reported as top memory contributors. */
+  private int topAttributes = 10;
+
+  /** The random number generator. */
+  private final Random random = new Random();
+
+  /** The latest estimates by application name. */
+  private final Map<String, SessionSizeEstimate> estimates = new ConcurrentHashMap<>();
+
+  /** The names of the applications whose first estimate is being made in the background. */
+  private final Set<String> pending =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+  /** The thread making the first estimates, which exits when idle. */
+  private final ThreadPoolExecutor executor = newExecutor();
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  /**
+   * Gets the sample size.
+   *
+   * @return the sample size
+   */
+  public int getSampleSize() {
+    return sampleSize;
+  }
+
+  /**
+   * Sets the sample size.
+   *
+   * @param sampleSize the new sample size
+   */
+  public void setSampleSize(int sampleSize) {
+    this.sampleSize = sampleSize;
+  }
+
+  /**
+   * Gets the time budget.
+   *
+   * @return the time budget in milliseconds
+   */
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the time budget.
+   *
+   * @param timeBudget the new time budget in milliseconds
+   */
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * Gets the top attributes.
+   *
+   * @return the number of top attributes
+   */
+  public int getTopAttributes() {
+    return topAttributes;
+  }
+
+  /**
+   * Sets the top attributes.
+   *
+   * @param topAttributes the new number of top attributes
+   */
+  public void setTopAttributes(int topAttributes) {
+    this.topAttributes = topAttributes;
+  }
+
+  /**
+   * Estimates the session size of every web application and caches the results.
+   */
+  public void collect() {
+    if (containerWrapper == null) {
+      logger.error("Cannot estimate session sizes. Container wrapper is not set.");
+      return;
+    }
+    TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+    if (tomcatContainer == null) {
+      return;
+    }
+    Set<String> appNames = new HashSet<>();
+    for (Context context : tomcatContainer.findContexts()) {
+      if (context != null && context.getName() != null && context.getManager() != null) {
+        SessionSizeEstimate estimate = estimate(context);
+        appNames.add(estimate.getApplicationName());
+      }
+    }
+    // forget undeployed applications
+    estimates.keySet().retainAll(appNames);
+  }
+
+  /**
+   * Gets the latest estimate of an application.
+   *
+   * @param appName the application name
+   * @return the estimate, or null if none was made yet
+   */
+  public SessionSizeEstimate getEstimate(String appName) {
+    return estimates.get(appName);
+  }
+
+  /**
+   * Gets the latest estimate of an application. If none was made yet, one is started in the
+   * background and is available to later calls.
+   *
+   * @param context the context of the application
+   * @return the estimate, or null if it is still pending
+   */
+  public SessionSizeEstimate getEstimate(final Context context) {
+    final String appName = getAppName(context);
+    SessionSizeEstimate estimate = estimates.get(appName);
+    if (estimate == null && pending.add(appName)) {
+      try {
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              estimate(context);
+            } catch (RuntimeException e) {
+              logger.debug("Could not estimate sessions of '{}'", appName, e);
+            } finally {
+              pending.remove(appName);
+            }
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        pending.remove(appName);
+        logger.debug("Could not start estimating sessions of '{}'", appName, e);
+      }
+    }
+    return estimate;
+  }
+
+  /**
+   * Estimates the session size of an application and caches the result.
+   *
+   * @param context the context of the application
+   * @return the estimate
+   */
+  public SessionSizeEstimate estimate(Context context) {
+    String appName = getAppName(context);
+    SessionSizeCache.getInstance().watch(context);
+    Session[] sessions =
+        context.getManager() != null ? context.getManager().findSessions() : new Session[0];
+    SessionSizeEstimate estimate = estimate(appName, sessions);
+    estimates.put(appName, estimate);
+    logger.debug("Estimated sessions of '{}' at {} bytes from {} of {} sessions in {} ms",
+        appName, estimate.getSize(), estimate.getSampledCount(), estimate.getSessionCount(),
+        estimate.getDuration());
+    return estimate;
+  }
+
+  /**
+   * Estimates the size of the given sessions.
+   *
+   * @param appName the application name
+   * @param sessions the sessions
+   * @return the estimate
+   */
+  SessionSizeEstimate estimate(String appName, Session[] sessions) {
+    long start = System.currentTimeMillis();
+    long deadline = start + timeBudget;
+    int population = sessions.length;
+    int[] sample = sample(population, sampleSize);
+
+    int sampled = 0;
+    double sum = 0;
+    double sumOfSquares = 0;
+    Map<String, long[]> attributes = new HashMap<>();
+    for (int index : sample) {
+      // the sample is in random order, so stopping early still leaves a uniform sample
+      if (sampled > 0 && System.currentTimeMillis() > deadline) {
+        break;
+      }
+      ApplicationSession appSession = sizeSession(sessions[index]);
+      sampled++;
+      if (appSession == null) {
+        // invalidated since it was listed, counts as an empty session
+        continue;
+      }
+      double size = appSession.getSize();
+      sum += size;
+      sumOfSquares += size * size;
+      for (Attribute attribute : appSession.getAttributes()) {
+        long[] total = attributes.get(attribute.getName());
+        if (total == null) {
+          total = new long[2];
+          attributes.put(attribute.getName(), total);
+        }
+        total[0] += attribute.getSize();
+        total[1]++;
+      }
+    }
+    long duration = System.currentTimeMillis() - start;
+
+    if (sampled == 0) {
+      return new SessionSizeEstimate(appName, start, population, 0, 0, population == 0 ? 0 : -1,
+          duration, Collections.<AttributeSizeEstimate>emptyList());
+    }
+    double scale = (double) population / sampled;
+    long size = Math.round(sum * scale);
+    long margin;
+    if (sampled == population) {
+      margin = 0;
+    } else if (sampled < 2) {
+      margin = -1;
+    } else {
+      double mean = sum / sampled;
+      double variance = Math.max(0, (sumOfSquares - sampled * mean * mean) / (sampled - 1));
+      // standard error of the total, with the finite population correction
+      double error = population * Math.sqrt(variance / sampled)
+          * Math.sqrt((double) (population - sampled) / (population - 1));
+      margin = Math.round(Z_95 * error);
+    }
+
+    List<AttributeSizeEstimate> top = new ArrayList<>(attributes.size());
+    for (Map.Entry<String, long[]> entry : attributes.entrySet()) {
+      long[] total = entry.getValue();
+      top.add(new AttributeSizeEstimate(entry.getKey(), Math.round(total[0] * scale),
+          (int) Math.round(total[1] * scale)));
+    }
+    Collections.sort(top, new Comparator<AttributeSizeEstimate>() {
+      @Override
+      public int compare(AttributeSizeEstimate o1, AttributeSizeEstimate o2) {
+        return Long.compare(o2.getSize(), o1.getSize());
+      }
+    });
+    if (top.size() > topAttributes) {
+      top = new ArrayList<>(top.subList(0, Math.max(topAttributes, 0)));
+    }
+    return new SessionSizeEstimate(appName, start, population, sampled, size, margin, duration,
+        top);
+  }
+
+  /**
+   * Sizes a session along with each of its attributes.
+   *
+   * @param session the session
+   * @return the sized session, or null if it is no longer valid
+   */
+  protected ApplicationSession sizeSession(Session session) {
+    return ApplicationUtils.getApplicationSession(session, true, true);
+  }
+
+  /**
+   * Picks distinct indices uniformly at random, in random order, with a partial Fisher-Yates
+   * shuffle.
+   *
+   * @param population the number of indices to pick from
+   * @param count the number of indices to pick
+   * @return the picked indices
+   */
+  int[] sample(int population, int count) {
+    int[] indices = new int[population];
+    for (int i = 0; i < population; i++) {
+      indices[i] = i;
+    }
+    int picked = Math.max(0, Math.min(count, population));
+    synchronized (random) {
+      for (int i = 0; i < picked; i++) {
+        int j = i + random.nextInt(population - i);
+        int swap = indices[i];
+        indices[i] = indices[j];
+        indices[j] = swap;
+      }
+    }
+    int[] sample = new int[picked];
+    System.arraycopy(indices, 0, sample, 0, picked);
+    return sample;
+  }
+
+  /**
+   * Creates the executor making the first estimates, one at a time.
+   *
+   * @return the executor
+   */
+  private static ThreadPoolExecutor newExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("psi-probe-sessions-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Gets the application name of a context.
+   *
+   * @param context the context
+   * @return the application name
+   */
+  private static String getAppName(Context context) {
+    return context.getName().length() > 0 ? context.getName() : "/";
+  }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import psiprobe.Utils;
+import psiprobe.model.HighlightedSource;
+
+/**
+ * Renders source code with syntax highlighting and keeps the result in a cache bounded by the total
+ * number of characters held. An entry is only reused while the path, modification time, encoding
+ * and renderer it was rendered with all still match.
+ */
+public class SourceHighlighterBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SourceHighlighterBean.class);
+
+  /** The maximum number of characters cached, about 32 MB. */
+  private long maxCachedChars = 16L * 1024 * 1024;
+
+  /** The cached sources by renderer and path, least recently used first. */
+  private final Map<String, CachedSource> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The number of characters cached. */
+  private long cachedChars;
+
+  /**
+   * Opens the stream of a source to highlight.
+   */
+  public interface SourceStream {
+
+    /**
+     * Opens the stream.
+     *
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    InputStream open() throws IOException;
+
+  }
+
+  /**
+   * Gets the max cached chars.
+   *
+   * @return the max cached chars
+   */
+  public long getMaxCachedChars() {
+    return maxCachedChars;
+  }
+
+  /**
+   * Sets the max cached chars.
+   *
+   * @param maxCachedChars the new max cached chars
+   */
+  public void setMaxCachedChars(long maxCachedChars) {
+    this.maxCachedChars = maxCachedChars;
+  }
+
+  /**
+   * Gets the highlighted source, rendering it only if the cached one is missing or stale.
+   *
+   * @param path the path identifying the source
+   * @param lastModified the modification time of the source, or -1 if unknown, in which case the
+   *        source is neither looked up in nor added to the cache
+   * @param encoding the encoding
+   * @param rendererName the renderer name
+   * @param stream opens the source when it has to be rendered
+   * @return the highlighted source, or null if there is no such renderer
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public HighlightedSource getSource(String path, long lastModified, String encoding,
+      String rendererName, SourceStream stream) throws IOException {
+
+    String key = rendererName + ':' + path;
+    boolean cacheable = lastModified >= 0;
+    synchronized (cache) {
+      CachedSource cached = cacheable ? cache.get(key) : null;
+      if (cached != null && cached.lastModified == lastModified
+          && Objects.equals(cached.encoding, encoding)) {
+        return cached.source;
+      }
+    }
+
+    // render outside the lock, concurrent views of the same source at worst render it twice
+    long start = System.currentTimeMillis();
+    String[] lines;
+    try (InputStream input = stream.open()) {
+      lines = Utils.highlightLines(path, input, rendererName, encoding);
+    }
+    if (lines == null) {
+      return null;
+    }
+    HighlightedSource source = new HighlightedSource(lines);
+    logger.debug("Highlighted {} ({} lines) in {} ms", path, source.getLineCount(),
+        System.currentTimeMillis() - start);
+
+    synchronized (cache) {
+      CachedSource previous = cache.remove(key);
+      if (previous != null) {
+        cachedChars -= previous.source.getSize();
+      }
+      if (cacheable && source.getSize() <= maxCachedChars) {
+        cache.put(key, new CachedSource(source, lastModified, encoding));
+        cachedChars += source.getSize();
+        Iterator<CachedSource> it = cache.values().iterator();
+        while (cachedChars > maxCachedChars && it.hasNext()) {
+          cachedChars -= it.next().source.getSize();
+          it.remove();
+        }
+      }
+    }
+    return source;
+  }
+
+  /**
+   * A cached source along with what it was rendered from.
+   */
+  private static class CachedSource {
+
+    /** The source. */
+    final HighlightedSource source;
+
+    /** The last modified. */
+    final long lastModified;
+
+    /** The encoding. */
+    final String encoding;
+
+    /**
+     * Instantiates a new cached source.
+     *
+     * @param source the source
+     * @param lastModified the last modified
+     * @param encoding the encoding
+     */
+    CachedSource(HighlightedSource source, long lastModified, String encoding) {
+      this.source = source;
+      this.lastModified = lastModified;
+      this.encoding = encoding;
+    }
+
+  }
+
+}
@@ -0,0 +1,463 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import org.apache.catalina.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.TomcatContainer;
+import psiprobe.model.RequestProcessor;
+import psiprobe.model.StuckRequest;
+import psiprobe.model.StuckRequestSample;
+import psiprobe.model.ThreadStackElement;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Watches the request processors of all connectors for requests still being serviced after the
+ * threshold of their application, and samples the stack of their worker thread on every scan for
+ * as long as they stay stuck. The most recent incidents are kept, so where requests hang can be
+ * seen after the fact.
+ *
+ * <p>
+ * Worker threads are found by name through an index of thread ids, which is only rebuilt when a
+ * name is not in it or the thread of an id has a different name, so a scan without stuck requests
+ * does not touch the threads at all.
+ * </p>
+ */
+public class StuckRequestDetectorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(StuckRequestDetectorBean.class);
+
+  /**
+   * How far apart two start times of requests on the same worker thread may be and still be the
+   * same request, since they are derived from the processing time at each scan.
+   */
+  private static final long START_TOLERANCE = 1000;
+
+  /** The listener bean. */
+  @Inject
+  private ContainerListenerBean listenerBean;
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The thread dump bean. */
+  @Inject
+  private ThreadDumpBean threadDumpBean;
+
+  /** Whether to take a thread dump when a request is found stuck. */
+  private boolean threadDumpOnStuck;
+
+  /** The threshold of applications without one of their own, in milliseconds. */
+  private long threshold = 30000;
+
+  /** The thresholds of applications by application name, in milliseconds. */
+  private Map<String, Long> contextThresholds = new HashMap<>();
+
+  /** The maximum number of incidents kept. */
+  private int maxIncidents = 50;
+
+  /** The maximum number of stack samples kept per incident. */
+  private int maxSamples = 10;
+
+  /** The maximum number of frames of a stack sample. */
+  private int stackDepth = 100;
+
+  /** The incidents, newest first. */
+  private final Deque<StuckRequest> incidents = new ArrayDeque<>();
+
+  /** The incidents still stuck by worker thread name. */
+  private final Map<String, StuckRequest> stuck = new HashMap<>();
+
+  /** The thread ids by thread name. */
+  private final Map<String, Long> threadIds = new HashMap<>();
+
+  /** The thread mx bean. */
+  private final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+  /**
+   * Gets the listener bean.
+   *
+   * @return the listener bean
+   */
+  public ContainerListenerBean getListenerBean() {
+    return listenerBean;
+  }
+
+  /**
+   * Sets the listener bean.
+   *
+   * @param listenerBean the new listener bean
+   */
+  public void setListenerBean(ContainerListenerBean listenerBean) {
+    this.listenerBean = listenerBean;
+  }
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  /**
+   * Gets the thread dump bean.
+   *
+   * @return the thread dump bean
+   */
+  public ThreadDumpBean getThreadDumpBean() {
+    return threadDumpBean;
+  }
+
+  /**
+   * Sets the thread dump bean.
+   *
+   * @param threadDumpBean the new thread dump bean
+   */
+  public void setThreadDumpBean(ThreadDumpBean threadDumpBean) {
+    this.threadDumpBean = threadDumpBean;
+  }
+
+  /**
+   * Checks if a thread dump is taken when a request is found stuck.
+   *
+   * @return true, if a thread dump is taken
+   */
+  public boolean isThreadDumpOnStuck() {
+    return threadDumpOnStuck;
+  }
+
+  /**
+   * Sets whether a thread dump is taken when a request is found stuck. Such dumps are at least the
+   * minimum interval of the thread dump bean apart.
+   *
+   * @param threadDumpOnStuck the new thread dump on stuck
+   */
+  @Value("${psiprobe.beans.requests.stuck.threaddump}")
+  public void setThreadDumpOnStuck(boolean threadDumpOnStuck) {
+    this.threadDumpOnStuck = threadDumpOnStuck;
+  }
+
+  /**
+   * Gets the threshold of applications without one of their own.
+   *
+   * @return the threshold in milliseconds
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the threshold of applications without one of their own.
+   *
+   * @param threshold the new threshold in milliseconds
+   */
+  public void setThreshold(long threshold) {
+    this.threshold = threshold;
+  }
+
+  /**
+   * Sets the threshold using expression.
+   *
+   * @param threshold the threshold expression
+   */
+  @Value("${psiprobe.beans.requests.stuck.threshold}")
+  public void setThreshold(String threshold) {
+    setThreshold(TimeExpression.inSeconds(threshold) * 1000);
+  }
+
+  /**
+   * Sets the thresholds of applications, as a comma separated list of application name and time
+   * expression pairs, such as "/shop=1m,/reports=10m".
+   *
+   * @param expression the thresholds expression
+   */
+  @Value("${psiprobe.beans.requests.stuck.thresholds}")
+  public void setContextThresholds(String expression) {
+    Map<String, Long> thresholds = new HashMap<>();
+    if (expression != null) {
+      for (String pair : expression.split(",")) {
+        int eq = pair.indexOf('=');
+        if (eq > 0) {
+          thresholds.put(pair.substring(0, eq).trim(),
+              TimeExpression.inSeconds(pair.substring(eq + 1).trim()) * 1000);
+        } else if (!pair.trim().isEmpty()) {
+          logger.error("Ignoring stuck request threshold '{}', expected name=time", pair);
+        }
+      }
+    }
+    contextThresholds = thresholds;
+  }
+
+  /**
+   * Gets the threshold of an application.
+   *
+   * @param applicationName the application name, or null
+   * @return the threshold in milliseconds
+   */
+  public long getContextThreshold(String applicationName) {
+    Long contextThreshold = applicationName == null ? null : contextThresholds.get(applicationName);
+    return contextThreshold != null ? contextThreshold : threshold;
+  }
+
+  /**
+   * Gets the max incidents.
+   *
+   * @return the max incidents
+   */
+  public int getMaxIncidents() {
+    return maxIncidents;
+  }
+
+  /**
+   * Sets the max incidents.
+   *
+   * @param maxIncidents the new max incidents
+   */
+  @Value("${psiprobe.beans.requests.stuck.incidents}")
+  public void setMaxIncidents(int maxIncidents) {
+    this.maxIncidents = maxIncidents;
+  }
+
+  /**
+   * Gets the max samples.
+   *
+   * @return the max samples per incident
+   */
+  public int getMaxSamples() {
+    return maxSamples;
+  }
+
+  /**
+   * Sets the max samples.
+   *
+   * @param maxSamples the new max samples per incident
+   */
+  @Value("${psiprobe.beans.requests.stuck.samples}")
+  public void setMaxSamples(int maxSamples) {
+    this.maxSamples = maxSamples;
+  }
+
+  /**
+   * Gets the stack depth.
+   *
+   * @return the maximum number of frames of a stack sample
+   */
+  public int getStackDepth() {
+    return stackDepth;
+  }
+
+  /**
+   * Sets the stack depth.
+   *
+   * @param stackDepth the new maximum number of frames of a stack sample
+   */
+  public void setStackDepth(int stackDepth) {
+    this.stackDepth = stackDepth;
+  }
+
+  /**
+   * Gets the incidents.
+   *
+   * @return the incidents, newest first
+   */
+  public synchronized List<StuckRequest> getIncidents() {
+    return new ArrayList<>(incidents);
+  }
+
+  /**
+   * Scans the request processors for stuck requests.
+   *
+   * @throws Exception the exception
+   */
+  public void collect() throws Exception {
+    if (listenerBean == null || containerWrapper == null) {
+      logger.error("Cannot watch for stuck requests. Listener bean or container wrapper not set.");
+      return;
+    }
+    TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+    if (tomcatContainer == null) {
+      return;
+    }
+    List<String> applicationNames = new ArrayList<>();
+    for (Context context : tomcatContainer.findContexts()) {
+      if (context != null && context.getName() != null) {
+        applicationNames.add(context.getName());
+      }
+    }
+    collect(listenerBean.getBusyRequestProcessors(), applicationNames,
+        System.currentTimeMillis());
+  }
+
+  /**
+   * Records the busy request processors past their threshold and closes the incidents of those no
+   * longer stuck.
+   *
+   * @param processors the busy request processors
+   * @param applicationNames the context names of the applications, "" for the root application
+   * @param now the current time
+   */
+  synchronized void collect(List<RequestProcessor> processors,
+      Collection<String> applicationNames, long now) {
+
+    Map<String, StuckRequest> stillStuck = new HashMap<>();
+    StuckRequest newIncident = null;
+    boolean indexRebuilt = false;
+    for (RequestProcessor rp : processors) {
+      String threadName = rp.getWorkerThreadName();
+      String applicationName = getApplicationName(rp.getCurrentUri(), applicationNames);
+      long contextThreshold = getContextThreshold(applicationName);
+      if (threadName == null || rp.getProcessingTime() < contextThreshold) {
+        continue;
+      }
+
+      long started = now - rp.getProcessingTime();
+      StuckRequest incident = stuck.get(threadName);
+      if (incident == null || Math.abs(incident.getStartTime() - started) > START_TOLERANCE) {
+        if (incident != null) {
+          // the worker moved on to another request, which is stuck too
+          incident.setFinished(true);
+        }
+        incident = new StuckRequest(threadName, rp.getMethod(), rp.getCurrentUri(),
+            rp.getCurrentQueryString(), applicationName, started, contextThreshold);
+        incidents.addFirst(incident);
+        newIncident = incident;
+        while (incidents.size() > maxIncidents) {
+          incidents.removeLast();
+        }
+        logger.warn("Request {} {} on {} running for {} ms", rp.getMethod(), rp.getCurrentUri(),
+            threadName, rp.getProcessingTime());
+      }
+      incident.setLastSeen(now);
+      stillStuck.put(threadName, incident);
+
+      ThreadInfo info = getThreadInfo(threadName, false);
+      if (info == null && !indexRebuilt) {
+        indexRebuilt = true;
+        info = getThreadInfo(threadName, true);
+      }
+      if (info != null) {
+        incident.addSample(toSample(info, now), maxSamples);
+      }
+    }
+
+    for (Map.Entry<String, StuckRequest> entry : stuck.entrySet()) {
+      if (stillStuck.get(entry.getKey()) != entry.getValue()) {
+        entry.getValue().setFinished(true);
+      }
+    }
+    stuck.clear();
+    stuck.putAll(stillStuck);
+
+    if (newIncident != null && threadDumpOnStuck && threadDumpBean != null) {
+      threadDumpBean.captureAutomatically("Request " + newIncident.getMethod() + " "
+          + newIncident.getUri() + " stuck on " + newIncident.getWorkerThreadName());
+    }
+  }
+
+  /**
+   * Gets the application a uri belongs to, the one with the longest matching context name.
+   *
+   * @param uri the uri
+   * @param applicationNames the context names of the applications, "" for the root application
+   * @return the application name, "/" for the root application, or null if none matches
+   */
+  static String getApplicationName(String uri, Collection<String> applicationNames) {
+    if (uri == null) {
+      return null;
+    }
+    String match = null;
+    for (String name : applicationNames) {
+      boolean matches = name.isEmpty() || uri.equals(name) || uri.startsWith(name + "/");
+      if (matches && (match == null || name.length() > match.length())) {
+        match = name;
+      }
+    }
+    if (match == null) {
+      return null;
+    }
+    return match.isEmpty() ? "/" : match;
+  }
+
+  /**
+   * Gets the stack of a thread by name.
+   *
+   * @param threadName the thread name
+   * @param rebuildIndex whether to rebuild the thread id index first
+   * @return the thread info, or null if there is no such thread
+   */
+  private ThreadInfo getThreadInfo(String threadName, boolean rebuildIndex) {
+    if (rebuildIndex) {
+      threadIds.clear();
+      for (ThreadInfo info : threadMxBean.getThreadInfo(threadMxBean.getAllThreadIds())) {
+        if (info != null) {
+          threadIds.put(info.getThreadName(), info.getThreadId());
+        }
+      }
+    }
+    Long id = threadIds.get(threadName);
+    if (id == null) {
+      return null;
+    }
+    ThreadInfo info = threadMxBean.getThreadInfo(id, stackDepth);
+    // the id may belong to a thread that has died or been renamed since the index was built
+    return info != null && threadName.equals(info.getThreadName()) ? info : null;
+  }
+
+  /**
+   * Converts a thread info to a stack sample.
+   *
+   * @param info the thread info
+   * @param time the time
+   * @return the stack sample
+   */
+  private static StuckRequestSample toSample(ThreadInfo info, long time) {
+    StackTraceElement[] elements = info.getStackTrace();
+    List<ThreadStackElement> stack = new ArrayList<>(elements.length);
+    for (StackTraceElement element : elements) {
+      ThreadStackElement tse = new ThreadStackElement();
+      tse.setClassName(element.getClassName());
+      tse.setFileName(element.getFileName());
+      tse.setMethodName(element.getMethodName());
+      tse.setLineNumber(element.getLineNumber());
+      tse.setNativeMethod(element.isNativeMethod());
+      stack.add(tse);
+    }
+    return new StuckRequestSample(time, String.valueOf(info.getThreadState()), info.getLockName(),
+        stack);
+  }
+
+}
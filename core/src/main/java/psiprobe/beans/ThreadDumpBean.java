@@ -0,0 +1,582 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.ServletContextAware;
+import psiprobe.Utils;
+import psiprobe.model.ThreadDumpInfo;
+import psiprobe.model.ThreadStackGroup;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Takes full thread dumps through the {@link ThreadMXBean}, with locked monitors and synchronizers
+ * where the JVM supports them, and keeps the latest ones on disk, gzipped, dropping the oldest.
+ * Any two dumps can be compared by grouping their threads by state and stack.
+ *
+ * <p>
+ * Dumps are written in the format of {@link ThreadInfo#toString()}, without its limit of eight
+ * frames, and compressed at the fastest level, so that several dumps a second can be taken while
+ * an incident lasts. Dumps taken automatically, such as by a threshold listener, are at least the
+ * interval apart.
+ * </p>
+ */
+public class ThreadDumpBean implements ServletContextAware {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(ThreadDumpBean.class);
+
+  /** The prefix of the dump file names. */
+  private static final String FILE_PREFIX = "threaddump-";
+
+  /** The suffix of the dump file names. */
+  private static final String FILE_SUFFIX = ".txt.gz";
+
+  /** The first line of a dump, followed by its id, time, thread count and reason. */
+  private static final String HEADER = "Thread dump";
+
+  /** The prefix of a stack frame line. */
+  private static final String FRAME = "\tat ";
+
+  /** The buffer size for reading and writing dumps. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The thread mx bean. */
+  private final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+
+  /** The dumps kept, by id. */
+  private final TreeMap<Integer, ThreadDumpInfo> dumps = new TreeMap<>();
+
+  /** The storage path, or empty to keep the dumps in the temp dir of the context. */
+  private String storagePath;
+
+  /** The context temp dir. */
+  private File contextTempDir;
+
+  /** The maximum number of dumps kept. */
+  private int maxDumps = 20;
+
+  /** The minimum time in milliseconds between two automatic dumps. */
+  private long minInterval = 60000;
+
+  /** The time of the latest automatic dump. */
+  private long lastAutomaticDump;
+
+  /** The id of the latest dump. */
+  private int lastId;
+
+  /** Whether the dumps already on disk have been found. */
+  private boolean loaded;
+
+  @Override
+  public void setServletContext(ServletContext servletContext) {
+    contextTempDir = (File) servletContext.getAttribute("javax.servlet.context.tempdir");
+  }
+
+  /**
+   * Gets the storage path.
+   *
+   * @return the storage path
+   */
+  public String getStoragePath() {
+    return storagePath;
+  }
+
+  /**
+   * Sets the storage path. The default location is the "threaddumps" directory in the temp dir of
+   * the context, $CATALINA_BASE/work/&lt;engine&gt;/&lt;host&gt;/&lt;context_name&gt;.
+   *
+   * @param storagePath the new storage path
+   */
+  @Value("${psiprobe.beans.threaddump.storagePath}")
+  public void setStoragePath(String storagePath) {
+    this.storagePath = storagePath;
+  }
+
+  /**
+   * Gets the max dumps.
+   *
+   * @return the max dumps
+   */
+  public int getMaxDumps() {
+    return maxDumps;
+  }
+
+  /**
+   * Sets the max dumps.
+   *
+   * @param maxDumps the new max dumps
+   */
+  @Value("${psiprobe.beans.threaddump.max}")
+  public void setMaxDumps(int maxDumps) {
+    this.maxDumps = maxDumps;
+  }
+
+  /**
+   * Gets the minimum interval between automatic dumps.
+   *
+   * @return the min interval in milliseconds
+   */
+  public long getMinInterval() {
+    return minInterval;
+  }
+
+  /**
+   * Sets the minimum interval between automatic dumps.
+   *
+   * @param minInterval the new min interval in milliseconds
+   */
+  public void setMinInterval(long minInterval) {
+    this.minInterval = minInterval;
+  }
+
+  /**
+   * Sets the minimum interval between automatic dumps using expression.
+   *
+   * @param minInterval the min interval expression
+   */
+  @Value("${psiprobe.beans.threaddump.interval}")
+  public void setMinInterval(String minInterval) {
+    setMinInterval(TimeExpression.inSeconds(minInterval) * 1000);
+  }
+
+  /**
+   * Takes a thread dump and keeps it, deleting the oldest one if there are too many.
+   *
+   * @param reason why the dump is taken
+   * @return the dump
+   * @throws IOException if the dump cannot be written
+   */
+  public ThreadDumpInfo capture(String reason) throws IOException {
+    long time = System.currentTimeMillis();
+    ThreadInfo[] threads = threadMxBean.dumpAllThreads(threadMxBean.isObjectMonitorUsageSupported(),
+        threadMxBean.isSynchronizerUsageSupported());
+
+    File dir = getDirectory();
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new FileNotFoundException("Cannot create " + dir.getAbsolutePath());
+    }
+    int id;
+    synchronized (this) {
+      load(dir);
+      id = ++lastId;
+    }
+    String fileName = FILE_PREFIX + id + FILE_SUFFIX;
+    File file = new File(dir, fileName);
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(
+        gzip(Files.newOutputStream(file.toPath())), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      write(out, id, time, reason, threads);
+    }
+    ThreadDumpInfo dump =
+        new ThreadDumpInfo(id, time, reason, threads.length, fileName, file.length());
+
+    synchronized (this) {
+      dumps.put(id, dump);
+      while (dumps.size() > Math.max(maxDumps, 1)) {
+        Utils.delete(new File(dir, dumps.pollFirstEntry().getValue().getFileName()));
+      }
+    }
+    logger.debug("Took thread dump {} of {} threads in {} ms", id, threads.length,
+        System.currentTimeMillis() - time);
+    return dump;
+  }
+
+  /**
+   * Takes a thread dump unless the last automatic one was taken less than the minimum interval
+   * ago. Failures are logged rather than thrown, as there is no one to report them to.
+   *
+   * @param reason why the dump is taken
+   * @return the dump, or null if none was taken
+   */
+  public ThreadDumpInfo captureAutomatically(String reason) {
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      if (lastAutomaticDump != 0 && now - lastAutomaticDump < minInterval) {
+        return null;
+      }
+      lastAutomaticDump = now;
+    }
+    try {
+      logger.info("Taking thread dump: {}", reason);
+      return capture(reason);
+    } catch (IOException e) {
+      logger.error("Could not take thread dump", e);
+      return null;
+    }
+  }
+
+  /**
+   * Gets the dumps kept.
+   *
+   * @return the dumps, newest first
+   */
+  public synchronized List<ThreadDumpInfo> getDumps() {
+    load(getDirectory());
+    return new ArrayList<>(dumps.descendingMap().values());
+  }
+
+  /**
+   * Gets a dump kept.
+   *
+   * @param id the id of the dump
+   * @return the dump, or null if it is not kept
+   */
+  public synchronized ThreadDumpInfo getDump(int id) {
+    load(getDirectory());
+    return dumps.get(id);
+  }
+
+  /**
+   * Gets the file of a dump kept.
+   *
+   * @param dump the dump
+   * @return the gzipped file
+   */
+  public File getFile(ThreadDumpInfo dump) {
+    return new File(getDirectory(), dump.getFileName());
+  }
+
+  /**
+   * Reads a dump kept and groups its threads by state and stack.
+   *
+   * @param dump the dump
+   * @return the groups, in the order their first thread appears in the dump
+   * @throws IOException if the dump cannot be read
+   */
+  public List<ThreadStackGroup> getStackGroups(ThreadDumpInfo dump) throws IOException {
+    try (BufferedReader reader = open(getFile(dump))) {
+      return groupStacks(reader);
+    }
+  }
+
+  /**
+   * Compares the stack groups of two dumps. Groups only found in the earlier dump are kept with a
+   * count of zero, so threads that went away show as well as those that piled up.
+   *
+   * @param from the groups of the earlier dump, or null to only rank the later one
+   * @param to the groups of the later dump, which are given the counts of the earlier one
+   * @return the groups, most changed first, then largest first
+   */
+  public static List<ThreadStackGroup> diff(List<ThreadStackGroup> from,
+      List<ThreadStackGroup> to) {
+
+    Map<String, ThreadStackGroup> groups = new LinkedHashMap<>();
+    for (ThreadStackGroup group : to) {
+      groups.put(key(group.getState(), group.getFrames()), group);
+    }
+    if (from != null) {
+      for (ThreadStackGroup previous : from) {
+        String key = key(previous.getState(), previous.getFrames());
+        ThreadStackGroup group = groups.get(key);
+        if (group == null) {
+          group = new ThreadStackGroup(previous.getState(), previous.getFrames());
+          groups.put(key, group);
+        }
+        group.setPreviousCount(previous.getCount());
+      }
+    }
+    List<ThreadStackGroup> result = new ArrayList<>(groups.values());
+    Collections.sort(result, new Comparator<ThreadStackGroup>() {
+      @Override
+      public int compare(ThreadStackGroup o1, ThreadStackGroup o2) {
+        int byDelta = Integer.compare(Math.abs(o2.getDelta()), Math.abs(o1.getDelta()));
+        return byDelta != 0 ? byDelta : Integer.compare(o2.getCount(), o1.getCount());
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Groups the threads of a dump by state and stack frames. Lock lines are left out of the stack,
+   * since they name the identity of the lock objects.
+   *
+   * @param reader the dump
+   * @return the groups, in the order their first thread appears in the dump
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  static List<ThreadStackGroup> groupStacks(BufferedReader reader) throws IOException {
+    Map<String, ThreadStackGroup> groups = new LinkedHashMap<>();
+    String threadName = null;
+    String state = null;
+    List<String> frames = null;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.startsWith("\"")) {
+        int nameEnd = line.indexOf("\" Id=");
+        if (nameEnd > 0) {
+          int stateStart = line.indexOf(' ', nameEnd + 2) + 1;
+          int stateEnd = line.indexOf(' ', stateStart);
+          threadName = line.substring(1, nameEnd);
+          state = stateEnd > 0 ? line.substring(stateStart, stateEnd) : line.substring(stateStart);
+          frames = new ArrayList<>();
+        }
+      } else if (frames != null && line.startsWith(FRAME)) {
+        frames.add(line.substring(FRAME.length()));
+      } else if (frames != null && line.isEmpty()) {
+        addToGroup(groups, threadName, state, frames);
+        frames = null;
+      }
+    }
+    if (frames != null) {
+      addToGroup(groups, threadName, state, frames);
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  /**
+   * Adds a thread to the group of its state and stack.
+   *
+   * @param groups the groups by key
+   * @param threadName the thread name
+   * @param state the thread state
+   * @param frames the stack frames
+   */
+  private static void addToGroup(Map<String, ThreadStackGroup> groups, String threadName,
+      String state, List<String> frames) {
+    String key = key(state, frames);
+    ThreadStackGroup group = groups.get(key);
+    if (group == null) {
+      group = new ThreadStackGroup(state, frames);
+      groups.put(key, group);
+    }
+    group.getThreadNames().add(threadName);
+  }
+
+  /**
+   * Gets the key of a state and stack.
+   *
+   * @param state the thread state
+   * @param frames the stack frames
+   * @return the key
+   */
+  private static String key(String state, List<String> frames) {
+    StringBuilder key = new StringBuilder(state);
+    for (String frame : frames) {
+      key.append('\n').append(frame);
+    }
+    return key.toString();
+  }
+
+  /**
+   * Writes a thread dump.
+   *
+   * @param out the writer
+   * @param id the id
+   * @param time the time the dump was taken
+   * @param reason why the dump was taken
+   * @param threads the threads
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  static void write(Writer out, int id, long time, String reason, ThreadInfo[] threads)
+      throws IOException {
+
+    out.write(HEADER + " id=" + id + " time=" + time + " threads=" + threads.length + " reason="
+        + (reason == null ? "" : reason.replace('\n', ' ')) + '\n');
+    out.write(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(time)));
+    out.write("\n\n");
+    StringBuilder sb = new StringBuilder(4096);
+    for (ThreadInfo info : threads) {
+      if (info != null) {
+        sb.setLength(0);
+        appendThread(sb, info);
+        out.append(sb);
+      }
+    }
+  }
+
+  /**
+   * Appends a thread as {@link ThreadInfo#toString()} does, with its whole stack.
+   *
+   * @param sb the string builder
+   * @param info the thread
+   */
+  private static void appendThread(StringBuilder sb, ThreadInfo info) {
+    sb.append('"').append(info.getThreadName().replace('\n', ' ')).append("\" Id=")
+        .append(info.getThreadId()).append(' ').append(info.getThreadState());
+    if (info.getLockName() != null) {
+      sb.append(" on ").append(info.getLockName());
+    }
+    if (info.getLockOwnerName() != null) {
+      sb.append(" owned by \"").append(info.getLockOwnerName()).append("\" Id=")
+          .append(info.getLockOwnerId());
+    }
+    if (info.isSuspended()) {
+      sb.append(" (suspended)");
+    }
+    if (info.isInNative()) {
+      sb.append(" (in native)");
+    }
+    sb.append('\n');
+
+    StackTraceElement[] stack = info.getStackTrace();
+    MonitorInfo[] monitors = info.getLockedMonitors();
+    for (int i = 0; i < stack.length; i++) {
+      sb.append(FRAME).append(stack[i]).append('\n');
+      if (i == 0 && info.getLockInfo() != null) {
+        switch (info.getThreadState()) {
+          case BLOCKED:
+            sb.append("\t-  blocked on ").append(info.getLockInfo()).append('\n');
+            break;
+          case WAITING:
+          case TIMED_WAITING:
+            sb.append("\t-  waiting on ").append(info.getLockInfo()).append('\n');
+            break;
+          default:
+            break;
+        }
+      }
+      for (MonitorInfo monitor : monitors) {
+        if (monitor.getLockedStackDepth() == i) {
+          sb.append("\t-  locked ").append(monitor).append('\n');
+        }
+      }
+    }
+
+    LockInfo[] synchronizers = info.getLockedSynchronizers();
+    if (synchronizers.length > 0) {
+      sb.append("\n\tNumber of locked synchronizers = ").append(synchronizers.length).append('\n');
+      for (LockInfo synchronizer : synchronizers) {
+        sb.append("\t- ").append(synchronizer).append('\n');
+      }
+    }
+    sb.append('\n');
+  }
+
+  /**
+   * Finds the dumps already on disk, once, such as those kept before a restart.
+   *
+   * @param dir the storage directory
+   */
+  private void load(File dir) {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      String name = file.getName();
+      if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+        try (BufferedReader reader = open(file)) {
+          ThreadDumpInfo dump = parseHeader(reader.readLine(), name, file.length());
+          if (dump != null) {
+            dumps.put(dump.getId(), dump);
+            lastId = Math.max(lastId, dump.getId());
+          }
+        } catch (IOException e) {
+          logger.debug("Cannot read thread dump '{}'", file.getAbsolutePath(), e);
+        }
+      }
+    }
+    while (dumps.size() > Math.max(maxDumps, 1)) {
+      Utils.delete(new File(dir, dumps.pollFirstEntry().getValue().getFileName()));
+    }
+  }
+
+  /**
+   * Parses the first line of a dump.
+   *
+   * @param header the first line
+   * @param fileName the file name
+   * @param size the compressed size of the file
+   * @return the dump, or null if the line is not a header
+   */
+  static ThreadDumpInfo parseHeader(String header, String fileName, long size) {
+    if (header == null || !header.startsWith(HEADER + " id=")) {
+      return null;
+    }
+    int reasonStart = header.indexOf(" reason=");
+    String[] fields = header.substring(HEADER.length() + 1,
+        reasonStart > 0 ? reasonStart : header.length()).split(" ");
+    try {
+      int id = Integer.parseInt(fields[0].substring("id=".length()));
+      long time = Long.parseLong(fields[1].substring("time=".length()));
+      int threads = Integer.parseInt(fields[2].substring("threads=".length()));
+      String reason = reasonStart > 0 ? header.substring(reasonStart + " reason=".length()) : null;
+      return new ThreadDumpInfo(id, time, reason, threads, fileName, size);
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      logger.trace("", e);
+      return null;
+    }
+  }
+
+  /**
+   * Gets the storage directory.
+   *
+   * @return the storage directory
+   */
+  private File getDirectory() {
+    return storagePath == null || storagePath.isEmpty() ? new File(contextTempDir, "threaddumps")
+        : new File(storagePath);
+  }
+
+  /**
+   * Opens a gzipped dump for reading.
+   *
+   * @param file the file
+   * @return the reader
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static BufferedReader open(File file) throws IOException {
+    return new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE),
+        StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  /**
+   * Wraps a stream in a gzip stream compressing at the fastest level.
+   *
+   * @param out the stream
+   * @return the gzip stream
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static OutputStream gzip(OutputStream out) throws IOException {
+    return new GZIPOutputStream(out, BUFFER_SIZE) {
+      {
+        def.setLevel(Deflater.BEST_SPEED);
+      }
+    };
+  }
+
+}
@@ -32,6 +32,7 @@ public class C3P0DatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUser());
       dataSourceInfo.setResettable(true);
       dataSourceInfo.setType("c3p0");
+      dataSourceInfo.setWaitingThreads(source.getNumThreadsAwaitingCheckoutDefaultUser());
     }
     return dataSourceInfo;
   }
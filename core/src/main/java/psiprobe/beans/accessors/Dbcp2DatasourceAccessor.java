@@ -10,14 +10,23 @@
  */
 package psiprobe.beans.accessors;
 
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.apache.commons.dbcp2.BasicDataSource;
 import psiprobe.model.DataSourceInfo;
+import psiprobe.tools.JmxTools;
 
 /**
  * DBCP2 datasource abstraction layer.
  */
 public class Dbcp2DatasourceAccessor implements DatasourceAccessor {
 
+  /** The Constant POOL_ATTRIBUTES read from the connection pool MBean. */
+  private static final String[] POOL_ATTRIBUTES = {"NumWaiters", "MeanBorrowWaitTimeMillis",
+      "MaxBorrowWaitTimeMillis", "BorrowedCount", "ReturnedCount"};
+
   @Override
   public DataSourceInfo getInfo(Object resource) throws Exception {
     DataSourceInfo dataSourceInfo = null;
@@ -31,6 +40,7 @@ public class Dbcp2DatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("commons-dbcp2");
+      setPoolStats(dataSourceInfo, source.getJmxName());
     }
     return dataSourceInfo;
   }
@@ -45,4 +55,33 @@ public class Dbcp2DatasourceAccessor implements DatasourceAccessor {
     return "org.apache.commons.dbcp2.BasicDataSource".equals(resource.getClass().getName())
         && resource instanceof BasicDataSource;
   }
+
+  /**
+   * Sets the waiter and borrow statistics of a DBCP2 connection pool. DBCP2 only registers the
+   * pool with JMX, as "connectionpool=connections" under the name of its datasource, when the
+   * datasource has been given a JMX name.
+   *
+   * @param dataSourceInfo the data source info
+   * @param jmxName the JMX name of the datasource, or null if it has none
+   * @throws Exception the exception
+   */
+  public static void setPoolStats(DataSourceInfo dataSourceInfo, String jmxName)
+      throws Exception {
+
+    if (jmxName == null) {
+      return;
+    }
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName poolName = new ObjectName(jmxName + ",connectionpool=connections");
+    if (!mbeanServer.isRegistered(poolName)) {
+      return;
+    }
+    Map<String, Object> attrs = JmxTools.getAttributes(mbeanServer, poolName, POOL_ATTRIBUTES);
+    dataSourceInfo.setWaitingThreads(JmxTools.getIntAttr(attrs, "NumWaiters", -1));
+    dataSourceInfo.setMeanWaitTime(JmxTools.getLongAttr(attrs, "MeanBorrowWaitTimeMillis", -1));
+    dataSourceInfo.setMaxWaitTime(JmxTools.getLongAttr(attrs, "MaxBorrowWaitTimeMillis", -1));
+    dataSourceInfo.setBorrowedCount(JmxTools.getLongAttr(attrs, "BorrowedCount", -1));
+    dataSourceInfo.setReturnedCount(JmxTools.getLongAttr(attrs, "ReturnedCount", -1));
+  }
+
 }
@@ -43,6 +43,7 @@ public class HikariCpDatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("hikari");
+      dataSourceInfo.setWaitingThreads(poolProxy.getThreadsAwaitingConnection());
     }
     return dataSourceInfo;
   }
@@ -31,6 +31,7 @@ public class OpenEjbBasicDatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("commons-dbcp2");
+      Dbcp2DatasourceAccessor.setPoolStats(dataSourceInfo, source.getJmxName());
     }
     return dataSourceInfo;
   }
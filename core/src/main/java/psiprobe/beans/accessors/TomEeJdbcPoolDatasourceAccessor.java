@@ -32,6 +32,9 @@ public class TomEeJdbcPoolDatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("tomcat-jdbc");
+      dataSourceInfo.setWaitingThreads(source.getWaitCount());
+      dataSourceInfo.setBorrowedCount(source.getBorrowedCount());
+      dataSourceInfo.setReturnedCount(source.getReturnedCount());
     }
     return dataSourceInfo;
   }
@@ -31,6 +31,9 @@ public class TomcatJdbcPoolDatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("tomcat-jdbc");
+      dataSourceInfo.setWaitingThreads(source.getWaitCount());
+      dataSourceInfo.setBorrowedCount(source.getBorrowedCount());
+      dataSourceInfo.setReturnedCount(source.getReturnedCount());
     }
     return dataSourceInfo;
   }
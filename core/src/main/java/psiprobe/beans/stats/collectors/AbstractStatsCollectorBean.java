@@ -157,11 +157,35 @@ public abstract class AbstractStatsCollectorBean {
   protected void buildAbsoluteStats(String name, long value, long time)
       throws InterruptedException {
 
+    addStatsItem(name, new XYDataItem(time, value));
+  }
+
+  /**
+   * Builds the absolute stats for a fractional value, such as a load average or a percentage.
+   *
+   * @param name the name
+   * @param value the value
+   * @param time the time
+   * @throws InterruptedException the interrupted exception
+   */
+  protected void buildAbsoluteStats(String name, double value, long time)
+      throws InterruptedException {
+
+    addStatsItem(name, new XYDataItem(time, value));
+  }
+
+  /**
+   * Adds the data item to the named series and notifies the listeners.
+   *
+   * @param name the name
+   * @param data the data
+   * @throws InterruptedException the interrupted exception
+   */
+  private void addStatsItem(String name, XYDataItem data) throws InterruptedException {
     List<XYDataItem> stats = statsCollection.getStats(name);
     if (stats == null) {
       statsCollection.newStats(name, maxSeries);
     } else {
-      XYDataItem data = new XYDataItem(time, value);
       statsCollection.lockForUpdate();
       try {
         stats.add(data);
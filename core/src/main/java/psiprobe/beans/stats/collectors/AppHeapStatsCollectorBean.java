@@ -0,0 +1,374 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import org.apache.catalina.Context;
+import org.apache.catalina.Loader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.TomcatContainer;
+import psiprobe.beans.ContainerWrapperBean;
+import psiprobe.beans.SessionSizeEstimatorBean;
+import psiprobe.model.HeapFootprint;
+import psiprobe.model.SessionSizeEstimate;
+import psiprobe.tools.Instruments;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Estimates the heap each web application retains, so the application using most of it can be
+ * told without a heap dump.
+ *
+ * <p>
+ * The servlet context attributes and the static fields of the classes of an application are sized
+ * with {@link Instruments}, counting only objects of the classes of the application and of the
+ * JDK, so container objects they refer to are left out. Sessions are not sized again; the latest
+ * sampled estimate of {@link SessionSizeEstimatorBean} is used instead.
+ * </p>
+ *
+ * <p>
+ * Every collection works for at most the time budget, taking the applications in turn. An
+ * application whose roots cannot all be sized within the budget is continued where it left off on
+ * the next collection, and its estimate is only published, and added to the "app.heap." series,
+ * once all of its roots were sized. Objects shared between roots sized in different collections
+ * may be counted more than once.
+ * </p>
+ */
+public class AppHeapStatsCollectorBean extends AbstractStatsCollectorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(AppHeapStatsCollectorBean.class);
+
+  /** The Constant PREFIX, followed by the application name for the total. */
+  public static final String PREFIX = "app.heap.";
+
+  /** The Constant CLASS_NAME_ORDER. */
+  private static final Comparator<Class<?>> CLASS_NAME_ORDER = new Comparator<Class<?>>() {
+    @Override
+    public int compare(Class<?> o1, Class<?> o2) {
+      return o1.getName().compareTo(o2.getName());
+    }
+  };
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The session size estimator. */
+  @Inject
+  private SessionSizeEstimatorBean sessionSizeEstimator;
+
+  /** The maximum time spent sizing per collection, in milliseconds. */
+  private long timeBudget = 1000;
+
+  /** The passes in progress by application name. */
+  private final Map<String, Pass> passes = new HashMap<>();
+
+  /** The latest footprints by application name. */
+  private final Map<String, HeapFootprint> footprints = new ConcurrentHashMap<>();
+
+  /** The name of the application to start the next collection with. */
+  private String nextApplication;
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  /**
+   * Gets the session size estimator.
+   *
+   * @return the session size estimator
+   */
+  public SessionSizeEstimatorBean getSessionSizeEstimator() {
+    return sessionSizeEstimator;
+  }
+
+  /**
+   * Sets the session size estimator.
+   *
+   * @param sessionSizeEstimator the new session size estimator
+   */
+  public void setSessionSizeEstimator(SessionSizeEstimatorBean sessionSizeEstimator) {
+    this.sessionSizeEstimator = sessionSizeEstimator;
+  }
+
+  /**
+   * Gets the time budget.
+   *
+   * @return the time budget in milliseconds
+   */
+  public long getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the time budget.
+   *
+   * @param timeBudget the new time budget in milliseconds
+   */
+  @Value("${psiprobe.beans.stats.collectors.heap.budget}")
+  public void setTimeBudget(long timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * Gets the latest footprint of an application.
+   *
+   * @param appName the application name
+   * @return the footprint, or null if none was completed yet
+   */
+  public HeapFootprint getFootprint(String appName) {
+    return footprints.get(appName);
+  }
+
+  @Override
+  public synchronized void collect() throws Exception {
+    if (containerWrapper == null) {
+      logger.error("Cannot collect application heap stats. Container wrapper is not set.");
+      return;
+    }
+    TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+    if (tomcatContainer == null) {
+      return;
+    }
+
+    Map<String, Context> contexts = new TreeMap<>();
+    for (Context ctx : tomcatContainer.findContexts()) {
+      if (ctx != null && ctx.getName() != null && getClassLoader(ctx) != null) {
+        contexts.put(getApplicationName(ctx), ctx);
+      }
+    }
+    // forget undeployed and stopped applications
+    passes.keySet().retainAll(contexts.keySet());
+    footprints.keySet().retainAll(contexts.keySet());
+    if (contexts.isEmpty()) {
+      return;
+    }
+
+    // take the applications in turn, starting with the one the previous collection stopped at
+    List<String> order = new ArrayList<>(contexts.keySet());
+    int start = nextApplication == null ? 0 : Collections.binarySearch(order, nextApplication);
+    if (start < 0) {
+      start = -start - 1;
+    }
+    long deadline = System.currentTimeMillis() + timeBudget;
+    for (int i = 0; i < order.size() && System.currentTimeMillis() <= deadline; i++) {
+      String appName = order.get((start + i) % order.size());
+      Context ctx = contexts.get(appName);
+      Pass pass = passes.get(appName);
+      if (pass == null) {
+        pass = new Pass();
+        passes.put(appName, pass);
+      }
+      ClassLoader cl = getClassLoader(ctx);
+      List<Class<?>> classes = cl == null ? null : Instruments.getLoadedClasses(cl);
+      if (classes != null) {
+        Collections.sort(classes, CLASS_NAME_ORDER);
+      }
+      nextApplication = appName;
+      if (!advance(pass, getAttributes(ctx), classes, cl, deadline)) {
+        break;
+      }
+      passes.remove(appName);
+      publish(appName, pass);
+      nextApplication = order.get((start + i + 1) % order.size());
+    }
+  }
+
+  /**
+   * Sizes the roots of an application from where its pass left off, the servlet context attributes
+   * first and the static fields of its classes next, until they are all sized or the deadline
+   * passes. A root still being sized at the deadline is sized again on the next run, unless it was
+   * the first root of this run, in which case its partial size is kept so the pass moves on.
+   *
+   * @param pass the pass
+   * @param attributes the servlet context attribute values
+   * @param classes the classes of the application, or null if unknown
+   * @param cl the class loader of the application
+   * @param deadline the time after which sizing stops
+   * @return true, if all roots of the pass are sized
+   */
+  static boolean advance(Pass pass, List<?> attributes, List<Class<?>> classes, ClassLoader cl,
+      long deadline) {
+
+    pass.runs++;
+    pass.classCount = classes == null ? -1 : classes.size();
+    Set<Object> sized = new HashSet<>();
+    boolean first = true;
+    while (true) {
+      List<?> roots = pass.staticsPhase ? classes : attributes;
+      if (roots == null || pass.index >= roots.size()) {
+        if (pass.staticsPhase) {
+          return true;
+        }
+        pass.staticsPhase = true;
+        pass.index = 0;
+        continue;
+      }
+      Object root = roots.get(pass.index);
+      long size = 0;
+      try {
+        size = pass.staticsPhase ? Instruments.sizeOfStatics((Class<?>) root, sized, deadline)
+            : Instruments.sizeOf(root, cl, sized, deadline);
+      } catch (RuntimeException e) {
+        logger.debug("Cannot size '{}'", root);
+        logger.trace("", e);
+      }
+      boolean late = System.currentTimeMillis() > deadline;
+      if (late && !first) {
+        return false;
+      }
+      if (pass.staticsPhase) {
+        pass.staticsSize += size;
+      } else {
+        pass.contextAttributesSize += size;
+      }
+      pass.index++;
+      first = false;
+      if (late) {
+        pass.truncated = true;
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Publishes the footprint of a completed pass and adds it to the series.
+   *
+   * @param appName the application name
+   * @param pass the pass
+   * @throws InterruptedException if interrupted while updating the stats
+   */
+  private void publish(String appName, Pass pass) throws InterruptedException {
+    SessionSizeEstimate sessions =
+        sessionSizeEstimator == null ? null : sessionSizeEstimator.getEstimate(appName);
+    long time = System.currentTimeMillis();
+    HeapFootprint footprint = new HeapFootprint(appName, time, pass.contextAttributesSize,
+        sessions == null ? -1 : sessions.getSize(), pass.staticsSize, pass.classCount, pass.runs,
+        pass.truncated);
+    footprints.put(appName, footprint);
+    logger.debug("Estimated heap of '{}' at {} bytes in {} runs", appName, footprint.getTotal(),
+        pass.runs);
+
+    buildAbsoluteStats(PREFIX + appName, footprint.getTotal(), time);
+    buildAbsoluteStats(PREFIX + "context." + appName, footprint.getContextAttributesSize(), time);
+    buildAbsoluteStats(PREFIX + "sessions." + appName, Math.max(footprint.getSessionsSize(), 0),
+        time);
+    buildAbsoluteStats(PREFIX + "statics." + appName, footprint.getStaticsSize(), time);
+  }
+
+  /**
+   * Gets the servlet context attribute values of an application, ordered by attribute name.
+   *
+   * @param ctx the context
+   * @return the attribute values
+   */
+  private static List<Object> getAttributes(Context ctx) {
+    List<Object> values = new ArrayList<>();
+    ServletContext servletContext = ctx.getServletContext();
+    if (servletContext != null) {
+      List<String> names = Collections.list(servletContext.getAttributeNames());
+      Collections.sort(names);
+      for (String name : names) {
+        values.add(servletContext.getAttribute(name));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Gets the class loader of a context.
+   *
+   * @param ctx the context
+   * @return the class loader, or null if the context is stopped
+   */
+  private static ClassLoader getClassLoader(Context ctx) {
+    Loader loader = ctx.getLoader();
+    return loader == null ? null : loader.getClassLoader();
+  }
+
+  /**
+   * Gets the application name of a context.
+   *
+   * @param ctx the context
+   * @return the application name
+   */
+  private static String getApplicationName(Context ctx) {
+    return "".equals(ctx.getName()) ? "/" : ctx.getName();
+  }
+
+  /**
+   * Sets the max series expression.
+   *
+   * @param period the period
+   * @param span the span
+   */
+  public void setMaxSeries(@Value("${psiprobe.beans.stats.collectors.heap.period}") long period,
+      @Value("${psiprobe.beans.stats.collectors.heap.span}") long span) {
+    super.setMaxSeries((int) TimeExpression.dataPoints(period, span));
+  }
+
+  /**
+   * The progress of sizing the roots of one application, holding no reference to them so that it
+   * can be kept between collections.
+   */
+  static class Pass {
+
+    /** Whether the static fields are being sized, after the servlet context attributes. */
+    boolean staticsPhase;
+
+    /** The index of the next root to size. */
+    int index;
+
+    /** The size retained by servlet context attributes so far. */
+    long contextAttributesSize;
+
+    /** The size retained by static fields so far. */
+    long staticsSize;
+
+    /** The number of classes of the application, or -1 if unknown. */
+    int classCount = -1;
+
+    /** The number of runs so far. */
+    int runs;
+
+    /** Whether a root was only partly sized. */
+    boolean truncated;
+
+  }
+
+}
@@ -0,0 +1,463 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import org.apache.catalina.Context;
+import org.apache.catalina.Loader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.TomcatContainer;
+import psiprobe.beans.ContainerWrapperBean;
+import psiprobe.beans.stats.listeners.StatsCollectionListener;
+import psiprobe.model.LeakedClassLoader;
+import psiprobe.tools.Instruments;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Detects class loaders of web applications that are still reachable after the application was
+ * stopped, reloaded or undeployed.
+ *
+ * <p>
+ * Every collection remembers the current class loader of each context through a weak reference, so
+ * tracking a loader never keeps it alive. A loader no context uses any longer is retired, and one
+ * whose reference is still not cleared once the configured number of old generation collections
+ * have run since is reported as leaked, along with the number of classes it defined and an estimate
+ * of the heap its classes retain through their static fields. The controllers that stop, reload and
+ * undeploy applications retire the loader right before they act, so loaders replaced between two
+ * collections are tracked as well.
+ * </p>
+ *
+ * <p>
+ * The number of leaked loaders is added to the "classloaders.leaked" series on every collection,
+ * so threshold listeners can alert on it.
+ * </p>
+ */
+public class ClassLoaderLeakCollectorBean extends AbstractStatsCollectorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(ClassLoaderLeakCollectorBean.class);
+
+  /** The Constant LEAKED. */
+  public static final String LEAKED = "classloaders.leaked";
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The number of old generation collections a retired loader must survive to be leaked. */
+  private int gcThreshold = 2;
+
+  /** The time allowed to estimate the retained size of newly leaked loaders, in milliseconds. */
+  private long sizeBudget = 2000;
+
+  /** The tracked loaders, in the order they were first seen. */
+  private final List<TrackedLoader> trackedLoaders = new ArrayList<>();
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  /**
+   * Gets the gc threshold.
+   *
+   * @return the gc threshold
+   */
+  public int getGcThreshold() {
+    return gcThreshold;
+  }
+
+  /**
+   * Sets the gc threshold.
+   *
+   * @param gcThreshold the new gc threshold
+   */
+  @Value("${psiprobe.beans.stats.collectors.classloaders.gcThreshold}")
+  public void setGcThreshold(int gcThreshold) {
+    this.gcThreshold = gcThreshold;
+  }
+
+  /**
+   * Gets the size budget.
+   *
+   * @return the size budget
+   */
+  public long getSizeBudget() {
+    return sizeBudget;
+  }
+
+  /**
+   * Sets the size budget.
+   *
+   * @param sizeBudget the new size budget
+   */
+  @Value("${psiprobe.beans.stats.collectors.classloaders.sizeBudget}")
+  public void setSizeBudget(long sizeBudget) {
+    this.sizeBudget = sizeBudget;
+  }
+
+  /**
+   * Retires the current class loader of a context that is about to be stopped, reloaded or
+   * undeployed.
+   *
+   * @param context the context
+   */
+  public void retire(Context context) {
+    Loader loader = context.getLoader();
+    ClassLoader cl = loader == null ? null : loader.getClassLoader();
+    if (cl != null) {
+      retire(cl, getApplicationName(context), getOldGcCount(), System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Retires a class loader, tracking it first if it was not tracked yet. The classes it defined are
+   * listed now, since stopping its context clears the entries they are read from.
+   *
+   * @param cl the class loader
+   * @param applicationName the application name
+   * @param gcCount the current number of old generation collections
+   * @param now the current time
+   */
+  void retire(ClassLoader cl, String applicationName, long gcCount, long now) {
+    List<Class<?>> classes = Instruments.getLoadedClasses(cl);
+    synchronized (this) {
+      TrackedLoader tracked = find(cl);
+      if (tracked == null) {
+        tracked = new TrackedLoader(cl, applicationName);
+        trackedLoaders.add(tracked);
+      }
+      if (tracked.retiredTime < 0) {
+        tracked.retiredTime = now;
+        tracked.retiredGcCount = gcCount;
+        tracked.classes = classes == null ? null : weakly(classes);
+      }
+    }
+  }
+
+  @Override
+  public void collect() throws Exception {
+    if (containerWrapper == null) {
+      logger.error("Cannot collect class loader stats. Container wrapper is not set.");
+      return;
+    }
+    TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+    if (tomcatContainer != null) {
+      Map<ClassLoader, String> current = new IdentityHashMap<>();
+      for (Context ctx : tomcatContainer.findContexts()) {
+        Loader loader = ctx == null ? null : ctx.getLoader();
+        ClassLoader cl = loader == null ? null : loader.getClassLoader();
+        if (cl != null) {
+          current.put(cl, getApplicationName(ctx));
+        }
+      }
+      collect(current, getOldGcCount(), System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Tracks the current loaders, retires the ones no longer current, reports the ones that survived
+   * enough collections since, and adds the number of leaked loaders to the series.
+   *
+   * @param current the current loaders of the contexts, by identity, with their application name
+   * @param gcCount the current number of old generation collections
+   * @param now the current time
+   * @throws InterruptedException if interrupted while updating the stats
+   */
+  void collect(Map<ClassLoader, String> current, long gcCount, long now)
+      throws InterruptedException {
+
+    List<TrackedLoader> newlyLeaked = new ArrayList<>();
+    int leaked = 0;
+    synchronized (this) {
+      for (Map.Entry<ClassLoader, String> entry : current.entrySet()) {
+        TrackedLoader tracked = find(entry.getKey());
+        if (tracked == null) {
+          trackedLoaders.add(new TrackedLoader(entry.getKey(), entry.getValue()));
+        } else {
+          // a stop that failed leaves the loader in use
+          tracked.retiredTime = -1;
+          tracked.leaked = false;
+          tracked.classes = null;
+        }
+      }
+      for (Iterator<TrackedLoader> it = trackedLoaders.iterator(); it.hasNext();) {
+        TrackedLoader tracked = it.next();
+        ClassLoader cl = tracked.reference.get();
+        if (cl == null) {
+          it.remove();
+          continue;
+        }
+        if (current.containsKey(cl)) {
+          continue;
+        }
+        if (tracked.retiredTime < 0) {
+          tracked.retiredTime = now;
+          tracked.retiredGcCount = gcCount;
+        }
+        if (!tracked.leaked && gcCount - tracked.retiredGcCount >= gcThreshold) {
+          tracked.leaked = true;
+          newlyLeaked.add(tracked);
+          logger.warn("Class loader {} of '{}' is still reachable after {} old generation"
+              + " collections", tracked.loaderName, tracked.applicationName,
+              gcCount - tracked.retiredGcCount);
+        }
+        if (tracked.leaked) {
+          leaked++;
+        }
+      }
+    }
+
+    // estimated outside the lock, so the controllers retiring loaders never wait for it
+    long deadline = System.currentTimeMillis() + sizeBudget;
+    for (TrackedLoader tracked : newlyLeaked) {
+      estimate(tracked, deadline);
+    }
+    buildAbsoluteStats(LEAKED, leaked, now);
+  }
+
+  /**
+   * Gets the leaked class loaders, oldest first.
+   *
+   * @return the leaked class loaders
+   */
+  public List<LeakedClassLoader> getLeakedClassLoaders() {
+    return getLeakedClassLoaders(getOldGcCount(), System.currentTimeMillis());
+  }
+
+  /**
+   * Gets the leaked class loaders, oldest first.
+   *
+   * @param gcCount the current number of old generation collections
+   * @param now the current time
+   * @return the leaked class loaders
+   */
+  synchronized List<LeakedClassLoader> getLeakedClassLoaders(long gcCount, long now) {
+    List<LeakedClassLoader> result = new ArrayList<>();
+    for (TrackedLoader tracked : trackedLoaders) {
+      if (tracked.leaked && tracked.reference.get() != null) {
+        result.add(new LeakedClassLoader(tracked.applicationName, tracked.loaderName,
+            tracked.retiredTime, now - tracked.retiredTime, gcCount - tracked.retiredGcCount,
+            tracked.classCount, tracked.retainedSize));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the tracked entry of a class loader.
+   *
+   * @param cl the class loader
+   * @return the tracked loader, or null if the loader is not tracked
+   */
+  private TrackedLoader find(ClassLoader cl) {
+    for (TrackedLoader tracked : trackedLoaders) {
+      if (tracked.reference.get() == cl) {
+        return tracked;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Counts the classes of a leaked loader and estimates the heap they retain through their static
+   * fields. The classes listed when the loader was retired are used if they were, as those its
+   * loader still lists once stopped may be none.
+   *
+   * @param tracked the tracked loader
+   * @param deadline the time after which sizing stops
+   */
+  private static void estimate(TrackedLoader tracked, long deadline) {
+    ClassLoader cl = tracked.reference.get();
+    List<WeakReference<Class<?>>> snapshot = tracked.classes;
+    List<Class<?>> classes;
+    if (snapshot != null) {
+      classes = new ArrayList<>(snapshot.size());
+      for (WeakReference<Class<?>> reference : snapshot) {
+        Class<?> clazz = reference.get();
+        if (clazz != null) {
+          classes.add(clazz);
+        }
+      }
+    } else {
+      classes = cl == null ? null : Instruments.getLoadedClasses(cl);
+    }
+    if (classes != null) {
+      Set<Object> sized = new HashSet<>();
+      long size = 0;
+      for (Class<?> clazz : classes) {
+        if (System.currentTimeMillis() > deadline) {
+          break;
+        }
+        size += Instruments.sizeOfStatics(clazz, sized, deadline);
+      }
+      tracked.classCount = classes.size();
+      tracked.retainedSize = size;
+    }
+  }
+
+  /**
+   * References classes weakly, so that listing them never keeps their loader alive.
+   *
+   * @param classes the classes
+   * @return the weak references to the classes
+   */
+  private static List<WeakReference<Class<?>>> weakly(List<Class<?>> classes) {
+    List<WeakReference<Class<?>>> references = new ArrayList<>(classes.size());
+    for (Class<?> clazz : classes) {
+      references.add(new WeakReference<Class<?>>(clazz));
+    }
+    return references;
+  }
+
+  /**
+   * Gets the number of old generation collections run so far, or of all collections when no
+   * collector of the JVM can be told apart as an old generation one.
+   *
+   * @return the old gc count
+   */
+  protected long getOldGcCount() {
+    long all = 0;
+    long old = 0;
+    boolean found = false;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      long count = Math.max(0, gc.getCollectionCount());
+      all += count;
+      if (isOldCollector(gc.getName(), gc.getMemoryPoolNames())) {
+        old += count;
+        found = true;
+      }
+    }
+    return found ? old : all;
+  }
+
+  /**
+   * Checks if the collector collects the tenured pool, which is when classes get unloaded.
+   *
+   * @param name the collector name
+   * @param pools the names of the pools the collector manages
+   * @return true, if it is an old generation collector
+   */
+  protected static boolean isOldCollector(String name, String[] pools) {
+    if (name.contains("Young") || name.contains("Scavenge") || name.contains("ParNew")
+        || name.contains("Minor") || "Copy".equals(name) || "scavenge".equals(name)) {
+      return false;
+    }
+    for (String pool : pools) {
+      if (JvmGcStatsCollectorBean.isTenured(pool)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the application name of a context.
+   *
+   * @param context the context
+   * @return the application name
+   */
+  private static String getApplicationName(Context context) {
+    return "".equals(context.getName()) ? "/" : context.getName();
+  }
+
+  /**
+   * Sets the max series expression.
+   *
+   * @param period the period
+   * @param span the span
+   */
+  public void setMaxSeries(
+      @Value("${psiprobe.beans.stats.collectors.classloaders.period}") long period,
+      @Value("${psiprobe.beans.stats.collectors.classloaders.span}") long span) {
+    super.setMaxSeries((int) TimeExpression.dataPoints(period, span));
+  }
+
+  @Autowired
+  @Override
+  public void setListeners(List<StatsCollectionListener> listeners) {
+    super.setListeners(listeners);
+  }
+
+  /**
+   * A class loader being tracked, held only weakly.
+   */
+  private static class TrackedLoader {
+
+    /** The reference to the loader. */
+    final WeakReference<ClassLoader> reference;
+
+    /** The loader description. */
+    final String loaderName;
+
+    /** The application name. */
+    final String applicationName;
+
+    /** The time the loader was retired, or -1 while it is in use. */
+    long retiredTime = -1;
+
+    /** The number of old generation collections when the loader was retired. */
+    long retiredGcCount;
+
+    /** Whether the loader was reported as leaked. */
+    boolean leaked;
+
+    /** The classes the loader defined when it was retired, or null if they were not listed. */
+    volatile List<WeakReference<Class<?>>> classes;
+
+    /** The number of classes the loader defined, or -1 if unknown. */
+    volatile int classCount = -1;
+
+    /** The estimated retained size, or -1 if not estimated. */
+    volatile long retainedSize = -1;
+
+    /**
+     * Instantiates a new tracked loader.
+     *
+     * @param cl the class loader
+     * @param applicationName the application name
+     */
+    TrackedLoader(ClassLoader cl, String applicationName) {
+      this.reference = new WeakReference<>(cl);
+      this.loaderName = cl.getClass().getSimpleName() + '@'
+          + Integer.toHexString(System.identityHashCode(cl));
+      this.applicationName = applicationName;
+    }
+
+  }
+
+}
@@ -15,14 +15,33 @@ import org.springframework.beans.factory.annotation.Value;
 import psiprobe.TomcatContainer;
 import psiprobe.beans.ClusterWrapperBean;
 import psiprobe.beans.ContainerWrapperBean;
+import psiprobe.model.jmx.AsyncClusterSender;
 import psiprobe.model.jmx.Cluster;
+import psiprobe.model.jmx.ClusterSender;
+import psiprobe.model.jmx.SyncClusterSender;
 import psiprobe.tools.TimeExpression;
 
 /**
- * The Class ClusterStatsCollectorBean.
+ * Collects the cluster traffic totals and, for every member, the series needed to spot a slow
+ * replication peer: average ack time, send queue size, data failures and bytes sent. Members are
+ * identified by address and port, as in "cluster.member.time.10.0.0.2:4001". Queue sizes are only
+ * recorded for asynchronous senders and failures only for synchronous ones, as other senders do
+ * not expose them.
  */
 public class ClusterStatsCollectorBean extends AbstractStatsCollectorBean {
 
+  /** The Constant MEMBER_TIME_PREFIX. */
+  public static final String MEMBER_TIME_PREFIX = "cluster.member.time.";
+
+  /** The Constant MEMBER_QUEUE_PREFIX. */
+  public static final String MEMBER_QUEUE_PREFIX = "cluster.member.queue.";
+
+  /** The Constant MEMBER_FAILURES_PREFIX. */
+  public static final String MEMBER_FAILURES_PREFIX = "cluster.member.failures.";
+
+  /** The Constant MEMBER_SENT_PREFIX. */
+  public static final String MEMBER_SENT_PREFIX = "cluster.member.sent.";
+
   /** The container wrapper. */
   @Inject
   private ContainerWrapperBean containerWrapper;
@@ -74,16 +93,43 @@ public class ClusterStatsCollectorBean extends AbstractStatsCollectorBean {
     TomcatContainer container = containerWrapper.getTomcatContainer();
     if (container != null) {
       Cluster cluster =
-          clusterWrapper.getCluster(container.getName(), container.getHostName(), false);
+          clusterWrapper.getCluster(container.getName(), container.getHostName(), true);
       if (cluster != null) {
-        buildDeltaStats("cluster.received", cluster.getTotalReceivedBytes());
-        buildDeltaStats("cluster.sent", cluster.getSenderTotalBytes());
-        buildDeltaStats("cluster.req.received", cluster.getNrOfMsgsReceived());
-        buildDeltaStats("cluster.req.sent", cluster.getSenderNrOfRequests());
+        long time = System.currentTimeMillis();
+        buildDeltaStats("cluster.received", cluster.getTotalReceivedBytes(), time);
+        buildDeltaStats("cluster.sent", cluster.getSenderTotalBytes(), time);
+        buildDeltaStats("cluster.req.received", cluster.getNrOfMsgsReceived(), time);
+        buildDeltaStats("cluster.req.sent", cluster.getSenderNrOfRequests(), time);
+        for (ClusterSender member : cluster.getMembers()) {
+          collectMember(member, time);
+        }
       }
     }
   }
 
+  /**
+   * Records the series of a cluster member.
+   *
+   * @param member the member sender
+   * @param time the time
+   * @throws InterruptedException if interrupted while updating the stats
+   */
+  private void collectMember(ClusterSender member, long time) throws InterruptedException {
+    String name = member.getAddress() + ":" + member.getPort();
+    if (member.getAvgProcessingTime() >= 0) {
+      buildAbsoluteStats(MEMBER_TIME_PREFIX + name, member.getAvgProcessingTime(), time);
+    }
+    if (member instanceof AsyncClusterSender) {
+      buildAbsoluteStats(MEMBER_QUEUE_PREFIX + name,
+          ((AsyncClusterSender) member).getQueueSize(), time);
+    }
+    if (member instanceof SyncClusterSender) {
+      buildDeltaStats(MEMBER_FAILURES_PREFIX + name,
+          ((SyncClusterSender) member).getDataFailureCounter(), time);
+    }
+    buildDeltaStats(MEMBER_SENT_PREFIX + name, member.getTotalBytes(), time);
+  }
+
   /**
    * Sets the max series expression.
    *
@@ -30,6 +30,21 @@ public class DatasourceStatsCollectorBean extends AbstractStatsCollectorBean {
   /** The Constant PREFIX_BUSY. */
   private static final String PREFIX_BUSY = "ds.busy.";
 
+  /** The Constant PREFIX_WAITING. */
+  private static final String PREFIX_WAITING = "ds.waiting.";
+
+  /** The Constant PREFIX_WAIT_MEAN. */
+  private static final String PREFIX_WAIT_MEAN = "ds.wait.mean.";
+
+  /** The Constant PREFIX_WAIT_MAX. */
+  private static final String PREFIX_WAIT_MAX = "ds.wait.max.";
+
+  /** The Constant PREFIX_BORROWED. */
+  private static final String PREFIX_BORROWED = "ds.borrowed.";
+
+  /** The Constant PREFIX_RETURNED. */
+  private static final String PREFIX_RETURNED = "ds.returned.";
+
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(DatasourceStatsCollectorBean.class);
 
@@ -64,17 +79,42 @@ public class DatasourceStatsCollectorBean extends AbstractStatsCollectorBean {
       for (ApplicationResource ds : getContainerWrapper().getDataSources()) {
         String appName = ds.getApplicationName();
         String name = (appName == null ? "" : appName) + '/' + ds.getName();
-        DataSourceInfo dsi = ds.getDataSourceInfo();
-        int numEstablished = dsi.getEstablishedConnections();
-        int numBusy = dsi.getBusyConnections();
         logger.trace("Collecting stats for datasource: {}", name);
-        buildAbsoluteStats(PREFIX_ESTABLISHED + name, numEstablished, currentTime);
-        buildAbsoluteStats(PREFIX_BUSY + name, numBusy, currentTime);
+        collect(name, ds.getDataSourceInfo(), currentTime);
       }
       logger.debug("datasource stats collected in {}ms", System.currentTimeMillis() - currentTime);
     }
   }
 
+  /**
+   * Collects the stats of a single datasource. Pool statistics the datasource does not expose are
+   * not recorded, so their series stay empty rather than flat at zero.
+   *
+   * @param name the name
+   * @param dsi the data source info
+   * @param currentTime the current time
+   * @throws InterruptedException the interrupted exception
+   */
+  void collect(String name, DataSourceInfo dsi, long currentTime) throws InterruptedException {
+    buildAbsoluteStats(PREFIX_ESTABLISHED + name, dsi.getEstablishedConnections(), currentTime);
+    buildAbsoluteStats(PREFIX_BUSY + name, dsi.getBusyConnections(), currentTime);
+    if (dsi.getWaitingThreads() >= 0) {
+      buildAbsoluteStats(PREFIX_WAITING + name, dsi.getWaitingThreads(), currentTime);
+    }
+    if (dsi.getMeanWaitTime() >= 0) {
+      buildAbsoluteStats(PREFIX_WAIT_MEAN + name, dsi.getMeanWaitTime(), currentTime);
+    }
+    if (dsi.getMaxWaitTime() >= 0) {
+      buildAbsoluteStats(PREFIX_WAIT_MAX + name, dsi.getMaxWaitTime(), currentTime);
+    }
+    if (dsi.getBorrowedCount() >= 0) {
+      buildDeltaStats(PREFIX_BORROWED + name, dsi.getBorrowedCount(), currentTime);
+    }
+    if (dsi.getReturnedCount() >= 0) {
+      buildDeltaStats(PREFIX_RETURNED + name, dsi.getReturnedCount(), currentTime);
+    }
+  }
+
   /**
    * Reset.
    *
@@ -99,6 +139,11 @@ public class DatasourceStatsCollectorBean extends AbstractStatsCollectorBean {
   public void reset(String name) throws Exception {
     resetStats(PREFIX_ESTABLISHED + name);
     resetStats(PREFIX_BUSY + name);
+    resetStats(PREFIX_WAITING + name);
+    resetStats(PREFIX_WAIT_MEAN + name);
+    resetStats(PREFIX_WAIT_MAX + name);
+    resetStats(PREFIX_BORROWED + name);
+    resetStats(PREFIX_RETURNED + name);
   }
 
   /**
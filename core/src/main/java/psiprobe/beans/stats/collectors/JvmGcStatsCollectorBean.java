@@ -0,0 +1,362 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilterSupport;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.beans.stats.listeners.StatsCollectionListener;
+import psiprobe.model.jmx.GcEvent;
+import psiprobe.tools.JmxTools;
+
+/**
+ * Collects garbage collection and memory pool statistics as they happen rather than by polling.
+ *
+ * <p>
+ * The collector subscribes to the garbage collector notifications of the platform and records, for
+ * every cycle, the pause duration, the number of bytes promoted into the tenured pools and the
+ * allocation rate in the young pools since the previous cycle. Memory pool usage and collection
+ * usage threshold notifications are added to the "memory.pool." series of the pool, so short usage
+ * spikes between two polls of {@link JvmMemoryStatsCollectorBean} become visible.
+ * </p>
+ *
+ * <p>
+ * Notifications are parsed from their open data, so no vendor specific classes are required. JVMs
+ * that do not emit garbage collector notifications simply do not produce any data.
+ * </p>
+ */
+public class JvmGcStatsCollectorBean extends AbstractStatsCollectorBean
+    implements NotificationListener, InitializingBean, DisposableBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(JvmGcStatsCollectorBean.class);
+
+  /** The Constant GC_NOTIFICATION, as defined by com.sun.management. */
+  public static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+  /** The Constant PAUSE_PREFIX, followed by the garbage collector name. */
+  public static final String PAUSE_PREFIX = "gc.pause.";
+
+  /** The Constant PROMOTED. */
+  public static final String PROMOTED = "gc.promoted";
+
+  /** The Constant ALLOCATION_RATE. */
+  public static final String ALLOCATION_RATE = "gc.allocation.rate";
+
+  /** The Constant POOL_PREFIX, shared with the polling memory collector. */
+  public static final String POOL_PREFIX = "memory.pool.";
+
+  /** The usage threshold, in percent of the pool maximum, to set on heap pools; 0 to not set. */
+  private int thresholdPercent;
+
+  /** The number of recent garbage collection events to keep. */
+  private int maxEvents = 50;
+
+  /** The recent events, oldest first. */
+  private final Deque<GcEvent> recentEvents = new ArrayDeque<>();
+
+  /** The emitters this collector listens to. */
+  private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+  /** The pools whose thresholds were set by this collector. */
+  private final List<MemoryPoolMXBean> thresholdPools = new ArrayList<>();
+
+  /** The young pools usage after the previous cycle, by pool name. */
+  private Map<String, Long> previousYoungUsage = new HashMap<>();
+
+  /** The end time of the previous cycle, in milliseconds since the JVM start. */
+  private long previousEndTime = -1;
+
+  /**
+   * Gets the threshold percent.
+   *
+   * @return the threshold percent
+   */
+  public int getThresholdPercent() {
+    return thresholdPercent;
+  }
+
+  /**
+   * Sets the threshold percent.
+   *
+   * @param thresholdPercent the new threshold percent
+   */
+  @Value("${psiprobe.beans.stats.collectors.gc.threshold}")
+  public void setThresholdPercent(int thresholdPercent) {
+    this.thresholdPercent = thresholdPercent;
+  }
+
+  /**
+   * Gets the max events.
+   *
+   * @return the max events
+   */
+  public int getMaxEvents() {
+    return maxEvents;
+  }
+
+  /**
+   * Sets the max events.
+   *
+   * @param maxEvents the new max events
+   */
+  @Value("${psiprobe.beans.stats.collectors.gc.recent}")
+  public void setMaxEvents(int maxEvents) {
+    this.maxEvents = maxEvents;
+  }
+
+  /**
+   * Gets the recent garbage collection events, oldest first.
+   *
+   * @return the recent events
+   */
+  public List<GcEvent> getRecentEvents() {
+    synchronized (recentEvents) {
+      return new ArrayList<>(recentEvents);
+    }
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    NotificationFilterSupport gcFilter = new NotificationFilterSupport();
+    gcFilter.enableType(GC_NOTIFICATION);
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter) {
+        addListener((NotificationEmitter) gc, gcFilter);
+      }
+    }
+
+    NotificationFilterSupport memoryFilter = new NotificationFilterSupport();
+    memoryFilter.enableType(MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED);
+    memoryFilter.enableType(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED);
+    addListener((NotificationEmitter) ManagementFactory.getMemoryMXBean(), memoryFilter);
+
+    if (thresholdPercent > 0) {
+      setThresholds();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    synchronized (emitters) {
+      for (NotificationEmitter emitter : emitters) {
+        try {
+          emitter.removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+          logger.trace("", e);
+        }
+      }
+      emitters.clear();
+    }
+    for (MemoryPoolMXBean pool : thresholdPools) {
+      if (pool.isUsageThresholdSupported()) {
+        pool.setUsageThreshold(0);
+      }
+      if (pool.isCollectionUsageThresholdSupported()) {
+        pool.setCollectionUsageThreshold(0);
+      }
+    }
+    thresholdPools.clear();
+  }
+
+  /**
+   * Adds this collector as listener of the emitter.
+   *
+   * @param emitter the emitter
+   * @param filter the filter
+   */
+  private void addListener(NotificationEmitter emitter, NotificationFilterSupport filter) {
+    synchronized (emitters) {
+      emitter.addNotificationListener(this, filter, null);
+      emitters.add(emitter);
+    }
+  }
+
+  /**
+   * Sets usage and collection usage thresholds on heap pools which have none set yet, so the
+   * memory bean emits notifications when they fill up.
+   */
+  private void setThresholds() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      long max = pool.getUsage().getMax();
+      if (pool.getType() != MemoryType.HEAP || max <= 0) {
+        continue;
+      }
+      long threshold = max / 100 * thresholdPercent;
+      boolean set = false;
+      if (pool.isUsageThresholdSupported() && pool.getUsageThreshold() == 0) {
+        pool.setUsageThreshold(threshold);
+        set = true;
+      }
+      if (pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsageThreshold() == 0) {
+        pool.setCollectionUsageThreshold(threshold);
+        set = true;
+      }
+      if (set) {
+        thresholdPools.add(pool);
+      }
+    }
+  }
+
+  /**
+   * Notifications drive this collector; there is nothing to poll.
+   */
+  @Override
+  public void collect() throws Exception {
+    // Nothing to poll
+  }
+
+  @Override
+  public synchronized void handleNotification(Notification notification, Object handback) {
+    try {
+      if (GC_NOTIFICATION.equals(notification.getType())) {
+        gcCompleted((CompositeData) notification.getUserData());
+      } else {
+        MemoryNotificationInfo info =
+            MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+        buildAbsoluteStats(POOL_PREFIX + info.getPoolName(), info.getUsage().getUsed(),
+            notification.getTimeStamp());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      logger.debug("Could not handle '{}' notification", notification.getType());
+      logger.trace("", e);
+    }
+  }
+
+  /**
+   * Records the statistics of a completed garbage collection cycle.
+   *
+   * @param data the garbage collection notification info
+   * @throws InterruptedException if interrupted while updating the stats
+   */
+  protected void gcCompleted(CompositeData data) throws InterruptedException {
+    CompositeData gcInfo = (CompositeData) data.get("gcInfo");
+    Map<String, Long> before = getUsedByPool((TabularData) gcInfo.get("memoryUsageBeforeGc"));
+    Map<String, Long> after = getUsedByPool((TabularData) gcInfo.get("memoryUsageAfterGc"));
+    long startTime = JmxTools.getLongAttr(gcInfo, "startTime");
+    long endTime = JmxTools.getLongAttr(gcInfo, "endTime");
+
+    long promoted = 0;
+    long allocated = 0;
+    Map<String, Long> youngUsage = new HashMap<>();
+    for (Map.Entry<String, Long> entry : after.entrySet()) {
+      String pool = entry.getKey();
+      Long used = before.get(pool);
+      if (used == null) {
+        continue;
+      }
+      if (isTenured(pool)) {
+        promoted += Math.max(0, entry.getValue() - used);
+      } else if (isYoung(pool)) {
+        Long previous = previousYoungUsage.get(pool);
+        allocated += Math.max(0, used - (previous == null ? 0 : previous));
+        youngUsage.put(pool, entry.getValue());
+      }
+    }
+
+    GcEvent event = new GcEvent();
+    event.setName((String) data.get("gcName"));
+    event.setAction((String) data.get("gcAction"));
+    event.setCause((String) data.get("gcCause"));
+    event.setStartTime(ManagementFactory.getRuntimeMXBean().getStartTime() + startTime);
+    event.setDuration(JmxTools.getLongAttr(gcInfo, "duration"));
+    event.setPromoted(promoted);
+    event.setAllocated(allocated);
+    synchronized (recentEvents) {
+      recentEvents.addLast(event);
+      while (recentEvents.size() > maxEvents) {
+        recentEvents.removeFirst();
+      }
+    }
+
+    long time = event.getStartTime() + event.getDuration();
+    buildAbsoluteStats(PAUSE_PREFIX + event.getName(), event.getDuration(), time);
+    buildAbsoluteStats(PROMOTED, promoted, time);
+    if (previousEndTime >= 0 && startTime > previousEndTime) {
+      buildAbsoluteStats(ALLOCATION_RATE, allocated * 1000 / (startTime - previousEndTime), time);
+    }
+    previousYoungUsage = youngUsage;
+    previousEndTime = endTime;
+  }
+
+  /**
+   * Gets the used bytes by pool name out of a map of memory usages.
+   *
+   * @param usages the memory usages keyed by pool name
+   * @return the used bytes by pool name
+   */
+  private static Map<String, Long> getUsedByPool(TabularData usages) {
+    Map<String, Long> result = new HashMap<>();
+    for (Object row : usages.values()) {
+      CompositeData entry = (CompositeData) row;
+      result.put((String) entry.get("key"),
+          JmxTools.getLongAttr((CompositeData) entry.get("value"), "used"));
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the pool holds newly allocated objects.
+   *
+   * @param pool the pool name
+   * @return true, if it is a young pool
+   */
+  protected static boolean isYoung(String pool) {
+    return pool.contains("Eden") || "nursery-allocate".equals(pool);
+  }
+
+  /**
+   * Checks if the pool holds promoted objects.
+   *
+   * @param pool the pool name
+   * @return true, if it is a tenured pool
+   */
+  protected static boolean isTenured(String pool) {
+    return pool.contains("Old Gen") || pool.contains("Tenured Gen") || "tenured".equals(pool)
+        || pool.startsWith("tenured-");
+  }
+
+  @Override
+  @Value("${psiprobe.beans.stats.collectors.gc.events}")
+  public void setMaxSeries(int maxSeries) {
+    super.setMaxSeries(maxSeries);
+  }
+
+  @Autowired
+  @Override
+  public void setListeners(List<StatsCollectionListener> listeners) {
+    super.setListeners(listeners);
+  }
+
+}
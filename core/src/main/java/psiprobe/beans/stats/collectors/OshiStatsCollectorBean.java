@@ -0,0 +1,198 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import oshi.hardware.CentralProcessor.TickType;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.NetworkIF;
+import oshi.software.os.OSFileStore;
+import psiprobe.beans.OshiInfoAccessorBean;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Collects host statistics (per core cpu usage, load average, disk and network throughput and
+ * file system usage) from the cached OSHI model.
+ */
+public class OshiStatsCollectorBean extends AbstractStatsCollectorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(OshiStatsCollectorBean.class);
+
+  /** The Constant PREFIX_CPU_CORE. */
+  public static final String PREFIX_CPU_CORE = "os.cpu.core.";
+
+  /** The Constant STAT_LOAD. */
+  public static final String STAT_LOAD = "os.load";
+
+  /** The Constant PREFIX_DISK_READ. */
+  public static final String PREFIX_DISK_READ = "os.disk.read.";
+
+  /** The Constant PREFIX_DISK_WRITE. */
+  public static final String PREFIX_DISK_WRITE = "os.disk.write.";
+
+  /** The Constant PREFIX_DISK_READS. */
+  public static final String PREFIX_DISK_READS = "os.disk.reads.";
+
+  /** The Constant PREFIX_DISK_WRITES. */
+  public static final String PREFIX_DISK_WRITES = "os.disk.writes.";
+
+  /** The Constant PREFIX_NET_RECEIVED. */
+  public static final String PREFIX_NET_RECEIVED = "os.net.received.";
+
+  /** The Constant PREFIX_NET_SENT. */
+  public static final String PREFIX_NET_SENT = "os.net.sent.";
+
+  /** The Constant PREFIX_NET_ERRORS. */
+  public static final String PREFIX_NET_ERRORS = "os.net.errors.";
+
+  /** The Constant PREFIX_FS_USED. */
+  public static final String PREFIX_FS_USED = "os.fs.used.";
+
+  /** The oshi info accessor. */
+  @Inject
+  private OshiInfoAccessorBean oshiInfoAccessor;
+
+  /** The cpu ticks of the previous collection, per processor. */
+  private long[][] previousTicks;
+
+  /**
+   * Gets the oshi info accessor.
+   *
+   * @return the oshi info accessor
+   */
+  public OshiInfoAccessorBean getOshiInfoAccessor() {
+    return oshiInfoAccessor;
+  }
+
+  /**
+   * Sets the oshi info accessor.
+   *
+   * @param oshiInfoAccessor the new oshi info accessor
+   */
+  public void setOshiInfoAccessor(OshiInfoAccessorBean oshiInfoAccessor) {
+    this.oshiInfoAccessor = oshiInfoAccessor;
+  }
+
+  @Override
+  public void collect() throws Exception {
+    if (oshiInfoAccessor == null) {
+      logger.error("Cannot collect host stats. Oshi info accessor is not set.");
+      return;
+    }
+    long currentTime = System.currentTimeMillis();
+    try {
+      collectCpu(currentTime);
+      collectDisks(currentTime);
+      collectNetwork(currentTime);
+      collectFileSystem(currentTime);
+    } catch (UnsupportedOperationException e) {
+      logger.debug("Host stats are not supported on this platform");
+      logger.trace("", e);
+    }
+    logger.debug("host stats collected in {}ms", System.currentTimeMillis() - currentTime);
+  }
+
+  /**
+   * Collects the per processor cpu usage and the load average.
+   *
+   * @param time the time
+   * @throws InterruptedException the interrupted exception
+   */
+  private void collectCpu(long time) throws InterruptedException {
+    long[][] ticks = oshiInfoAccessor.getProcessorCpuLoadTicks();
+    if (previousTicks != null && previousTicks.length == ticks.length) {
+      for (int i = 0; i < ticks.length; i++) {
+        long total = 0;
+        for (int j = 0; j < ticks[i].length; j++) {
+          total += ticks[i][j] - previousTicks[i][j];
+        }
+        long idle = ticks[i][TickType.IDLE.getIndex()] - previousTicks[i][TickType.IDLE.getIndex()]
+            + ticks[i][TickType.IOWAIT.getIndex()]
+            - previousTicks[i][TickType.IOWAIT.getIndex()];
+        double busy = total > 0 ? 100d * (total - idle) / total : 0;
+        buildAbsoluteStats(PREFIX_CPU_CORE + i, busy, time);
+      }
+    }
+    previousTicks = ticks;
+
+    double[] loadAverage = oshiInfoAccessor.getSystemLoadAverage();
+    if (loadAverage.length > 0 && loadAverage[0] >= 0) {
+      buildAbsoluteStats(STAT_LOAD, loadAverage[0], time);
+    }
+  }
+
+  /**
+   * Collects the disk throughput and operations.
+   *
+   * @param time the time
+   * @throws InterruptedException the interrupted exception
+   */
+  private void collectDisks(long time) throws InterruptedException {
+    for (HWDiskStore disk : oshiInfoAccessor.getDiskStores()) {
+      String name = disk.getName();
+      buildDeltaStats(PREFIX_DISK_READ + name, disk.getReadBytes(), time);
+      buildDeltaStats(PREFIX_DISK_WRITE + name, disk.getWriteBytes(), time);
+      buildDeltaStats(PREFIX_DISK_READS + name, disk.getReads(), time);
+      buildDeltaStats(PREFIX_DISK_WRITES + name, disk.getWrites(), time);
+    }
+  }
+
+  /**
+   * Collects the network interface throughput and errors.
+   *
+   * @param time the time
+   * @throws InterruptedException the interrupted exception
+   */
+  private void collectNetwork(long time) throws InterruptedException {
+    for (NetworkIF net : oshiInfoAccessor.getNetworkIfs()) {
+      String name = net.getName();
+      buildDeltaStats(PREFIX_NET_RECEIVED + name, net.getBytesRecv(), time);
+      buildDeltaStats(PREFIX_NET_SENT + name, net.getBytesSent(), time);
+      buildDeltaStats(PREFIX_NET_ERRORS + name, net.getInErrors() + net.getOutErrors(), time);
+    }
+  }
+
+  /**
+   * Collects the file system usage in percent. The same mount point may be reported more than once,
+   * only its first file store is recorded.
+   *
+   * @param time the time
+   * @throws InterruptedException the interrupted exception
+   */
+  private void collectFileSystem(long time) throws InterruptedException {
+    Set<String> mounts = new HashSet<>();
+    for (OSFileStore fs : oshiInfoAccessor.getFileStores()) {
+      long total = fs.getTotalSpace();
+      if (total > 0 && mounts.add(fs.getMount())) {
+        double used = 100d * (total - fs.getUsableSpace()) / total;
+        buildAbsoluteStats(PREFIX_FS_USED + fs.getMount(), used, time);
+      }
+    }
+  }
+
+  /**
+   * Sets the max series expression.
+   *
+   * @param period the period
+   * @param span the span
+   */
+  public void setMaxSeries(@Value("${psiprobe.beans.stats.collectors.oshi.period}") long period,
+      @Value("${psiprobe.beans.stats.collectors.oshi.span}") long span) {
+    super.setMaxSeries((int) TimeExpression.dataPoints(period, span));
+  }
+
+}
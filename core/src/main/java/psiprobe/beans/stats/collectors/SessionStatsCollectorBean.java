@@ -0,0 +1,279 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.catalina.Context;
+import org.apache.catalina.Manager;
+import org.apache.catalina.util.LifecycleMBeanBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.TomcatContainer;
+import psiprobe.beans.ContainerWrapperBean;
+import psiprobe.tools.JmxTools;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Collects session lifecycle statistics of every web application from the counters of its session
+ * manager, so that session storms and leaks show up without looking at the sessions themselves.
+ * The counters of a manager are read with a single JMX call on its MBean, whose name is looked up
+ * once per manager.
+ */
+public class SessionStatsCollectorBean extends AbstractStatsCollectorBean {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SessionStatsCollectorBean.class);
+
+  /** The Constant PREFIX_ACTIVE. */
+  public static final String PREFIX_ACTIVE = "app.sessions.active.";
+
+  /** The Constant PREFIX_CREATED. */
+  public static final String PREFIX_CREATED = "app.sessions.created.";
+
+  /** The Constant PREFIX_EXPIRED. */
+  public static final String PREFIX_EXPIRED = "app.sessions.expired.";
+
+  /** The Constant PREFIX_REJECTED. */
+  public static final String PREFIX_REJECTED = "app.sessions.rejected.";
+
+  /** The Constant PREFIX_MAX_ACTIVE. */
+  public static final String PREFIX_MAX_ACTIVE = "app.sessions.max_active.";
+
+  /** The Constant PREFIX_ALIVE_TIME. */
+  public static final String PREFIX_ALIVE_TIME = "app.sessions.alive_time.";
+
+  /** The Constant PREFIX_CREATE_RATE. */
+  public static final String PREFIX_CREATE_RATE = "app.sessions.create_rate.";
+
+  /** The Constant PREFIX_EXPIRE_RATE. */
+  public static final String PREFIX_EXPIRE_RATE = "app.sessions.expire_rate.";
+
+  /** The Constant TOTAL_ACTIVE. */
+  public static final String TOTAL_ACTIVE = "total.sessions.active";
+
+  /** The Constant TOTAL_CREATED. */
+  public static final String TOTAL_CREATED = "total.sessions.created";
+
+  /** The Constant TOTAL_EXPIRED. */
+  public static final String TOTAL_EXPIRED = "total.sessions.expired";
+
+  /** The Constant TOTAL_REJECTED. */
+  public static final String TOTAL_REJECTED = "total.sessions.rejected";
+
+  /** The manager attributes, read at once. */
+  private static final String[] MANAGER_ATTRIBUTES = {"activeSessions", "sessionCounter",
+      "expiredSessions", "rejectedSessions", "maxActive", "sessionAverageAliveTime",
+      "sessionCreateRate", "sessionExpireRate"};
+
+  /** The container wrapper. */
+  @Inject
+  private ContainerWrapperBean containerWrapper;
+
+  /** The MBean names of the session managers by application name. */
+  private final Map<String, ManagerName> managerNames = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the container wrapper.
+   *
+   * @return the container wrapper
+   */
+  public ContainerWrapperBean getContainerWrapper() {
+    return containerWrapper;
+  }
+
+  /**
+   * Sets the container wrapper.
+   *
+   * @param containerWrapper the new container wrapper
+   */
+  public void setContainerWrapper(ContainerWrapperBean containerWrapper) {
+    this.containerWrapper = containerWrapper;
+  }
+
+  @Override
+  public void collect() throws Exception {
+    long currentTime = System.currentTimeMillis();
+
+    if (containerWrapper == null) {
+      logger.error("Cannot collect session stats. Container wrapper is not set.");
+      return;
+    }
+    TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+    if (tomcatContainer == null) {
+      return;
+    }
+    MBeanServer server = containerWrapper.getResourceResolver().getMBeanServer();
+
+    long totalActive = 0;
+    long totalCreated = 0;
+    long totalExpired = 0;
+    long totalRejected = 0;
+    Set<String> appNames = new HashSet<>();
+
+    for (Context ctx : tomcatContainer.findContexts()) {
+      if (ctx == null || ctx.getName() == null || ctx.getManager() == null) {
+        continue;
+      }
+      String appName = "".equals(ctx.getName()) ? "/" : ctx.getName();
+      appNames.add(appName);
+      Map<String, Object> counters = readCounters(server, appName, ctx.getManager());
+
+      long active = JmxTools.getLongAttr(counters, "activeSessions", 0);
+      buildAbsoluteStats(PREFIX_ACTIVE + appName, active, currentTime);
+      long created = buildDeltaStats(PREFIX_CREATED + appName,
+          JmxTools.getLongAttr(counters, "sessionCounter", 0), currentTime);
+      long expired = buildDeltaStats(PREFIX_EXPIRED + appName,
+          JmxTools.getLongAttr(counters, "expiredSessions", 0), currentTime);
+      long rejected = buildDeltaStats(PREFIX_REJECTED + appName,
+          JmxTools.getLongAttr(counters, "rejectedSessions", 0), currentTime);
+      buildAbsoluteStats(PREFIX_MAX_ACTIVE + appName,
+          JmxTools.getLongAttr(counters, "maxActive", 0), currentTime);
+      buildAbsoluteStats(PREFIX_ALIVE_TIME + appName,
+          JmxTools.getLongAttr(counters, "sessionAverageAliveTime", 0), currentTime);
+      buildAbsoluteStats(PREFIX_CREATE_RATE + appName,
+          JmxTools.getLongAttr(counters, "sessionCreateRate", 0), currentTime);
+      buildAbsoluteStats(PREFIX_EXPIRE_RATE + appName,
+          JmxTools.getLongAttr(counters, "sessionExpireRate", 0), currentTime);
+
+      totalActive += active;
+      totalCreated += created;
+      totalExpired += expired;
+      totalRejected += rejected;
+    }
+    // forget the managers of undeployed applications
+    managerNames.keySet().retainAll(appNames);
+
+    buildAbsoluteStats(TOTAL_ACTIVE, totalActive, currentTime);
+    buildAbsoluteStats(TOTAL_CREATED, totalCreated, currentTime);
+    buildAbsoluteStats(TOTAL_EXPIRED, totalExpired, currentTime);
+    buildAbsoluteStats(TOTAL_REJECTED, totalRejected, currentTime);
+    logger.debug("session stats collected in {}ms", System.currentTimeMillis() - currentTime);
+  }
+
+  /**
+   * Reads the counters of a session manager, through its MBean when it has one so that all of them
+   * come in one call, otherwise from the manager itself.
+   *
+   * @param server the mbean server
+   * @param appName the application name
+   * @param manager the manager
+   * @return the counters by attribute name
+   */
+  private Map<String, Object> readCounters(MBeanServer server, String appName, Manager manager) {
+    ManagerName managerName = managerNames.get(appName);
+    if (managerName == null || managerName.manager != manager) {
+      // a reloaded application comes with a new manager
+      ObjectName objectName = manager instanceof LifecycleMBeanBase
+          ? ((LifecycleMBeanBase) manager).getObjectName() : null;
+      managerName = new ManagerName(manager, objectName);
+      managerNames.put(appName, managerName);
+    }
+
+    if (server != null && managerName.objectName != null) {
+      try {
+        return JmxTools.getAttributes(server, managerName.objectName, MANAGER_ATTRIBUTES);
+      } catch (Exception e) {
+        logger.debug("Cannot read session manager MBean '{}'", managerName.objectName, e);
+      }
+    }
+
+    Map<String, Object> counters = new HashMap<>();
+    counters.put("activeSessions", manager.getActiveSessions());
+    counters.put("sessionCounter", manager.getSessionCounter());
+    counters.put("expiredSessions", manager.getExpiredSessions());
+    counters.put("rejectedSessions", manager.getRejectedSessions());
+    counters.put("maxActive", manager.getMaxActive());
+    counters.put("sessionAverageAliveTime", manager.getSessionAverageAliveTime());
+    return counters;
+  }
+
+  /**
+   * Reset.
+   */
+  public void reset() {
+    if (containerWrapper == null) {
+      logger.error("Cannot reset session stats. Container wrapper is not set.");
+    } else {
+      TomcatContainer tomcatContainer = containerWrapper.getTomcatContainer();
+      if (tomcatContainer != null) {
+        for (Context ctx : tomcatContainer.findContexts()) {
+          if (ctx != null && ctx.getName() != null) {
+            reset("".equals(ctx.getName()) ? "/" : ctx.getName());
+          }
+        }
+      }
+    }
+    resetStats(TOTAL_ACTIVE);
+    resetStats(TOTAL_CREATED);
+    resetStats(TOTAL_EXPIRED);
+    resetStats(TOTAL_REJECTED);
+  }
+
+  /**
+   * Reset.
+   *
+   * @param appName the app name
+   */
+  public void reset(String appName) {
+    resetStats(PREFIX_ACTIVE + appName);
+    resetStats(PREFIX_CREATED + appName);
+    resetStats(PREFIX_EXPIRED + appName);
+    resetStats(PREFIX_REJECTED + appName);
+    resetStats(PREFIX_MAX_ACTIVE + appName);
+    resetStats(PREFIX_ALIVE_TIME + appName);
+    resetStats(PREFIX_CREATE_RATE + appName);
+    resetStats(PREFIX_EXPIRE_RATE + appName);
+  }
+
+  /**
+   * Sets the max series expression.
+   *
+   * @param period the period
+   * @param span the span
+   */
+  public void setMaxSeries(@Value("${psiprobe.beans.stats.collectors.session.period}") long period,
+      @Value("${psiprobe.beans.stats.collectors.session.span}") long span) {
+    super.setMaxSeries((int) TimeExpression.dataPoints(period, span));
+  }
+
+  /**
+   * The MBean name of a session manager.
+   */
+  private static class ManagerName {
+
+    /** The manager. */
+    final Manager manager;
+
+    /** The object name, null if the manager is not registered. */
+    final ObjectName objectName;
+
+    /**
+     * Instantiates a new manager name.
+     *
+     * @param manager the manager
+     * @param objectName the object name
+     */
+    ManagerName(Manager manager, ObjectName objectName) {
+      this.manager = manager;
+      this.objectName = objectName;
+    }
+
+  }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import java.util.List;
+import javax.inject.Inject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import psiprobe.beans.ContainerListenerBean;
+import psiprobe.beans.stats.listeners.StatsCollectionListener;
+import psiprobe.model.ThreadPool;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Records the busy, current and max threads and the queue size of every connector thread pool and
+ * executor, along with the busy threads as a percentage of the max threads. The saturation series
+ * can be given a threshold like any other, with the system property
+ * psiprobe.beans.stats.listeners.stat.threadpool.&lt;pool name&gt;.saturation.threshold.
+ */
+public class ThreadPoolStatsCollectorBean extends AbstractStatsCollectorBean {
+
+  /** The Constant PREFIX, followed by the pool name and the measure. */
+  public static final String PREFIX = "stat.threadpool.";
+
+  /** The listener bean. */
+  @Inject
+  private ContainerListenerBean listenerBean;
+
+  /**
+   * Gets the listener bean.
+   *
+   * @return the listener bean
+   */
+  public ContainerListenerBean getListenerBean() {
+    return listenerBean;
+  }
+
+  /**
+   * Sets the listener bean.
+   *
+   * @param listenerBean the new listener bean
+   */
+  public void setListenerBean(ContainerListenerBean listenerBean) {
+    this.listenerBean = listenerBean;
+  }
+
+  @Override
+  public void collect() throws Exception {
+    long time = System.currentTimeMillis();
+    for (ThreadPool pool : listenerBean.getThreadPools()) {
+      collect(pool, time);
+    }
+  }
+
+  /**
+   * Records the series of one pool.
+   *
+   * @param pool the pool
+   * @param time the time
+   * @throws InterruptedException if interrupted while updating the stats
+   */
+  void collect(ThreadPool pool, long time) throws InterruptedException {
+    String statName = PREFIX + pool.getName();
+    buildAbsoluteStats(statName + ".busy", pool.getCurrentThreadsBusy(), time);
+    buildAbsoluteStats(statName + ".current", pool.getCurrentThreadCount(), time);
+    buildAbsoluteStats(statName + ".max", pool.getMaxThreads(), time);
+    if (pool.getQueueSize() >= 0) {
+      buildAbsoluteStats(statName + ".queue", pool.getQueueSize(), time);
+    }
+    if (pool.getSaturation() >= 0) {
+      buildAbsoluteStats(statName + ".saturation", pool.getSaturation(), time);
+    }
+  }
+
+  @Autowired
+  @Override
+  public void setListeners(List<StatsCollectionListener> listeners) {
+    super.setListeners(listeners);
+  }
+
+  /**
+   * Sets the max series expression.
+   *
+   * @param period the period
+   * @param span the span
+   */
+  public void setMaxSeries(
+      @Value("${psiprobe.beans.stats.collectors.threadpool.period}") long period,
+      @Value("${psiprobe.beans.stats.collectors.threadpool.span}") long span) {
+    super.setMaxSeries((int) TimeExpression.dataPoints(period, span));
+  }
+
+}
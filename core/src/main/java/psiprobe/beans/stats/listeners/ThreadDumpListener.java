@@ -0,0 +1,98 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.listeners;
+
+import javax.inject.Inject;
+import org.springframework.beans.factory.InitializingBean;
+import psiprobe.beans.ThreadDumpBean;
+
+/**
+ * Takes a thread dump when a series goes above its threshold, and again, at most once every
+ * minimum interval of the thread dump bean, while it stays there. Series are enabled by giving them
+ * a threshold, such as {@code -Dpsiprobe.beans.stats.listeners.threaddump.os.cpu.threshold=90}; the
+ * listener is disabled when no such property is set.
+ */
+public class ThreadDumpListener extends AbstractThresholdListener implements InitializingBean {
+
+  /** The thread dump bean. */
+  @Inject
+  private ThreadDumpBean threadDumpBean;
+
+  /**
+   * Instantiates a new thread dump listener.
+   */
+  public ThreadDumpListener() {
+    setPropertyCategory("threaddump");
+  }
+
+  /**
+   * Gets the thread dump bean.
+   *
+   * @return the thread dump bean
+   */
+  public ThreadDumpBean getThreadDumpBean() {
+    return threadDumpBean;
+  }
+
+  /**
+   * Sets the thread dump bean.
+   *
+   * @param threadDumpBean the new thread dump bean
+   */
+  public void setThreadDumpBean(ThreadDumpBean threadDumpBean) {
+    this.threadDumpBean = threadDumpBean;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    String prefix = getClass().getPackage().getName() + '.' + getPropertyCategory() + '.';
+    for (String key : System.getProperties().stringPropertyNames()) {
+      if (key.startsWith(prefix)) {
+        return;
+      }
+    }
+    logger.info("No thread dump threshold is set.  Disabling listener.");
+    setEnabled(false);
+  }
+
+  @Override
+  protected void crossedAboveThreshold(StatsCollectionEvent sce) {
+    captureDump(sce);
+  }
+
+  @Override
+  protected void crossedBelowThreshold(StatsCollectionEvent sce) {
+    // Nothing to capture
+  }
+
+  @Override
+  protected void remainedAboveThreshold(StatsCollectionEvent sce) {
+    captureDump(sce);
+  }
+
+  @Override
+  protected void remainedBelowThreshold(StatsCollectionEvent sce) {
+    // Nothing to capture
+  }
+
+  /**
+   * Takes a thread dump for a series above its threshold.
+   *
+   * @param sce the sce
+   */
+  private void captureDump(StatsCollectionEvent sce) {
+    if (threadDumpBean != null) {
+      threadDumpBean.captureAutomatically(sce.getName() + " at " + sce.getValue()
+          + " is above its threshold of " + getThreshold(sce.getName()));
+    }
+  }
+
+}
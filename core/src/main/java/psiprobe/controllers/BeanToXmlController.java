@@ -11,6 +11,10 @@
 package psiprobe.controllers;
 
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.json.JsonWriter;
+import com.thoughtworks.xstream.io.xml.CompactWriter;
+import java.io.Writer;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,14 +25,26 @@ import org.springframework.web.servlet.mvc.Controller;
 import psiprobe.model.TransportableModel;
 
 /**
- * The Class BeanToXmlController.
+ * Renders the model of another controller as XML, or as JSON when asked for with the json marker.
+ * The serializer is configured once and shared by all requests, XStream being thread-safe for
+ * marshalling and caching the reflection data of every model type it has seen.
  */
 @org.springframework.stereotype.Controller
 public class BeanToXmlController extends AbstractController {
 
+  /** The serializer. */
+  private static final XStream xstream = newXStream();
+
+  /** The JSON format, without line breaks or indentation. */
+  private static final JsonWriter.Format JSON_FORMAT =
+      new JsonWriter.Format(new char[0], new char[0], JsonWriter.Format.COMPACT_EMPTY_ELEMENT);
+
   /** The xml marker. */
   private String xmlMarker;
 
+  /** The json marker. */
+  private String jsonMarker;
+
   /**
    * Gets the xml marker.
    *
@@ -48,7 +64,26 @@ public class BeanToXmlController extends AbstractController {
     this.xmlMarker = xmlMarker;
   }
 
-  @RequestMapping(path = "/*.oxml.htm")
+  /**
+   * Gets the json marker.
+   *
+   * @return the json marker
+   */
+  public String getJsonMarker() {
+    return jsonMarker;
+  }
+
+  /**
+   * Sets the json marker.
+   *
+   * @param jsonMarker the new json marker
+   */
+  @Value(".ojson")
+  public void setJsonMarker(String jsonMarker) {
+    this.jsonMarker = jsonMarker;
+  }
+
+  @RequestMapping(path = {"/*.oxml.htm", "/*.ojson.htm"})
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
       throws Exception {
@@ -60,20 +95,38 @@ public class BeanToXmlController extends AbstractController {
       HttpServletResponse response) throws Exception {
 
     String path = request.getServletPath();
-    String internalPath = path.replaceAll(xmlMarker, "");
+    boolean json = path.contains(jsonMarker);
+    String internalPath = path.replace(json ? jsonMarker : xmlMarker, "");
 
     Controller controller = (Controller) getApplicationContext().getBean(internalPath);
     if (controller != null) {
       ModelAndView modelAndView = controller.handleRequest(request, response);
-      if (modelAndView.getModel() != null) {
+      if (modelAndView != null && modelAndView.getModel() != null) {
         TransportableModel tm = new TransportableModel();
         tm.putAll(modelAndView.getModel());
-        XStream xstream = new XStream();
-        xstream.allowTypesByWildcard(new String[] {"psibrobe.controllers.**"});
-        XStream.setupDefaultSecurity(xstream);
-        xstream.toXML(tm, response.getWriter());
+        response.setContentType(
+            json ? "application/json;charset=UTF-8" : "text/xml;charset=UTF-8");
+        Writer out = response.getWriter();
+        HierarchicalStreamWriter writer =
+            json ? new JsonWriter(out, JsonWriter.DROP_ROOT_MODE, JSON_FORMAT)
+                : new CompactWriter(out);
+        xstream.marshal(tm, writer);
+        writer.flush();
       }
     }
     return null;
   }
+
+  /**
+   * Creates the serializer.
+   *
+   * @return the XStream
+   */
+  private static XStream newXStream() {
+    XStream xstream = new XStream();
+    XStream.setupDefaultSecurity(xstream);
+    xstream.allowTypesByWildcard(new String[] {"psiprobe.**"});
+    return xstream;
+  }
+
 }
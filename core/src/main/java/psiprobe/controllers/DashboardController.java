@@ -0,0 +1,149 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.text.StringEscapeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.AbstractController;
+import psiprobe.beans.DashboardBean;
+import psiprobe.model.DashboardUpdate;
+
+/**
+ * Long-polling endpoint through which a page keeps all of its live panels up to date with a single
+ * request at a time. The client lists its panels in "panel" parameters and passes the version of
+ * the last update it received as "since"; the response is a JSON object holding the new version
+ * and the values of the panels that changed.
+ */
+@Controller
+public class DashboardController extends AbstractController {
+
+  /** The dashboard. */
+  @Inject
+  private DashboardBean dashboard;
+
+  /** The time to wait for a change before answering with no values, in milliseconds. */
+  private long pollTimeout;
+
+  /**
+   * Gets the dashboard.
+   *
+   * @return the dashboard
+   */
+  public DashboardBean getDashboard() {
+    return dashboard;
+  }
+
+  /**
+   * Sets the dashboard.
+   *
+   * @param dashboard the new dashboard
+   */
+  public void setDashboard(DashboardBean dashboard) {
+    this.dashboard = dashboard;
+  }
+
+  /**
+   * Gets the poll timeout.
+   *
+   * @return the poll timeout in milliseconds
+   */
+  public long getPollTimeout() {
+    return pollTimeout;
+  }
+
+  /**
+   * Sets the poll timeout.
+   *
+   * @param pollTimeout the new poll timeout in milliseconds
+   */
+  @Value("20000")
+  public void setPollTimeout(long pollTimeout) {
+    this.pollTimeout = pollTimeout;
+  }
+
+  @RequestMapping(path = "/dashboard.ajax")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    String[] panels = ServletRequestUtils.getStringParameters(request, "panel");
+    long since = ServletRequestUtils.getLongParameter(request, "since", 0);
+    DashboardUpdate update = dashboard.poll(Arrays.asList(panels), since, pollTimeout);
+
+    response.setContentType("application/json;charset=UTF-8");
+    response.setHeader("Cache-Control", "no-cache, no-store");
+    writeJson(response.getWriter(), update);
+    return null;
+  }
+
+  /**
+   * Writes an update as JSON.
+   *
+   * @param out the writer
+   * @param update the update
+   */
+  private static void writeJson(PrintWriter out, DashboardUpdate update) {
+    out.write("{\"version\":");
+    out.write(Long.toString(update.getVersion()));
+    out.write(",\"panels\":{");
+    boolean firstPanel = true;
+    for (Map.Entry<String, Map<String, String>> panel : update.getPanels().entrySet()) {
+      if (!firstPanel) {
+        out.write(',');
+      }
+      firstPanel = false;
+      writeString(out, panel.getKey());
+      out.write(":{");
+      boolean firstField = true;
+      for (Map.Entry<String, String> field : panel.getValue().entrySet()) {
+        if (!firstField) {
+          out.write(',');
+        }
+        firstField = false;
+        writeString(out, field.getKey());
+        out.write(':');
+        writeString(out, field.getValue());
+      }
+      out.write('}');
+    }
+    out.write("}}");
+    out.flush();
+  }
+
+  /**
+   * Writes a JSON string.
+   *
+   * @param out the writer
+   * @param value the value
+   */
+  private static void writeString(PrintWriter out, String value) {
+    out.write('"');
+    out.write(StringEscapeUtils.escapeJson(value));
+    out.write('"');
+  }
+
+}
@@ -49,6 +49,9 @@ public class WhoisController extends ParameterizableViewController {
   /** The default port. */
   private int defaultPort;
 
+  /** The time to live of cached lookups, in seconds. */
+  private long cacheTimeToLive;
+
   /**
    * Gets the lookup timeout.
    *
@@ -106,6 +109,25 @@ public class WhoisController extends ParameterizableViewController {
     this.defaultPort = defaultPort;
   }
 
+  /**
+   * Gets the cache time to live.
+   *
+   * @return the cache time to live
+   */
+  public long getCacheTimeToLive() {
+    return cacheTimeToLive;
+  }
+
+  /**
+   * Sets the cache time to live.
+   *
+   * @param cacheTimeToLive the new cache time to live
+   */
+  @Value("600")
+  public void setCacheTimeToLive(long cacheTimeToLive) {
+    this.cacheTimeToLive = cacheTimeToLive;
+  }
+
   @RequestMapping(path = "/whois.ajax")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -123,7 +145,8 @@ public class WhoisController extends ParameterizableViewController {
 
     Whois.Response wh = null;
     try {
-      wh = Whois.lookup(getDefaultServer(), getDefaultPort(), ipAddress, getLookupTimeout());
+      wh = Whois.cachedLookup(getDefaultServer(), getDefaultPort(), ipAddress, getLookupTimeout(),
+          getCacheTimeToLive());
     } catch (IOException e) {
       timeout = true;
       logger.trace("", e);
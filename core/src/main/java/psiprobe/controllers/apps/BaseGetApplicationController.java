@@ -17,8 +17,10 @@ import org.apache.catalina.Context;
 import org.springframework.web.bind.ServletRequestUtils;
 import org.springframework.web.servlet.ModelAndView;
 import psiprobe.beans.ResourceResolver;
+import psiprobe.beans.SessionSizeEstimatorBean;
 import psiprobe.controllers.AbstractContextHandlerController;
 import psiprobe.model.Application;
+import psiprobe.model.SessionSizeEstimate;
 import psiprobe.model.stats.StatsCollection;
 import psiprobe.tools.ApplicationUtils;
 import psiprobe.tools.SecurityUtils;
@@ -35,6 +37,10 @@ public class BaseGetApplicationController extends AbstractContextHandlerControll
   @Inject
   private StatsCollection statsCollection;
 
+  /** The session size estimator. */
+  @Inject
+  private SessionSizeEstimatorBean sessionSizeEstimator;
+
   /** The collection period. */
   private long collectionPeriod;
 
@@ -74,6 +80,24 @@ public class BaseGetApplicationController extends AbstractContextHandlerControll
     this.statsCollection = statsCollection;
   }
 
+  /**
+   * Gets the session size estimator.
+   *
+   * @return the session size estimator
+   */
+  public SessionSizeEstimatorBean getSessionSizeEstimator() {
+    return sessionSizeEstimator;
+  }
+
+  /**
+   * Sets the session size estimator.
+   *
+   * @param sessionSizeEstimator the new session size estimator
+   */
+  public void setSessionSizeEstimator(SessionSizeEstimatorBean sessionSizeEstimator) {
+    this.sessionSizeEstimator = sessionSizeEstimator;
+  }
+
   /**
    * Gets the collection period.
    *
@@ -101,7 +125,19 @@ public class BaseGetApplicationController extends AbstractContextHandlerControll
 
     ResourceResolver resourceResolver = getContainerWrapper().getResourceResolver();
     Application app = ApplicationUtils.getApplication(context,
-        isExtendedInfo() ? resourceResolver : null, calcSize, getContainerWrapper());
+        isExtendedInfo() ? resourceResolver : null, false, getContainerWrapper());
+
+    SessionSizeEstimate sizeEstimate = null;
+    if (calcSize && isExtendedInfo() && app.isAvailable()) {
+      // sizing every session is too expensive, use the sampled estimate instead
+      sizeEstimate = sessionSizeEstimator.getEstimate(context);
+      if (sizeEstimate != null) {
+        app.setSize(sizeEstimate.getSize());
+        app.setSizeMargin(sizeEstimate.getMargin());
+      } else {
+        app.setSize(-1);
+      }
+    }
 
     if (isExtendedInfo() && getStatsCollection() != null) {
       String avgStatisticName = "app.avg_proc_time." + app.getName();
@@ -109,6 +145,7 @@ public class BaseGetApplicationController extends AbstractContextHandlerControll
     }
 
     return new ModelAndView(getViewName()).addObject("app", app)
+        .addObject("sizeEstimate", sizeEstimate)
         .addObject("no_resources", !resourceResolver.supportsPrivateResources())
         .addObject("collectionPeriod", getCollectionPeriod());
   }
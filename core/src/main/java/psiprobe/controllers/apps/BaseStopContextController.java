@@ -10,10 +10,13 @@
  */
 package psiprobe.controllers.apps;
 
+import javax.inject.Inject;
+import org.apache.catalina.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import psiprobe.beans.stats.collectors.ClassLoaderLeakCollectorBean;
 
 /**
  * Stops a web application.
@@ -23,8 +26,34 @@ public class BaseStopContextController extends AbstractNoSelfContextHandlerContr
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(BaseStopContextController.class);
 
+  /** The class loader leak collector. */
+  @Inject
+  private ClassLoaderLeakCollectorBean classLoaderLeakCollector;
+
+  /**
+   * Gets the class loader leak collector.
+   *
+   * @return the class loader leak collector
+   */
+  public ClassLoaderLeakCollectorBean getClassLoaderLeakCollector() {
+    return classLoaderLeakCollector;
+  }
+
+  /**
+   * Sets the class loader leak collector.
+   *
+   * @param classLoaderLeakCollector the new class loader leak collector
+   */
+  public void setClassLoaderLeakCollector(ClassLoaderLeakCollectorBean classLoaderLeakCollector) {
+    this.classLoaderLeakCollector = classLoaderLeakCollector;
+  }
+
   @Override
   protected void executeAction(String contextName) throws Exception {
+    Context context = getContainerWrapper().getTomcatContainer().findContext(contextName);
+    if (context != null) {
+      classLoaderLeakCollector.retire(context);
+    }
     getContainerWrapper().getTomcatContainer().stop(contextName);
 
     // Logging action
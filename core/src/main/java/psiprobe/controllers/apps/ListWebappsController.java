@@ -12,6 +12,7 @@ package psiprobe.controllers.apps;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.catalina.Context;
@@ -20,8 +21,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.ServletRequestUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
+import psiprobe.beans.SessionSizeEstimatorBean;
+import psiprobe.beans.stats.collectors.AppHeapStatsCollectorBean;
 import psiprobe.controllers.AbstractTomcatContainerController;
 import psiprobe.model.Application;
+import psiprobe.model.HeapFootprint;
+import psiprobe.model.SessionSizeEstimate;
 import psiprobe.tools.ApplicationUtils;
 import psiprobe.tools.SecurityUtils;
 
@@ -31,6 +36,50 @@ import psiprobe.tools.SecurityUtils;
 @Controller
 public class ListWebappsController extends AbstractTomcatContainerController {
 
+  /** The session size estimator. */
+  @Inject
+  private SessionSizeEstimatorBean sessionSizeEstimator;
+
+  /** The app heap stats collector. */
+  @Inject
+  private AppHeapStatsCollectorBean appHeapStatsCollector;
+
+  /**
+   * Gets the session size estimator.
+   *
+   * @return the session size estimator
+   */
+  public SessionSizeEstimatorBean getSessionSizeEstimator() {
+    return sessionSizeEstimator;
+  }
+
+  /**
+   * Sets the session size estimator.
+   *
+   * @param sessionSizeEstimator the new session size estimator
+   */
+  public void setSessionSizeEstimator(SessionSizeEstimatorBean sessionSizeEstimator) {
+    this.sessionSizeEstimator = sessionSizeEstimator;
+  }
+
+  /**
+   * Gets the app heap stats collector.
+   *
+   * @return the app heap stats collector
+   */
+  public AppHeapStatsCollectorBean getAppHeapStatsCollector() {
+    return appHeapStatsCollector;
+  }
+
+  /**
+   * Sets the app heap stats collector.
+   *
+   * @param appHeapStatsCollector the new app heap stats collector
+   */
+  public void setAppHeapStatsCollector(AppHeapStatsCollectorBean appHeapStatsCollector) {
+    this.appHeapStatsCollector = appHeapStatsCollector;
+  }
+
   @RequestMapping(path = "/index.htm")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -57,8 +106,23 @@ public class ListWebappsController extends AbstractTomcatContainerController {
     for (Context appContext : apps) {
       // check if this is not the ROOT webapp
       if (appContext.getName() != null) {
-        applications.add(ApplicationUtils.getApplication(appContext,
-            getContainerWrapper().getResourceResolver(), calcSize, getContainerWrapper()));
+        Application app = ApplicationUtils.getApplication(appContext,
+            getContainerWrapper().getResourceResolver(), false, getContainerWrapper());
+        if (calcSize && app.isAvailable()) {
+          // sizing every session is too expensive, use the sampled estimate instead
+          SessionSizeEstimate estimate = sessionSizeEstimator.getEstimate(appContext);
+          if (estimate != null) {
+            app.setSize(estimate.getSize());
+            app.setSizeMargin(estimate.getMargin());
+          } else {
+            app.setSize(-1);
+          }
+        }
+        HeapFootprint footprint = appHeapStatsCollector.getFootprint(app.getName());
+        if (footprint != null) {
+          app.setHeapSize(footprint.getTotal());
+        }
+        applications.add(app);
       }
     }
     if (!applications.isEmpty() && !showResources) {
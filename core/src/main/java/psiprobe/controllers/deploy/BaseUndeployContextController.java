@@ -10,6 +10,7 @@
  */
 package psiprobe.controllers.deploy;
 
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.catalina.Context;
@@ -20,6 +21,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.view.InternalResourceView;
 import org.springframework.web.servlet.view.RedirectView;
+import psiprobe.beans.stats.collectors.ClassLoaderLeakCollectorBean;
 import psiprobe.controllers.AbstractContextHandlerController;
 
 /**
@@ -33,6 +35,10 @@ public class BaseUndeployContextController extends AbstractContextHandlerControl
   /** The failure view name. */
   private String failureViewName;
 
+  /** The class loader leak collector. */
+  @Inject
+  private ClassLoaderLeakCollectorBean classLoaderLeakCollector;
+
   /**
    * Gets the failure view name.
    *
@@ -51,6 +57,24 @@ public class BaseUndeployContextController extends AbstractContextHandlerControl
     this.failureViewName = failureViewName;
   }
 
+  /**
+   * Gets the class loader leak collector.
+   *
+   * @return the class loader leak collector
+   */
+  public ClassLoaderLeakCollectorBean getClassLoaderLeakCollector() {
+    return classLoaderLeakCollector;
+  }
+
+  /**
+   * Sets the class loader leak collector.
+   *
+   * @param classLoaderLeakCollector the new class loader leak collector
+   */
+  public void setClassLoaderLeakCollector(ClassLoaderLeakCollectorBean classLoaderLeakCollector) {
+    this.classLoaderLeakCollector = classLoaderLeakCollector;
+  }
+
   @Override
   protected ModelAndView handleContext(String contextName, Context context,
       HttpServletRequest request, HttpServletResponse response) throws Exception {
@@ -60,6 +84,7 @@ public class BaseUndeployContextController extends AbstractContextHandlerControl
             getMessageSourceAccessor().getMessage("probe.src.contextAction.cannotActOnSelf"));
       }
 
+      classLoaderLeakCollector.retire(context);
       getContainerWrapper().getTomcatContainer().remove(contextName);
       // Logging action
       Authentication auth = SecurityContextHolder.getContext().getAuthentication();
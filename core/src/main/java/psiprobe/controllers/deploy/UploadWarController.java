@@ -10,22 +10,31 @@
  */
 package psiprobe.controllers.deploy;
 
+import com.google.common.io.BaseEncoding;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.catalina.Context;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.tomcat.util.http.fileupload.FileItem;
-import org.apache.tomcat.util.http.fileupload.FileItemFactory;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
 import org.apache.tomcat.util.http.fileupload.FileUploadBase;
-import org.apache.tomcat.util.http.fileupload.disk.DiskFileItemFactory;
 import org.apache.tomcat.util.http.fileupload.servlet.ServletFileUpload;
 import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.apache.tomcat.util.http.fileupload.util.Streams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,6 +44,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.view.InternalResourceView;
+import psiprobe.beans.stats.collectors.ClassLoaderLeakCollectorBean;
 import psiprobe.controllers.AbstractTomcatContainerController;
 import psiprobe.controllers.jsp.DisplayJspController;
 import psiprobe.model.jsp.Summary;
@@ -48,6 +58,28 @@ public class UploadWarController extends AbstractTomcatContainerController {
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(UploadWarController.class);
 
+  /** The class loader leak collector. */
+  @Inject
+  private ClassLoaderLeakCollectorBean classLoaderLeakCollector;
+
+  /**
+   * Gets the class loader leak collector.
+   *
+   * @return the class loader leak collector
+   */
+  public ClassLoaderLeakCollectorBean getClassLoaderLeakCollector() {
+    return classLoaderLeakCollector;
+  }
+
+  /**
+   * Sets the class loader leak collector.
+   *
+   * @param classLoaderLeakCollector the new class loader leak collector
+   */
+  public void setClassLoaderLeakCollector(ClassLoaderLeakCollectorBean classLoaderLeakCollector) {
+    this.classLoaderLeakCollector = classLoaderLeakCollector;
+  }
+
   @RequestMapping(path = "/adm/war.htm")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -62,34 +94,47 @@ public class UploadWarController extends AbstractTomcatContainerController {
     if (FileUploadBase.isMultipartContent(new ServletRequestContext(request))) {
 
       File tmpWar = null;
+      String fileName = null;
+      String sha256 = null;
+      String expectedSha256 = null;
       String contextName = null;
       boolean update = false;
       boolean compile = false;
       boolean discard = false;
 
-      // parse multipart request and extract the file
-      FileItemFactory factory =
-          new DiskFileItemFactory(1048000, new File(System.getProperty("java.io.tmpdir")));
-      ServletFileUpload upload = new ServletFileUpload(factory);
+      /*
+       * stream the multipart request, writing the file once into a temp file inside appBase so it
+       * can be renamed into place rather than copied
+       */
+      ServletFileUpload upload = new ServletFileUpload();
       upload.setSizeMax(-1);
       upload.setHeaderEncoding(StandardCharsets.UTF_8.name());
       try {
-        List<FileItem> fileItems = upload.parseRequest(new ServletRequestContext(request));
-        for (FileItem fi : fileItems) {
-          if (!fi.isFormField()) {
-            if (fi.getName() != null && fi.getName().length() > 0) {
-              tmpWar = new File(System.getProperty("java.io.tmpdir"),
-                  FilenameUtils.getName(fi.getName()));
-              fi.write(tmpWar);
+        FileItemIterator fileItems = upload.getItemIterator(new ServletRequestContext(request));
+        while (fileItems.hasNext()) {
+          FileItemStream fi = fileItems.next();
+          try (InputStream stream = fi.openStream()) {
+            if (!fi.isFormField()) {
+              if (tmpWar == null && fi.getName() != null && fi.getName().length() > 0) {
+                fileName = FilenameUtils.getName(fi.getName());
+                tmpWar = File.createTempFile(".upload-", ".tmp",
+                    getContainerWrapper().getTomcatContainer().getAppBase());
+                sha256 = copyToFile(stream, tmpWar);
+              }
+            } else {
+              String value = Streams.asString(stream, StandardCharsets.UTF_8.name());
+              if ("context".equals(fi.getFieldName())) {
+                contextName = value;
+              } else if ("update".equals(fi.getFieldName()) && "yes".equals(value)) {
+                update = true;
+              } else if ("compile".equals(fi.getFieldName()) && "yes".equals(value)) {
+                compile = true;
+              } else if ("discard".equals(fi.getFieldName()) && "yes".equals(value)) {
+                discard = true;
+              } else if ("sha256".equals(fi.getFieldName())) {
+                expectedSha256 = value.trim();
+              }
             }
-          } else if ("context".equals(fi.getFieldName())) {
-            contextName = fi.getString();
-          } else if ("update".equals(fi.getFieldName()) && "yes".equals(fi.getString())) {
-            update = true;
-          } else if ("compile".equals(fi.getFieldName()) && "yes".equals(fi.getString())) {
-            compile = true;
-          } else if ("discard".equals(fi.getFieldName()) && "yes".equals(fi.getString())) {
-            discard = true;
           }
         }
       } catch (Exception e) {
@@ -106,10 +151,16 @@ public class UploadWarController extends AbstractTomcatContainerController {
 
       if (tmpWar != null) {
         try {
-          if (tmpWar.getName().endsWith(".war")) {
+          if (!fileName.endsWith(".war")) {
+            errMsg = getMessageSourceAccessor().getMessage("probe.src.deploy.war.notWar.failure");
+          } else if (expectedSha256 != null && expectedSha256.length() > 0
+              && !expectedSha256.equalsIgnoreCase(sha256)) {
+            errMsg = getMessageSourceAccessor().getMessage("probe.src.deploy.war.checksum.failure",
+                new Object[] {expectedSha256, sha256});
+          } else {
 
             if (contextName == null || contextName.length() == 0) {
-              String warFileName = tmpWar.getName().replaceAll("\\.war$", "");
+              String warFileName = fileName.replaceAll("\\.war$", "");
               contextName = "/" + warFileName;
             }
 
@@ -122,21 +173,24 @@ public class UploadWarController extends AbstractTomcatContainerController {
             String visibleContextName = "".equals(contextName) ? "/" : contextName;
             request.setAttribute("contextName", visibleContextName);
 
-            if (update
-                && getContainerWrapper().getTomcatContainer().findContext(contextName) != null) {
+            Context oldCtx = getContainerWrapper().getTomcatContainer().findContext(contextName);
+            if (update && oldCtx != null) {
 
               logger.debug("updating {}: removing the old copy", contextName);
+              classLoaderLeakCollector.retire(oldCtx);
               getContainerWrapper().getTomcatContainer().remove(contextName);
             }
 
-            if (getContainerWrapper().getTomcatContainer().findContext(contextName) == null) {
-              // move the .war to tomcat application base dir
-              String destWarFilename =
-                  getContainerWrapper().getTomcatContainer().formatContextFilename(contextName);
-              File destWar = new File(getContainerWrapper().getTomcatContainer().getAppBase(),
-                  destWarFilename + ".war");
+            String destWarFilename =
+                getContainerWrapper().getTomcatContainer().formatContextFilename(contextName);
+            File destWar = new File(getContainerWrapper().getTomcatContainer().getAppBase(),
+                destWarFilename + ".war");
 
-              FileUtils.moveFile(tmpWar, destWar);
+            // a .war left in appBase is only replaced when updating
+            if (getContainerWrapper().getTomcatContainer().findContext(contextName) == null
+                && (update || !destWar.exists())) {
+              // move the .war to tomcat application base dir
+              moveFile(tmpWar, destWar, update);
 
               // let Tomcat know that the file is there
               getContainerWrapper().getTomcatContainer().installWar(contextName,
@@ -148,6 +202,7 @@ public class UploadWarController extends AbstractTomcatContainerController {
                     new Object[] {visibleContextName});
               } else {
                 request.setAttribute("success", Boolean.TRUE);
+                request.setAttribute("sha256", sha256);
                 // Logging action
                 Authentication auth = SecurityContextHolder.getContext().getAuthentication();
                 // get username logger
@@ -162,7 +217,9 @@ public class UploadWarController extends AbstractTomcatContainerController {
                 if (compile) {
                   Summary summary = new Summary();
                   summary.setName(ctx.getName());
-                  getContainerWrapper().getTomcatContainer().listContextJsps(ctx, summary, true);
+                  // compiled in the background, the JSP page follows the progress meanwhile
+                  summary =
+                      getContainerWrapper().getTomcatContainer().compileContextJsps(ctx, summary);
                   request.getSession(false).setAttribute(DisplayJspController.SUMMARY_ATTRIBUTE,
                       summary);
                   request.setAttribute("compileSuccess", Boolean.TRUE);
@@ -173,8 +230,6 @@ public class UploadWarController extends AbstractTomcatContainerController {
               errMsg = getMessageSourceAccessor().getMessage("probe.src.deploy.war.alreadyExists",
                   new Object[] {visibleContextName});
             }
-          } else {
-            errMsg = getMessageSourceAccessor().getMessage("probe.src.deploy.war.notWar.failure");
           }
         } catch (IOException e) {
           errMsg = getMessageSourceAccessor().getMessage("probe.src.deploy.war.failure",
@@ -193,6 +248,57 @@ public class UploadWarController extends AbstractTomcatContainerController {
     return new ModelAndView(new InternalResourceView(getViewName()));
   }
 
+  /**
+   * Copies the stream into the file, computing its SHA-256 on the way.
+   *
+   * @param stream the stream
+   * @param file the file
+   * @return the SHA-256 of the content, hex encoded
+   * @throws IOException Signals that an I/O exception has occurred.
+   * @throws NoSuchAlgorithmException if SHA-256 is not available
+   */
+  private static String copyToFile(InputStream stream, File file)
+      throws IOException, NoSuchAlgorithmException {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    try (OutputStream out = new FileOutputStream(file)) {
+      byte[] buffer = new byte[64 * 1024];
+      int count;
+      while ((count = stream.read(buffer)) != -1) {
+        digest.update(buffer, 0, count);
+        out.write(buffer, 0, count);
+      }
+    }
+    return BaseEncoding.base16().lowerCase().encode(digest.digest());
+  }
+
+  /**
+   * Moves the file into place with an atomic rename, so Tomcat never sees a partial .war. Falls
+   * back to a plain move where the file system cannot rename atomically.
+   *
+   * @param source the source
+   * @param dest the dest
+   * @param replace whether an existing dest may be replaced
+   * @throws IOException Signals that an I/O exception has occurred, such as dest existing while it
+   *         may not be replaced.
+   */
+  private static void moveFile(File source, File dest, boolean replace) throws IOException {
+    // an atomic rename replaces dest on POSIX file systems whatever the options
+    if (!replace && dest.exists()) {
+      throw new FileAlreadyExistsException(dest.getAbsolutePath());
+    }
+    try {
+      Files.move(source.toPath(), dest.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      logger.debug("Atomic move is not supported for '{}'", dest);
+      logger.trace("", e);
+      if (replace) {
+        Files.move(source.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.move(source.toPath(), dest.toPath());
+      }
+    }
+  }
+
   @Value("/adm/deploy.htm")
   @Override
   public void setViewName(String viewName) {
@@ -43,6 +43,7 @@ public class DisplayJspController extends AbstractContextHandlerController {
   protected ModelAndView handleContext(String contextName, Context context,
       HttpServletRequest request, HttpServletResponse response) throws Exception {
     boolean compile = ServletRequestUtils.getBooleanParameter(request, "compile", false);
+    boolean cancel = ServletRequestUtils.getBooleanParameter(request, "cancel", false);
 
     HttpSession session = request.getSession(false);
     Summary summary = (Summary) session.getAttribute(SUMMARY_ATTRIBUTE);
@@ -50,11 +51,25 @@ public class DisplayJspController extends AbstractContextHandlerController {
       summary = new Summary();
       summary.setName(contextName);
     }
-    getContainerWrapper().getTomcatContainer().listContextJsps(context, summary, compile);
+
+    if (cancel) {
+      summary.setCancelled(true);
+    } else if (summary.isRunning()) {
+      logger.debug("JSPs of '{}' are being compiled, showing progress", contextName);
+    } else if (compile) {
+      /*
+       * compiling a large application takes a while, so it is done in the background while the
+       * view reports the progress kept in the summary, that of another session if it is compiling
+       * the same application already
+       */
+      summary = getContainerWrapper().getTomcatContainer().compileContextJsps(context, summary);
+    } else {
+      getContainerWrapper().getTomcatContainer().listContextJsps(context, summary, false);
+    }
 
     request.getSession(false).setAttribute(SUMMARY_ATTRIBUTE, summary);
 
-    if (compile) {
+    if (compile || cancel) {
       return new ModelAndView(new RedirectView(
           request.getRequestURI() + "?webapp=" + (contextName.length() == 0 ? "/" : contextName)));
     }
@@ -11,8 +11,10 @@
 package psiprobe.controllers.jsp;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import javax.inject.Inject;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
@@ -25,8 +27,9 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.ServletRequestUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
-import psiprobe.Utils;
+import psiprobe.beans.SourceHighlighterBean;
 import psiprobe.controllers.AbstractContextHandlerController;
+import psiprobe.model.HighlightedSource;
 
 /**
  * The Class ViewServletSourceController.
@@ -34,6 +37,28 @@ import psiprobe.controllers.AbstractContextHandlerController;
 @Controller
 public class ViewServletSourceController extends AbstractContextHandlerController {
 
+  /** The source highlighter. */
+  @Inject
+  private SourceHighlighterBean sourceHighlighter;
+
+  /**
+   * Gets the source highlighter.
+   *
+   * @return the source highlighter
+   */
+  public SourceHighlighterBean getSourceHighlighter() {
+    return sourceHighlighter;
+  }
+
+  /**
+   * Sets the source highlighter.
+   *
+   * @param sourceHighlighter the new source highlighter
+   */
+  public void setSourceHighlighter(SourceHighlighterBean sourceHighlighter) {
+    this.sourceHighlighter = sourceHighlighter;
+  }
+
   @RequestMapping(path = "/app/viewservlet.htm")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -50,22 +75,30 @@ public class ViewServletSourceController extends AbstractContextHandlerControlle
     ServletConfig scfg = (ServletConfig) context.findChild("jsp");
     Options opt = new EmbeddedServletOptions(scfg, sctx);
     String encoding = opt.getJavaEncoding();
-    String content = null;
+    HighlightedSource source = null;
 
     if (jspName != null) {
       String servletName =
           getContainerWrapper().getTomcatContainer().getServletFileNameForJsp(context, jspName);
 
       if (servletName != null) {
-        File servletFile = new File(servletName);
+        final File servletFile = new File(servletName);
         if (servletFile.exists()) {
-          try (InputStream fis = Files.newInputStream(servletFile.toPath())) {
-            content = Utils.highlightStream(jspName, fis, "java", encoding);
-          }
+          source = sourceHighlighter.getSource(servletFile.getAbsolutePath(),
+              servletFile.lastModified(), encoding, "java",
+              new SourceHighlighterBean.SourceStream() {
+                @Override
+                public InputStream open() throws IOException {
+                  return Files.newInputStream(servletFile.toPath());
+                }
+              });
         }
       }
     }
-    return new ModelAndView(getViewName(), "content", content);
+    return new ModelAndView(getViewName(), "source", source)
+        .addObject("from", Math.max(1, ServletRequestUtils.getIntParameter(request, "from", 1)))
+        .addObject("lines", Math.max(1, Math.min(ServletRequestUtils.getIntParameter(request,
+            "lines", HighlightedSource.DEFAULT_WINDOW), HighlightedSource.MAX_WINDOW)));
   }
 
   @Value("view_servlet_source")
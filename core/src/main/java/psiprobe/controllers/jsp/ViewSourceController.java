@@ -10,7 +10,9 @@
  */
 package psiprobe.controllers.jsp;
 
+import java.io.IOException;
 import java.io.InputStream;
+import javax.inject.Inject;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
@@ -26,7 +28,9 @@ import org.springframework.web.bind.ServletRequestUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 import psiprobe.Utils;
+import psiprobe.beans.SourceHighlighterBean;
 import psiprobe.controllers.AbstractContextHandlerController;
+import psiprobe.model.HighlightedSource;
 import psiprobe.model.jsp.Item;
 import psiprobe.model.jsp.Summary;
 
@@ -39,6 +43,28 @@ public class ViewSourceController extends AbstractContextHandlerController {
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(ViewSourceController.class);
 
+  /** The source highlighter. */
+  @Inject
+  private SourceHighlighterBean sourceHighlighter;
+
+  /**
+   * Gets the source highlighter.
+   *
+   * @return the source highlighter
+   */
+  public SourceHighlighterBean getSourceHighlighter() {
+    return sourceHighlighter;
+  }
+
+  /**
+   * Sets the source highlighter.
+   *
+   * @param sourceHighlighter the new source highlighter
+   */
+  public void setSourceHighlighter(SourceHighlighterBean sourceHighlighter) {
+    this.sourceHighlighter = sourceHighlighter;
+  }
+
   @RequestMapping(path = "/app/viewsource.htm")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -89,12 +115,29 @@ public class ViewSourceController extends AbstractContextHandlerController {
               item.setEncoding(Utils.getJspEncoding(encodedStream));
             }
           }
-          try (InputStream jspStream =
-              getContainerWrapper().getTomcatContainer().getResourceStream(jspName, context)) {
-            if (highlight) {
-              request.setAttribute("highlightedContent",
-                  Utils.highlightStream(jspName, jspStream, "xhtml", item.getEncoding()));
-            } else {
+          if (highlight) {
+            final String resourceName = jspName;
+            final Context resourceContext = context;
+            Long lastModified = getContainerWrapper().getTomcatContainer()
+                .getResourceAttributes(jspName, context)[1];
+            HighlightedSource source = sourceHighlighter.getSource(contextName + jspName,
+                lastModified != null ? lastModified : -1, item.getEncoding(), "xhtml",
+                new SourceHighlighterBean.SourceStream() {
+                  @Override
+                  public InputStream open() throws IOException {
+                    return getContainerWrapper().getTomcatContainer()
+                        .getResourceStream(resourceName, resourceContext);
+                  }
+                });
+            request.setAttribute("source", source);
+            request.setAttribute("from",
+                Math.max(1, ServletRequestUtils.getIntParameter(request, "from", 1)));
+            request.setAttribute("lines", Math.max(1,
+                Math.min(ServletRequestUtils.getIntParameter(request, "lines",
+                    HighlightedSource.DEFAULT_WINDOW), HighlightedSource.MAX_WINDOW)));
+          } else {
+            try (InputStream jspStream =
+                getContainerWrapper().getTomcatContainer().getResourceStream(jspName, context)) {
               request.setAttribute("content", Utils.readStream(jspStream, item.getEncoding()));
             }
           }
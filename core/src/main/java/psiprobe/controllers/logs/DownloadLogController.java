@@ -50,7 +50,7 @@ public class DownloadLogController extends AbstractLogHandlerController {
     logger.info("Sending {}{} to {} ({})", file, compressed ? " compressed" : "",
         request.getRemoteAddr(), request.getRemoteUser());
     if (compressed) {
-      Utils.sendCompressedFile(response, file);
+      Utils.sendCompressedFile(request, response, file);
     } else {
       Utils.sendFile(request, response, file);
     }
@@ -0,0 +1,101 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.logs;
+
+import java.util.regex.PatternSyntaxException;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import psiprobe.beans.LogSearchBean;
+import psiprobe.tools.logging.LogDestination;
+
+/**
+ * Searches a log file and shows a page of matching lines.
+ */
+@Controller
+public class SearchLogController extends AbstractLogHandlerController {
+
+  /** The maximum page size. */
+  private static final int MAX_PAGE_SIZE = 500;
+
+  /** The maximum number of context lines. */
+  private static final int MAX_CONTEXT_LINES = 20;
+
+  /** The log search. */
+  @Inject
+  private LogSearchBean logSearch;
+
+  /**
+   * Gets the log search.
+   *
+   * @return the log search
+   */
+  public LogSearchBean getLogSearch() {
+    return logSearch;
+  }
+
+  /**
+   * Sets the log search.
+   *
+   * @param logSearch the new log search
+   */
+  public void setLogSearch(LogSearchBean logSearch) {
+    this.logSearch = logSearch;
+  }
+
+  @RequestMapping(path = "/search.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleLogFile(HttpServletRequest request, HttpServletResponse response,
+      LogDestination logDest) throws Exception {
+
+    ModelAndView mv = new ModelAndView(getViewName()).addObject("log", logDest);
+    String query = ServletRequestUtils.getStringParameter(request, "q");
+    if (query == null || query.isEmpty()) {
+      return mv;
+    }
+    boolean regex = ServletRequestUtils.getBooleanParameter(request, "regex", false);
+    boolean ignoreCase = ServletRequestUtils.getBooleanParameter(request, "ignoreCase", false);
+    String from = ServletRequestUtils.getStringParameter(request, "from");
+    String to = ServletRequestUtils.getStringParameter(request, "to");
+    int contextLines = Math.max(0,
+        Math.min(ServletRequestUtils.getIntParameter(request, "lines", 2), MAX_CONTEXT_LINES));
+    long offset = Math.max(0, ServletRequestUtils.getLongParameter(request, "offset", 0));
+    int page = Math.max(1, ServletRequestUtils.getIntParameter(request, "page", 1));
+    int pageSize = Math.max(1,
+        Math.min(ServletRequestUtils.getIntParameter(request, "pageSize", 50), MAX_PAGE_SIZE));
+
+    try {
+      mv.addObject("result", logSearch.search(logDest, query, regex, ignoreCase, from, to,
+          contextLines, offset, page, pageSize));
+    } catch (PatternSyntaxException e) {
+      mv.addObject("errorMessage", e.getDescription());
+    }
+    return mv;
+  }
+
+  @Value("logsearch")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
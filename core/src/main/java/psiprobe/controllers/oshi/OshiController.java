@@ -13,50 +13,42 @@ package psiprobe.controllers.oshi;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
-import oshi.SystemInfo;
 import oshi.hardware.Baseboard;
 import oshi.hardware.CentralProcessor;
-import oshi.hardware.CentralProcessor.TickType;
 import oshi.hardware.ComputerSystem;
 import oshi.hardware.Display;
 import oshi.hardware.Firmware;
-import oshi.hardware.GlobalMemory;
 import oshi.hardware.HWDiskStore;
 import oshi.hardware.HWPartition;
-import oshi.hardware.HardwareAbstractionLayer;
 import oshi.hardware.NetworkIF;
 import oshi.hardware.PowerSource;
-import oshi.hardware.Sensors;
 import oshi.hardware.UsbDevice;
 import oshi.software.os.FileSystem;
 import oshi.software.os.NetworkParams;
 import oshi.software.os.OSFileStore;
 import oshi.software.os.OSProcess;
-import oshi.software.os.OperatingSystem;
-import oshi.software.os.OperatingSystem.ProcessSort;
 import oshi.util.FormatUtil;
-import oshi.util.Util;
+import psiprobe.beans.OshiInfoAccessorBean;
 import psiprobe.controllers.AbstractTomcatContainerController;
+import psiprobe.model.oshi.ProcessesInfo;
+import psiprobe.model.oshi.SensorsInfo;
 
 /**
- * Creates an instance of Operating System and Hardware Information.
+ * Displays the Operating System and Hardware Information from the cached OSHI model.
  */
 @Controller
 public class OshiController extends AbstractTomcatContainerController {
 
-  /** The Constant logger. */
-  private static final Logger logger = LoggerFactory.getLogger(OshiController.class);
-
-  /** Oshi Cache. */
-  private static List<String> oshi = new ArrayList<>();
+  /** The oshi info accessor. */
+  @Inject
+  private OshiInfoAccessorBean oshiInfoAccessor;
 
   @RequestMapping(path = "/adm/oshi.htm")
   @Override
@@ -69,85 +61,97 @@ public class OshiController extends AbstractTomcatContainerController {
   protected ModelAndView handleRequestInternal(HttpServletRequest request,
       HttpServletResponse response) throws Exception {
 
-    if (!oshi.isEmpty()) {
-      ModelAndView mv = new ModelAndView(getViewName());
-      mv.addObject("oshi", oshi);
-      return mv;
-    }
+    List<String> oshi = new ArrayList<>();
 
     // TODO: Remove once no longer experimental
-    oshi.add(
-        "Oshi results are performed as a system dump to screen here using Oshi SystemInfoTest logic.");
-    oshi.add(
-        "Please be advised this is experimental in use and is slow. Resulting data is entirely cached.");
+    oshi.add("Oshi results are performed as a system dump to screen here using Oshi SystemInfoTest"
+        + " logic.");
+    oshi.add("Please be advised this is experimental in use. Each subsystem is probed through its"
+        + " own cache, expensive probes (processes, sensors, devices) are refreshed rarely.");
     oshi.add("Issues with library should be directed to https://github.com/oshi/oshi");
     oshi.add("For issues with our library usage of Oshi, please submit pull requests");
     oshi.add("");
     oshi.add("");
 
-    logger.debug("Initializing System...");
-    SystemInfo si = new SystemInfo();
-
-    HardwareAbstractionLayer hal = si.getHardware();
-    OperatingSystem os = si.getOperatingSystem();
-
-    oshi.add(String.valueOf(os));
+    oshi.add(String.valueOf(oshiInfoAccessor.getOperatingSystem()));
 
     logger.debug("Checking computer system...");
-    printComputerSystem(hal.getComputerSystem());
+    printComputerSystem(oshi, oshiInfoAccessor.getComputerSystem());
 
     logger.debug("Checking Processor...");
-    printProcessor(hal.getProcessor());
+    printProcessor(oshi, oshiInfoAccessor.getProcessor());
 
     logger.debug("Checking Memory...");
-    printMemory(hal.getMemory());
+    printMemory(oshi, oshiInfoAccessor.getMemory());
 
     logger.debug("Checking CPU...");
-    printCpu(hal.getProcessor());
+    printCpu(oshi, oshiInfoAccessor.getProcessor(), oshiInfoAccessor.getSystemLoadAverage());
 
     logger.debug("Checking Processes...");
-    printProcesses(os, hal.getMemory());
+    printProcesses(oshi, oshiInfoAccessor.getProcesses(), oshiInfoAccessor.getMemory());
 
     logger.debug("Checking Sensors...");
-    printSensors(hal.getSensors());
+    printSensors(oshi, oshiInfoAccessor.getSensors());
 
     logger.debug("Checking Power sources...");
-    printPowerSources(hal.getPowerSources());
+    printPowerSources(oshi, oshiInfoAccessor.getPowerSources());
 
     logger.debug("Checking Disks...");
-    printDisks(hal.getDiskStores());
+    printDisks(oshi, oshiInfoAccessor.getDiskStores());
 
     logger.debug("Checking File System...");
-    printFileSystem(os.getFileSystem());
+    printFileSystem(oshi, oshiInfoAccessor.getOperatingSystem().getFileSystem(),
+        oshiInfoAccessor.getFileStores());
 
     logger.debug("Checking Network interfaces...");
-    printNetworkInterfaces(hal.getNetworkIFs());
+    printNetworkInterfaces(oshi, oshiInfoAccessor.getNetworkIfs());
 
     logger.debug("Checking Network parameters...");
-    printNetworkParameters(os.getNetworkParams());
+    printNetworkParameters(oshi, oshiInfoAccessor.getNetworkParams());
 
     // hardware: displays
     logger.debug("Checking Displays...");
-    printDisplays(hal.getDisplays());
+    printDisplays(oshi, oshiInfoAccessor.getDisplays());
 
     // hardware: USB devices
     logger.debug("Checking USB Devices...");
-    printUsbDevices(hal.getUsbDevices(true));
+    printUsbDevices(oshi, oshiInfoAccessor.getUsbDevices());
 
-    StringBuilder output = new StringBuilder();
-    for (int i = 0; i < oshi.size(); i++) {
-      output.append(oshi.get(i));
-      if (!"\n".equals(oshi.get(i))) {
-        output.append('\n');
-      }
+    // names of the disks and network interfaces whose throughput is charted
+    List<String> disks = new ArrayList<>();
+    for (HWDiskStore disk : oshiInfoAccessor.getDiskStores()) {
+      disks.add(disk.getName());
+    }
+    List<String> networkIfs = new ArrayList<>();
+    for (NetworkIF net : oshiInfoAccessor.getNetworkIfs()) {
+      networkIfs.add(net.getName());
     }
-    logger.debug("Printing List: {}", output);
 
     ModelAndView mv = new ModelAndView(getViewName());
     mv.addObject("oshi", oshi);
+    mv.addObject("disks", disks);
+    mv.addObject("networkIfs", networkIfs);
     return mv;
   }
 
+  /**
+   * Gets the oshi info accessor.
+   *
+   * @return the oshi info accessor
+   */
+  public OshiInfoAccessorBean getOshiInfoAccessor() {
+    return oshiInfoAccessor;
+  }
+
+  /**
+   * Sets the oshi info accessor.
+   *
+   * @param oshiInfoAccessor the new oshi info accessor
+   */
+  public void setOshiInfoAccessor(OshiInfoAccessorBean oshiInfoAccessor) {
+    this.oshiInfoAccessor = oshiInfoAccessor;
+  }
+
   @Value("oshi")
   @Override
   public void setViewName(String viewName) {
@@ -157,9 +161,11 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the computer system.
    *
+   * @param oshi the oshi output
    * @param computerSystem the computer system
    */
-  private static void printComputerSystem(final ComputerSystem computerSystem) {
+  private static void printComputerSystem(List<String> oshi,
+      final ComputerSystem computerSystem) {
 
     oshi.add("manufacturer: " + computerSystem.getManufacturer());
     oshi.add("model: " + computerSystem.getModel());
@@ -184,9 +190,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the processor.
    *
+   * @param oshi the oshi output
    * @param processor the processor
    */
-  private static void printProcessor(CentralProcessor processor) {
+  private static void printProcessor(List<String> oshi, CentralProcessor processor) {
     oshi.add(String.valueOf(processor));
     oshi.add(" " + processor.getPhysicalProcessorCount() + " physical CPU(s)");
     oshi.add(" " + processor.getLogicalProcessorCount() + " logical CPU(s)");
@@ -198,47 +205,31 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the memory.
    *
-   * @param memory the memory
+   * @param oshi the oshi output
+   * @param memory the memory total, available, swap total and swap used
    */
-  private static void printMemory(GlobalMemory memory) {
-    oshi.add("Memory: " + FormatUtil.formatBytes(memory.getAvailable()) + "/"
-        + FormatUtil.formatBytes(memory.getTotal()));
-    oshi.add("Swap used: " + FormatUtil.formatBytes(memory.getSwapUsed()) + "/"
-        + FormatUtil.formatBytes(memory.getSwapTotal()));
+  private static void printMemory(List<String> oshi, long[] memory) {
+    oshi.add("Memory: " + FormatUtil.formatBytes(memory[1]) + "/"
+        + FormatUtil.formatBytes(memory[0]));
+    oshi.add("Swap used: " + FormatUtil.formatBytes(memory[3]) + "/"
+        + FormatUtil.formatBytes(memory[2]));
   }
 
   /**
    * Prints the cpu.
    *
+   * @param oshi the oshi output
    * @param processor the processor
+   * @param loadAverage the load average
    */
-  private static void printCpu(CentralProcessor processor) {
+  private static void printCpu(List<String> oshi, CentralProcessor processor,
+      double[] loadAverage) {
     oshi.add("Uptime: " + FormatUtil.formatElapsedSecs(processor.getSystemUptime()));
 
-    long[] prevTicks = processor.getSystemCpuLoadTicks();
-    oshi.add("CPU, IOWait, and IRQ ticks @ 0 sec:" + Arrays.toString(prevTicks));
-    // Wait a second...
-    Util.sleep(1000);
-    long[] ticks = processor.getSystemCpuLoadTicks();
-    oshi.add("CPU, IOWait, and IRQ ticks @ 1 sec:" + Arrays.toString(ticks));
-    long user = ticks[TickType.USER.getIndex()] - prevTicks[TickType.USER.getIndex()];
-    long nice = ticks[TickType.NICE.getIndex()] - prevTicks[TickType.NICE.getIndex()];
-    long sys = ticks[TickType.SYSTEM.getIndex()] - prevTicks[TickType.SYSTEM.getIndex()];
-    long idle = ticks[TickType.IDLE.getIndex()] - prevTicks[TickType.IDLE.getIndex()];
-    long iowait = ticks[TickType.IOWAIT.getIndex()] - prevTicks[TickType.IOWAIT.getIndex()];
-    long irq = ticks[TickType.IRQ.getIndex()] - prevTicks[TickType.IRQ.getIndex()];
-    long softirq = ticks[TickType.SOFTIRQ.getIndex()] - prevTicks[TickType.SOFTIRQ.getIndex()];
-    long totalCpu = user + nice + sys + idle + iowait + irq + softirq;
-
-    oshi.add(String.format(
-        "User: %.1f%% Nice: %.1f%% System: %.1f%% Idle: %.1f%% IOwait: %.1f%% IRQ: %.1f%% SoftIRQ: %.1f%%%n",
-        100d * user / totalCpu, 100d * nice / totalCpu, 100d * sys / totalCpu,
-        100d * idle / totalCpu, 100d * iowait / totalCpu, 100d * irq / totalCpu,
-        100d * softirq / totalCpu));
+    // ticks are counted since the previous view rather than sleeping the request for a second
     oshi.add(String.format("CPU load: %.1f%% (counting ticks)%n",
         processor.getSystemCpuLoadBetweenTicks() * 100));
     oshi.add(String.format("CPU load: %.1f%% (OS MXBean)%n", processor.getSystemCpuLoad() * 100));
-    double[] loadAverage = processor.getSystemLoadAverage(3);
     oshi.add("CPU load averages:"
         + (loadAverage[0] < 0 ? " N/A" : String.format(" %.2f", loadAverage[0]))
         + (loadAverage[1] < 0 ? " N/A" : String.format(" %.2f", loadAverage[1]))
@@ -255,20 +246,22 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the processes.
    *
-   * @param os the os
-   * @param memory the memory
+   * @param oshi the oshi output
+   * @param processes the processes
+   * @param memory the memory total, available, swap total and swap used
    */
-  private static void printProcesses(OperatingSystem os, GlobalMemory memory) {
-    oshi.add("Processes: " + os.getProcessCount() + ", Threads: " + os.getThreadCount());
-    // Sort by highest CPU
-    List<OSProcess> procs = Arrays.asList(os.getProcesses(5, ProcessSort.CPU));
+  private static void printProcesses(List<String> oshi, ProcessesInfo processes, long[] memory) {
+    oshi.add("Processes: " + processes.getProcessCount() + ", Threads: "
+        + processes.getThreadCount());
+    // Sorted by highest CPU
+    List<OSProcess> procs = processes.getTopProcesses();
 
     oshi.add("   PID  %CPU %MEM       VSZ       RSS Name");
     for (int i = 0; i < procs.size() && i < 5; i++) {
       OSProcess p = procs.get(i);
       oshi.add(String.format(" %5d %5.1f %4.1f %9s %9s %s%n", p.getProcessID(),
           100d * (p.getKernelTime() + p.getUserTime()) / p.getUpTime(),
-          100d * p.getResidentSetSize() / memory.getTotal(),
+          100d * p.getResidentSetSize() / memory[0],
           FormatUtil.formatBytes(p.getVirtualSize()),
           FormatUtil.formatBytes(p.getResidentSetSize()), p.getName()));
     }
@@ -277,9 +270,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the sensors.
    *
+   * @param oshi the oshi output
    * @param sensors the sensors
    */
-  private static void printSensors(Sensors sensors) {
+  private static void printSensors(List<String> oshi, SensorsInfo sensors) {
     oshi.add("Sensors:");
     oshi.add(String.format(" CPU Temperature: %.1f°C%n", sensors.getCpuTemperature()));
     oshi.add(" Fan Speeds: " + Arrays.toString(sensors.getFanSpeeds()));
@@ -289,9 +283,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the power sources.
    *
+   * @param oshi the oshi output
    * @param powerSources the power sources
    */
-  private static void printPowerSources(PowerSource[] powerSources) {
+  private static void printPowerSources(List<String> oshi, PowerSource[] powerSources) {
     StringBuilder sb = new StringBuilder("Power: ");
     if (powerSources.length == 0) {
       sb.append("Unknown");
@@ -316,9 +311,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the disks.
    *
+   * @param oshi the oshi output
    * @param diskStores the disk stores
    */
-  private static void printDisks(HWDiskStore[] diskStores) {
+  private static void printDisks(List<String> oshi, HWDiskStore[] diskStores) {
     oshi.add("Disks:");
     for (HWDiskStore disk : diskStores) {
       boolean readwrite = disk.getReads() > 0 || disk.getWrites() > 0;
@@ -348,15 +344,17 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the file system.
    *
+   * @param oshi the oshi output
    * @param fileSystem the file system
+   * @param fsArray the file stores
    */
-  private static void printFileSystem(FileSystem fileSystem) {
+  private static void printFileSystem(List<String> oshi, FileSystem fileSystem,
+      OSFileStore[] fsArray) {
     oshi.add("File System:");
 
     oshi.add(String.format(" File Descriptors: %d/%d%n", fileSystem.getOpenFileDescriptors(),
         fileSystem.getMaxFileDescriptors()));
 
-    OSFileStore[] fsArray = fileSystem.getFileStores();
     for (OSFileStore fs : fsArray) {
       long usable = fs.getUsableSpace();
       long total = fs.getTotalSpace();
@@ -370,9 +368,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the network interfaces.
    *
+   * @param oshi the oshi output
    * @param networkIFs the network I fs
    */
-  private static void printNetworkInterfaces(NetworkIF[] networkIFs) {
+  private static void printNetworkInterfaces(List<String> oshi, NetworkIF[] networkIFs) {
     oshi.add("Network interfaces:");
     for (NetworkIF net : networkIFs) {
       oshi.add(String.format(" Name: %s (%s)%n", net.getName(), net.getDisplayName()));
@@ -396,9 +395,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the network parameters.
    *
+   * @param oshi the oshi output
    * @param networkParams the network params
    */
-  private static void printNetworkParameters(NetworkParams networkParams) {
+  private static void printNetworkParameters(List<String> oshi, NetworkParams networkParams) {
     oshi.add("Network parameters:");
     oshi.add(String.format(" Host name: %s%n", networkParams.getHostName()));
     oshi.add(String.format(" Domain name: %s%n", networkParams.getDomainName()));
@@ -410,9 +410,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the displays.
    *
+   * @param oshi the oshi output
    * @param displays the displays
    */
-  private static void printDisplays(Display[] displays) {
+  private static void printDisplays(List<String> oshi, Display[] displays) {
     oshi.add("Displays:");
     int i = 0;
     for (Display display : displays) {
@@ -425,9 +426,10 @@ public class OshiController extends AbstractTomcatContainerController {
   /**
    * Prints the usb devices.
    *
+   * @param oshi the oshi output
    * @param usbDevices the usb devices
    */
-  private static void printUsbDevices(UsbDevice[] usbDevices) {
+  private static void printUsbDevices(List<String> oshi, UsbDevice[] usbDevices) {
     oshi.add("USB Devices:");
     for (UsbDevice usbDevice : usbDevices) {
       oshi.add(String.valueOf(usbDevice));
@@ -0,0 +1,129 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.sessions;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.RedirectView;
+import psiprobe.beans.SessionExpiryBean;
+import psiprobe.controllers.AbstractContextHandlerController;
+import psiprobe.model.SessionSearchInfo;
+
+/**
+ * Expires the sessions of a web application, or of all web applications if a webapp request
+ * parameter is not set, matching the criteria posted by the session search form, and shows the
+ * progress of the last such run. With a dryRun request parameter, matching sessions are only
+ * counted.
+ */
+@Controller
+public class ExpireMatchingSessionsController extends AbstractContextHandlerController {
+
+  /** The session expiry bean. */
+  @Inject
+  private SessionExpiryBean sessionExpiry;
+
+  /**
+   * Gets the session expiry bean.
+   *
+   * @return the session expiry bean
+   */
+  public SessionExpiryBean getSessionExpiry() {
+    return sessionExpiry;
+  }
+
+  /**
+   * Sets the session expiry bean.
+   *
+   * @param sessionExpiry the new session expiry bean
+   */
+  public void setSessionExpiry(SessionExpiryBean sessionExpiry) {
+    this.sessionExpiry = sessionExpiry;
+  }
+
+  @RequestMapping(path = "/app/expire_matching.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleContext(String contextName, Context context,
+      HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+    if (ServletRequestUtils.getBooleanParameter(request, "cancel", false)) {
+      sessionExpiry.cancel();
+      return new ModelAndView(new RedirectView(request.getRequestURI()));
+    }
+
+    if (ServletRequestUtils.getBooleanParameter(request, "start", false)) {
+      SessionSearchInfo searchInfo = new SessionSearchInfo();
+      searchInfo.setSearchAction(SessionSearchInfo.ACTION_APPLY);
+      ListSessionsController.readSearchCriteria(request, searchInfo);
+      if (!searchInfo.isUseSearch()) {
+        return showExpiry("probe.src.sessions.expiry.criteria");
+      }
+
+      List<Context> contexts;
+      if (context == null) {
+        contexts = getContainerWrapper().getTomcatContainer().findContexts();
+      } else {
+        contexts = new ArrayList<>();
+        contexts.add(context);
+      }
+      boolean dryRun = ServletRequestUtils.getBooleanParameter(request, "dryRun", false);
+      int rate = ServletRequestUtils.getIntParameter(request, "rate", sessionExpiry.getRate());
+      if (sessionExpiry.start(contexts, searchInfo, context == null ? null : contextName, dryRun,
+          rate) == null) {
+        return showExpiry("probe.src.sessions.expiry.running");
+      }
+      return new ModelAndView(new RedirectView(request.getRequestURI()));
+    }
+
+    return showExpiry(null);
+  }
+
+  /**
+   * Shows the last run.
+   *
+   * @param errorCode the code of the error message to show, or null
+   * @return the model and view
+   */
+  private ModelAndView showExpiry(String errorCode) {
+    ModelAndView modelAndView =
+        new ModelAndView(getViewName(), "expiry", sessionExpiry.getExpiry());
+    if (errorCode != null) {
+      modelAndView.addObject("errorMessage", getMessageSourceAccessor().getMessage(errorCode));
+    }
+    return modelAndView;
+  }
+
+  @Override
+  protected boolean isContextOptional() {
+    return true;
+  }
+
+  @Value("sessionexpiry")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
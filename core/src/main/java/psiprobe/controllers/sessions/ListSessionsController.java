@@ -11,9 +11,7 @@
 package psiprobe.controllers.sessions;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
@@ -23,15 +21,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.bind.ServletRequestUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
 import psiprobe.controllers.AbstractContextHandlerController;
 import psiprobe.model.ApplicationSession;
-import psiprobe.model.Attribute;
 import psiprobe.model.SessionSearchInfo;
 import psiprobe.tools.ApplicationUtils;
 import psiprobe.tools.SecurityUtils;
+import psiprobe.tools.SessionMatcher;
+import psiprobe.tools.SessionSizeCache;
 
 /**
  * Creates the list of sessions for a particular web application or all web applications if a webapp
@@ -60,21 +60,7 @@ public class ListSessionsController extends AbstractContextHandlerController {
     HttpSession sess = request.getSession(false);
 
     if (searchInfo.isApply()) {
-      searchInfo.setSessionId(StringUtils
-          .trimToNull(ServletRequestUtils.getStringParameter(request, "searchSessionId")));
-      searchInfo.setLastIp(
-          StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchLastIP")));
-
-      searchInfo.setAgeFrom(
-          StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchAgeFrom")));
-      searchInfo.setAgeTo(
-          StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchAgeTo")));
-      searchInfo.setIdleTimeFrom(StringUtils
-          .trimToNull(ServletRequestUtils.getStringParameter(request, "searchIdleTimeFrom")));
-      searchInfo.setIdleTimeTo(StringUtils
-          .trimToNull(ServletRequestUtils.getStringParameter(request, "searchIdleTimeTo")));
-      searchInfo.setAttrName(StringUtils
-          .trimToNull(ServletRequestUtils.getStringParameter(request, "searchAttrName")));
+      readSearchCriteria(request, searchInfo);
       if (sess != null) {
         sess.setAttribute(SessionSearchInfo.SESS_ATTR_NAME, searchInfo);
       }
@@ -101,14 +87,22 @@ public class ListSessionsController extends AbstractContextHandlerController {
     }
 
     List<ApplicationSession> sessionList = new ArrayList<>();
+    SessionMatcher matcher = new SessionMatcher(searchInfo);
+    long now = System.currentTimeMillis();
     for (Context ctx : ctxs) {
       if (ctx != null && ctx.getManager() != null
           && (!searchInfo.isApply() || searchInfo.isUseSearch())) {
+        if (calcSize) {
+          SessionSizeCache.getInstance().watch(ctx);
+        }
         Session[] sessions = ctx.getManager().findSessions();
         for (Session session : sessions) {
+          if (!matcher.matches(session, now)) {
+            continue;
+          }
           ApplicationSession appSession =
-              ApplicationUtils.getApplicationSession(session, calcSize, searchInfo.isUseAttr());
-          if (appSession != null && matchSession(appSession, searchInfo)) {
+              ApplicationUtils.getApplicationSession(session, calcSize, false);
+          if (appSession != null) {
             if (ctx.getName() != null) {
               appSession.setApplicationName(ctx.getName().length() > 0 ? ctx.getName() : "/");
             }
@@ -130,6 +124,32 @@ public class ListSessionsController extends AbstractContextHandlerController {
     return modelAndView;
   }
 
+  /**
+   * Reads the search criteria posted by the session search form.
+   *
+   * @param request the request
+   * @param searchInfo the search info the criteria are set on
+   * @throws ServletRequestBindingException if a criterion cannot be read
+   */
+  static void readSearchCriteria(HttpServletRequest request, SessionSearchInfo searchInfo)
+      throws ServletRequestBindingException {
+    searchInfo.setSessionId(
+        StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchSessionId")));
+    searchInfo.setLastIp(
+        StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchLastIP")));
+
+    searchInfo.setAgeFrom(
+        StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchAgeFrom")));
+    searchInfo.setAgeTo(
+        StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchAgeTo")));
+    searchInfo.setIdleTimeFrom(StringUtils
+        .trimToNull(ServletRequestUtils.getStringParameter(request, "searchIdleTimeFrom")));
+    searchInfo.setIdleTimeTo(StringUtils
+        .trimToNull(ServletRequestUtils.getStringParameter(request, "searchIdleTimeTo")));
+    searchInfo.setAttrName(
+        StringUtils.trimToNull(ServletRequestUtils.getStringParameter(request, "searchAttrName")));
+  }
+
   /**
    * Populate search messages.
    *
@@ -174,66 +194,6 @@ public class ListSessionsController extends AbstractContextHandlerController {
     }
   }
 
-  /**
-   * Match session.
-   *
-   * @param appSession the app session
-   * @param searchInfo the search info
-   * @return true, if successful
-   */
-  private boolean matchSession(ApplicationSession appSession, SessionSearchInfo searchInfo) {
-    boolean sessionMatches = true;
-    if (searchInfo.isUseSearch()) {
-      if (searchInfo.isUseSessionId() && appSession.getId() != null) {
-        sessionMatches = searchInfo.getSessionIdPattern().matcher(appSession.getId()).matches();
-      }
-      if (sessionMatches && searchInfo.isUseAgeFrom()) {
-        sessionMatches = appSession.getAge() >= searchInfo.getAgeFromSec().longValue() * 1000;
-      }
-      if (sessionMatches && searchInfo.isUseAgeTo()) {
-        sessionMatches = appSession.getAge() <= searchInfo.getAgeToSec().longValue() * 1000;
-      }
-      if (sessionMatches && searchInfo.isUseIdleTimeFrom()) {
-        sessionMatches =
-            appSession.getIdleTime() >= searchInfo.getIdleTimeFromSec().longValue() * 1000;
-      }
-      if (sessionMatches && searchInfo.isUseIdleTimeTo()) {
-        sessionMatches =
-            appSession.getIdleTime() <= searchInfo.getIdleTimeToSec().longValue() * 1000;
-      }
-      if (searchInfo.isUseLastIp() && appSession.getLastAccessedIp() != null) {
-        sessionMatches = appSession.getLastAccessedIp().contains(searchInfo.getLastIp());
-      }
-
-      if (sessionMatches && searchInfo.isUseAttrName()) {
-        boolean attrMatches = false;
-        List<Pattern> namePatterns = new ArrayList<>();
-        namePatterns.addAll(searchInfo.getAttrNamePatterns());
-
-        for (Attribute attr : appSession.getAttributes()) {
-          String attrName = attr.getName();
-
-          if (attrName != null) {
-            for (Iterator<Pattern> it = namePatterns.iterator(); it.hasNext();) {
-              if (it.next().matcher(attrName).matches()) {
-                it.remove();
-              }
-            }
-
-            if (namePatterns.isEmpty()) {
-              attrMatches = true;
-              break;
-            }
-          }
-        }
-
-        sessionMatches = attrMatches;
-      }
-    }
-
-    return sessionMatches;
-  }
-
   @Override
   protected boolean isContextOptional() {
     return true;
@@ -0,0 +1,191 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.system;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.text.StringEscapeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import psiprobe.beans.ClassHistogramBean;
+import psiprobe.model.jmx.ClassHistogram;
+import psiprobe.model.jmx.ClassHistogramDelta;
+
+/**
+ * Compares two class histograms, the latest two unless told otherwise, ranking the classes by their
+ * growth. The comparison is shown as a page or, when asked for as ".ajax", written as JSON.
+ */
+@Controller
+public class ClassHistogramController extends ParameterizableViewController {
+
+  /** The class histogram bean. */
+  @Inject
+  private ClassHistogramBean classHistogram;
+
+  /** The default number of classes listed. */
+  private int defaultTop;
+
+  /**
+   * Gets the class histogram.
+   *
+   * @return the class histogram
+   */
+  public ClassHistogramBean getClassHistogram() {
+    return classHistogram;
+  }
+
+  /**
+   * Sets the class histogram.
+   *
+   * @param classHistogram the new class histogram
+   */
+  public void setClassHistogram(ClassHistogramBean classHistogram) {
+    this.classHistogram = classHistogram;
+  }
+
+  /**
+   * Gets the default top.
+   *
+   * @return the default top
+   */
+  public int getDefaultTop() {
+    return defaultTop;
+  }
+
+  /**
+   * Sets the default top.
+   *
+   * @param defaultTop the new default top
+   */
+  @Value("50")
+  public void setDefaultTop(int defaultTop) {
+    this.defaultTop = defaultTop;
+  }
+
+  @RequestMapping(path = {"/histogram.htm", "/histogram.ajax"})
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    List<ClassHistogram> snapshots = classHistogram.getSnapshots();
+    int fromId = ServletRequestUtils.getIntParameter(request, "from",
+        snapshots.size() > 1 ? snapshots.get(snapshots.size() - 2).getId() : 0);
+    int toId = ServletRequestUtils.getIntParameter(request, "to",
+        snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1).getId());
+    boolean byInstances = "instances".equals(ServletRequestUtils.getStringParameter(request,
+        "sort", "bytes"));
+    int top = Math.max(1, Math.min(ServletRequestUtils.getIntParameter(request, "top",
+        defaultTop), 10000));
+
+    ClassHistogram from = classHistogram.getSnapshot(fromId);
+    ClassHistogram to = classHistogram.getSnapshot(toId);
+    List<ClassHistogramDelta> deltas = to != null
+        ? ClassHistogramBean.diff(from != to ? from : null, to, byInstances, top)
+        : Collections.<ClassHistogramDelta>emptyList();
+
+    if (request.getServletPath().endsWith(".ajax")) {
+      response.setContentType("application/json;charset=UTF-8");
+      response.setHeader("Cache-Control", "no-cache, no-store");
+      writeJson(response.getWriter(), from, to, deltas);
+      return null;
+    }
+    return new ModelAndView(getViewName())
+        .addObject("supported", classHistogram.isSupported())
+        .addObject("snapshots", snapshots)
+        .addObject("from", from)
+        .addObject("to", to)
+        .addObject("deltas", deltas)
+        .addObject("sort", byInstances ? "instances" : "bytes")
+        .addObject("top", top);
+  }
+
+  /**
+   * Writes a comparison as JSON.
+   *
+   * @param out the writer
+   * @param from the earlier histogram
+   * @param to the later histogram
+   * @param deltas the classes by growth
+   */
+  private static void writeJson(PrintWriter out, ClassHistogram from, ClassHistogram to,
+      List<ClassHistogramDelta> deltas) {
+    out.write("{\"from\":");
+    writeHistogram(out, from);
+    out.write(",\"to\":");
+    writeHistogram(out, to);
+    out.write(",\"classes\":[");
+    boolean first = true;
+    for (ClassHistogramDelta delta : deltas) {
+      if (!first) {
+        out.write(',');
+      }
+      first = false;
+      out.write("{\"name\":\"");
+      out.write(StringEscapeUtils.escapeJson(delta.getClassName()));
+      out.write("\",\"instances\":");
+      out.write(Long.toString(delta.getInstances()));
+      out.write(",\"bytes\":");
+      out.write(Long.toString(delta.getBytes()));
+      out.write(",\"instancesDelta\":");
+      out.write(Long.toString(delta.getInstancesDelta()));
+      out.write(",\"bytesDelta\":");
+      out.write(Long.toString(delta.getBytesDelta()));
+      out.write('}');
+    }
+    out.write("]}");
+    out.flush();
+  }
+
+  /**
+   * Writes the summary of a histogram as JSON.
+   *
+   * @param out the writer
+   * @param histogram the histogram, or null
+   */
+  private static void writeHistogram(PrintWriter out, ClassHistogram histogram) {
+    if (histogram == null) {
+      out.write("null");
+      return;
+    }
+    out.write("{\"id\":");
+    out.write(Integer.toString(histogram.getId()));
+    out.write(",\"time\":");
+    out.write(Long.toString(histogram.getTime()));
+    out.write(",\"classes\":");
+    out.write(Integer.toString(histogram.getClassCount()));
+    out.write(",\"instances\":");
+    out.write(Long.toString(histogram.getTotalInstances()));
+    out.write(",\"bytes\":");
+    out.write(Long.toString(histogram.getTotalBytes()));
+    out.write('}');
+  }
+
+  @Value("histogram")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
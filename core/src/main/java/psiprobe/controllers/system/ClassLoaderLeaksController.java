@@ -0,0 +1,108 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.system;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import psiprobe.beans.stats.collectors.ClassLoaderLeakCollectorBean;
+import psiprobe.tools.TimeExpression;
+
+/**
+ * Lists the class loaders of stopped, reloaded and undeployed applications that are still
+ * reachable, along with the chart of their number.
+ */
+@Controller
+public class ClassLoaderLeaksController extends ParameterizableViewController {
+
+  /** The class loader leak collector. */
+  @Inject
+  private ClassLoaderLeakCollectorBean classLoaderLeakCollector;
+
+  /** The collection period. */
+  private long collectionPeriod;
+
+  /**
+   * Gets the class loader leak collector.
+   *
+   * @return the class loader leak collector
+   */
+  public ClassLoaderLeakCollectorBean getClassLoaderLeakCollector() {
+    return classLoaderLeakCollector;
+  }
+
+  /**
+   * Sets the class loader leak collector.
+   *
+   * @param classLoaderLeakCollector the new class loader leak collector
+   */
+  public void setClassLoaderLeakCollector(ClassLoaderLeakCollectorBean classLoaderLeakCollector) {
+    this.classLoaderLeakCollector = classLoaderLeakCollector;
+  }
+
+  /**
+   * Gets the collection period.
+   *
+   * @return the collection period
+   */
+  public long getCollectionPeriod() {
+    return collectionPeriod;
+  }
+
+  /**
+   * Sets the collection period.
+   *
+   * @param collectionPeriod the new collection period
+   */
+  public void setCollectionPeriod(long collectionPeriod) {
+    this.collectionPeriod = collectionPeriod;
+  }
+
+  /**
+   * Sets the collection period.
+   *
+   * @param collectionPeriod the new collection period
+   */
+  @Value("${psiprobe.beans.stats.collectors.classloaders.period}")
+  public void setCollectionPeriod(String collectionPeriod) {
+    this.collectionPeriod = TimeExpression.inSeconds(collectionPeriod);
+  }
+
+  @RequestMapping(path = "/classloaders.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    ModelAndView mv = new ModelAndView(getViewName());
+    mv.addObject("leakedClassLoaders", classLoaderLeakCollector.getLeakedClassLoaders());
+    mv.addObject("gcThreshold", classLoaderLeakCollector.getGcThreshold());
+    mv.addObject("collectionPeriod", getCollectionPeriod());
+    return mv;
+  }
+
+  @Value("classloaders")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.system;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import org.springframework.web.servlet.view.RedirectView;
+import psiprobe.beans.ClassHistogramBean;
+
+/**
+ * Takes a class histogram, which runs a full garbage collection.
+ */
+@Controller
+public class TakeClassHistogramController extends ParameterizableViewController {
+
+  /** The class histogram bean. */
+  @Inject
+  private ClassHistogramBean classHistogram;
+
+  /**
+   * Gets the class histogram.
+   *
+   * @return the class histogram
+   */
+  public ClassHistogramBean getClassHistogram() {
+    return classHistogram;
+  }
+
+  /**
+   * Sets the class histogram.
+   *
+   * @param classHistogram the new class histogram
+   */
+  public void setClassHistogram(ClassHistogramBean classHistogram) {
+    this.classHistogram = classHistogram;
+  }
+
+  @RequestMapping(path = "/adm/histogram.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    if (classHistogram.isSupported()) {
+      classHistogram.takeSnapshot();
+    }
+    return new ModelAndView(new RedirectView(request.getContextPath() + getViewName()));
+  }
+
+  @Value("/histogram.htm")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.threads;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import org.springframework.web.servlet.view.RedirectView;
+import psiprobe.beans.ThreadDumpBean;
+
+/**
+ * Takes a thread dump.
+ */
+@Controller
+public class CaptureThreadDumpController extends ParameterizableViewController {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(CaptureThreadDumpController.class);
+
+  /** The thread dump bean. */
+  @Inject
+  private ThreadDumpBean threadDump;
+
+  /**
+   * Gets the thread dump.
+   *
+   * @return the thread dump
+   */
+  public ThreadDumpBean getThreadDump() {
+    return threadDump;
+  }
+
+  /**
+   * Sets the thread dump.
+   *
+   * @param threadDump the new thread dump
+   */
+  public void setThreadDump(ThreadDumpBean threadDump) {
+    this.threadDump = threadDump;
+  }
+
+  @RequestMapping(path = "/adm/threaddumps.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    logger.info("Thread dump requested by {} ({})", request.getRemoteAddr(),
+        request.getRemoteUser());
+    threadDump.capture("Requested by " + request.getRemoteUser());
+    return new ModelAndView(new RedirectView(request.getContextPath() + getViewName()));
+  }
+
+  @Value("/threaddumps.htm")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.threads;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import psiprobe.Utils;
+import psiprobe.beans.ThreadDumpBean;
+import psiprobe.model.ThreadDumpInfo;
+
+/**
+ * Sends a thread dump kept, as the gzipped file it is stored in.
+ */
+@Controller
+public class DownloadThreadDumpController extends ParameterizableViewController {
+
+  /** The thread dump bean. */
+  @Inject
+  private ThreadDumpBean threadDump;
+
+  /**
+   * Gets the thread dump.
+   *
+   * @return the thread dump
+   */
+  public ThreadDumpBean getThreadDump() {
+    return threadDump;
+  }
+
+  /**
+   * Sets the thread dump.
+   *
+   * @param threadDump the new thread dump
+   */
+  public void setThreadDump(ThreadDumpBean threadDump) {
+    this.threadDump = threadDump;
+  }
+
+  @RequestMapping(path = "/downloadthreaddump.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    ThreadDumpInfo dump = threadDump.getDump(ServletRequestUtils.getIntParameter(request, "id", 0));
+    if (dump == null) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+    } else {
+      Utils.sendFile(request, response, threadDump.getFile(dump));
+    }
+    return null;
+  }
+
+  @Value("")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.threads;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import psiprobe.beans.StuckRequestDetectorBean;
+
+/**
+ * Lists the requests recently found stuck, with the stack samples of their worker threads.
+ */
+@Controller
+public class ListStuckRequestsController extends ParameterizableViewController {
+
+  /** The stuck request detector. */
+  @Inject
+  private StuckRequestDetectorBean stuckRequestDetector;
+
+  /**
+   * Gets the stuck request detector.
+   *
+   * @return the stuck request detector
+   */
+  public StuckRequestDetectorBean getStuckRequestDetector() {
+    return stuckRequestDetector;
+  }
+
+  /**
+   * Sets the stuck request detector.
+   *
+   * @param stuckRequestDetector the new stuck request detector
+   */
+  public void setStuckRequestDetector(StuckRequestDetectorBean stuckRequestDetector) {
+    this.stuckRequestDetector = stuckRequestDetector;
+  }
+
+  @RequestMapping(path = "/stuckrequests.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    return new ModelAndView(getViewName(), "incidents", stuckRequestDetector.getIncidents())
+        .addObject("threshold", stuckRequestDetector.getThreshold() / 1000);
+  }
+
+  @Value("stuckrequests")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
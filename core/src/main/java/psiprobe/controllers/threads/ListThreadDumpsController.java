@@ -0,0 +1,95 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.controllers.threads;
+
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.ParameterizableViewController;
+import psiprobe.beans.ThreadDumpBean;
+import psiprobe.model.ThreadDumpInfo;
+import psiprobe.model.ThreadStackGroup;
+
+/**
+ * Lists the thread dumps kept and compares two of them, the latest two unless told otherwise, by
+ * grouping their threads by state and stack.
+ */
+@Controller
+public class ListThreadDumpsController extends ParameterizableViewController {
+
+  /** The thread dump bean. */
+  @Inject
+  private ThreadDumpBean threadDump;
+
+  /**
+   * Gets the thread dump.
+   *
+   * @return the thread dump
+   */
+  public ThreadDumpBean getThreadDump() {
+    return threadDump;
+  }
+
+  /**
+   * Sets the thread dump.
+   *
+   * @param threadDump the new thread dump
+   */
+  public void setThreadDump(ThreadDumpBean threadDump) {
+    this.threadDump = threadDump;
+  }
+
+  @RequestMapping(path = "/threaddumps.htm")
+  @Override
+  public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
+      throws Exception {
+    return super.handleRequest(request, response);
+  }
+
+  @Override
+  protected ModelAndView handleRequestInternal(HttpServletRequest request,
+      HttpServletResponse response) throws Exception {
+
+    List<ThreadDumpInfo> dumps = threadDump.getDumps();
+    int fromId = ServletRequestUtils.getIntParameter(request, "from",
+        dumps.size() > 1 ? dumps.get(1).getId() : 0);
+    int toId = ServletRequestUtils.getIntParameter(request, "to",
+        dumps.isEmpty() ? 0 : dumps.get(0).getId());
+
+    ThreadDumpInfo from = threadDump.getDump(fromId);
+    ThreadDumpInfo to = threadDump.getDump(toId);
+    List<ThreadStackGroup> groups = Collections.emptyList();
+    if (to != null) {
+      groups = ThreadDumpBean.diff(
+          from != null && from != to ? threadDump.getStackGroups(from) : null,
+          threadDump.getStackGroups(to));
+    }
+    return new ModelAndView(getViewName())
+        .addObject("dumps", dumps)
+        .addObject("from", from)
+        .addObject("to", to)
+        .addObject("groups", groups);
+  }
+
+  @Value("threaddumps")
+  @Override
+  public void setViewName(String viewName) {
+    super.setViewName(viewName);
+  }
+
+}
@@ -21,6 +21,7 @@ import org.springframework.web.servlet.ModelAndView;
 import psiprobe.beans.ContainerListenerBean;
 import psiprobe.controllers.AbstractTomcatContainerController;
 import psiprobe.model.ThreadPool;
+import psiprobe.tools.TimeExpression;
 
 /**
  * Creates the list of http connection thread pools.
@@ -32,6 +33,9 @@ public class ListThreadPoolsController extends AbstractTomcatContainerController
   @Inject
   private ContainerListenerBean containerListenerBean;
 
+  /** The collection period. */
+  private long collectionPeriod;
+
   /**
    * Gets the container listener bean.
    *
@@ -50,6 +54,34 @@ public class ListThreadPoolsController extends AbstractTomcatContainerController
     this.containerListenerBean = containerListenerBean;
   }
 
+  /**
+   * Gets the collection period.
+   *
+   * @return the collection period
+   */
+  public long getCollectionPeriod() {
+    return collectionPeriod;
+  }
+
+  /**
+   * Sets the collection period.
+   *
+   * @param collectionPeriod the new collection period
+   */
+  public void setCollectionPeriod(long collectionPeriod) {
+    this.collectionPeriod = collectionPeriod;
+  }
+
+  /**
+   * Sets the collection period using expression.
+   *
+   * @param collectionPeriod the new collection period using expression
+   */
+  @Value("${psiprobe.beans.stats.collectors.threadpool.period}")
+  public void setCollectionPeriod(String collectionPeriod) {
+    this.collectionPeriod = TimeExpression.inSeconds(collectionPeriod);
+  }
+
   @RequestMapping(path = "/threadpools.htm")
   @Override
   public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -62,7 +94,8 @@ public class ListThreadPoolsController extends AbstractTomcatContainerController
       HttpServletResponse response) throws Exception {
 
     List<ThreadPool> pools = containerListenerBean.getThreadPools();
-    return new ModelAndView(getViewName()).addObject("pools", pools);
+    return new ModelAndView(getViewName()).addObject("pools", pools)
+        .addObject("collectionPeriod", getCollectionPeriod());
   }
 
   @Value("threadpools")
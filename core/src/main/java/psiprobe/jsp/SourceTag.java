@@ -0,0 +1,108 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.jsp;
+
+import java.io.IOException;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.TagSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import psiprobe.model.HighlightedSource;
+
+/**
+ * JSP tag writing a window of lines of highlighted source straight to the page, so that large
+ * sources are never assembled into a single string.
+ */
+public class SourceTag extends TagSupport {
+
+  /** The Constant serialVersionUID. */
+  private static final long serialVersionUID = 1L;
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SourceTag.class);
+
+  /** The value. */
+  private transient HighlightedSource value;
+
+  /** The first line, starting at 1. */
+  private int from = 1;
+
+  /** The number of lines. */
+  private int lines = HighlightedSource.DEFAULT_WINDOW;
+
+  /**
+   * Gets the value.
+   *
+   * @return the value
+   */
+  public HighlightedSource getValue() {
+    return value;
+  }
+
+  /**
+   * Sets the value.
+   *
+   * @param value the new value
+   */
+  public void setValue(HighlightedSource value) {
+    this.value = value;
+  }
+
+  /**
+   * Gets the from.
+   *
+   * @return the from
+   */
+  public int getFrom() {
+    return from;
+  }
+
+  /**
+   * Sets the from.
+   *
+   * @param from the new from
+   */
+  public void setFrom(int from) {
+    this.from = from;
+  }
+
+  /**
+   * Gets the lines.
+   *
+   * @return the lines
+   */
+  public int getLines() {
+    return lines;
+  }
+
+  /**
+   * Sets the lines.
+   *
+   * @param lines the new lines
+   */
+  public void setLines(int lines) {
+    this.lines = lines;
+  }
+
+  @Override
+  public int doStartTag() throws JspException {
+    if (value != null) {
+      try {
+        value.write(pageContext.getOut(), from, lines);
+      } catch (IOException e) {
+        logger.debug("Exception writing source to JspWriter", e);
+        throw new JspException(e);
+      }
+    }
+    return SKIP_BODY;
+  }
+
+}
@@ -59,9 +59,15 @@ public class Application implements Serializable {
   /** The serializable. */
   private boolean serializable;
 
-  /** The size. */
+  /** The size, or -1 while an estimate of it is pending. */
   private long size;
 
+  /** Half the width of the 95% confidence interval of an estimated size, or -1 if unknown. */
+  private long sizeMargin;
+
+  /** The estimated heap retained by the application, or -1 if not estimated yet. */
+  private long heapSize = -1;
+
   /** The servlet count. */
   private int servletCount;
 
@@ -326,6 +332,42 @@ public class Application implements Serializable {
     this.size += size;
   }
 
+  /**
+   * Gets half the width of the 95% confidence interval of the size when it is an estimate.
+   *
+   * @return the size margin, 0 if the size is exact or -1 if unknown
+   */
+  public long getSizeMargin() {
+    return sizeMargin;
+  }
+
+  /**
+   * Sets the size margin.
+   *
+   * @param sizeMargin the new size margin
+   */
+  public void setSizeMargin(long sizeMargin) {
+    this.sizeMargin = sizeMargin;
+  }
+
+  /**
+   * Gets the estimated heap retained by the application.
+   *
+   * @return the heap size, or -1 if not estimated yet
+   */
+  public long getHeapSize() {
+    return heapSize;
+  }
+
+  /**
+   * Sets the heap size.
+   *
+   * @param heapSize the new heap size
+   */
+  public void setHeapSize(long heapSize) {
+    this.heapSize = heapSize;
+  }
+
   /**
    * Checks if is serializable.
    *
@@ -0,0 +1,68 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+/**
+ * The estimated memory held by one session attribute name across all sessions of a web
+ * application.
+ */
+public class AttributeSizeEstimate {
+
+  /** The attribute name. */
+  private final String name;
+
+  /** The estimated size of the attribute in all sessions. */
+  private final long size;
+
+  /** The estimated number of sessions holding the attribute. */
+  private final int sessionCount;
+
+  /**
+   * Instantiates a new attribute size estimate.
+   *
+   * @param name the attribute name
+   * @param size the estimated size in all sessions
+   * @param sessionCount the estimated number of sessions holding the attribute
+   */
+  public AttributeSizeEstimate(String name, long size, int sessionCount) {
+    this.name = name;
+    this.size = size;
+    this.sessionCount = sessionCount;
+  }
+
+  /**
+   * Gets the name.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the estimated size in all sessions.
+   *
+   * @return the size
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the estimated number of sessions holding the attribute.
+   *
+   * @return the session count
+   */
+  public int getSessionCount() {
+    return sessionCount;
+  }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.Map;
+
+/**
+ * The values of the dashboard panels that changed since the version a client last saw.
+ */
+public class DashboardUpdate {
+
+  /** The version the values are current as of. */
+  private final long version;
+
+  /** The changed values, by panel and field. */
+  private final Map<String, Map<String, String>> panels;
+
+  /**
+   * Instantiates a new dashboard update.
+   *
+   * @param version the version
+   * @param panels the changed values by panel and field
+   */
+  public DashboardUpdate(long version, Map<String, Map<String, String>> panels) {
+    this.version = version;
+    this.panels = panels;
+  }
+
+  /**
+   * Gets the version, to be passed back by the client when it asks for the next update.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the changed values by panel and field.
+   *
+   * @return the panels
+   */
+  public Map<String, Map<String, String>> getPanels() {
+    return panels;
+  }
+
+  /**
+   * Checks if nothing changed.
+   *
+   * @return true, if no panel changed
+   */
+  public boolean isEmpty() {
+    return panels.isEmpty();
+  }
+
+}
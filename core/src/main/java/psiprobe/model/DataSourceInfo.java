@@ -0,0 +1,289 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+/**
+ * A POJO to represent a datasource. Pool statistics that the underlying pool does not expose are
+ * left at -1.
+ */
+public class DataSourceInfo {
+
+  /** The jdbc url. */
+  private String jdbcUrl;
+
+  /** The busy connections. */
+  private int busyConnections;
+
+  /** The established connections. */
+  private int establishedConnections;
+
+  /** The max connections. */
+  private int maxConnections;
+
+  /** The resettable. */
+  private boolean resettable;
+
+  /** The username. */
+  private String username;
+
+  /** The type. */
+  private String type;
+
+  /** The number of threads waiting to borrow a connection. */
+  private int waitingThreads = -1;
+
+  /** The mean time in milliseconds borrowers waited for a connection. */
+  private long meanWaitTime = -1;
+
+  /** The longest time in milliseconds a borrower waited for a connection. */
+  private long maxWaitTime = -1;
+
+  /** The number of connections borrowed since the pool started. */
+  private long borrowedCount = -1;
+
+  /** The number of connections returned since the pool started. */
+  private long returnedCount = -1;
+
+  /**
+   * Gets the jdbc url.
+   *
+   * @return the jdbc url
+   */
+  public String getJdbcUrl() {
+    return jdbcUrl;
+  }
+
+  /**
+   * Sets the jdbc url.
+   *
+   * @param jdbcUrl the new jdbc url
+   */
+  public void setJdbcUrl(String jdbcUrl) {
+    this.jdbcUrl = jdbcUrl;
+  }
+
+  /**
+   * Gets the busy connections.
+   *
+   * @return the busy connections
+   */
+  public int getBusyConnections() {
+    return busyConnections;
+  }
+
+  /**
+   * Sets the busy connections.
+   *
+   * @param busyConnections the new busy connections
+   */
+  public void setBusyConnections(int busyConnections) {
+    this.busyConnections = busyConnections;
+  }
+
+  /**
+   * Gets the established connections.
+   *
+   * @return the established connections
+   */
+  public int getEstablishedConnections() {
+    return establishedConnections;
+  }
+
+  /**
+   * Sets the established connections.
+   *
+   * @param establishedConnections the new established connections
+   */
+  public void setEstablishedConnections(int establishedConnections) {
+    this.establishedConnections = establishedConnections;
+  }
+
+  /**
+   * Gets the max connections.
+   *
+   * @return the max connections
+   */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * Sets the max connections.
+   *
+   * @param maxConnections the new max connections
+   */
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * Checks if is resettable.
+   *
+   * @return true, if is resettable
+   */
+  public boolean isResettable() {
+    return resettable;
+  }
+
+  /**
+   * Sets the resettable.
+   *
+   * @param resettable the new resettable
+   */
+  public void setResettable(boolean resettable) {
+    this.resettable = resettable;
+  }
+
+  /**
+   * Gets the username.
+   *
+   * @return the username
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * Sets the username.
+   *
+   * @param username the new username
+   */
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  /**
+   * Gets the type.
+   *
+   * @return the type
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Sets the type.
+   *
+   * @param type the new type
+   */
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  /**
+   * Gets the waiting threads.
+   *
+   * @return the waiting threads, or -1 if unknown
+   */
+  public int getWaitingThreads() {
+    return waitingThreads;
+  }
+
+  /**
+   * Sets the waiting threads.
+   *
+   * @param waitingThreads the new waiting threads
+   */
+  public void setWaitingThreads(int waitingThreads) {
+    this.waitingThreads = waitingThreads;
+  }
+
+  /**
+   * Gets the mean wait time.
+   *
+   * @return the mean wait time in milliseconds, or -1 if unknown
+   */
+  public long getMeanWaitTime() {
+    return meanWaitTime;
+  }
+
+  /**
+   * Sets the mean wait time.
+   *
+   * @param meanWaitTime the new mean wait time
+   */
+  public void setMeanWaitTime(long meanWaitTime) {
+    this.meanWaitTime = meanWaitTime;
+  }
+
+  /**
+   * Gets the max wait time.
+   *
+   * @return the max wait time in milliseconds, or -1 if unknown
+   */
+  public long getMaxWaitTime() {
+    return maxWaitTime;
+  }
+
+  /**
+   * Sets the max wait time.
+   *
+   * @param maxWaitTime the new max wait time
+   */
+  public void setMaxWaitTime(long maxWaitTime) {
+    this.maxWaitTime = maxWaitTime;
+  }
+
+  /**
+   * Gets the borrowed count.
+   *
+   * @return the borrowed count, or -1 if unknown
+   */
+  public long getBorrowedCount() {
+    return borrowedCount;
+  }
+
+  /**
+   * Sets the borrowed count.
+   *
+   * @param borrowedCount the new borrowed count
+   */
+  public void setBorrowedCount(long borrowedCount) {
+    this.borrowedCount = borrowedCount;
+  }
+
+  /**
+   * Gets the returned count.
+   *
+   * @return the returned count, or -1 if unknown
+   */
+  public long getReturnedCount() {
+    return returnedCount;
+  }
+
+  /**
+   * Sets the returned count.
+   *
+   * @param returnedCount the new returned count
+   */
+  public void setReturnedCount(long returnedCount) {
+    this.returnedCount = returnedCount;
+  }
+
+  /**
+   * Gets the busy score.
+   *
+   * @return the busy score
+   */
+  public int getBusyScore() {
+    return getMaxConnections() > 0 ? getBusyConnections() * 100 / getMaxConnections() : 0;
+  }
+
+  /**
+   * Gets the established score.
+   *
+   * @return the established score
+   */
+  public int getEstablishedScore() {
+    return getMaxConnections() > 0 ? getEstablishedConnections() * 100 / getMaxConnections() : 0;
+  }
+
+}
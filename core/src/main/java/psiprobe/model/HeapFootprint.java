@@ -0,0 +1,149 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+/**
+ * The estimated heap a web application retains through its servlet context attributes, its
+ * sessions and the static fields of its classes, counting objects of its own classes and of the
+ * JDK.
+ */
+public class HeapFootprint {
+
+  /** The application name. */
+  private final String applicationName;
+
+  /** The time the estimate was completed. */
+  private final long time;
+
+  /** The size retained by servlet context attributes. */
+  private final long contextAttributesSize;
+
+  /** The size retained by sessions, or -1 if unknown. */
+  private final long sessionsSize;
+
+  /** The size retained by static fields. */
+  private final long staticsSize;
+
+  /** The number of classes whose static fields were sized, or -1 if unknown. */
+  private final int classCount;
+
+  /** The number of collections the estimate was spread over. */
+  private final int runs;
+
+  /** Whether some roots were too large to be sized completely within one run. */
+  private final boolean truncated;
+
+  /**
+   * Instantiates a new heap footprint.
+   *
+   * @param applicationName the application name
+   * @param time the time the estimate was completed
+   * @param contextAttributesSize the size retained by servlet context attributes
+   * @param sessionsSize the size retained by sessions, or -1 if unknown
+   * @param staticsSize the size retained by static fields
+   * @param classCount the number of classes whose static fields were sized, or -1 if unknown
+   * @param runs the number of collections the estimate was spread over
+   * @param truncated whether some roots were only partly sized
+   */
+  public HeapFootprint(String applicationName, long time, long contextAttributesSize,
+      long sessionsSize, long staticsSize, int classCount, int runs, boolean truncated) {
+    this.applicationName = applicationName;
+    this.time = time;
+    this.contextAttributesSize = contextAttributesSize;
+    this.sessionsSize = sessionsSize;
+    this.staticsSize = staticsSize;
+    this.classCount = classCount;
+    this.runs = runs;
+    this.truncated = truncated;
+  }
+
+  /**
+   * Gets the application name.
+   *
+   * @return the application name
+   */
+  public String getApplicationName() {
+    return applicationName;
+  }
+
+  /**
+   * Gets the time the estimate was completed.
+   *
+   * @return the time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the size retained by servlet context attributes.
+   *
+   * @return the context attributes size
+   */
+  public long getContextAttributesSize() {
+    return contextAttributesSize;
+  }
+
+  /**
+   * Gets the size retained by sessions.
+   *
+   * @return the sessions size, or -1 if unknown
+   */
+  public long getSessionsSize() {
+    return sessionsSize;
+  }
+
+  /**
+   * Gets the size retained by static fields.
+   *
+   * @return the statics size
+   */
+  public long getStaticsSize() {
+    return staticsSize;
+  }
+
+  /**
+   * Gets the total size of the known parts.
+   *
+   * @return the total size
+   */
+  public long getTotal() {
+    return contextAttributesSize + Math.max(sessionsSize, 0) + staticsSize;
+  }
+
+  /**
+   * Gets the number of classes whose static fields were sized.
+   *
+   * @return the class count, or -1 if unknown
+   */
+  public int getClassCount() {
+    return classCount;
+  }
+
+  /**
+   * Gets the number of collections the estimate was spread over.
+   *
+   * @return the runs
+   */
+  public int getRuns() {
+    return runs;
+  }
+
+  /**
+   * Checks if some roots were only partly sized.
+   *
+   * @return true, if truncated
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Source code rendered to HTML by a syntax highlighter, kept as one fragment per line so that any
+ * window of lines can be written out without rendering the whole file again.
+ */
+public class HighlightedSource {
+
+  /** The default number of lines shown at once. */
+  public static final int DEFAULT_WINDOW = 2000;
+
+  /** The maximum number of lines shown at once. */
+  public static final int MAX_WINDOW = 20000;
+
+  /** The width of the line number column. */
+  private static final int LINE_NUMBER_WIDTH = 6;
+
+  /** The highlighted lines. */
+  private final String[] lines;
+
+  /** The number of characters of all lines. */
+  private final long size;
+
+  /**
+   * Instantiates a new highlighted source.
+   *
+   * @param lines the highlighted lines
+   */
+  public HighlightedSource(String[] lines) {
+    this.lines = lines;
+    long chars = 0;
+    for (String line : lines) {
+      chars += line.length();
+    }
+    this.size = chars;
+  }
+
+  /**
+   * Gets the line count.
+   *
+   * @return the line count
+   */
+  public int getLineCount() {
+    return lines.length;
+  }
+
+  /**
+   * Gets the number of characters of all lines.
+   *
+   * @return the size
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Writes a window of lines, each with its line number.
+   *
+   * @param out the writer
+   * @param from the first line to write, starting at 1
+   * @param count the maximum number of lines to write
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public void write(Writer out, int from, int count) throws IOException {
+    int start = Math.max(from, 1) - 1;
+    int end = (int) Math.min((long) start + Math.max(count, 0), lines.length);
+    for (int i = start; i < end; i++) {
+      String line = lines[i];
+      if (!line.isEmpty()) {
+        out.write("<span class=\"codeline\"><span class=\"linenum\">");
+        String number = Integer.toString(i + 1);
+        for (int pad = number.length(); pad < LINE_NUMBER_WIDTH; pad++) {
+          out.write("&nbsp;");
+        }
+        out.write(number);
+        out.write("</span>");
+        out.write(line);
+        out.write("</span>");
+      }
+      out.write('\n');
+    }
+  }
+
+}
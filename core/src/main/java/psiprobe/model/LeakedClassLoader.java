@@ -0,0 +1,136 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.Date;
+
+/**
+ * A class loader of a stopped, reloaded or undeployed web application that is still reachable
+ * after several old generation garbage collections.
+ */
+public class LeakedClassLoader {
+
+  /** The name of the application the loader belonged to. */
+  private final String applicationName;
+
+  /** The loader description. */
+  private final String loaderName;
+
+  /** The time the loader was retired by its application. */
+  private final long retiredTime;
+
+  /** The number of milliseconds since the loader was retired. */
+  private final long age;
+
+  /** The number of old generation collections the loader survived since it was retired. */
+  private final long gcCount;
+
+  /** The number of classes the loader defined, or -1 if unknown. */
+  private final int classCount;
+
+  /** The estimated size retained through static fields, or -1 if not estimated yet. */
+  private final long retainedSize;
+
+  /**
+   * Instantiates a new leaked class loader.
+   *
+   * @param applicationName the name of the application the loader belonged to
+   * @param loaderName the loader description
+   * @param retiredTime the time the loader was retired
+   * @param age the number of milliseconds since the loader was retired
+   * @param gcCount the number of old generation collections survived since it was retired
+   * @param classCount the number of classes the loader defined, or -1 if unknown
+   * @param retainedSize the estimated retained size, or -1 if not estimated yet
+   */
+  public LeakedClassLoader(String applicationName, String loaderName, long retiredTime, long age,
+      long gcCount, int classCount, long retainedSize) {
+    this.applicationName = applicationName;
+    this.loaderName = loaderName;
+    this.retiredTime = retiredTime;
+    this.age = age;
+    this.gcCount = gcCount;
+    this.classCount = classCount;
+    this.retainedSize = retainedSize;
+  }
+
+  /**
+   * Gets the application name.
+   *
+   * @return the application name
+   */
+  public String getApplicationName() {
+    return applicationName;
+  }
+
+  /**
+   * Gets the loader name.
+   *
+   * @return the loader name
+   */
+  public String getLoaderName() {
+    return loaderName;
+  }
+
+  /**
+   * Gets the time the loader was retired.
+   *
+   * @return the retired time
+   */
+  public long getRetiredTime() {
+    return retiredTime;
+  }
+
+  /**
+   * Gets the date the loader was retired.
+   *
+   * @return the retired date
+   */
+  public Date getRetiredDate() {
+    return new Date(retiredTime);
+  }
+
+  /**
+   * Gets the number of milliseconds since the loader was retired.
+   *
+   * @return the age
+   */
+  public long getAge() {
+    return age;
+  }
+
+  /**
+   * Gets the number of old generation collections survived since the loader was retired.
+   *
+   * @return the gc count
+   */
+  public long getGcCount() {
+    return gcCount;
+  }
+
+  /**
+   * Gets the number of classes the loader defined.
+   *
+   * @return the class count, or -1 if unknown
+   */
+  public int getClassCount() {
+    return classCount;
+  }
+
+  /**
+   * Gets the estimated size retained through static fields.
+   *
+   * @return the retained size, or -1 if not estimated yet
+   */
+  public long getRetainedSize() {
+    return retainedSize;
+  }
+
+}
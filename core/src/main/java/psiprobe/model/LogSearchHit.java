@@ -0,0 +1,104 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.List;
+
+/**
+ * A line of a log file matching a search, with its surrounding lines.
+ */
+public class LogSearchHit {
+
+  /** The offset of the line in the file. */
+  private long offset;
+
+  /** The line. */
+  private String line;
+
+  /** The lines before. */
+  private List<String> before;
+
+  /** The lines after. */
+  private List<String> after;
+
+  /**
+   * Gets the offset.
+   *
+   * @return the offset
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Sets the offset.
+   *
+   * @param offset the new offset
+   */
+  public void setOffset(long offset) {
+    this.offset = offset;
+  }
+
+  /**
+   * Gets the line.
+   *
+   * @return the line
+   */
+  public String getLine() {
+    return line;
+  }
+
+  /**
+   * Sets the line.
+   *
+   * @param line the new line
+   */
+  public void setLine(String line) {
+    this.line = line;
+  }
+
+  /**
+   * Gets the lines before.
+   *
+   * @return the lines before
+   */
+  public List<String> getBefore() {
+    return before;
+  }
+
+  /**
+   * Sets the lines before.
+   *
+   * @param before the new lines before
+   */
+  public void setBefore(List<String> before) {
+    this.before = before;
+  }
+
+  /**
+   * Gets the lines after.
+   *
+   * @return the lines after
+   */
+  public List<String> getAfter() {
+    return after;
+  }
+
+  /**
+   * Sets the lines after.
+   *
+   * @param after the new lines after
+   */
+  public void setAfter(List<String> after) {
+    this.after = after;
+  }
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.List;
+
+/**
+ * A page of log search hits.
+ */
+public class LogSearchResult {
+
+  /** The hits on this page. */
+  private List<LogSearchHit> hits;
+
+  /** The page, 0 based. */
+  private int page;
+
+  /** The page size. */
+  private int pageSize;
+
+  /** Whether there are hits past this page. */
+  private boolean more;
+
+  /** The start offset of the part of the file searched. */
+  private long startOffset;
+
+  /** The end offset of the part of the file searched. */
+  private long endOffset;
+
+  /** The number of bytes scanned. */
+  private long scanned;
+
+  /** The search time in milliseconds. */
+  private long time;
+
+  /**
+   * Gets the hits.
+   *
+   * @return the hits
+   */
+  public List<LogSearchHit> getHits() {
+    return hits;
+  }
+
+  /**
+   * Sets the hits.
+   *
+   * @param hits the new hits
+   */
+  public void setHits(List<LogSearchHit> hits) {
+    this.hits = hits;
+  }
+
+  /**
+   * Gets the page.
+   *
+   * @return the page
+   */
+  public int getPage() {
+    return page;
+  }
+
+  /**
+   * Sets the page.
+   *
+   * @param page the new page
+   */
+  public void setPage(int page) {
+    this.page = page;
+  }
+
+  /**
+   * Gets the page size.
+   *
+   * @return the page size
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets the page size.
+   *
+   * @param pageSize the new page size
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Checks if there are hits past this page.
+   *
+   * @return true, if there are more hits
+   */
+  public boolean isMore() {
+    return more;
+  }
+
+  /**
+   * Sets whether there are hits past this page.
+   *
+   * @param more the new more
+   */
+  public void setMore(boolean more) {
+    this.more = more;
+  }
+
+  /**
+   * Gets the start offset.
+   *
+   * @return the start offset
+   */
+  public long getStartOffset() {
+    return startOffset;
+  }
+
+  /**
+   * Sets the start offset.
+   *
+   * @param startOffset the new start offset
+   */
+  public void setStartOffset(long startOffset) {
+    this.startOffset = startOffset;
+  }
+
+  /**
+   * Gets the end offset.
+   *
+   * @return the end offset
+   */
+  public long getEndOffset() {
+    return endOffset;
+  }
+
+  /**
+   * Sets the end offset.
+   *
+   * @param endOffset the new end offset
+   */
+  public void setEndOffset(long endOffset) {
+    this.endOffset = endOffset;
+  }
+
+  /**
+   * Gets the number of bytes scanned.
+   *
+   * @return the scanned bytes
+   */
+  public long getScanned() {
+    return scanned;
+  }
+
+  /**
+   * Sets the number of bytes scanned.
+   *
+   * @param scanned the new scanned bytes
+   */
+  public void setScanned(long scanned) {
+    this.scanned = scanned;
+  }
+
+  /**
+   * Gets the search time.
+   *
+   * @return the time in milliseconds
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Sets the search time.
+   *
+   * @param time the new time in milliseconds
+   */
+  public void setTime(long time) {
+    this.time = time;
+  }
+
+}
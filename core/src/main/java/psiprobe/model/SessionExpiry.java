@@ -0,0 +1,370 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * The progress and counts of a run expiring the sessions matching a session search.
+ */
+public class SessionExpiry implements Serializable {
+
+  /** The Constant serialVersionUID. */
+  private static final long serialVersionUID = 1L;
+
+  /** The search info. */
+  private SessionSearchInfo searchInfo;
+
+  /** The application name, or null for all applications. */
+  private String applicationName;
+
+  /** Whether matching sessions are only counted, not expired. */
+  private boolean dryRun;
+
+  /** The maximum number of sessions expired per second, or 0 for no limit. */
+  private int rate;
+
+  /** The start time. */
+  private volatile long startTime;
+
+  /** The end time, or 0 while running. */
+  private volatile long endTime;
+
+  /** Whether the run is going on. */
+  private volatile boolean running;
+
+  /** Whether the run has been cancelled. */
+  private volatile boolean cancelled;
+
+  /** The number of sessions to scan. */
+  private volatile int total;
+
+  /** The number of sessions scanned. */
+  private volatile int scanned;
+
+  /** The number of sessions matched. */
+  private volatile int matched;
+
+  /** The number of sessions expired. */
+  private volatile int expired;
+
+  /** The number of matched sessions that were gone or no longer matched when expired. */
+  private volatile int skipped;
+
+  /** The number of sessions which failed to expire. */
+  private volatile int failed;
+
+  /**
+   * Gets the search info.
+   *
+   * @return the search info
+   */
+  public SessionSearchInfo getSearchInfo() {
+    return searchInfo;
+  }
+
+  /**
+   * Sets the search info.
+   *
+   * @param searchInfo the new search info
+   */
+  public void setSearchInfo(SessionSearchInfo searchInfo) {
+    this.searchInfo = searchInfo;
+  }
+
+  /**
+   * Gets the application name.
+   *
+   * @return the application name, or null for all applications
+   */
+  public String getApplicationName() {
+    return applicationName;
+  }
+
+  /**
+   * Sets the application name.
+   *
+   * @param applicationName the new application name
+   */
+  public void setApplicationName(String applicationName) {
+    this.applicationName = applicationName;
+  }
+
+  /**
+   * Checks if is dry run.
+   *
+   * @return true, if is dry run
+   */
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  /**
+   * Sets the dry run.
+   *
+   * @param dryRun the new dry run
+   */
+  public void setDryRun(boolean dryRun) {
+    this.dryRun = dryRun;
+  }
+
+  /**
+   * Gets the rate.
+   *
+   * @return the maximum number of sessions expired per second, or 0 for no limit
+   */
+  public int getRate() {
+    return rate;
+  }
+
+  /**
+   * Sets the rate.
+   *
+   * @param rate the new rate
+   */
+  public void setRate(int rate) {
+    this.rate = rate;
+  }
+
+  /**
+   * Gets the start time.
+   *
+   * @return the start time
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Sets the start time.
+   *
+   * @param startTime the new start time
+   */
+  public void setStartTime(long startTime) {
+    this.startTime = startTime;
+  }
+
+  /**
+   * Gets the start date.
+   *
+   * @return the start date
+   */
+  public Date getStartDate() {
+    return new Date(startTime);
+  }
+
+  /**
+   * Gets the end time.
+   *
+   * @return the end time, or 0 while running
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Sets the end time.
+   *
+   * @param endTime the new end time
+   */
+  public void setEndTime(long endTime) {
+    this.endTime = endTime;
+  }
+
+  /**
+   * Gets the time the run took so far.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getDuration() {
+    long end = endTime;
+    return (end > 0 ? end : System.currentTimeMillis()) - startTime;
+  }
+
+  /**
+   * Checks if is running.
+   *
+   * @return true, if is running
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Sets the running.
+   *
+   * @param running the new running
+   */
+  public void setRunning(boolean running) {
+    this.running = running;
+  }
+
+  /**
+   * Checks if is cancelled.
+   *
+   * @return true, if is cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Sets the cancelled.
+   *
+   * @param cancelled the new cancelled
+   */
+  public void setCancelled(boolean cancelled) {
+    this.cancelled = cancelled;
+  }
+
+  /**
+   * Gets the total.
+   *
+   * @return the number of sessions to scan
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * Sets the total.
+   *
+   * @param total the new total
+   */
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  /**
+   * Gets the scanned.
+   *
+   * @return the scanned
+   */
+  public int getScanned() {
+    return scanned;
+  }
+
+  /**
+   * Sets the scanned.
+   *
+   * @param scanned the new scanned
+   */
+  public void setScanned(int scanned) {
+    this.scanned = scanned;
+  }
+
+  /**
+   * Gets the matched.
+   *
+   * @return the matched
+   */
+  public int getMatched() {
+    return matched;
+  }
+
+  /**
+   * Sets the matched.
+   *
+   * @param matched the new matched
+   */
+  public void setMatched(int matched) {
+    this.matched = matched;
+  }
+
+  /**
+   * Gets the expired.
+   *
+   * @return the expired
+   */
+  public int getExpired() {
+    return expired;
+  }
+
+  /**
+   * Sets the expired.
+   *
+   * @param expired the new expired
+   */
+  public void setExpired(int expired) {
+    this.expired = expired;
+  }
+
+  /**
+   * Gets the skipped.
+   *
+   * @return the skipped
+   */
+  public int getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * Sets the skipped.
+   *
+   * @param skipped the new skipped
+   */
+  public void setSkipped(int skipped) {
+    this.skipped = skipped;
+  }
+
+  /**
+   * Gets the failed.
+   *
+   * @return the failed
+   */
+  public int getFailed() {
+    return failed;
+  }
+
+  /**
+   * Sets the failed.
+   *
+   * @param failed the new failed
+   */
+  public void setFailed(int failed) {
+    this.failed = failed;
+  }
+
+  /**
+   * Gets the number of sessions dealt with, a matched session only once it has been expired,
+   * skipped or failed unless this is a dry run.
+   *
+   * @return the number of sessions done
+   */
+  public int getDone() {
+    return dryRun ? scanned : scanned - matched + expired + skipped + failed;
+  }
+
+  /**
+   * Gets the progress.
+   *
+   * @return the progress in percent
+   */
+  public int getProgress() {
+    int count = total;
+    return count > 0 ? (int) (getDone() * 100L / count) : 100;
+  }
+
+  /**
+   * Gets the estimated time left.
+   *
+   * @return the estimated time left in milliseconds, or -1 if unknown
+   */
+  public long getEta() {
+    int done = getDone();
+    if (!running || done == 0) {
+      return -1;
+    }
+    return (System.currentTimeMillis() - startTime) * (total - done) / done;
+  }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.List;
+
+/**
+ * The memory held by the sessions of a web application, extrapolated from a random sample of them.
+ */
+public class SessionSizeEstimate {
+
+  /** The application name. */
+  private final String applicationName;
+
+  /** The time the estimate was made. */
+  private final long time;
+
+  /** The number of sessions. */
+  private final int sessionCount;
+
+  /** The number of sessions sized. */
+  private final int sampledCount;
+
+  /** The estimated size of all sessions. */
+  private final long size;
+
+  /** Half the width of the 95% confidence interval of the size, or -1 if unknown. */
+  private final long margin;
+
+  /** The time it took to size the sample, in milliseconds. */
+  private final long duration;
+
+  /** The attributes holding the most memory, largest first. */
+  private final List<AttributeSizeEstimate> topAttributes;
+
+  /**
+   * Instantiates a new session size estimate.
+   *
+   * @param applicationName the application name
+   * @param time the time the estimate was made
+   * @param sessionCount the number of sessions
+   * @param sampledCount the number of sessions sized
+   * @param size the estimated size of all sessions
+   * @param margin half the width of the 95% confidence interval, or -1 if unknown
+   * @param duration the time it took to size the sample, in milliseconds
+   * @param topAttributes the attributes holding the most memory, largest first
+   */
+  public SessionSizeEstimate(String applicationName, long time, int sessionCount,
+      int sampledCount, long size, long margin, long duration,
+      List<AttributeSizeEstimate> topAttributes) {
+    this.applicationName = applicationName;
+    this.time = time;
+    this.sessionCount = sessionCount;
+    this.sampledCount = sampledCount;
+    this.size = size;
+    this.margin = margin;
+    this.duration = duration;
+    this.topAttributes = topAttributes;
+  }
+
+  /**
+   * Gets the application name.
+   *
+   * @return the application name
+   */
+  public String getApplicationName() {
+    return applicationName;
+  }
+
+  /**
+   * Gets the time the estimate was made.
+   *
+   * @return the time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the number of sessions.
+   *
+   * @return the session count
+   */
+  public int getSessionCount() {
+    return sessionCount;
+  }
+
+  /**
+   * Gets the number of sessions sized.
+   *
+   * @return the sampled count
+   */
+  public int getSampledCount() {
+    return sampledCount;
+  }
+
+  /**
+   * Gets the estimated size of all sessions.
+   *
+   * @return the size
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Gets half the width of the 95% confidence interval of the size.
+   *
+   * @return the margin, or -1 if unknown
+   */
+  public long getMargin() {
+    return margin;
+  }
+
+  /**
+   * Gets the time it took to size the sample.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the attributes holding the most memory, largest first.
+   *
+   * @return the top attributes
+   */
+  public List<AttributeSizeEstimate> getTopAttributes() {
+    return topAttributes;
+  }
+
+  /**
+   * Checks if every session was sized, in which case the size is exact.
+   *
+   * @return true, if exact
+   */
+  public boolean isExact() {
+    return sampledCount == sessionCount;
+  }
+
+}
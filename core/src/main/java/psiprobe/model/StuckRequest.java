@@ -0,0 +1,216 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A request that was still being serviced after the threshold of its application, along with
+ * stack samples of its worker thread taken while it was stuck. The first sample is always kept,
+ * so that where the request got stuck is not lost when later samples are dropped.
+ */
+public class StuckRequest {
+
+  /** The worker thread name. */
+  private final String workerThreadName;
+
+  /** The method. */
+  private final String method;
+
+  /** The uri. */
+  private final String uri;
+
+  /** The query string. */
+  private final String queryString;
+
+  /** The application name, or null if no application matches the uri. */
+  private final String applicationName;
+
+  /** The time the request started. */
+  private final long startTime;
+
+  /** The threshold the request exceeded, in milliseconds. */
+  private final long threshold;
+
+  /** The last time the request was seen still running. */
+  private volatile long lastSeen;
+
+  /** Whether the request is no longer stuck. */
+  private volatile boolean finished;
+
+  /** The samples, oldest first. */
+  private final List<StuckRequestSample> samples = new ArrayList<>();
+
+  /**
+   * Instantiates a new stuck request.
+   *
+   * @param workerThreadName the worker thread name
+   * @param method the method
+   * @param uri the uri
+   * @param queryString the query string
+   * @param applicationName the application name, or null
+   * @param startTime the time the request started
+   * @param threshold the threshold the request exceeded, in milliseconds
+   */
+  public StuckRequest(String workerThreadName, String method, String uri, String queryString,
+      String applicationName, long startTime, long threshold) {
+    this.workerThreadName = workerThreadName;
+    this.method = method;
+    this.uri = uri;
+    this.queryString = queryString;
+    this.applicationName = applicationName;
+    this.startTime = startTime;
+    this.threshold = threshold;
+    this.lastSeen = startTime;
+  }
+
+  /**
+   * Gets the worker thread name.
+   *
+   * @return the worker thread name
+   */
+  public String getWorkerThreadName() {
+    return workerThreadName;
+  }
+
+  /**
+   * Gets the method.
+   *
+   * @return the method
+   */
+  public String getMethod() {
+    return method;
+  }
+
+  /**
+   * Gets the uri.
+   *
+   * @return the uri
+   */
+  public String getUri() {
+    return uri;
+  }
+
+  /**
+   * Gets the query string.
+   *
+   * @return the query string
+   */
+  public String getQueryString() {
+    return queryString;
+  }
+
+  /**
+   * Gets the application name.
+   *
+   * @return the application name, or null if no application matches the uri
+   */
+  public String getApplicationName() {
+    return applicationName;
+  }
+
+  /**
+   * Gets the time the request started.
+   *
+   * @return the start time
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Gets the start date.
+   *
+   * @return the start date
+   */
+  public Date getStartDate() {
+    return new Date(startTime);
+  }
+
+  /**
+   * Gets the threshold the request exceeded.
+   *
+   * @return the threshold in milliseconds
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Gets the last time the request was seen still running.
+   *
+   * @return the last seen time
+   */
+  public long getLastSeen() {
+    return lastSeen;
+  }
+
+  /**
+   * Sets the last seen time.
+   *
+   * @param lastSeen the new last seen time
+   */
+  public void setLastSeen(long lastSeen) {
+    this.lastSeen = lastSeen;
+  }
+
+  /**
+   * Gets how long the request had been running when last seen.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getDuration() {
+    return lastSeen - startTime;
+  }
+
+  /**
+   * Checks if the request is no longer stuck.
+   *
+   * @return true, if finished
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Sets whether the request is no longer stuck.
+   *
+   * @param finished the new finished
+   */
+  public void setFinished(boolean finished) {
+    this.finished = finished;
+  }
+
+  /**
+   * Gets the samples.
+   *
+   * @return a copy of the samples, oldest first
+   */
+  public synchronized List<StuckRequestSample> getSamples() {
+    return new ArrayList<>(samples);
+  }
+
+  /**
+   * Adds a sample, dropping the oldest sample but the first when there are too many.
+   *
+   * @param sample the sample
+   * @param maxSamples the maximum number of samples kept
+   */
+  public synchronized void addSample(StuckRequestSample sample, int maxSamples) {
+    samples.add(sample);
+    if (samples.size() > Math.max(maxSamples, 2)) {
+      samples.remove(1);
+    }
+  }
+
+}
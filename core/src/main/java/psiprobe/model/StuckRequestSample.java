@@ -0,0 +1,94 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The stack of the worker thread of a stuck request at one point in time.
+ */
+public class StuckRequestSample {
+
+  /** The time the sample was taken. */
+  private final long time;
+
+  /** The thread state. */
+  private final String threadState;
+
+  /** The lock the thread waits for, or null. */
+  private final String lockName;
+
+  /** The stack, innermost frame first. */
+  private final List<ThreadStackElement> stack;
+
+  /**
+   * Instantiates a new stuck request sample.
+   *
+   * @param time the time the sample was taken
+   * @param threadState the thread state
+   * @param lockName the lock the thread waits for, or null
+   * @param stack the stack, innermost frame first
+   */
+  public StuckRequestSample(long time, String threadState, String lockName,
+      List<ThreadStackElement> stack) {
+    this.time = time;
+    this.threadState = threadState;
+    this.lockName = lockName;
+    this.stack = stack;
+  }
+
+  /**
+   * Gets the time the sample was taken.
+   *
+   * @return the time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the date the sample was taken.
+   *
+   * @return the date
+   */
+  public Date getDate() {
+    return new Date(time);
+  }
+
+  /**
+   * Gets the thread state.
+   *
+   * @return the thread state
+   */
+  public String getThreadState() {
+    return threadState;
+  }
+
+  /**
+   * Gets the lock the thread waits for.
+   *
+   * @return the lock name, or null
+   */
+  public String getLockName() {
+    return lockName;
+  }
+
+  /**
+   * Gets the stack.
+   *
+   * @return the stack, innermost frame first
+   */
+  public List<ThreadStackElement> getStack() {
+    return stack;
+  }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.Date;
+
+/**
+ * A thread dump kept on disk by the thread dump bean.
+ */
+public class ThreadDumpInfo {
+
+  /** The id. */
+  private final int id;
+
+  /** The time the dump was taken. */
+  private final long time;
+
+  /** Why the dump was taken. */
+  private final String reason;
+
+  /** The thread count. */
+  private final int threadCount;
+
+  /** The file name. */
+  private final String fileName;
+
+  /** The compressed size of the file. */
+  private final long size;
+
+  /**
+   * Instantiates a new thread dump info.
+   *
+   * @param id the id
+   * @param time the time the dump was taken
+   * @param reason why the dump was taken
+   * @param threadCount the thread count
+   * @param fileName the file name
+   * @param size the compressed size of the file
+   */
+  public ThreadDumpInfo(int id, long time, String reason, int threadCount, String fileName,
+      long size) {
+    this.id = id;
+    this.time = time;
+    this.reason = reason;
+    this.threadCount = threadCount;
+    this.fileName = fileName;
+    this.size = size;
+  }
+
+  /**
+   * Gets the id.
+   *
+   * @return the id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Gets the time.
+   *
+   * @return the time the dump was taken
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the date.
+   *
+   * @return the date the dump was taken
+   */
+  public Date getDate() {
+    return new Date(time);
+  }
+
+  /**
+   * Gets the reason.
+   *
+   * @return why the dump was taken
+   */
+  public String getReason() {
+    return reason;
+  }
+
+  /**
+   * Gets the thread count.
+   *
+   * @return the thread count, or -1 if unknown
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Gets the file name.
+   *
+   * @return the file name
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Gets the size.
+   *
+   * @return the compressed size of the file
+   */
+  public long getSize() {
+    return size;
+  }
+
+}
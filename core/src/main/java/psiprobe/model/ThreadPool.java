@@ -33,6 +33,9 @@ public class ThreadPool {
   /** The current threads busy. */
   private int currentThreadsBusy;
 
+  /** The number of tasks waiting for a thread, or -1 if the pool does not tell. */
+  private int queueSize = -1;
+
   /**
    * Gets the name.
    *
@@ -141,4 +144,31 @@ public class ThreadPool {
     this.currentThreadsBusy = currentThreadsBusy;
   }
 
+  /**
+   * Gets the number of tasks waiting for a thread.
+   *
+   * @return the queue size, or -1 if the pool does not tell
+   */
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  /**
+   * Sets the queue size.
+   *
+   * @param queueSize the new queue size
+   */
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  /**
+   * Gets the busy threads as a percentage of the max threads.
+   *
+   * @return the saturation, or -1 if the pool has no max threads
+   */
+  public int getSaturation() {
+    return maxThreads > 0 ? (int) (currentThreadsBusy * 100L / maxThreads) : -1;
+  }
+
 }
@@ -0,0 +1,117 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The threads of a thread dump sharing the same state and stack, counted in two dumps when they
+ * are compared.
+ */
+public class ThreadStackGroup {
+
+  /** The thread state. */
+  private final String state;
+
+  /** The stack frames, top first. */
+  private final List<String> frames;
+
+  /** The names of the threads in the later dump. */
+  private final List<String> threadNames = new ArrayList<>();
+
+  /** The number of threads in the earlier dump. */
+  private int previousCount;
+
+  /**
+   * Instantiates a new thread stack group.
+   *
+   * @param state the thread state
+   * @param frames the stack frames, top first
+   */
+  public ThreadStackGroup(String state, List<String> frames) {
+    this.state = state;
+    this.frames = frames;
+  }
+
+  /**
+   * Gets the state.
+   *
+   * @return the thread state
+   */
+  public String getState() {
+    return state;
+  }
+
+  /**
+   * Gets the frames.
+   *
+   * @return the stack frames, top first
+   */
+  public List<String> getFrames() {
+    return frames;
+  }
+
+  /**
+   * Gets the top frame.
+   *
+   * @return the top frame, or null if the stack is empty
+   */
+  public String getTopFrame() {
+    return frames.isEmpty() ? null : frames.get(0);
+  }
+
+  /**
+   * Gets the thread names.
+   *
+   * @return the names of the threads in the later dump
+   */
+  public List<String> getThreadNames() {
+    return threadNames;
+  }
+
+  /**
+   * Gets the count.
+   *
+   * @return the number of threads in the later dump
+   */
+  public int getCount() {
+    return threadNames.size();
+  }
+
+  /**
+   * Gets the previous count.
+   *
+   * @return the number of threads in the earlier dump
+   */
+  public int getPreviousCount() {
+    return previousCount;
+  }
+
+  /**
+   * Sets the previous count.
+   *
+   * @param previousCount the new number of threads in the earlier dump
+   */
+  public void setPreviousCount(int previousCount) {
+    this.previousCount = previousCount;
+  }
+
+  /**
+   * Gets the delta.
+   *
+   * @return how many more threads the later dump has in this group
+   */
+  public int getDelta() {
+    return getCount() - previousCount;
+  }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model.jmx;
+
+import java.util.Date;
+
+/**
+ * A class histogram of the heap, kept as parallel primitive tables ordered as reported, largest
+ * classes first.
+ */
+public class ClassHistogram {
+
+  /** The id, increasing with every snapshot. */
+  private final int id;
+
+  /** The time the snapshot was taken. */
+  private final long time;
+
+  /** The class names. */
+  private final String[] classNames;
+
+  /** The instance counts. */
+  private final long[] instances;
+
+  /** The bytes held by the instances. */
+  private final long[] bytes;
+
+  /** The total instance count. */
+  private final long totalInstances;
+
+  /** The total bytes. */
+  private final long totalBytes;
+
+  /**
+   * Instantiates a new class histogram.
+   *
+   * @param id the id
+   * @param time the time the snapshot was taken
+   * @param classNames the class names
+   * @param instances the instance counts
+   * @param bytes the bytes held by the instances
+   */
+  public ClassHistogram(int id, long time, String[] classNames, long[] instances, long[] bytes) {
+    this.id = id;
+    this.time = time;
+    this.classNames = classNames;
+    this.instances = instances;
+    this.bytes = bytes;
+    long sumInstances = 0;
+    long sumBytes = 0;
+    for (int i = 0; i < classNames.length; i++) {
+      sumInstances += instances[i];
+      sumBytes += bytes[i];
+    }
+    this.totalInstances = sumInstances;
+    this.totalBytes = sumBytes;
+  }
+
+  /**
+   * Gets the id.
+   *
+   * @return the id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Gets the time the snapshot was taken.
+   *
+   * @return the time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the date the snapshot was taken.
+   *
+   * @return the date
+   */
+  public Date getDate() {
+    return new Date(time);
+  }
+
+  /**
+   * Gets the number of classes.
+   *
+   * @return the class count
+   */
+  public int getClassCount() {
+    return classNames.length;
+  }
+
+  /**
+   * Gets the class name of an entry.
+   *
+   * @param index the index of the entry
+   * @return the class name
+   */
+  public String getClassName(int index) {
+    return classNames[index];
+  }
+
+  /**
+   * Gets the instance count of an entry.
+   *
+   * @param index the index of the entry
+   * @return the instance count
+   */
+  public long getInstances(int index) {
+    return instances[index];
+  }
+
+  /**
+   * Gets the bytes of an entry.
+   *
+   * @param index the index of the entry
+   * @return the bytes
+   */
+  public long getBytes(int index) {
+    return bytes[index];
+  }
+
+  /**
+   * Gets the total instance count.
+   *
+   * @return the total instances
+   */
+  public long getTotalInstances() {
+    return totalInstances;
+  }
+
+  /**
+   * Gets the total bytes.
+   *
+   * @return the total bytes
+   */
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model.jmx;
+
+/**
+ * The change of the instances of a class between two class histograms.
+ */
+public class ClassHistogramDelta {
+
+  /** The class name. */
+  private final String className;
+
+  /** The instance count in the later histogram. */
+  private final long instances;
+
+  /** The bytes in the later histogram. */
+  private final long bytes;
+
+  /** The growth of the instance count. */
+  private final long instancesDelta;
+
+  /** The growth of the bytes. */
+  private final long bytesDelta;
+
+  /**
+   * Instantiates a new class histogram delta.
+   *
+   * @param className the class name
+   * @param instances the instance count in the later histogram
+   * @param bytes the bytes in the later histogram
+   * @param instancesDelta the growth of the instance count
+   * @param bytesDelta the growth of the bytes
+   */
+  public ClassHistogramDelta(String className, long instances, long bytes, long instancesDelta,
+      long bytesDelta) {
+    this.className = className;
+    this.instances = instances;
+    this.bytes = bytes;
+    this.instancesDelta = instancesDelta;
+    this.bytesDelta = bytesDelta;
+  }
+
+  /**
+   * Gets the class name.
+   *
+   * @return the class name
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Gets the instance count in the later histogram.
+   *
+   * @return the instances
+   */
+  public long getInstances() {
+    return instances;
+  }
+
+  /**
+   * Gets the bytes in the later histogram.
+   *
+   * @return the bytes
+   */
+  public long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Gets the growth of the instance count.
+   *
+   * @return the instances delta
+   */
+  public long getInstancesDelta() {
+    return instancesDelta;
+  }
+
+  /**
+   * Gets the growth of the bytes.
+   *
+   * @return the bytes delta
+   */
+  public long getBytesDelta() {
+    return bytesDelta;
+  }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model.jmx;
+
+/**
+ * A single garbage collection cycle as reported by a garbage collector notification.
+ */
+public class GcEvent {
+
+  /** The garbage collector name. */
+  private String name;
+
+  /** The action, e.g. "end of minor GC". */
+  private String action;
+
+  /** The cause. */
+  private String cause;
+
+  /** The start time, in milliseconds since the epoch. */
+  private long startTime;
+
+  /** The duration in milliseconds. */
+  private long duration;
+
+  /** The bytes promoted into tenured pools. */
+  private long promoted;
+
+  /** The bytes allocated in young pools since the previous cycle. */
+  private long allocated;
+
+  /**
+   * Gets the name.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the name.
+   *
+   * @param name the new name
+   */
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Gets the action.
+   *
+   * @return the action
+   */
+  public String getAction() {
+    return action;
+  }
+
+  /**
+   * Sets the action.
+   *
+   * @param action the new action
+   */
+  public void setAction(String action) {
+    this.action = action;
+  }
+
+  /**
+   * Gets the cause.
+   *
+   * @return the cause
+   */
+  public String getCause() {
+    return cause;
+  }
+
+  /**
+   * Sets the cause.
+   *
+   * @param cause the new cause
+   */
+  public void setCause(String cause) {
+    this.cause = cause;
+  }
+
+  /**
+   * Gets the start time.
+   *
+   * @return the start time
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Sets the start time.
+   *
+   * @param startTime the new start time
+   */
+  public void setStartTime(long startTime) {
+    this.startTime = startTime;
+  }
+
+  /**
+   * Gets the duration.
+   *
+   * @return the duration
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Sets the duration.
+   *
+   * @param duration the new duration
+   */
+  public void setDuration(long duration) {
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the promoted bytes.
+   *
+   * @return the promoted bytes
+   */
+  public long getPromoted() {
+    return promoted;
+  }
+
+  /**
+   * Sets the promoted bytes.
+   *
+   * @param promoted the new promoted bytes
+   */
+  public void setPromoted(long promoted) {
+    this.promoted = promoted;
+  }
+
+  /**
+   * Gets the allocated bytes.
+   *
+   * @return the allocated bytes
+   */
+  public long getAllocated() {
+    return allocated;
+  }
+
+  /**
+   * Sets the allocated bytes.
+   *
+   * @param allocated the new allocated bytes
+   */
+  public void setAllocated(long allocated) {
+    this.allocated = allocated;
+  }
+
+}
@@ -30,6 +30,21 @@ public class Summary implements Serializable {
   /** The out of date count. */
   private int outOfDateCount;
 
+  /** The number of items to be processed by the running compilation. */
+  private volatile int total;
+
+  /** The number of items processed so far by the running compilation. */
+  private volatile int processed;
+
+  /** The time the running compilation started. */
+  private volatile long startTime;
+
+  /** Whether a compilation is running. */
+  private volatile boolean running;
+
+  /** Whether the running compilation has been asked to stop. */
+  private volatile boolean cancelled;
+
   /**
    * Gets the name.
    *
@@ -84,4 +99,126 @@ public class Summary implements Serializable {
     this.outOfDateCount = outOfDateCount;
   }
 
+  /**
+   * Gets the total.
+   *
+   * @return the total
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * Sets the total.
+   *
+   * @param total the new total
+   */
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  /**
+   * Gets the processed.
+   *
+   * @return the processed
+   */
+  public int getProcessed() {
+    return processed;
+  }
+
+  /**
+   * Sets the processed.
+   *
+   * @param processed the new processed
+   */
+  public void setProcessed(int processed) {
+    this.processed = processed;
+  }
+
+  /**
+   * Increments the processed count, called by compiler threads as they finish an item.
+   */
+  public synchronized void incrementProcessed() {
+    processed++;
+  }
+
+  /**
+   * Gets the start time.
+   *
+   * @return the start time
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Sets the start time.
+   *
+   * @param startTime the new start time
+   */
+  public void setStartTime(long startTime) {
+    this.startTime = startTime;
+  }
+
+  /**
+   * Checks if is running.
+   *
+   * @return true, if is running
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Sets the running.
+   *
+   * @param running the new running
+   */
+  public void setRunning(boolean running) {
+    this.running = running;
+  }
+
+  /**
+   * Checks if is cancelled.
+   *
+   * @return true, if is cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Sets the cancelled.
+   *
+   * @param cancelled the new cancelled
+   */
+  public void setCancelled(boolean cancelled) {
+    this.cancelled = cancelled;
+  }
+
+  /**
+   * Gets the percentage of items processed by the running compilation.
+   *
+   * @return the progress, 0 to 100
+   */
+  public int getProgress() {
+    int count = total;
+    return count > 0 ? (int) (processed * 100L / count) : 0;
+  }
+
+  /**
+   * Gets the estimated time to complete the running compilation, extrapolated from the average
+   * time spent per processed item.
+   *
+   * @return the estimated remaining time in milliseconds, or -1 if not known yet
+   */
+  public long getEta() {
+    int done = processed;
+    if (!running || done == 0) {
+      return -1;
+    }
+    long elapsed = System.currentTimeMillis() - startTime;
+    return elapsed * (total - done) / done;
+  }
+
 }
@@ -0,0 +1,85 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model.oshi;
+
+import java.util.ArrayList;
+import java.util.List;
+import oshi.software.os.OSProcess;
+
+/**
+ * Snapshot of the operating system process table.
+ */
+public class ProcessesInfo {
+
+  /** The process count. */
+  private int processCount;
+
+  /** The thread count. */
+  private int threadCount;
+
+  /** The top processes, sorted by cpu usage. */
+  private List<OSProcess> topProcesses = new ArrayList<>();
+
+  /**
+   * Gets the process count.
+   *
+   * @return the process count
+   */
+  public int getProcessCount() {
+    return processCount;
+  }
+
+  /**
+   * Sets the process count.
+   *
+   * @param processCount the new process count
+   */
+  public void setProcessCount(int processCount) {
+    this.processCount = processCount;
+  }
+
+  /**
+   * Gets the thread count.
+   *
+   * @return the thread count
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Sets the thread count.
+   *
+   * @param threadCount the new thread count
+   */
+  public void setThreadCount(int threadCount) {
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Gets the top processes.
+   *
+   * @return the top processes
+   */
+  public List<OSProcess> getTopProcesses() {
+    return topProcesses;
+  }
+
+  /**
+   * Sets the top processes.
+   *
+   * @param topProcesses the new top processes
+   */
+  public void setTopProcesses(List<OSProcess> topProcesses) {
+    this.topProcesses = topProcesses;
+  }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model.oshi;
+
+/**
+ * Snapshot of the hardware sensors readings.
+ */
+public class SensorsInfo {
+
+  /** The cpu temperature. */
+  private double cpuTemperature;
+
+  /** The fan speeds. */
+  private int[] fanSpeeds;
+
+  /** The cpu voltage. */
+  private double cpuVoltage;
+
+  /**
+   * Gets the cpu temperature.
+   *
+   * @return the cpu temperature in degrees Celsius
+   */
+  public double getCpuTemperature() {
+    return cpuTemperature;
+  }
+
+  /**
+   * Sets the cpu temperature.
+   *
+   * @param cpuTemperature the new cpu temperature
+   */
+  public void setCpuTemperature(double cpuTemperature) {
+    this.cpuTemperature = cpuTemperature;
+  }
+
+  /**
+   * Gets the fan speeds.
+   *
+   * @return the fan speeds in rpm
+   */
+  public int[] getFanSpeeds() {
+    return fanSpeeds;
+  }
+
+  /**
+   * Sets the fan speeds.
+   *
+   * @param fanSpeeds the new fan speeds
+   */
+  public void setFanSpeeds(int[] fanSpeeds) {
+    this.fanSpeeds = fanSpeeds;
+  }
+
+  /**
+   * Gets the cpu voltage.
+   *
+   * @return the cpu voltage
+   */
+  public double getCpuVoltage() {
+    return cpuVoltage;
+  }
+
+  /**
+   * Sets the cpu voltage.
+   *
+   * @param cpuVoltage the new cpu voltage
+   */
+  public void setCpuVoltage(double cpuVoltage) {
+    this.cpuVoltage = cpuVoltage;
+  }
+
+}
@@ -12,13 +12,19 @@ package psiprobe.tokenizer;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Class Tokenizer.
+ *
+ * <p>
+ * Symbols are matched with a trie whose first level is a dispatch table indexed by character, so
+ * that plain text is skipped a run at a time and the longest symbol starting at a position is found
+ * without allocating. The trie is rebuilt lazily whenever symbols are added.
+ * </p>
  */
 public class Tokenizer {
 
@@ -37,12 +43,24 @@ public class Tokenizer {
   /** The Constant TT_ERROR. */
   public static final int TT_ERROR = 3;
 
+  /** The size of the dispatch table for the first character of symbols. */
+  private static final int DISPATCH_SIZE = 128;
+
   /** The reader. */
   private Reader reader;
 
+  /** Whether the reader is exhausted. */
+  private boolean eof;
+
   /** The symbols. */
   private final List<TokenizerSymbol> symbols;
 
+  /** The symbol trie, or null when it has to be rebuilt. */
+  private SymbolNode trie;
+
+  /** The trie nodes for symbols starting with a character below {@link #DISPATCH_SIZE}. */
+  private SymbolNode[] dispatch;
+
   /** The push count. */
   private int pushCount;
 
@@ -59,10 +77,7 @@ public class Tokenizer {
   private int cacheSize;
 
   /** The cache buffer. */
-  private final char[] cacheBuffer;
-
-  /** The cache pin position. */
-  private int cachePinPosition;
+  private char[] cacheBuffer;
 
   /**
    * Instantiates a new tokenizer.
@@ -90,40 +105,42 @@ public class Tokenizer {
     symbols = new UniqueList<>();
     token = new TokenizerToken();
     upcomingToken = new TokenizerToken();
-    cacheBuffer = new char[cacheBufferSize];
+    cacheBuffer = new char[Math.max(cacheBufferSize, 16)];
     setReader(reader);
   }
 
   /**
-   * Load cache.
+   * Makes sure that characters are available in the cache, reading more from the reader as needed.
    *
-   * @param count the count
+   * @param count the number of characters needed from the cache position on
+   * @return true, if the characters are available
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  private void loadCache(int count) throws IOException {
-    int charToRead = count == 0 ? 0 : count - 1;
-    if (cachePosition + charToRead >= cacheSize) {
-      if (cacheSize == 0) {
-        cacheSize = reader.read(cacheBuffer, 0, cacheBuffer.length);
-        cachePosition = 0;
-      } else if (cacheSize == cacheBuffer.length) {
-        // make sure we do not read beyond the stream
-        int halfCacheSize = cacheSize / 2;
-        // copy the lower half into the upper half
-        System.arraycopy(cacheBuffer, halfCacheSize, cacheBuffer, 0, halfCacheSize);
-        cachePosition -= halfCacheSize;
-        if (cachePinPosition != -1) {
-          cachePinPosition -= halfCacheSize;
-        }
-
-        int charsRead = reader.read(cacheBuffer, halfCacheSize, cacheSize - halfCacheSize);
-        if (charsRead == -1) {
-          cacheSize = halfCacheSize;
+  private boolean fill(int count) throws IOException {
+    while (cacheSize - cachePosition < count && !eof) {
+      if (reader == null) {
+        eof = true;
+        break;
+      }
+      if (cacheSize == cacheBuffer.length) {
+        if (cachePosition == 0) {
+          // a symbol longer than the cache
+          cacheBuffer = Arrays.copyOf(cacheBuffer, cacheBuffer.length * 2);
         } else {
-          cacheSize = charsRead + halfCacheSize;
+          // drop the characters already consumed
+          System.arraycopy(cacheBuffer, cachePosition, cacheBuffer, 0, cacheSize - cachePosition);
+          cacheSize -= cachePosition;
+          cachePosition = 0;
         }
       }
+      int charsRead = reader.read(cacheBuffer, cacheSize, cacheBuffer.length - cacheSize);
+      if (charsRead == -1) {
+        eof = true;
+      } else {
+        cacheSize += charsRead;
+      }
     }
+    return cacheSize - cachePosition >= count;
   }
 
   /**
@@ -155,17 +172,16 @@ public class Tokenizer {
       return token;
     } else {
       token.init();
-      char[] chr = new char[1];
+      if (trie == null) {
+        buildTrie();
+      }
       while (hasMore()) {
-        read(chr, 1);
+        TokenizerSymbol symbol = lookupSymbol();
 
-        int symbolIndex = lookupSymbol(chr[0]);
-
-        if (symbolIndex != -1) {
+        if (symbol != null) {
           // we have found a symbol
           TokenizerToken workToken =
               token.type == Tokenizer.TT_TOKEN && token.text.length() > 0 ? upcomingToken : token;
-          TokenizerSymbol symbol = symbols.get(symbolIndex);
           boolean hideSymbol = symbol.hidden;
 
           if (!hideSymbol) {
@@ -177,14 +193,7 @@ public class Tokenizer {
 
           if (symbol.tailText != null) {
             // the symbol is a block
-            // look for the tailText
-            while (hasMore() && !compare(symbol.tailText.toCharArray(), 0)) {
-              read(chr, 1);
-              if (!hideSymbol) {
-                workToken.text.append(chr);
-                workToken.innerText.append(chr);
-              }
-            }
+            readBlock(symbol.tailText, hideSymbol ? null : workToken);
 
             if (!hideSymbol) {
               workToken.text.append(symbol.tailText);
@@ -196,7 +205,12 @@ public class Tokenizer {
             break;
           }
         } else {
-          token.text.append(chr);
+          // consume the run of characters up to the next possible symbol start
+          int start = cachePosition++;
+          while (cachePosition < cacheSize && !isSymbolStart(cacheBuffer[cachePosition])) {
+            cachePosition++;
+          }
+          token.text.append(cacheBuffer, start, cachePosition - start);
           token.type = Tokenizer.TT_TOKEN;
         }
       }
@@ -218,29 +232,66 @@ public class Tokenizer {
    */
   public void setReader(Reader reader) {
     this.reader = reader;
+    eof = false;
     cachePosition = 0;
-    cachePinPosition = -1;
     cacheSize = 0;
     token.type = TT_ERROR;
     upcomingToken.type = TT_ERROR;
   }
 
   /**
-   * Compare.
+   * Reads the content of a block up to and including its tail text.
    *
-   * @param chars the chars
-   * @param offs the offs
-   * @return true, if successful
+   * @param tailText the tail text
+   * @param workToken the token to append the content to, or null if the block is hidden
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  private boolean compare(char[] chars, int offs) throws IOException {
-    char[] subStr = new char[chars.length - offs];
-    cachePinPosition = cachePosition;
-    read(subStr, subStr.length);
-    for (int i = 0; i < subStr.length; i++) {
-      if (subStr[i] != chars[i + offs]) {
-        cachePosition = cachePinPosition;
-        cachePinPosition = -1;
+  private void readBlock(String tailText, TokenizerToken workToken) throws IOException {
+    int tailLength = tailText.length();
+    if (tailLength == 0) {
+      return;
+    }
+    char tailStart = tailText.charAt(0);
+    while (fill(1)) {
+      int start = cachePosition;
+      while (cachePosition < cacheSize && cacheBuffer[cachePosition] != tailStart) {
+        cachePosition++;
+      }
+      append(workToken, start, cachePosition);
+      if (cachePosition < cacheSize) {
+        if (fill(tailLength) && matches(tailText)) {
+          cachePosition += tailLength;
+          return;
+        }
+        append(workToken, cachePosition, cachePosition + 1);
+        cachePosition++;
+      }
+    }
+  }
+
+  /**
+   * Appends cached characters to the text of a block token.
+   *
+   * @param workToken the token, or null if the block is hidden
+   * @param start the start position in the cache
+   * @param end the end position in the cache
+   */
+  private void append(TokenizerToken workToken, int start, int end) {
+    if (workToken != null && end > start) {
+      workToken.text.append(cacheBuffer, start, end - start);
+      workToken.innerText.append(cacheBuffer, start, end - start);
+    }
+  }
+
+  /**
+   * Checks whether the cache holds a text at the cache position.
+   *
+   * @param text the text, which must be available in the cache
+   * @return true, if successful
+   */
+  private boolean matches(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (cacheBuffer[cachePosition + i] != text.charAt(i)) {
         return false;
       }
     }
@@ -248,54 +299,65 @@ public class Tokenizer {
   }
 
   /**
-   * Lookup symbol.
+   * Looks up the longest symbol starting at the cache position and consumes it.
    *
-   * @param chr the chr
-   * @return the int
+   * @return the symbol, or null if none starts at the cache position
    * @throws IOException Signals that an I/O exception has occurred.
    */
-  private int lookupSymbol(char chr) throws IOException {
-    int result = -1;
-
-    Character chrObj = chr;
-    int index = Collections.binarySearch(symbols, chrObj);
-
-    if (index >= 0) {
-      // the index could be anywhere within a group of symbols with the same first letter
-      // so we need to scroll up the group to make sure we start test from the beginning
-      while (index > 0 && symbols.get(index - 1).compareTo(chrObj) == 0) {
-        index--;
+  private TokenizerSymbol lookupSymbol() throws IOException {
+    char chr = cacheBuffer[cachePosition];
+    SymbolNode node = chr < DISPATCH_SIZE ? dispatch[chr] : trie.child(chr);
+    TokenizerSymbol result = null;
+    int resultLength = 0;
+    int depth = 1;
+    while (node != null) {
+      if (node.symbol != null) {
+        result = node.symbol;
+        resultLength = depth;
       }
-      while (index < symbols.size()) {
-        TokenizerSymbol symbol = symbols.get(index);
-        if (symbol.compareTo(chrObj) == 0) {
-          if (compare(symbol.startText.toCharArray(), 1)) {
-            result = index;
-            break;
-          }
-          index++;
-        } else {
-          break;
-        }
+      if (node.keys.length == 0 || !fill(depth + 1)) {
+        break;
       }
+      node = node.child(cacheBuffer[cachePosition + depth]);
+      depth++;
     }
+    cachePosition += resultLength;
     return result;
   }
 
   /**
-   * Read.
+   * Checks whether a symbol may start with a character.
    *
-   * @param chrs the chrs
-   * @param count the count
-   * @throws IOException Signals that an I/O exception has occurred.
+   * @param chr the character
+   * @return true, if successful
    */
-  private void read(char[] chrs, int count) throws IOException {
-    loadCache(count);
-    int endPoint = cachePosition + count - 1 >= cacheSize ? cacheSize : cachePosition + count - 1;
-    if (cachePosition <= endPoint) {
-      System.arraycopy(cacheBuffer, cachePosition, chrs, 0, endPoint - cachePosition + 1);
+  private boolean isSymbolStart(char chr) {
+    return chr < DISPATCH_SIZE ? dispatch[chr] != null : trie.child(chr) != null;
+  }
+
+  /**
+   * Builds the symbol trie and the dispatch table.
+   */
+  private void buildTrie() {
+    SymbolNode root = new SymbolNode();
+    synchronized (symbols) {
+      for (TokenizerSymbol symbol : symbols) {
+        if (symbol.startText.isEmpty()) {
+          continue;
+        }
+        SymbolNode node = root;
+        for (int i = 0; i < symbol.startText.length(); i++) {
+          node = node.getOrAddChild(symbol.startText.charAt(i));
+        }
+        node.symbol = symbol;
+      }
     }
-    cachePosition = endPoint + 1;
+    SymbolNode[] table = new SymbolNode[DISPATCH_SIZE];
+    for (int i = 0; i < root.keys.length && root.keys[i] < DISPATCH_SIZE; i++) {
+      table[root.keys[i]] = root.children[i];
+    }
+    dispatch = table;
+    trie = root;
   }
 
   /**
@@ -305,8 +367,7 @@ public class Tokenizer {
    * @throws IOException Signals that an I/O exception has occurred.
    */
   public boolean hasMore() throws IOException {
-    loadCache(0);
-    return cachePosition < cacheSize || upcomingToken.type != Tokenizer.TT_ERROR || pushCount > 0;
+    return fill(1) || upcomingToken.type != Tokenizer.TT_ERROR || pushCount > 0;
   }
 
   /**
@@ -315,7 +376,7 @@ public class Tokenizer {
    * @param text the text
    */
   public void addSymbol(String text) {
-    symbols.add(new TokenizerSymbol(null, text, null, false, false, true, false));
+    addSymbol(new TokenizerSymbol(null, text, null, false, false, true, false));
   }
 
   /**
@@ -325,7 +386,7 @@ public class Tokenizer {
    * @param hidden the hidden
    */
   public void addSymbol(String text, boolean hidden) {
-    symbols.add(new TokenizerSymbol(null, text, null, hidden, false, true, false));
+    addSymbol(new TokenizerSymbol(null, text, null, hidden, false, true, false));
   }
 
   /**
@@ -336,7 +397,7 @@ public class Tokenizer {
    * @param hidden the hidden
    */
   public void addSymbol(String startText, String endText, boolean hidden) {
-    symbols.add(new TokenizerSymbol(null, startText, endText, hidden, false, true, false));
+    addSymbol(new TokenizerSymbol(null, startText, endText, hidden, false, true, false));
   }
 
   /**
@@ -346,6 +407,7 @@ public class Tokenizer {
    */
   public void addSymbol(TokenizerSymbol symbol) {
     symbols.add(symbol);
+    trie = null;
   }
 
   /**
@@ -393,6 +455,60 @@ public class Tokenizer {
     }
   }
 
+  /**
+   * A node of the symbol trie.
+   */
+  private static class SymbolNode {
+
+    /** The characters leading to the children, sorted. */
+    char[] keys = new char[0];
+
+    /** The children. */
+    SymbolNode[] children = new SymbolNode[0];
+
+    /** The symbol ending at this node, if any. */
+    TokenizerSymbol symbol;
+
+    /**
+     * Gets the child for a character.
+     *
+     * @param chr the character
+     * @return the child, or null if none
+     */
+    SymbolNode child(char chr) {
+      int index = Arrays.binarySearch(keys, chr);
+      return index >= 0 ? children[index] : null;
+    }
+
+    /**
+     * Gets the child for a character, adding it if needed.
+     *
+     * @param chr the character
+     * @return the child
+     */
+    SymbolNode getOrAddChild(char chr) {
+      int index = Arrays.binarySearch(keys, chr);
+      if (index >= 0) {
+        return children[index];
+      }
+      int insertionPoint = -index - 1;
+      char[] newKeys = new char[keys.length + 1];
+      SymbolNode[] newChildren = new SymbolNode[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertionPoint);
+      System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+      System.arraycopy(keys, insertionPoint, newKeys, insertionPoint + 1,
+          keys.length - insertionPoint);
+      System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1,
+          children.length - insertionPoint);
+      newKeys[insertionPoint] = chr;
+      newChildren[insertionPoint] = new SymbolNode();
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[insertionPoint];
+    }
+
+  }
+
   /**
    * The Class TokenizerToken.
    */
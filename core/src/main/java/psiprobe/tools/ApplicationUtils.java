@@ -16,9 +16,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import javax.naming.NamingException;
 import javax.servlet.ServletContext;
@@ -115,6 +117,9 @@ public final class ApplicationUtils {
         boolean serializable = true;
         int sessionAttributeCount = 0;
         long size = 0;
+        if (calcSize) {
+          SessionSizeCache.getInstance().watch(context);
+        }
 
         for (Session session : context.getManager().findSessions()) {
           ApplicationSession appSession = getApplicationSession(session, calcSize, false);
@@ -211,7 +216,8 @@ public final class ApplicationUtils {
   }
 
   /**
-   * Gets the application session.
+   * Gets the application session. When sizing the sessions of a web application watched by the
+   * {@link SessionSizeCache}, only sessions used since they were last sized are sized again.
    *
    * @param session the session
    * @param calcSize the calc size
@@ -248,6 +254,19 @@ public final class ApplicationUtils {
       HttpSession httpSession = session.getSession();
       Set<Object> processedObjects = new HashSet<>(1000);
 
+      // reuse the sizes of sessions not used since they were last sized
+      SessionSizeCache sizeCache = SessionSizeCache.getInstance();
+      Map<String, Long> cachedSizes = null;
+      Map<String, Long> sizes = null;
+      Object sizeToken = null;
+      if (calcSize && sizeCache.isWatched(httpSession.getServletContext())) {
+        cachedSizes = sizeCache.get(session.getId(), session.getCreationTime());
+        if (cachedSizes == null) {
+          sizeToken = sizeCache.begin(session.getId());
+          sizes = new HashMap<>();
+        }
+      }
+
       // Exclude references back to the session itself
       processedObjects.add(httpSession);
       try {
@@ -256,12 +275,20 @@ public final class ApplicationUtils {
           sessionSerializable = sessionSerializable && obj instanceof Serializable;
 
           long objSize = 0;
-          if (calcSize) {
+          Long cachedSize = cachedSizes != null ? cachedSizes.get(name) : null;
+          if (cachedSize != null) {
+            objSize = cachedSize;
+          } else if (calcSize) {
             try {
               objSize += Instruments.sizeOf(name, processedObjects);
               objSize += Instruments.sizeOf(obj, processedObjects);
+              if (sizes != null) {
+                sizes.put(name, objSize);
+              }
             } catch (Exception ex) {
               logger.error("Cannot estimate size of attribute '{}'", name, ex);
+              // do not cache a partial result
+              sizeToken = null;
             }
           }
 
@@ -284,6 +311,11 @@ public final class ApplicationUtils {
           sbean.setLastAccessedIpLocale(
               (Locale) httpSession.getAttribute(ApplicationSession.LAST_ACCESSED_LOCALE));
         }
+        if (sizeToken != null) {
+          long maxIdle = session.getMaxInactiveInterval() * 1000L;
+          sizeCache.put(session.getId(), sizeToken, session.getCreationTime(),
+              maxIdle > 0 ? session.getLastAccessedTime() + maxIdle : Long.MAX_VALUE, sizes);
+        }
 
       } catch (IllegalStateException e) {
         logger.info("Session appears to be invalidated, ignore");
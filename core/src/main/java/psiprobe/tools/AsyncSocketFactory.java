@@ -11,18 +11,49 @@
 package psiprobe.tools;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A factory for creating AsyncSocket objects.
+ * A factory for sockets connected within a timeout.
+ *
+ * <p>
+ * Connections are made with non-blocking socket channels. A single shared daemon thread waits for
+ * all pending connections on a selector and enforces their deadlines, so a burst of connections
+ * does not start any thread per connection. Host names are resolved on that thread as well, so a
+ * slow name service cannot hold the caller past its timeout. The thread stops once it has been idle
+ * for a minute and is started again on demand.
+ * </p>
  */
 public final class AsyncSocketFactory {
 
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(AsyncSocketFactory.class);
 
+  /** The time after which an idle connector thread stops, in milliseconds. */
+  private static final long IDLE_TIMEOUT = 60 * 1000L;
+
+  /** The Constant lock. */
+  private static final Object lock = new Object();
+
+  /** The running connector, or null if none. */
+  private static Connector connector;
+
   /**
    * Prevent Instantiation.
    */
@@ -31,200 +62,291 @@ public final class AsyncSocketFactory {
   }
 
   /**
-   * Creates a new AsyncSocket object.
+   * Creates a new socket connected to a server.
    *
    * @param server the server
    * @param port the port
-   * @param timeout the timeout
-   * @return the socket
-   * @throws IOException Signals that an I/O exception has occurred.
+   * @param timeout the timeout, in seconds
+   * @return the connected socket, in blocking mode
+   * @throws IOException Signals that an I/O exception has occurred, {@link TimeoutException} if
+   *         the connection could not be made within the timeout.
    */
   public static Socket createSocket(String server, int port, long timeout) throws IOException {
-    SocketWrapper socketWrapper = new SocketWrapper();
-    socketWrapper.server = server;
-    socketWrapper.port = port;
-
-    Object sync = new Object();
-    Thread socketThread = new Thread(new SocketRunnable(socketWrapper, sync));
-    socketThread.setDaemon(true);
-    Thread timeoutThread = new Thread(new TimeoutRunnable(sync, timeout * 1000));
-    timeoutThread.setDaemon(true);
-
-    timeoutThread.start();
-    socketThread.start();
-
-    synchronized (sync) {
-      if (socketWrapper.socket == null) {
-        try {
-          sync.wait(timeout * 1000);
-        } catch (InterruptedException e) {
-          logger.trace("", e);
-        }
-      }
+    InetSocketAddress address = InetSocketAddress.createUnresolved(server, port);
+    SocketChannel channel = SocketChannel.open();
+    try {
+      channel.configureBlocking(false);
+      ConnectRequest request =
+          new ConnectRequest(channel, address, System.currentTimeMillis() + timeout * 1000);
+      submit(request);
+      request.await(timeout * 1000);
+      channel.configureBlocking(true);
+      return channel.socket();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
     }
+  }
 
-    timeoutThread.interrupt();
-    socketThread.interrupt();
-
-    socketWrapper.valid = false;
-
-    if (socketWrapper.getSocket() == null && socketWrapper.exception != null) {
-      throw socketWrapper.exception;
-    } else if (socketWrapper.getSocket() == null) {
-      throw new TimeoutException();
+  /**
+   * Hands a connection request to the connector thread, starting it if needed.
+   *
+   * @param request the request
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static void submit(ConnectRequest request) throws IOException {
+    synchronized (lock) {
+      if (connector == null) {
+        connector = new Connector(Selector.open());
+        Thread thread = new Thread(connector, "psi-probe-connector");
+        thread.setDaemon(true);
+        thread.start();
+      }
+      connector.pending.add(request);
+      connector.selector.wakeup();
     }
-
-    return socketWrapper.getSocket();
   }
 
   /**
-   * The Class SocketWrapper.
+   * A pending connection.
    */
-  static class SocketWrapper {
+  static class ConnectRequest {
 
-    /** The socket. */
-    Socket socket;
+    /** The channel. */
+    final SocketChannel channel;
 
-    /** The server. */
-    String server;
+    /** The address to connect to, resolved by the connector. */
+    final InetSocketAddress address;
 
-    /** The port. */
-    int port;
+    /** The deadline, in milliseconds since the epoch. */
+    final long deadline;
 
-    /** The exception. */
-    IOException exception;
+    /** The latch released once the connection is made, failed or timed out. */
+    private final CountDownLatch done = new CountDownLatch(1);
 
-    /** The valid. */
-    boolean valid = true;
+    /** The failure, if any. */
+    volatile IOException failure;
 
     /**
-     * Gets the socket.
+     * Instantiates a new connect request.
      *
-     * @return the socket
+     * @param channel the channel
+     * @param address the unresolved address
+     * @param deadline the deadline
      */
-    public Socket getSocket() {
-      return socket;
+    ConnectRequest(SocketChannel channel, InetSocketAddress address, long deadline) {
+      this.channel = channel;
+      this.address = address;
+      this.deadline = deadline;
     }
 
     /**
-     * Sets the socket.
-     *
-     * @param socket the new socket
+     * Completes the request, releasing the waiting caller.
      */
-    public void setSocket(Socket socket) {
-      this.socket = socket;
+    void complete() {
+      done.countDown();
     }
 
     /**
-     * Gets the server.
+     * Waits for the request to complete.
      *
-     * @return the server
+     * @param timeout the timeout, in milliseconds
+     * @throws IOException the failure of the connection
      */
-    public String getServer() {
-      return server;
+    void await(long timeout) throws IOException {
+      try {
+        // the connector enforces the deadline, the margin only guards against it being stuck
+        if (!done.await(timeout + 1000, TimeUnit.MILLISECONDS)) {
+          throw new TimeoutException();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while connecting");
+      }
+      if (failure != null) {
+        throw failure;
+      }
     }
 
+  }
+
+  /**
+   * The connector thread, finishing the pending connections as they become ready.
+   */
+  static class Connector implements Runnable {
+
+    /** The selector. */
+    final Selector selector;
+
+    /** The requests not registered with the selector yet. */
+    final Queue<ConnectRequest> pending = new ConcurrentLinkedQueue<>();
+
     /**
-     * Gets the port.
+     * Instantiates a new connector.
      *
-     * @return the port
+     * @param selector the selector
      */
-    public int getPort() {
-      return port;
+    Connector(Selector selector) {
+      this.selector = selector;
+    }
+
+    @Override
+    public void run() {
+      long idleSince = System.currentTimeMillis();
+      try {
+        while (true) {
+          selector.select(getSelectTimeout());
+
+          List<ConnectRequest> completed = new ArrayList<>();
+          register(completed);
+          finishConnects(completed);
+          expire(completed);
+
+          if (!completed.isEmpty()) {
+            // deregister the cancelled keys so that the channels can be made blocking
+            selector.selectNow();
+            for (ConnectRequest request : completed) {
+              request.complete();
+            }
+          }
+
+          if (!selector.keys().isEmpty() || !pending.isEmpty()) {
+            idleSince = System.currentTimeMillis();
+          } else if (System.currentTimeMillis() - idleSince >= IDLE_TIMEOUT && stop()) {
+            return;
+          }
+        }
+      } catch (IOException | ClosedSelectorException e) {
+        logger.error("Connector failed", e);
+        synchronized (lock) {
+          if (connector == this) {
+            connector = null;
+          }
+        }
+        failAll(e instanceof IOException ? (IOException) e : new IOException(e));
+      }
     }
 
     /**
-     * Sets the exception.
+     * Gets how long to wait for a connection to be ready, up to the nearest deadline.
      *
-     * @param exception the new exception
+     * @return the select timeout, in milliseconds
      */
-    public void setException(IOException exception) {
-      this.exception = exception;
+    private long getSelectTimeout() {
+      long timeout = IDLE_TIMEOUT;
+      long now = System.currentTimeMillis();
+      for (SelectionKey key : selector.keys()) {
+        ConnectRequest request = (ConnectRequest) key.attachment();
+        timeout = Math.min(timeout, request.deadline - now);
+      }
+      return Math.max(timeout, 1);
     }
 
     /**
-     * Checks if is valid.
+     * Resolves the addresses of the pending requests, starts connecting and registers the
+     * connections in progress with the selector.
      *
-     * @return true, if is valid
+     * @param completed the requests completed meanwhile
      */
-    public boolean isValid() {
-      return valid;
+    private void register(List<ConnectRequest> completed) {
+      ConnectRequest request;
+      while ((request = pending.poll()) != null) {
+        try {
+          String host = request.address.getHostString();
+          InetSocketAddress address = new InetSocketAddress(host, request.address.getPort());
+          if (address.isUnresolved()) {
+            throw new UnknownHostException(host);
+          }
+          if (request.channel.connect(address)) {
+            completed.add(request);
+          } else {
+            request.channel.register(selector, SelectionKey.OP_CONNECT, request);
+          }
+        } catch (IOException e) {
+          request.failure = e;
+          completed.add(request);
+        }
+      }
     }
 
-  }
-
-  /**
-   * The Class SocketRunnable.
-   */
-  static class SocketRunnable implements Runnable {
-
-    /** The socket wrapper. */
-    private final SocketWrapper socketWrapper;
-
-    /** The sync. */
-    private final Object sync;
+    /**
+     * Finishes the connections which are ready.
+     *
+     * @param completed the requests completed
+     */
+    private void finishConnects(List<ConnectRequest> completed) {
+      for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext();) {
+        SelectionKey key = it.next();
+        it.remove();
+        ConnectRequest request = (ConnectRequest) key.attachment();
+        try {
+          if (!request.channel.finishConnect()) {
+            continue;
+          }
+        } catch (IOException e) {
+          request.failure = e;
+        }
+        key.cancel();
+        completed.add(request);
+      }
+    }
 
     /**
-     * Instantiates a new socket runnable.
+     * Times out the connections past their deadline.
      *
-     * @param socketWrapper the socket wrapper
-     * @param sync the sync
+     * @param completed the requests completed
      */
-    public SocketRunnable(SocketWrapper socketWrapper, Object sync) {
-      this.socketWrapper = socketWrapper;
-      this.sync = sync;
+    private void expire(List<ConnectRequest> completed) {
+      long now = System.currentTimeMillis();
+      for (SelectionKey key : selector.keys()) {
+        ConnectRequest request = (ConnectRequest) key.attachment();
+        if (key.isValid() && request.deadline <= now) {
+          key.cancel();
+          request.failure = new TimeoutException();
+          completed.add(request);
+        }
+      }
     }
 
-    @Override
-    public void run() {
-      try (Socket socket = new Socket(socketWrapper.getServer(), socketWrapper.getPort())) {
-        socketWrapper.setSocket(socket);
-        if (!socketWrapper.isValid()) {
-          socketWrapper.getSocket().close();
-          socketWrapper.setSocket(null);
+    /**
+     * Stops the connector if no request arrived meanwhile.
+     *
+     * @return true, if stopped
+     */
+    private boolean stop() {
+      synchronized (lock) {
+        if (!pending.isEmpty()) {
+          return false;
         }
+        connector = null;
+      }
+      try {
+        selector.close();
       } catch (IOException e) {
         logger.trace("", e);
-        socketWrapper.setException(e);
-      }
-      synchronized (sync) {
-        sync.notify();
       }
+      return true;
     }
 
-  }
-
-  /**
-   * The Class TimeoutRunnable.
-   */
-  static class TimeoutRunnable implements Runnable {
-
-    /** The sync. */
-    private final Object sync;
-
-    /** The timeout. */
-    private final long timeout;
-
     /**
-     * Instantiates a new timeout runnable.
+     * Fails all requests still waiting, after the connector itself failed.
      *
-     * @param sync the sync
-     * @param timeout the timeout
+     * @param e the failure
      */
-    public TimeoutRunnable(Object sync, long timeout) {
-      this.sync = sync;
-      this.timeout = timeout;
-    }
-
-    @Override
-    public void run() {
+    private void failAll(IOException e) {
       try {
-        Thread.sleep(timeout);
-        synchronized (sync) {
-          sync.notify();
+        for (SelectionKey key : selector.keys()) {
+          ConnectRequest request = (ConnectRequest) key.attachment();
+          request.failure = e;
+          request.complete();
         }
-      } catch (InterruptedException e) {
-        logger.trace("", e);
+      } catch (ClosedSelectorException ex) {
+        logger.trace("", ex);
+      }
+      ConnectRequest request;
+      while ((request = pending.poll()) != null) {
+        request.failure = e;
+        request.complete();
       }
     }
 
@@ -0,0 +1,175 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Checks whether every one of a list of attribute name patterns matches at least one of the names
+ * of a session's attributes, the patterns being sorted out once so that most names are matched
+ * without running a regular expression.
+ *
+ * <p>
+ * A pattern without metacharacters is looked up by name, and one that is a literal followed by
+ * ".*" is a prefix. Any other pattern has the literal text it starts with checked before its
+ * regular expression is run. Patterns are not combined into a single alternation, as that would
+ * only tell the first pattern matching a name while a name may satisfy several of them.
+ * </p>
+ */
+public class AttributeNameMatcher {
+
+  /** The characters which are not literal in a regular expression. */
+  private static final String METACHARACTERS = "\\[]{}().*+?^$|";
+
+  /** The pattern count. */
+  private final int count;
+
+  /** The indexes of the literal patterns by name. */
+  private final Map<String, List<Integer>> literals = new HashMap<>();
+
+  /** The prefixes of the prefix patterns. */
+  private final String[] prefixes;
+
+  /** The indexes of the prefix patterns. */
+  private final int[] prefixIndexes;
+
+  /** The other patterns. */
+  private final Pattern[] patterns;
+
+  /** The literal text the other patterns start with. */
+  private final String[] patternPrefixes;
+
+  /** The indexes of the other patterns. */
+  private final int[] patternIndexes;
+
+  /**
+   * Instantiates a new attribute name matcher.
+   *
+   * @param attrNamePatterns the attribute name patterns
+   */
+  public AttributeNameMatcher(List<Pattern> attrNamePatterns) {
+    count = attrNamePatterns.size();
+    List<String> prefixList = new ArrayList<>();
+    List<Integer> prefixIndexList = new ArrayList<>();
+    List<Pattern> patternList = new ArrayList<>();
+    List<String> patternPrefixList = new ArrayList<>();
+    List<Integer> patternIndexList = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Pattern pattern = attrNamePatterns.get(i);
+      String regex = pattern.pattern();
+      int literalLength = pattern.flags() == 0 ? literalLength(regex) : 0;
+      if (literalLength == regex.length()) {
+        List<Integer> indexes = literals.get(regex);
+        if (indexes == null) {
+          indexes = new ArrayList<>(1);
+          literals.put(regex, indexes);
+        }
+        indexes.add(i);
+      } else if (literalLength == regex.length() - 2 && regex.endsWith(".*")) {
+        prefixList.add(regex.substring(0, literalLength));
+        prefixIndexList.add(i);
+      } else {
+        patternList.add(pattern);
+        patternPrefixList.add(regex.substring(0, literalLength));
+        patternIndexList.add(i);
+      }
+    }
+    prefixes = prefixList.toArray(new String[prefixList.size()]);
+    prefixIndexes = toArray(prefixIndexList);
+    patterns = patternList.toArray(new Pattern[patternList.size()]);
+    patternPrefixes = patternPrefixList.toArray(new String[patternPrefixList.size()]);
+    patternIndexes = toArray(patternIndexList);
+  }
+
+  /**
+   * Checks whether every pattern matches at least one name.
+   *
+   * @param names the attribute names
+   * @return true, if every pattern matches a name
+   */
+  public boolean matches(Enumeration<String> names) {
+    boolean[] matched = new boolean[count];
+    int remaining = count;
+    while (remaining > 0 && names.hasMoreElements()) {
+      String name = names.nextElement();
+      if (name == null) {
+        continue;
+      }
+      List<Integer> indexes = literals.isEmpty() ? null : literals.get(name);
+      if (indexes != null) {
+        for (int index : indexes) {
+          if (!matched[index]) {
+            matched[index] = true;
+            remaining--;
+          }
+        }
+      }
+      for (int i = 0; i < prefixes.length; i++) {
+        int index = prefixIndexes[i];
+        if (!matched[index] && name.startsWith(prefixes[i])) {
+          matched[index] = true;
+          remaining--;
+        }
+      }
+      for (int i = 0; i < patterns.length; i++) {
+        int index = patternIndexes[i];
+        if (!matched[index] && name.startsWith(patternPrefixes[i])
+            && patterns[i].matcher(name).matches()) {
+          matched[index] = true;
+          remaining--;
+        }
+      }
+    }
+    return remaining == 0;
+  }
+
+  /**
+   * Gets the length of the literal text a regular expression starts with. A literal character
+   * followed by a quantifier is not counted, as it may not be there, and nothing is literal in an
+   * expression with alternatives.
+   *
+   * @param regex the regular expression
+   * @return the length of the literal text
+   */
+  static int literalLength(String regex) {
+    if (regex.indexOf('|') >= 0) {
+      return 0;
+    }
+    int length = 0;
+    while (length < regex.length() && METACHARACTERS.indexOf(regex.charAt(length)) < 0) {
+      length++;
+    }
+    if (length < regex.length() && length > 0 && "?*{".indexOf(regex.charAt(length)) >= 0) {
+      length--;
+    }
+    return length;
+  }
+
+  /**
+   * Converts a list of integers to an array.
+   *
+   * @param list the list
+   * @return the array
+   */
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+}
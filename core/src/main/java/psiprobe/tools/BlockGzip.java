@@ -0,0 +1,506 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import com.google.common.hash.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Compresses files to gzip in independent blocks, on as many threads as there are processors. The
+ * threads are shared by all compressions and go away when idle.
+ *
+ * <p>
+ * Every block is a complete gzip member. Concatenated members form a valid gzip file (RFC 1952),
+ * which gunzip, zcat and {@link java.util.zip.GZIPInputStream} read as a whole.
+ * </p>
+ *
+ * <p>
+ * Files which have not been modified for a while, such as rotated logs, are compressed once into a
+ * cached artifact. The artifact name carries the size and modification time of the original, so a
+ * changed file never gets a stale artifact, and files of any size are cached. Artifacts of files
+ * which are gone or which have not been downloaded for a day are deleted, as are the least recently
+ * used ones once the cache grows past its size limit.
+ * </p>
+ *
+ * <p>
+ * An artifact handed out is leased until it is released, and for a while longer when the connector
+ * only sends it after the request returns. Leased artifacts are never deleted.
+ * </p>
+ */
+public final class BlockGzip {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(BlockGzip.class);
+
+  /** The Constant BLOCK_SIZE. */
+  private static final int BLOCK_SIZE = 1024 * 1024;
+
+  /** The time after its last modification a file is considered immutable, in milliseconds. */
+  private static final long QUIET_PERIOD = 60 * 1000L;
+
+  /** The name of the cache directory, under the temporary directory of the context. */
+  public static final String CACHE_DIR_NAME = "psi-probe-gz";
+
+  /** The time after its last use an artifact is deleted, in milliseconds. */
+  private static final long MAX_AGE = 24 * 60 * 60 * 1000L;
+
+  /** The total size of the artifacts above which the least recently used ones are deleted. */
+  private static final long MAX_CACHE_SIZE = 512L * 1024 * 1024;
+
+  /** The time an artifact stays leased once released while the connector still sends it. */
+  private static final long PENDING_LEASE_TIME = 10 * 60 * 1000L;
+
+  /** The Constant THREADS. */
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  /** The threads compressing blocks, shared by all compressions. */
+  private static final ThreadPoolExecutor EXECUTOR = newExecutor();
+
+  /** The lock held while deleting artifacts, also guarding the leases. */
+  private static final Object PRUNE_LOCK = new Object();
+
+  /** The leases of the artifacts handed out. */
+  private static final Map<File, Lease> LEASES = new HashMap<>();
+
+  /**
+   * Prevent Instantiation.
+   */
+  private BlockGzip() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Compresses the file as it is now into the stream. Data appended to the file meanwhile is not
+   * included.
+   *
+   * @param file the file
+   * @param out the stream
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static void compress(File file, OutputStream out) throws IOException {
+    Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size == 0) {
+        out.write(compressBlock(channel, 0, 0));
+        return;
+      }
+      // keep a bounded number of blocks in flight, written out in order
+      for (long position = 0; position < size; position += BLOCK_SIZE) {
+        pending.addLast(EXECUTOR.submit(
+            new BlockTask(channel, position, (int) Math.min(BLOCK_SIZE, size - position))));
+        if (pending.size() >= THREADS * 2) {
+          out.write(pending.removeFirst().get());
+        }
+      }
+      while (!pending.isEmpty()) {
+        out.write(pending.removeFirst().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Compression of " + file + " interrupted");
+    } catch (ExecutionException e) {
+      throw new IOException("Could not compress " + file, e.getCause());
+    } finally {
+      // blocks of an aborted compression are not compressed for nothing
+      for (Future<byte[]> future : pending) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Gets the cached compressed artifact of a file, creating it if needed. The artifact is leased
+   * and must be released once sent.
+   *
+   * @param file the file
+   * @param tempDir the temporary directory of the context, the cache being kept under it
+   * @return the leased artifact, or null if the file is still being modified or there is no
+   *         temporary directory
+   * @throws IOException Signals that an I/O exception has occurred.
+   * @see #release(File, boolean)
+   */
+  public static File getCompressedFile(File file, File tempDir) throws IOException {
+    long lastModified = file.lastModified();
+    long length = file.length();
+    if (tempDir == null || System.currentTimeMillis() - lastModified < QUIET_PERIOD) {
+      return null;
+    }
+
+    File cacheDir = new File(tempDir, CACHE_DIR_NAME);
+    String hash = Hashing.sha256().hashString(file.getCanonicalPath(), StandardCharsets.UTF_8)
+        .toString();
+    String prefix = hash + "-";
+    File artifact = new File(cacheDir, prefix + length + "-" + lastModified + ".gz");
+    if (leaseIfExists(artifact)) {
+      // the modification time of an artifact is the time it was last used
+      if (!artifact.setLastModified(System.currentTimeMillis())) {
+        logger.debug("Could not touch '{}'", artifact);
+      }
+      prune(cacheDir);
+      return artifact;
+    }
+
+    if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+      logger.error("Could not create '{}'", cacheDir);
+      return null;
+    }
+    deleteStale(cacheDir, prefix);
+    Files.write(new File(cacheDir, hash + ".src").toPath(),
+        file.getCanonicalPath().getBytes(StandardCharsets.UTF_8));
+
+    File tmp = File.createTempFile(prefix, ".tmp", cacheDir);
+    boolean leased = false;
+    try {
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+        compress(file, out);
+      }
+      if (file.lastModified() != lastModified || file.length() != length) {
+        logger.debug("'{}' changed while being compressed", file);
+        return null;
+      }
+      // leased before it exists, so that no pruning deletes it before it is handed out
+      lease(artifact);
+      leased = true;
+      try {
+        Files.move(tmp.toPath(), artifact.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        logger.trace("", e);
+        Files.move(tmp.toPath(), artifact.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      prune(cacheDir);
+      leased = false;
+      return artifact;
+    } finally {
+      if (leased) {
+        release(artifact, false);
+      }
+      if (tmp.exists() && !tmp.delete()) {
+        logger.debug("Could not delete '{}'", tmp);
+      }
+    }
+  }
+
+  /**
+   * Releases an artifact handed out by {@link #getCompressedFile(File, File)}.
+   *
+   * @param artifact the artifact
+   * @param pending whether the connector sends the artifact after the request returns, in which
+   *        case it stays leased for a while longer
+   */
+  public static void release(File artifact, boolean pending) {
+    synchronized (PRUNE_LOCK) {
+      Lease lease = LEASES.get(artifact);
+      if (lease == null) {
+        return;
+      }
+      lease.count--;
+      if (pending) {
+        lease.expiry = Math.max(lease.expiry, System.currentTimeMillis() + PENDING_LEASE_TIME);
+      }
+      if (!lease.isActive(System.currentTimeMillis())) {
+        LEASES.remove(artifact);
+      }
+    }
+  }
+
+  /**
+   * Leases an artifact.
+   *
+   * @param artifact the artifact
+   */
+  private static void lease(File artifact) {
+    synchronized (PRUNE_LOCK) {
+      Lease lease = LEASES.get(artifact);
+      if (lease == null) {
+        lease = new Lease();
+        LEASES.put(artifact, lease);
+      }
+      lease.count++;
+    }
+  }
+
+  /**
+   * Leases an artifact if it exists, which no pruning can delete meanwhile.
+   *
+   * @param artifact the artifact
+   * @return true, if the artifact exists and was leased
+   */
+  private static boolean leaseIfExists(File artifact) {
+    synchronized (PRUNE_LOCK) {
+      if (!artifact.isFile()) {
+        return false;
+      }
+      lease(artifact);
+      return true;
+    }
+  }
+
+  /**
+   * Checks if an artifact is leased.
+   *
+   * @param artifact the artifact
+   * @param now the current time
+   * @return true, if leased
+   */
+  private static boolean isLeased(File artifact, long now) {
+    Lease lease = LEASES.get(artifact);
+    return lease != null && lease.isActive(now);
+  }
+
+  /**
+   * Deletes the artifacts of earlier versions of a file, unless leased.
+   *
+   * @param cacheDir the cache directory
+   * @param prefix the name prefix of the artifacts of the file
+   */
+  private static void deleteStale(File cacheDir, String prefix) {
+    synchronized (PRUNE_LOCK) {
+      File[] files = cacheDir.listFiles();
+      if (files == null) {
+        return;
+      }
+      long now = System.currentTimeMillis();
+      for (File old : files) {
+        if (old.getName().startsWith(prefix) && old.getName().endsWith(".gz")
+            && !isLeased(old, now)) {
+          delete(old);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes the artifacts of files which are gone, those not used for a while and then the least
+   * recently used ones until the cache fits its size limit. Leased artifacts are never deleted.
+   *
+   * @param cacheDir the cache directory
+   */
+  static void prune(File cacheDir) {
+    synchronized (PRUNE_LOCK) {
+      long now = System.currentTimeMillis();
+      for (Iterator<Lease> it = LEASES.values().iterator(); it.hasNext();) {
+        if (!it.next().isActive(now)) {
+          it.remove();
+        }
+      }
+      File[] files = cacheDir.listFiles();
+      if (files == null) {
+        return;
+      }
+      List<File> artifacts = new ArrayList<>();
+      long size = 0;
+      for (File file : files) {
+        String name = file.getName();
+        if (name.endsWith(".src")) {
+          String hash = name.substring(0, name.length() - ".src".length());
+          if (!sourceExists(file)) {
+            boolean inUse = false;
+            for (File artifact : files) {
+              if (artifact.getName().startsWith(hash + "-")) {
+                if (isLeased(artifact, now)) {
+                  inUse = true;
+                } else {
+                  delete(artifact);
+                }
+              }
+            }
+            if (!inUse) {
+              delete(file);
+            }
+          }
+        } else if (name.endsWith(".gz") && file.isFile()) {
+          if (isLeased(file, now)) {
+            size += file.length();
+          } else if (now - file.lastModified() > MAX_AGE) {
+            delete(file);
+          } else {
+            artifacts.add(file);
+          }
+        } else if (name.endsWith(".tmp") && now - file.lastModified() > MAX_AGE) {
+          // left behind by a compression which never completed
+          delete(file);
+        }
+      }
+
+      for (File artifact : artifacts) {
+        size += artifact.exists() ? artifact.length() : 0;
+      }
+      if (size > MAX_CACHE_SIZE) {
+        File[] lru = artifacts.toArray(new File[artifacts.size()]);
+        Arrays.sort(lru, new Comparator<File>() {
+          @Override
+          public int compare(File f1, File f2) {
+            return Long.compare(f1.lastModified(), f2.lastModified());
+          }
+        });
+        for (int i = 0; i < lru.length && size > MAX_CACHE_SIZE; i++) {
+          size -= lru[i].length();
+          delete(lru[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether the file whose path is kept in a source file still exists.
+   *
+   * @param sourceFile the source file
+   * @return true, if the file exists or its path cannot be read
+   */
+  private static boolean sourceExists(File sourceFile) {
+    try {
+      String path = new String(Files.readAllBytes(sourceFile.toPath()), StandardCharsets.UTF_8);
+      return new File(path).isFile();
+    } catch (IOException e) {
+      logger.trace("Could not read '{}'", sourceFile, e);
+      return true;
+    }
+  }
+
+  /**
+   * Deletes a file of the cache.
+   *
+   * @param file the file
+   */
+  private static void delete(File file) {
+    if (file.exists() && !file.delete()) {
+      logger.debug("Could not delete '{}'", file);
+    }
+  }
+
+  /**
+   * Creates the threads compressing blocks.
+   *
+   * @return the executor
+   */
+  private static ThreadPoolExecutor newExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("psi-probe-gzip-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Compresses a block of the file into a complete gzip member.
+   *
+   * @param channel the channel
+   * @param position the position of the block
+   * @param length the length of the block
+   * @return the gzip member
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  static byte[] compressBlock(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        break;
+      }
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 64 * 1024)) {
+      gzip.write(buffer.array(), 0, buffer.position());
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Compresses one block on a worker thread.
+   */
+  private static class BlockTask implements Callable<byte[]> {
+
+    /** The channel, read with positional reads only so it can be shared. */
+    private final FileChannel channel;
+
+    /** The position. */
+    private final long position;
+
+    /** The length. */
+    private final int length;
+
+    /**
+     * Instantiates a new block task.
+     *
+     * @param channel the channel
+     * @param position the position
+     * @param length the length
+     */
+    BlockTask(FileChannel channel, long position, int length) {
+      this.channel = channel;
+      this.position = position;
+      this.length = length;
+    }
+
+    @Override
+    public byte[] call() throws IOException {
+      return compressBlock(channel, position, length);
+    }
+
+  }
+
+  /**
+   * The lease of an artifact.
+   */
+  private static class Lease {
+
+    /** The number of requests sending the artifact. */
+    int count;
+
+    /** The time until which the artifact stays leased once released, in milliseconds. */
+    long expiry;
+
+    /**
+     * Checks if the lease is still held.
+     *
+     * @param now the current time
+     * @return true, if active
+     */
+    boolean isActive(long now) {
+      return count > 0 || now < expiry;
+    }
+
+  }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.Arrays;
+import java.util.Collection;
+import psiprobe.model.jmx.ClassHistogram;
+
+/**
+ * Parses the output of the {@code GC.class_histogram} diagnostic command in a single pass over the
+ * text, without splitting it into lines or fields. Class names are pooled, so that a class seen in
+ * an earlier histogram costs no allocation and all histograms share one copy of its name.
+ *
+ * <p>
+ * Entry lines look like {@code   1:   12345   678901  java.lang.String (java.base@11)}, the module
+ * is ignored and any other line, such as the header and the total, is skipped.
+ * </p>
+ *
+ * <p>
+ * Not thread safe.
+ * </p>
+ */
+public class ClassHistogramParser {
+
+  /** The initial number of entries of a histogram. */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** The pooled class names, open addressed by hash code. */
+  private String[] pool = new String[4096];
+
+  /** The number of pooled class names. */
+  private int pooled;
+
+  /**
+   * Parses a class histogram.
+   *
+   * @param text the output of the diagnostic command
+   * @param id the id of the histogram
+   * @param time the time the histogram was taken
+   * @return the class histogram
+   */
+  public ClassHistogram parse(String text, int id, long time) {
+    String[] names = new String[INITIAL_CAPACITY];
+    long[] instances = new long[INITIAL_CAPACITY];
+    long[] bytes = new long[INITIAL_CAPACITY];
+    int count = 0;
+
+    int length = text.length();
+    int pos = 0;
+    while (pos < length) {
+      int lineEnd = text.indexOf('\n', pos);
+      if (lineEnd < 0) {
+        lineEnd = length;
+      }
+      int i = skipSpaces(text, pos, lineEnd);
+
+      // the rank, followed by a colon
+      int digits = skipDigits(text, i, lineEnd);
+      if (digits > i && digits < lineEnd && text.charAt(digits) == ':') {
+        i = skipSpaces(text, digits + 1, lineEnd);
+        digits = skipDigits(text, i, lineEnd);
+        long entryInstances = parseLong(text, i, digits);
+        i = skipSpaces(text, digits, lineEnd);
+        int bytesEnd = skipDigits(text, i, lineEnd);
+        long entryBytes = parseLong(text, i, bytesEnd);
+        int nameStart = skipSpaces(text, bytesEnd, lineEnd);
+        int nameEnd = nameStart;
+        while (nameEnd < lineEnd && text.charAt(nameEnd) > ' ') {
+          nameEnd++;
+        }
+        if (entryInstances >= 0 && entryBytes >= 0 && nameEnd > nameStart) {
+          if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+            instances = Arrays.copyOf(instances, count * 2);
+            bytes = Arrays.copyOf(bytes, count * 2);
+          }
+          names[count] = name(text, nameStart, nameEnd);
+          instances[count] = entryInstances;
+          bytes[count] = entryBytes;
+          count++;
+        }
+      }
+      pos = lineEnd + 1;
+    }
+    return new ClassHistogram(id, time, Arrays.copyOf(names, count),
+        Arrays.copyOf(instances, count), Arrays.copyOf(bytes, count));
+  }
+
+  /**
+   * Drops the pooled class names no longer used by any of the given histograms.
+   *
+   * @param histograms the histograms still kept
+   */
+  public void retain(Collection<ClassHistogram> histograms) {
+    pool = new String[pool.length];
+    pooled = 0;
+    for (ClassHistogram histogram : histograms) {
+      for (int i = 0; i < histogram.getClassCount(); i++) {
+        String name = histogram.getClassName(i);
+        name(name, 0, name.length());
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pooled class names.
+   *
+   * @return the pool size
+   */
+  public int getPoolSize() {
+    return pooled;
+  }
+
+  /**
+   * Gets the pooled copy of a class name, adding it to the pool if needed.
+   *
+   * @param text the text
+   * @param start the start of the name
+   * @param end the end of the name
+   * @return the class name
+   */
+  private String name(String text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    int length = end - start;
+    int mask = pool.length - 1;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    String name;
+    while ((name = pool[slot]) != null) {
+      if (name.hashCode() == hash && name.length() == length
+          && text.regionMatches(start, name, 0, length)) {
+        return name;
+      }
+      slot = (slot + 1) & mask;
+    }
+    name = start == 0 && end == text.length() ? text : text.substring(start, end);
+    pool[slot] = name;
+    if (++pooled * 2 > pool.length) {
+      grow();
+    }
+    return name;
+  }
+
+  /**
+   * Doubles the pool.
+   */
+  private void grow() {
+    String[] old = pool;
+    pool = new String[old.length * 2];
+    int mask = pool.length - 1;
+    for (String name : old) {
+      if (name != null) {
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (pool[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        pool[slot] = name;
+      }
+    }
+  }
+
+  /**
+   * Skips spaces and tabs.
+   *
+   * @param text the text
+   * @param pos the position to start at
+   * @param end the end of the line
+   * @return the position of the first other character
+   */
+  private static int skipSpaces(String text, int pos, int end) {
+    while (pos < end && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+      pos++;
+    }
+    return pos;
+  }
+
+  /**
+   * Skips digits.
+   *
+   * @param text the text
+   * @param pos the position to start at
+   * @param end the end of the line
+   * @return the position of the first other character
+   */
+  private static int skipDigits(String text, int pos, int end) {
+    while (pos < end && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+      pos++;
+    }
+    return pos;
+  }
+
+  /**
+   * Parses the digits between two positions.
+   *
+   * @param text the text
+   * @param start the start of the digits
+   * @param end the end of the digits
+   * @return the value, or -1 if there are no digits
+   */
+  private static long parseLong(String text, int start, int end) {
+    if (start == end) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + text.charAt(i) - '0';
+    }
+    return value;
+  }
+
+}
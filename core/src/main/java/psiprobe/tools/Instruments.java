@@ -12,11 +12,15 @@ package psiprobe.tools;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -63,11 +67,33 @@ public class Instruments {
   /** The Constant IGNORE_NIO. */
   private static final boolean IGNORE_NIO;
 
+  /** The JDK Unsafe instance, or null if it cannot be reached. */
+  private static final Object UNSAFE;
+
+  /** The method of Unsafe telling whether a class still has to be initialized, or null. */
+  private static final Method SHOULD_BE_INITIALIZED;
+
   static {
     String ignoreNioProp = System.getProperty("psiprobe.intruments.ignoreNIO");
     String os64bitProp = System.getProperty("sun.arch.data.model");
     IGNORE_NIO = ignoreNioProp == null || "true".equalsIgnoreCase(ignoreNioProp);
     SIZE_REFERENCE = "64".equals(os64bitProp) ? 8 : 4;
+
+    Object unsafe = null;
+    Method shouldBeInitialized = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+      shouldBeInitialized = unsafeClass.getMethod("shouldBeInitialized", Class.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // static fields holding references are not sized
+      unsafe = null;
+      shouldBeInitialized = null;
+    }
+    UNSAFE = unsafe;
+    SHOULD_BE_INITIALIZED = shouldBeInitialized;
   }
 
   /** The processed objects. */
@@ -82,6 +108,15 @@ public class Instruments {
   /** The class loader. */
   private ClassLoader classLoader = null;
 
+  /** Whether objects of the classes of the JDK are sized along with those of the class loader. */
+  private boolean includeBootstrap;
+
+  /** The time after which sizing stops, in milliseconds since the epoch. */
+  private long deadline = Long.MAX_VALUE;
+
+  /** The number of objects visited. */
+  private long visited;
+
   /**
    * Size of.
    *
@@ -118,6 +153,113 @@ public class Instruments {
     return instruments.internalSizeOf(obj);
   }
 
+  /**
+   * Size of the objects reachable from obj whose classes were loaded by the class loader or are
+   * classes of the JDK, such as the collections and arrays holding the objects of the loader,
+   * giving up once the deadline has passed. Objects found in the set are not counted again, so
+   * several roots can be sized one after the other without counting what they share twice.
+   *
+   * @param obj the obj
+   * @param cl the class loader, or null for any
+   * @param objects the objects already sized, added to as objects are sized
+   * @param deadline the time after which sizing stops, in milliseconds since the epoch
+   * @return the size of the objects sized before the deadline
+   */
+  public static long sizeOf(Object obj, ClassLoader cl, Set<Object> objects, long deadline) {
+    Instruments instruments = new Instruments();
+    instruments.classLoader = cl;
+    instruments.processedObjects = objects;
+    instruments.includeBootstrap = true;
+    instruments.deadline = deadline;
+    return instruments.internalSizeOf(obj);
+  }
+
+  /**
+   * Size of the static fields of a class and of the objects reachable from them whose classes were
+   * loaded by the loader of that class or are classes of the JDK.
+   *
+   * @param clazz the class
+   * @param objects the objects already sized, added to as objects are sized
+   * @param deadline the time after which sizing stops, in milliseconds since the epoch
+   * @return the size of the objects sized before the deadline
+   */
+  public static long sizeOfStatics(Class<?> clazz, Set<Object> objects, long deadline) {
+    long size = 0;
+    Field[] fields;
+    try {
+      fields = clazz.getDeclaredFields();
+    } catch (LinkageError e) {
+      // the class refers to classes that can no longer be loaded
+      return 0;
+    }
+    // reading a static field initializes its class, which must never be done on its behalf
+    boolean readable = isInitialized() && isClassInitialized(clazz);
+    for (Field field : fields) {
+      if (Modifier.isStatic(field.getModifiers())) {
+        if (field.getType().isPrimitive()) {
+          size += sizeOfPrimitive(field.getType());
+        } else if (readable && System.currentTimeMillis() <= deadline) {
+          size += SIZE_REFERENCE
+              + sizeOf(ACCESSOR.get(null, field), clazz.getClassLoader(), objects, deadline);
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Checks if a class was initialized already, without initializing it.
+   *
+   * @param clazz the class
+   * @return true, if initialized, or false if not or if it cannot be told
+   */
+  public static boolean isClassInitialized(Class<?> clazz) {
+    if (SHOULD_BE_INITIALIZED == null) {
+      return false;
+    }
+    try {
+      return !((Boolean) SHOULD_BE_INITIALIZED.invoke(UNSAFE, clazz));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Gets the classes defined by a class loader, by reading the resource entries a Tomcat web
+   * application class loader keeps or, failing that, the classes list of the JDK class loader.
+   *
+   * @param cl the class loader
+   * @return the classes, or null if they cannot be read
+   */
+  public static List<Class<?>> getLoadedClasses(ClassLoader cl) {
+    try {
+      Object entries = getField(cl, "resourceEntries");
+      if (entries instanceof Map) {
+        List<Class<?>> result = new ArrayList<>();
+        for (Object entry : new ArrayList<>(((Map<?, ?>) entries).values())) {
+          Object loaded = getField(entry, "loadedClass");
+          if (loaded instanceof Class) {
+            result.add((Class<?>) loaded);
+          }
+        }
+        return result;
+      }
+      Object classes = getField(cl, "classes");
+      if (classes instanceof Collection) {
+        List<Class<?>> result = new ArrayList<>();
+        for (Object loaded : new ArrayList<>((Collection<?>) classes)) {
+          if (loaded instanceof Class) {
+            result.add((Class<?>) loaded);
+          }
+        }
+        return result;
+      }
+    } catch (RuntimeException e) {
+      // the JDK does not open java.lang to reflection
+    }
+    return null;
+  }
+
   /**
    * Internal size of.
    *
@@ -131,8 +273,13 @@ public class Instruments {
       Iterator<Object> it = thisQueue.iterator();
       while (it.hasNext()) {
         Object obj = it.next();
-        if (isInitialized() && obj != null
-            && (classLoader == null || classLoader == obj.getClass().getClassLoader())
+        if (deadline != Long.MAX_VALUE && ++visited % 1024 == 0
+            && System.currentTimeMillis() > deadline) {
+          thisQueue.clear();
+          nextQueue.clear();
+          break;
+        }
+        if (isInitialized() && obj != null && isInScope(obj)
             && (!IGNORE_NIO || !obj.getClass().getName().startsWith("java.nio."))) {
           ObjectWrapper ow = new ObjectWrapper(obj);
           if (!processedObjects.contains(ow)) {
@@ -157,6 +304,22 @@ public class Instruments {
     return size;
   }
 
+  /**
+   * Checks if the object was loaded by the class loader being sized. Along with the JDK, classes,
+   * class loaders and threads are left out, as they lead to everything else in the JVM.
+   *
+   * @param obj the obj
+   * @return true, if the object is sized
+   */
+  private boolean isInScope(Object obj) {
+    ClassLoader cl = obj.getClass().getClassLoader();
+    if (classLoader == null || classLoader == cl) {
+      return true;
+    }
+    return includeBootstrap && cl == null && !(obj instanceof Class)
+        && !(obj instanceof ClassLoader) && !(obj instanceof Thread);
+  }
+
   /**
    * Size of object.
    *
@@ -10,6 +10,9 @@
  */
 package psiprobe.tools;
 
+import java.util.HashMap;
+import java.util.Map;
+import javax.management.Attribute;
 import javax.management.AttributeNotFoundException;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
@@ -55,6 +58,26 @@ public final class JmxTools {
     }
   }
 
+  /**
+   * Gets several attributes of an MBean in a single call. Attributes the MBean does not have are
+   * left out of the result.
+   *
+   * @param mbeanServer the mbean server
+   * @param objName the obj name
+   * @param attrNames the attr names
+   * @return the attribute values by name
+   * @throws Exception the exception
+   */
+  public static Map<String, Object> getAttributes(MBeanServer mbeanServer, ObjectName objName,
+      String[] attrNames) throws Exception {
+
+    Map<String, Object> result = new HashMap<>();
+    for (Attribute attribute : mbeanServer.getAttributes(objName, attrNames).asList()) {
+      result.put(attribute.getName(), attribute.getValue());
+    }
+    return result;
+  }
+
   /**
    * Invoke.
    *
@@ -202,6 +225,56 @@ public final class JmxTools {
     return obj != null && obj instanceof Boolean && ((Boolean) obj);
   }
 
+  /**
+   * Gets the long attr.
+   *
+   * @param attrs the attribute values by name
+   * @param name the name
+   * @param defaultValue the default value
+   * @return the long attr
+   */
+  public static long getLongAttr(Map<String, Object> attrs, String name, long defaultValue) {
+    Object obj = attrs.get(name);
+    return obj instanceof Number ? ((Number) obj).longValue() : defaultValue;
+  }
+
+  /**
+   * Gets the int attr.
+   *
+   * @param attrs the attribute values by name
+   * @param name the name
+   * @param defaultValue the default value
+   * @return the int attr
+   */
+  public static int getIntAttr(Map<String, Object> attrs, String name, int defaultValue) {
+    Object obj = attrs.get(name);
+    return obj instanceof Number ? ((Number) obj).intValue() : defaultValue;
+  }
+
+  /**
+   * Gets the string attr.
+   *
+   * @param attrs the attribute values by name
+   * @param name the name
+   * @return the string attr
+   */
+  public static String getStringAttr(Map<String, Object> attrs, String name) {
+    Object obj = attrs.get(name);
+    return obj != null ? obj.toString() : null;
+  }
+
+  /**
+   * Gets the boolean attr.
+   *
+   * @param attrs the attribute values by name
+   * @param name the name
+   * @return the boolean attr
+   */
+  public static boolean getBooleanAttr(Map<String, Object> attrs, String name) {
+    Object obj = attrs.get(name);
+    return obj instanceof Boolean && (Boolean) obj;
+  }
+
   /**
    * Checks for attribute.
    *
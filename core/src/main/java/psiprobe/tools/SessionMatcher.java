@@ -0,0 +1,108 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import javax.servlet.http.HttpSession;
+import org.apache.catalina.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import psiprobe.model.ApplicationSession;
+import psiprobe.model.SessionSearchInfo;
+
+/**
+ * Matches sessions against the criteria of a session search straight from the session, without
+ * building an {@link ApplicationSession} first. The attribute name patterns are sorted out once
+ * per search. A session whose last IP is unknown does not match a last IP criterion.
+ */
+public class SessionMatcher {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SessionMatcher.class);
+
+  /** The search info. */
+  private final SessionSearchInfo searchInfo;
+
+  /** The attribute name matcher, or null if attribute names are not searched. */
+  private final AttributeNameMatcher attributeNameMatcher;
+
+  /**
+   * Instantiates a new session matcher.
+   *
+   * @param searchInfo the search info
+   */
+  public SessionMatcher(SessionSearchInfo searchInfo) {
+    this.searchInfo = searchInfo;
+    attributeNameMatcher = searchInfo.isUseAttrName()
+        ? new AttributeNameMatcher(searchInfo.getAttrNamePatterns())
+        : null;
+  }
+
+  /**
+   * Gets the search info.
+   *
+   * @return the search info
+   */
+  public SessionSearchInfo getSearchInfo() {
+    return searchInfo;
+  }
+
+  /**
+   * Checks whether a session matches, every session matching when the search is not in use.
+   *
+   * @param session the session
+   * @param now the time the age and idle time of the session are measured at
+   * @return true, if the session is valid and matches
+   */
+  public boolean matches(Session session, long now) {
+    if (session == null || !session.isValid()) {
+      return false;
+    }
+    if (!searchInfo.isUseSearch()) {
+      return true;
+    }
+    try {
+      if (searchInfo.isUseSessionId() && session.getId() != null
+          && !searchInfo.getSessionIdPattern().matcher(session.getId()).matches()) {
+        return false;
+      }
+      long age = now - session.getCreationTime();
+      if (searchInfo.isUseAgeFrom() && age < searchInfo.getAgeFromSec().longValue() * 1000) {
+        return false;
+      }
+      if (searchInfo.isUseAgeTo() && age > searchInfo.getAgeToSec().longValue() * 1000) {
+        return false;
+      }
+      long idleTime = now - session.getLastAccessedTime();
+      if (searchInfo.isUseIdleTimeFrom()
+          && idleTime < searchInfo.getIdleTimeFromSec().longValue() * 1000) {
+        return false;
+      }
+      if (searchInfo.isUseIdleTimeTo()
+          && idleTime > searchInfo.getIdleTimeToSec().longValue() * 1000) {
+        return false;
+      }
+      HttpSession httpSession = session.getSession();
+      if (searchInfo.isUseLastIp()) {
+        String lastIp = (String) httpSession.getAttribute(ApplicationSession.LAST_ACCESSED_BY_IP);
+        if (lastIp == null || !lastIp.contains(searchInfo.getLastIp())) {
+          return false;
+        }
+      }
+      return attributeNameMatcher == null
+          || attributeNameMatcher.matches(httpSession.getAttributeNames());
+    } catch (IllegalStateException e) {
+      logger.trace("Session {} has been invalidated while being matched", session.getIdInternal(),
+          e);
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,275 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
+import org.apache.catalina.Context;
+import org.apache.catalina.core.StandardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the attribute sizes of sessions by session id, so that only sessions used since they were
+ * last sized have to be sized again. A session is marked dirty by the agent valve after every
+ * request that touched it, and by this cache, registered as an attribute listener of the web
+ * applications it watches, whenever one of its attributes changes. Sizes are only cached for
+ * sessions of watched web applications.
+ */
+public final class SessionSizeCache implements HttpSessionAttributeListener {
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(SessionSizeCache.class);
+
+  /** The single instance. */
+  private static final SessionSizeCache instance = new SessionSizeCache();
+
+  /** The minimum time between two prunings, in milliseconds. */
+  private static final long PRUNE_INTERVAL = 60000;
+
+  /** The marker of a session used since it was sized. */
+  private static final Entry DIRTY = new Entry(0, 0, null);
+
+  /** The entries by session id. */
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** The watched contexts, also guarding the servlet contexts. */
+  private final Set<Context> contexts =
+      Collections.newSetFromMap(new WeakHashMap<Context, Boolean>());
+
+  /** The servlet contexts of the watched contexts. */
+  private final Set<ServletContext> servletContexts =
+      Collections.newSetFromMap(new WeakHashMap<ServletContext, Boolean>());
+
+  /** The time the entries were last pruned. */
+  private volatile long lastPruned = System.currentTimeMillis();
+
+  /**
+   * Prevent Instantiation of session size cache.
+   */
+  SessionSizeCache() {
+    // Prevent Instantiation
+  }
+
+  /**
+   * Gets the single instance of SessionSizeCache.
+   *
+   * @return single instance of SessionSizeCache
+   */
+  public static SessionSizeCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Starts caching the session sizes of a web application, registering this cache as one of its
+   * attribute listeners. A reload replaces the listeners and the servlet context of the web
+   * application, so it is registered again whenever it is missing from them. Only standard contexts
+   * can be given a listener while running, so the sessions of other contexts are not cached.
+   *
+   * @param context the context of the web application
+   */
+  public void watch(Context context) {
+    if (!(context instanceof StandardContext)) {
+      return;
+    }
+    synchronized (contexts) {
+      contexts.add(context);
+      if (context.getServletContext() != null) {
+        servletContexts.add(context.getServletContext());
+      }
+      Object[] listeners = context.getApplicationEventListeners();
+      if (listeners != null && Arrays.asList(listeners).contains(this)) {
+        return;
+      }
+      ((StandardContext) context).addApplicationEventListener(this);
+    }
+    logger.debug("Watching session attributes of '{}'", context.getName());
+  }
+
+  /**
+   * Stops caching session sizes, unregistering this cache from the stopped web applications. Those
+   * still running keep it as a listener, since their listeners cannot be replaced safely, until
+   * they are reloaded.
+   */
+  public void unwatchAll() {
+    List<Context> watched;
+    synchronized (contexts) {
+      watched = new ArrayList<>(contexts);
+      contexts.clear();
+      servletContexts.clear();
+    }
+    for (Context context : watched) {
+      if (context.getState().isAvailable()) {
+        continue;
+      }
+      Object[] current = context.getApplicationEventListeners();
+      if (current != null) {
+        List<Object> listeners = new ArrayList<>(Arrays.asList(current));
+        if (listeners.remove(this)) {
+          context.setApplicationEventListeners(listeners.toArray());
+        }
+      }
+    }
+    entries.clear();
+  }
+
+  /**
+   * Checks if the sessions of a web application are watched.
+   *
+   * @param servletContext the servlet context of the web application
+   * @return true, if watched
+   */
+  public boolean isWatched(ServletContext servletContext) {
+    synchronized (contexts) {
+      return servletContext != null && servletContexts.contains(servletContext);
+    }
+  }
+
+  /**
+   * Marks a session as used, if it was sized.
+   *
+   * @param sessionId the session id
+   */
+  public void invalidate(String sessionId) {
+    if (sessionId != null) {
+      entries.replace(sessionId, DIRTY);
+    }
+  }
+
+  /**
+   * Gets the cached attribute sizes of a session.
+   *
+   * @param sessionId the session id
+   * @param creationTime the creation time of the session, telling it apart from an older session
+   *        with the same id
+   * @return the attribute sizes by name, or null if the session has to be sized
+   */
+  public Map<String, Long> get(String sessionId, long creationTime) {
+    Entry entry = entries.get(sessionId);
+    return entry != null && entry.sizes != null && entry.creationTime == creationTime
+        ? entry.sizes
+        : null;
+  }
+
+  /**
+   * Announces that a session is about to be sized. Sizes are only cached if the session is not
+   * used until they are put.
+   *
+   * @param sessionId the session id
+   * @return the token to put the sizes with
+   */
+  public Object begin(String sessionId) {
+    Entry pending = new Entry(0, 0, null);
+    entries.put(sessionId, pending);
+    return pending;
+  }
+
+  /**
+   * Caches the attribute sizes of a session, unless it was used since it was announced.
+   *
+   * @param sessionId the session id
+   * @param token the token returned when the session was announced
+   * @param creationTime the creation time of the session
+   * @param expiry the time after which the session has either expired or been used
+   * @param sizes the attribute sizes by name
+   */
+  public void put(String sessionId, Object token, long creationTime, long expiry,
+      Map<String, Long> sizes) {
+    if (token instanceof Entry) {
+      entries.replace(sessionId, (Entry) token, new Entry(creationTime, expiry, sizes));
+    }
+    prune(System.currentTimeMillis());
+  }
+
+  /**
+   * Gets the number of cached sessions.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Drops the entries of sessions that were used or have expired, at most once per interval.
+   *
+   * @param now the current time
+   */
+  void prune(long now) {
+    if (now - lastPruned < PRUNE_INTERVAL) {
+      return;
+    }
+    lastPruned = now;
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      Entry entry = it.next().getValue();
+      if (entry.sizes == null || entry.expiry < now) {
+        it.remove();
+      }
+    }
+  }
+
+  @Override
+  public void attributeAdded(HttpSessionBindingEvent event) {
+    invalidate(event.getSession().getId());
+  }
+
+  @Override
+  public void attributeRemoved(HttpSessionBindingEvent event) {
+    invalidate(event.getSession().getId());
+  }
+
+  @Override
+  public void attributeReplaced(HttpSessionBindingEvent event) {
+    invalidate(event.getSession().getId());
+  }
+
+  /**
+   * The cached sizes of a session, or a marker if it has none.
+   */
+  private static class Entry {
+
+    /** The creation time of the session. */
+    final long creationTime;
+
+    /** The time after which the session has either expired or been used. */
+    final long expiry;
+
+    /** The attribute sizes by name, null for a marker. */
+    final Map<String, Long> sizes;
+
+    /**
+     * Instantiates a new entry.
+     *
+     * @param creationTime the creation time
+     * @param expiry the expiry
+     * @param sizes the sizes
+     */
+    Entry(long creationTime, long expiry, Map<String, Long> sizes) {
+      this.creationTime = creationTime;
+      this.expiry = expiry;
+      this.sizes = sizes;
+    }
+
+  }
+
+}
@@ -62,7 +62,8 @@ public class SimpleAccessor implements Accessor {
     if (!accessible) {
       try {
         field.setAccessible(true);
-      } catch (SecurityException ex) {
+      } catch (RuntimeException ex) {
+        // a SecurityException, or a module not opening the package on Java 9 and later
         logger.trace("", ex);
       }
     }
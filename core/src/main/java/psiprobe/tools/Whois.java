@@ -16,6 +16,7 @@ import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 import org.slf4j.Logger;
@@ -30,6 +31,21 @@ public final class Whois {
   /** The Constant logger. */
   private static final Logger logger = LoggerFactory.getLogger(Whois.class);
 
+  /** The maximum number of cached responses. */
+  private static final int MAX_CACHED_RESPONSES = 512;
+
+  /** The cached responses by server, port and query, least recently used first. */
+  private static final Map<String, CachedResponse> cache =
+      new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+          return size() > MAX_CACHED_RESPONSES;
+        }
+      };
+
   /**
    * Prevent Instantiation.
    */
@@ -134,6 +150,74 @@ public final class Whois {
     return response;
   }
 
+  /**
+   * Looks up a query, answering from the cache while a previous response to the same query on the
+   * same server is younger than the time to live. Failed lookups are not cached.
+   *
+   * @param server the server
+   * @param port the port
+   * @param query the query
+   * @param timeout the timeout, in seconds
+   * @param timeToLive the time to live of cached responses, in seconds
+   * @return the response
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public static Response cachedLookup(String server, int port, String query, long timeout,
+      long timeToLive) throws IOException {
+
+    if (query == null) {
+      return null;
+    }
+    String key = server + ':' + port + ' ' + query;
+    long now = System.currentTimeMillis();
+    synchronized (cache) {
+      CachedResponse cached = cache.get(key);
+      if (cached != null && cached.expires > now) {
+        return cached.response;
+      }
+    }
+    Response response = lookup(server, port, query, timeout);
+    if (timeToLive > 0) {
+      synchronized (cache) {
+        cache.put(key, new CachedResponse(response, now + timeToLive * 1000));
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Clears the response cache.
+   */
+  static void clearCache() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * A cached response.
+   */
+  private static class CachedResponse {
+
+    /** The response. */
+    final Response response;
+
+    /** The expiry time, in milliseconds since the epoch. */
+    final long expires;
+
+    /**
+     * Instantiates a new cached response.
+     *
+     * @param response the response
+     * @param expires the expires
+     */
+    CachedResponse(Response response, long expires) {
+      this.response = response;
+      this.expires = expires;
+    }
+
+  }
+
   /**
    * The Class Response.
    */
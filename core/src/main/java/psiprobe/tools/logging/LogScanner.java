@@ -0,0 +1,540 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import psiprobe.model.LogSearchHit;
+
+/**
+ * Searches a log file for lines containing a text or matching a regular expression.
+ *
+ * <p>
+ * The file is memory mapped in chunks which are scanned in parallel, on threads shared by all
+ * searches, one per processor, and collected in file order until enough hits are found. Each chunk
+ * is unmapped once scanned, so the file is not kept locked until the garbage collector runs. Case
+ * sensitive literal searches look for the encoded bytes of the text directly and only decode the
+ * matching lines, so the charset must be ASCII compatible, as log files practically always are.
+ * </p>
+ */
+public class LogScanner {
+
+  /** The size of a chunk scanned by one thread. */
+  private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+
+  /** The maximum line length; longer lines are cut at chunk ends. */
+  private static final int MAX_LINE = 64 * 1024;
+
+  /** The Constant logger. */
+  private static final Logger logger = LoggerFactory.getLogger(LogScanner.class);
+
+  /** The Constant THREADS. */
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  /** The threads scanning chunks, shared by all searches. */
+  private static final ThreadPoolExecutor EXECUTOR = newExecutor();
+
+  /** The JDK Unsafe instance, or null if it cannot be reached. */
+  private static final Object UNSAFE;
+
+  /** The method of Unsafe unmapping a buffer on Java 9 and later, or null. */
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // before Java 9, buffers are unmapped through their cleaner instead
+      unsafe = null;
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  /** The file. */
+  private final File file;
+
+  /** The charset. */
+  private final Charset charset;
+
+  /** The literal bytes to look for, or null when searching with a pattern. */
+  private byte[] literal;
+
+  /** The Boyer-Moore-Horspool shifts of the literal, or null when searching with a pattern. */
+  private int[] shift;
+
+  /** The pattern, or null when searching for a literal. */
+  private Pattern pattern;
+
+  /** The start of the period of the lines to return, or -1. */
+  private long fromTime = -1;
+
+  /** The end of the period of the lines to return, or -1. */
+  private long toTime = -1;
+
+  /** The number of bytes scanned by the last search. */
+  private long scanned;
+
+  /**
+   * Instantiates a new log scanner.
+   *
+   * @param file the file
+   * @param charset the charset of the file
+   * @param text the text to search for
+   * @param regex whether the text is a regular expression
+   * @param ignoreCase whether to ignore case
+   */
+  public LogScanner(File file, Charset charset, String text, boolean regex, boolean ignoreCase) {
+    this.file = file;
+    this.charset = charset;
+    if (!regex && !ignoreCase) {
+      literal = text.getBytes(charset);
+      shift = shifts(literal);
+    } else {
+      int flags = regex ? 0 : Pattern.LITERAL;
+      if (ignoreCase) {
+        flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+      }
+      pattern = Pattern.compile(text, flags);
+    }
+  }
+
+  /**
+   * Restricts the hits to lines logged in a period. Lines without a timestamp, such as stack
+   * traces, are always returned.
+   *
+   * @param fromTime the start of the period, or -1
+   * @param toTime the end of the period, or -1
+   */
+  public void setPeriod(long fromTime, long toTime) {
+    this.fromTime = fromTime;
+    this.toTime = toTime;
+  }
+
+  /**
+   * Gets the number of bytes scanned by the last search.
+   *
+   * @return the scanned bytes
+   */
+  public long getScanned() {
+    return scanned;
+  }
+
+  /**
+   * Scans part of the file.
+   *
+   * @param start the offset of a line start to scan from
+   * @param end the offset to scan to
+   * @param limit the maximum number of hits
+   * @return the offsets of the matching lines, in file order
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public List<Long> scan(long start, long end, int limit) throws IOException {
+    List<Long> hits = new ArrayList<>();
+    scanned = 0;
+    Deque<Future<List<Long>>> pending = new ArrayDeque<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long last = Math.min(end, channel.size());
+      long position = start;
+      Deque<Long> pendingSizes = new ArrayDeque<>();
+      while (hits.size() < limit && (position < last || !pending.isEmpty())) {
+        while (position < last && pending.size() < THREADS * 2) {
+          long chunkEnd = Math.min(position + CHUNK_SIZE, last);
+          pending.addLast(EXECUTOR.submit(new ChunkTask(channel, position, chunkEnd, last)));
+          pendingSizes.addLast(chunkEnd - position);
+          position = chunkEnd;
+        }
+        hits.addAll(pending.removeFirst().get());
+        scanned += pendingSizes.removeFirst();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Search of " + file + " interrupted");
+    } catch (ExecutionException e) {
+      throw new IOException("Could not search " + file, e.getCause());
+    } finally {
+      // chunks queued past the hits needed are left unscanned
+      for (Future<List<Long>> future : pending) {
+        future.cancel(false);
+      }
+    }
+    return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+  }
+
+  /**
+   * Reads a matching line with its surrounding lines.
+   *
+   * @param offset the offset of the line
+   * @param contextLines the number of lines to read before and after
+   * @return the hit
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public LogSearchHit readHit(long offset, int contextLines) throws IOException {
+    LogSearchHit hit = new LogSearchHit();
+    hit.setOffset(offset);
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      long beforeStart = Math.max(0, offset - (long) MAX_LINE * Math.min(contextLines, 4));
+      List<String> before = split(read(channel, beforeStart, offset - beforeStart));
+      // drop the empty string after the last line terminator and a partial first line
+      before.remove(before.size() - 1);
+      if (beforeStart > 0 && !before.isEmpty()) {
+        before.remove(0);
+      }
+      hit.setBefore(before.subList(Math.max(0, before.size() - contextLines), before.size()));
+
+      long afterEnd = Math.min(size, offset + (long) MAX_LINE * (Math.min(contextLines, 4) + 1));
+      List<String> after = split(read(channel, offset, afterEnd - offset));
+      if (afterEnd < size || after.get(after.size() - 1).isEmpty()) {
+        // drop a partial last line, or the empty string after the last line terminator
+        after.remove(after.size() - 1);
+      }
+      hit.setLine(after.isEmpty() ? "" : after.get(0));
+      hit.setAfter(
+          after.subList(Math.min(1, after.size()), Math.min(contextLines + 1, after.size())));
+    }
+    return hit;
+  }
+
+  /**
+   * Reads part of the file as text.
+   *
+   * @param channel the channel
+   * @param position the position
+   * @param length the length
+   * @return the text
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private String read(FileChannel channel, long position, long length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) length);
+    while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+      // fill the buffer
+    }
+    return new String(buffer.array(), 0, buffer.position(), charset);
+  }
+
+  /**
+   * Splits text into lines.
+   *
+   * @param text the text
+   * @return the lines, with an empty string last when the text ends with a line terminator
+   */
+  private static List<String> split(String text) {
+    List<String> lines = new ArrayList<>(Arrays.asList(text.split("\n", -1)));
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.endsWith("\r")) {
+        lines.set(i, line.substring(0, line.length() - 1));
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Scans the lines starting in a chunk of the file.
+   *
+   * @param channel the channel
+   * @param chunkStart the chunk start
+   * @param chunkEnd the chunk end
+   * @param end the end of the scanned part of the file
+   * @return the offsets of the matching lines
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  List<Long> scanChunk(FileChannel channel, long chunkStart, long chunkEnd, long end)
+      throws IOException {
+    long mapStart = Math.max(0, chunkStart - 1);
+    long mapEnd = Math.min(end, chunkEnd + MAX_LINE);
+    MappedByteBuffer buffer =
+        channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+    try {
+      return scanChunk(buffer, mapStart, chunkStart, chunkEnd, mapEnd);
+    } finally {
+      unmap(buffer);
+    }
+  }
+
+  /**
+   * Scans the lines starting in a chunk of a mapped part of the file.
+   *
+   * @param buffer the mapped part of the file
+   * @param mapStart the offset of the mapped part
+   * @param chunkStart the chunk start
+   * @param chunkEnd the chunk end
+   * @param mapEnd the end of the mapped part
+   * @return the offsets of the matching lines
+   */
+  private List<Long> scanChunk(ByteBuffer buffer, long mapStart, long chunkStart, long chunkEnd,
+      long mapEnd) {
+    int limit = (int) (mapEnd - mapStart);
+    int ownedEnd = (int) (chunkEnd - mapStart);
+
+    // the first line belonging to this chunk
+    int lineStart = (int) (chunkStart - mapStart);
+    if (chunkStart > 0 && buffer.get(lineStart - 1) != '\n') {
+      int newLine = indexOf(buffer, lineStart, limit, (byte) '\n');
+      lineStart = newLine < 0 ? limit : newLine + 1;
+    }
+
+    List<Long> hits = new ArrayList<>();
+    Matcher matcher = pattern != null ? pattern.matcher("") : null;
+    while (lineStart < ownedEnd) {
+      int lineEnd;
+      if (literal != null) {
+        int found = indexOf(buffer, lineStart, limit, literal, shift);
+        if (found < 0) {
+          break;
+        }
+        lineStart = lastIndexOf(buffer, lineStart, found, (byte) '\n') + 1;
+        if (lineStart >= ownedEnd) {
+          break;
+        }
+        lineEnd = indexOf(buffer, found, limit, (byte) '\n');
+        lineEnd = lineEnd < 0 ? limit : lineEnd;
+        if (inPeriod(decode(buffer, lineStart, lineEnd))) {
+          hits.add(mapStart + lineStart);
+        }
+      } else {
+        lineEnd = indexOf(buffer, lineStart, limit, (byte) '\n');
+        lineEnd = lineEnd < 0 ? limit : lineEnd;
+        String line = decode(buffer, lineStart, lineEnd);
+        if (matcher.reset(line).find() && inPeriod(line)) {
+          hits.add(mapStart + lineStart);
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+    return hits;
+  }
+
+  /**
+   * Checks whether a line was logged in the requested period.
+   *
+   * @param line the line
+   * @return true, if the line has no timestamp or one in the period
+   */
+  private boolean inPeriod(String line) {
+    if (fromTime < 0 && toTime < 0) {
+      return true;
+    }
+    long time = TimestampIndex.parseTimestamp(line);
+    return time < 0 || (fromTime < 0 || time >= fromTime) && (toTime < 0 || time <= toTime);
+  }
+
+  /**
+   * Decodes a line.
+   *
+   * @param buffer the buffer
+   * @param start the start
+   * @param end the end
+   * @return the line
+   */
+  private String decode(ByteBuffer buffer, int start, int end) {
+    if (end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+    byte[] bytes = new byte[end - start];
+    ByteBuffer view = buffer.duplicate();
+    view.position(start);
+    view.get(bytes);
+    return new String(bytes, charset);
+  }
+
+  /**
+   * Finds a byte.
+   *
+   * @param buffer the buffer
+   * @param from the first index to check
+   * @param to the index to stop at
+   * @param value the byte
+   * @return the index, or -1 if not found
+   */
+  private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the last occurrence of a byte before an index.
+   *
+   * @param buffer the buffer
+   * @param from the first index to check
+   * @param to the index to stop at, excluded
+   * @param value the byte
+   * @return the index, or from - 1 if not found
+   */
+  private static int lastIndexOf(ByteBuffer buffer, int from, int to, byte value) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buffer.get(i) == value) {
+        return i;
+      }
+    }
+    return from - 1;
+  }
+
+  /**
+   * Computes the Boyer-Moore-Horspool shifts of the bytes to find, once per search.
+   *
+   * @param pattern the bytes to find
+   * @return the shift by the value of the last byte compared
+   */
+  static int[] shifts(byte[] pattern) {
+    int length = pattern.length;
+    int[] shift = new int[256];
+    Arrays.fill(shift, Math.max(length, 1));
+    for (int i = 0; i < length - 1; i++) {
+      shift[pattern[i] & 0xff] = length - 1 - i;
+    }
+    return shift;
+  }
+
+  /**
+   * Finds a sequence of bytes, skipping ahead on mismatches as Boyer-Moore-Horspool does.
+   *
+   * @param buffer the buffer
+   * @param from the first index to check
+   * @param to the index to stop at
+   * @param pattern the bytes to find
+   * @param shift the shifts of the bytes to find
+   * @return the index, or -1 if not found
+   * @see #shifts(byte[])
+   */
+  static int indexOf(ByteBuffer buffer, int from, int to, byte[] pattern, int[] shift) {
+    int length = pattern.length;
+    if (length == 0) {
+      return from < to ? from : -1;
+    }
+    int i = from;
+    while (i <= to - length) {
+      int j = length - 1;
+      while (j >= 0 && buffer.get(i + j) == pattern[j]) {
+        j--;
+      }
+      if (j < 0) {
+        return i;
+      }
+      i += shift[buffer.get(i + length - 1) & 0xff];
+    }
+    return -1;
+  }
+
+  /**
+   * Unmaps a buffer no longer used, rather than leaving it to the garbage collector, since a mapped
+   * file cannot be renamed or deleted on Windows.
+   *
+   * @param buffer the buffer
+   */
+  static void unmap(MappedByteBuffer buffer) {
+    try {
+      if (INVOKE_CLEANER != null) {
+        INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        return;
+      }
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.trace("Could not unmap buffer, left to the garbage collector", e);
+    }
+  }
+
+  /**
+   * Creates the threads scanning chunks, which go away when idle.
+   *
+   * @return the executor
+   */
+  private static ThreadPoolExecutor newExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("psi-probe-log-scan-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Scans a chunk on a worker thread.
+   */
+  private class ChunkTask implements Callable<List<Long>> {
+
+    /** The channel, read through mappings only so it can be shared. */
+    private final FileChannel channel;
+
+    /** The chunk start. */
+    private final long chunkStart;
+
+    /** The chunk end. */
+    private final long chunkEnd;
+
+    /** The end of the scanned part of the file. */
+    private final long end;
+
+    /**
+     * Instantiates a new chunk task.
+     *
+     * @param channel the channel
+     * @param chunkStart the chunk start
+     * @param chunkEnd the chunk end
+     * @param end the end
+     */
+    ChunkTask(FileChannel channel, long chunkStart, long chunkEnd, long end) {
+      this.channel = channel;
+      this.chunkStart = chunkStart;
+      this.chunkEnd = chunkEnd;
+      this.end = end;
+    }
+
+    @Override
+    public List<Long> call() throws IOException {
+      return scanChunk(channel, chunkStart, chunkEnd, end);
+    }
+
+  }
+
+}
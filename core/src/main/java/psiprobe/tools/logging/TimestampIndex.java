@@ -0,0 +1,278 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.text.DateFormatSymbols;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A sparse index of a log file, mapping the timestamp of a line about every
+ * {@value #INTERVAL} bytes to its offset. It lets time bounded searches skip the parts of the file
+ * outside of the requested period.
+ *
+ * <p>
+ * The index is built on first use and extended as the file grows. It is rebuilt from scratch
+ * should the file shrink, which is what rotation and truncation look like.
+ * </p>
+ */
+public class TimestampIndex {
+
+  /** The distance between two indexed offsets. */
+  public static final int INTERVAL = 1024 * 1024;
+
+  /** The number of bytes read at an indexed offset looking for a timestamped line. */
+  private static final int PROBE_SIZE = 64 * 1024;
+
+  /** The number of leading characters of a line checked for a timestamp. */
+  private static final int TIMESTAMP_PREFIX = 64;
+
+  /** ISO 8601 like timestamps, as written by logback, log4j and most pattern layouts. */
+  private static final Pattern ISO_TIMESTAMP =
+      Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})[ T](\\d{2}):(\\d{2}):(\\d{2})");
+
+  /** Timestamps written by the Tomcat OneLineFormatter, e.g. 18-Apr-2018 10:00:00.000. */
+  private static final Pattern TOMCAT_TIMESTAMP =
+      Pattern.compile("(\\d{2})-([A-Za-z]{3})-(\\d{4}) (\\d{2}):(\\d{2}):(\\d{2})");
+
+  /** A time of day only, e.g. 14:05 or 14:05:30. */
+  private static final Pattern TIME_OF_DAY = Pattern.compile("(\\d{1,2}):(\\d{2})(?::(\\d{2}))?");
+
+  /** The Constant MONTHS. */
+  private static final String[] MONTHS = new DateFormatSymbols(Locale.ENGLISH).getShortMonths();
+
+  /** The file. */
+  private final File file;
+
+  /** The charset. */
+  private final Charset charset;
+
+  /** The indexed offsets. */
+  private final List<Long> offsets = new ArrayList<>();
+
+  /** The timestamps of the lines at the indexed offsets. */
+  private final List<Long> times = new ArrayList<>();
+
+  /** The next offset to index. */
+  private long nextOffset;
+
+  /** The file length at the last update. */
+  private long indexedLength;
+
+  /**
+   * Instantiates a new timestamp index.
+   *
+   * @param file the file
+   * @param charset the charset
+   */
+  public TimestampIndex(File file, Charset charset) {
+    this.file = file;
+    this.charset = charset;
+  }
+
+  /**
+   * Gets the number of indexed offsets.
+   *
+   * @return the size
+   */
+  public synchronized int size() {
+    return offsets.size();
+  }
+
+  /**
+   * Brings the index up to date with the file.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  public synchronized void update() throws IOException {
+    long length = file.length();
+    if (length < indexedLength) {
+      offsets.clear();
+      times.clear();
+      nextOffset = 0;
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      while (nextOffset < length) {
+        probe(channel, nextOffset, length);
+        nextOffset += INTERVAL;
+      }
+    }
+    indexedLength = length;
+  }
+
+  /**
+   * Gets the part of the file which may hold lines logged in the period.
+   *
+   * @param fromTime the start of the period, or -1 for the beginning of the file
+   * @param toTime the end of the period, or -1 for the end of the file
+   * @param length the file length
+   * @return the start and end offsets
+   */
+  public synchronized long[] getRange(long fromTime, long toTime, long length) {
+    long start = 0;
+    long end = length;
+    for (int i = 0; i < offsets.size(); i++) {
+      if (fromTime >= 0 && times.get(i) < fromTime) {
+        start = offsets.get(i);
+      }
+      if (toTime >= 0 && times.get(i) > toTime) {
+        end = Math.min(length, offsets.get(i));
+        break;
+      }
+    }
+    return new long[] {start, Math.max(start, end)};
+  }
+
+  /**
+   * Indexes the first timestamped line starting at or after the position.
+   *
+   * @param channel the channel
+   * @param position the position
+   * @param length the file length
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private void probe(FileChannel channel, long position, long length) throws IOException {
+    long start = position == 0 ? 0 : position - 1;
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(PROBE_SIZE, length - start));
+    while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+      // fill the buffer
+    }
+    byte[] bytes = buffer.array();
+    int limit = buffer.position();
+    int lineStart = 0;
+    if (position > 0) {
+      // the byte before the position tells whether the position starts a line
+      lineStart = indexOf(bytes, 0, limit, (byte) '\n');
+      if (lineStart < 0) {
+        return;
+      }
+      lineStart++;
+    }
+    while (lineStart < limit) {
+      int lineEnd = indexOf(bytes, lineStart, limit, (byte) '\n');
+      if (lineEnd < 0) {
+        return;
+      }
+      String prefix =
+          new String(bytes, lineStart, Math.min(TIMESTAMP_PREFIX, lineEnd - lineStart), charset);
+      long time = parseTimestamp(prefix);
+      if (time >= 0) {
+        long offset = start + lineStart;
+        if (offsets.isEmpty() || offset > offsets.get(offsets.size() - 1)) {
+          offsets.add(offset);
+          times.add(time);
+        }
+        return;
+      }
+      lineStart = lineEnd + 1;
+    }
+  }
+
+  /**
+   * Finds a byte.
+   *
+   * @param bytes the bytes
+   * @param from the first index to check
+   * @param to the index to stop at
+   * @param value the byte
+   * @return the index, or -1 if not found
+   */
+  private static int indexOf(byte[] bytes, int from, int to, byte value) {
+    for (int i = from; i < to; i++) {
+      if (bytes[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses the timestamp at the beginning of a log line.
+   *
+   * @param line the line
+   * @return the time in milliseconds, or -1 if the line has no recognized timestamp
+   */
+  public static long parseTimestamp(String line) {
+    String prefix = line.length() > TIMESTAMP_PREFIX ? line.substring(0, TIMESTAMP_PREFIX) : line;
+    Matcher matcher = ISO_TIMESTAMP.matcher(prefix);
+    if (matcher.find()) {
+      return toTime(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) - 1,
+          Integer.parseInt(matcher.group(3)), matcher, 4);
+    }
+    matcher = TOMCAT_TIMESTAMP.matcher(prefix);
+    if (matcher.find()) {
+      for (int month = 0; month < 12; month++) {
+        if (MONTHS[month].equalsIgnoreCase(matcher.group(2))) {
+          return toTime(Integer.parseInt(matcher.group(3)), month,
+              Integer.parseInt(matcher.group(1)), matcher, 4);
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses a time entered by the user: a full timestamp as found in the logs, or a time of day on
+   * the day of the reference time.
+   *
+   * @param value the value
+   * @param referenceTime the reference time, usually the file last modification
+   * @return the time in milliseconds, or -1 if the value is empty or not recognized
+   */
+  public static long parseQueryTime(String value, long referenceTime) {
+    if (value == null || value.trim().isEmpty()) {
+      return -1;
+    }
+    long time = parseTimestamp(value.trim());
+    if (time >= 0) {
+      return time;
+    }
+    Matcher matcher = TIME_OF_DAY.matcher(value.trim());
+    if (matcher.matches()) {
+      Calendar calendar = Calendar.getInstance();
+      calendar.setTimeInMillis(referenceTime);
+      return toTime(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
+          calendar.get(Calendar.DAY_OF_MONTH), matcher, 1);
+    }
+    return -1;
+  }
+
+  /**
+   * Converts a date and the hours, minutes and optional seconds matched by a pattern to a time.
+   *
+   * @param year the year
+   * @param month the month, 0 based
+   * @param day the day of month
+   * @param matcher the matcher
+   * @param group the group holding the hours, followed by minutes and seconds
+   * @return the time in milliseconds
+   */
+  private static long toTime(int year, int month, int day, Matcher matcher, int group) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    String seconds = matcher.group(group + 2);
+    calendar.set(year, month, day, Integer.parseInt(matcher.group(group)),
+        Integer.parseInt(matcher.group(group + 1)),
+        seconds == null ? 0 : Integer.parseInt(seconds));
+    return calendar.getTimeInMillis();
+  }
+
+}
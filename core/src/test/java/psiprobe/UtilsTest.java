@@ -10,6 +10,7 @@
  */
 package psiprobe;
 
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -82,4 +83,27 @@ public class UtilsTest {
     Assert.assertEquals("", Utils.leftPad(null, 4, "0"));
   }
 
+  /**
+   * Gets the ranges test.
+   */
+  @Test
+  public void getRangesTest() {
+    Assert.assertTrue(Utils.getRanges(null, 100).isEmpty());
+    Assert.assertTrue(Utils.getRanges("items=0-1", 100).isEmpty());
+    Assert.assertTrue(Utils.getRanges("bytes=garbage", 100).isEmpty());
+    Assert.assertNull(Utils.getRanges("bytes=100-", 100));
+
+    List<long[]> ranges = Utils.getRanges("bytes=10-", 100);
+    Assert.assertEquals(1, ranges.size());
+    Assert.assertArrayEquals(new long[] {10, 99}, ranges.get(0));
+
+    ranges = Utils.getRanges("bytes=-20", 100);
+    Assert.assertArrayEquals(new long[] {80, 99}, ranges.get(0));
+
+    ranges = Utils.getRanges("bytes=50-200, 0-9, 5-14", 100);
+    Assert.assertEquals(2, ranges.size());
+    Assert.assertArrayEquals(new long[] {0, 14}, ranges.get(0));
+    Assert.assertArrayEquals(new long[] {50, 99}, ranges.get(1));
+  }
+
 }
@@ -0,0 +1,150 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.jmx.ClassHistogram;
+import psiprobe.model.jmx.ClassHistogramDelta;
+
+/**
+ * The Class ClassHistogramBeanTest.
+ */
+public class ClassHistogramBeanTest {
+
+  /**
+   * A histogram bean reading a histogram that grows with every snapshot.
+   */
+  private static class GrowingHistogramBean extends ClassHistogramBean {
+
+    /** The number of histograms read. */
+    int reads;
+
+    @Override
+    protected String readHistogram() {
+      reads++;
+      return "   1:  " + (100 * reads) + "  " + (1600 * reads) + "  com.example.Leak\n"
+          + "   2:  50  5000  com.example.Stable\n"
+          + (reads == 1 ? "   3:  10  200  com.example.Gone\n" : "");
+    }
+
+  }
+
+  /**
+   * Ring test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void ringTest() throws Exception {
+    GrowingHistogramBean bean = new GrowingHistogramBean();
+    bean.setMaxSnapshots(2);
+    bean.takeSnapshot();
+    bean.takeSnapshot();
+    bean.takeSnapshot();
+
+    List<ClassHistogram> snapshots = bean.getSnapshots();
+    Assert.assertEquals(2, snapshots.size());
+    Assert.assertEquals(2, snapshots.get(0).getId());
+    Assert.assertEquals(3, snapshots.get(1).getId());
+    Assert.assertNull(bean.getSnapshot(1));
+    Assert.assertNotNull(bean.getSnapshot(3));
+  }
+
+  /**
+   * Scheduled test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void scheduledTest() throws Exception {
+    GrowingHistogramBean bean = new GrowingHistogramBean();
+    bean.collect();
+    Assert.assertEquals(0, bean.reads);
+  }
+
+  /**
+   * Diff test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void diffTest() throws Exception {
+    GrowingHistogramBean bean = new GrowingHistogramBean();
+    ClassHistogram from = bean.takeSnapshot();
+    ClassHistogram to = bean.takeSnapshot();
+
+    List<ClassHistogramDelta> deltas = ClassHistogramBean.diff(from, to, false, 10);
+    Assert.assertEquals(3, deltas.size());
+    Assert.assertEquals("com.example.Leak", deltas.get(0).getClassName());
+    Assert.assertEquals(1600, deltas.get(0).getBytesDelta());
+    Assert.assertEquals(100, deltas.get(0).getInstancesDelta());
+    Assert.assertEquals(3200, deltas.get(0).getBytes());
+    Assert.assertEquals("com.example.Stable", deltas.get(1).getClassName());
+    Assert.assertEquals(0, deltas.get(1).getBytesDelta());
+    Assert.assertEquals("com.example.Gone", deltas.get(2).getClassName());
+    Assert.assertEquals(-200, deltas.get(2).getBytesDelta());
+    Assert.assertEquals(0, deltas.get(2).getInstances());
+
+    deltas = ClassHistogramBean.diff(from, to, true, 1);
+    Assert.assertEquals(1, deltas.size());
+    Assert.assertEquals("com.example.Leak", deltas.get(0).getClassName());
+  }
+
+  /**
+   * Diff against nothing test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void diffFromNothingTest() throws Exception {
+    ClassHistogram to = new GrowingHistogramBean().takeSnapshot();
+    List<ClassHistogramDelta> deltas = ClassHistogramBean.diff(null, to, false, 2);
+    Assert.assertEquals(2, deltas.size());
+    Assert.assertEquals("com.example.Stable", deltas.get(0).getClassName());
+    Assert.assertEquals(5000, deltas.get(0).getBytesDelta());
+    Assert.assertEquals("com.example.Leak", deltas.get(1).getClassName());
+  }
+
+  /**
+   * Diff of classes of the same name from different class loaders test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void diffDuplicateNamesTest() throws Exception {
+    ClassHistogramBean bean = new ClassHistogramBean() {
+      private int reads;
+
+      @Override
+      protected String readHistogram() {
+        reads++;
+        // the copy of the leaking webapp sorts first once it outgrows the other
+        return reads == 1
+            ? "   1:  100  1000  com.example.Cache\n   2:  10  100  com.example.Cache\n"
+            : "   1:  400  4000  com.example.Cache\n   2:  100  1000  com.example.Cache\n"
+                + "   3:  10  100  com.example.Cache\n";
+      }
+    };
+    ClassHistogram from = bean.takeSnapshot();
+    ClassHistogram to = bean.takeSnapshot();
+
+    List<ClassHistogramDelta> deltas = ClassHistogramBean.diff(from, to, false, 10);
+    Assert.assertEquals(1, deltas.size());
+    Assert.assertEquals("com.example.Cache", deltas.get(0).getClassName());
+    Assert.assertEquals(5100, deltas.get(0).getBytes());
+    Assert.assertEquals(4000, deltas.get(0).getBytesDelta());
+    Assert.assertEquals(510, deltas.get(0).getInstances());
+    Assert.assertEquals(400, deltas.get(0).getInstancesDelta());
+  }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.DashboardUpdate;
+
+/**
+ * The Class DashboardBeanTest.
+ */
+public class DashboardBeanTest {
+
+  /**
+   * A dashboard whose panels all show the same counter.
+   */
+  private static class CountingDashboard extends DashboardBean {
+
+    /** The value shown. */
+    volatile int value;
+
+    /** The number of times the panels were computed. */
+    final AtomicInteger collections = new AtomicInteger();
+
+    @Override
+    protected Map<String, Map<String, String>> collect(Collection<String> panelIds) {
+      collections.incrementAndGet();
+      Map<String, Map<String, String>> result = new HashMap<>();
+      for (String id : panelIds) {
+        if (!id.startsWith("missing")) {
+          result.put(id, Collections.singletonMap("value", Integer.toString(value)));
+        }
+      }
+      return result;
+    }
+
+  }
+
+  /**
+   * Creates a dashboard ticking quickly.
+   *
+   * @return the dashboard
+   */
+  private static CountingDashboard dashboard() {
+    CountingDashboard dashboard = new CountingDashboard();
+    dashboard.setTickInterval(50);
+    dashboard.setMaxWait(5000);
+    return dashboard;
+  }
+
+  /**
+   * Changes test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void changesTest() throws Exception {
+    CountingDashboard dashboard = dashboard();
+    List<String> panels = Arrays.asList("a", "b", "missing");
+
+    DashboardUpdate update = dashboard.poll(panels, 0, 1000);
+    Assert.assertEquals(2, update.getPanels().size());
+    Assert.assertEquals("0", update.getPanels().get("a").get("value"));
+
+    // nothing changes, the poll waits for the timeout and returns no values
+    DashboardUpdate unchanged = dashboard.poll(panels, update.getVersion(), 200);
+    Assert.assertTrue(unchanged.isEmpty());
+    Assert.assertEquals(update.getVersion(), unchanged.getVersion());
+
+    dashboard.value = 1;
+    DashboardUpdate changed = dashboard.poll(panels, update.getVersion(), 2000);
+    Assert.assertEquals(2, changed.getPanels().size());
+    Assert.assertEquals("1", changed.getPanels().get("b").get("value"));
+    Assert.assertTrue(changed.getVersion() > update.getVersion());
+
+    // a version from before a restart gets all values
+    Assert.assertEquals(2, dashboard.poll(panels, changed.getVersion() + 10, 0).getPanels().size());
+  }
+
+  /**
+   * New panel test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void newPanelTest() throws Exception {
+    CountingDashboard dashboard = dashboard();
+    dashboard.setTickInterval(60000);
+    DashboardUpdate update = dashboard.poll(Arrays.asList("a"), 0, 1000);
+    Assert.assertEquals(1, update.getPanels().size());
+
+    // a panel nobody asked for yet is computed right away instead of on the next tick
+    long start = System.currentTimeMillis();
+    update = dashboard.poll(Arrays.asList("a", "c"), update.getVersion(), 1000);
+    Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    Assert.assertEquals("0", update.getPanels().get("c").get("value"));
+  }
+
+  /**
+   * Shared tick test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void sharedTickTest() throws Exception {
+    final CountingDashboard dashboard = dashboard();
+    dashboard.setTickInterval(200);
+    final List<String> panels = Arrays.asList("a");
+    final long version = dashboard.poll(panels, 0, 1000).getVersion();
+    Assert.assertEquals(1, dashboard.collections.get());
+
+    dashboard.value = 1;
+    final AtomicInteger updated = new AtomicInteger();
+    Thread[] clients = new Thread[10];
+    for (int i = 0; i < clients.length; i++) {
+      clients[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            if (!dashboard.poll(panels, version, 2000).isEmpty()) {
+              updated.incrementAndGet();
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      };
+      clients[i].start();
+    }
+    for (Thread client : clients) {
+      client.join();
+    }
+    Assert.assertEquals(clients.length, updated.get());
+    // all clients were served by the values computed once
+    Assert.assertEquals(2, dashboard.collections.get());
+  }
+
+}
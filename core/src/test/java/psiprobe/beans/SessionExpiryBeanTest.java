@@ -0,0 +1,131 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.Collections;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.apache.catalina.Context;
+import org.apache.catalina.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.SessionExpiry;
+import psiprobe.model.SessionSearchInfo;
+import psiprobe.tools.SessionMatcher;
+
+/**
+ * The Class SessionExpiryBeanTest.
+ */
+public class SessionExpiryBeanTest {
+
+  /** The session. */
+  @Mocked
+  Session session;
+
+  /**
+   * Creates a matcher of the sessions with an id starting with A.
+   *
+   * @return the session matcher
+   */
+  private static SessionMatcher matcher() {
+    SessionSearchInfo searchInfo = new SessionSearchInfo();
+    searchInfo.setSearchAction(SessionSearchInfo.ACTION_APPLY);
+    searchInfo.setSessionId("A.*");
+    return new SessionMatcher(searchInfo);
+  }
+
+  /**
+   * Records a valid session with a matching id.
+   */
+  private void recordMatchingSession() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+        session.getId();
+        result = "A1";
+      }
+    };
+  }
+
+  /**
+   * Dry run test.
+   */
+  @Test
+  public void dryRunTest() {
+    recordMatchingSession();
+    SessionExpiry run = new SessionExpiry();
+    run.setDryRun(true);
+    run.setRunning(true);
+    new SessionExpiryBean().expire(run, Collections.nCopies(2500, session), matcher());
+
+    Assert.assertEquals(2500, run.getTotal());
+    Assert.assertEquals(2500, run.getScanned());
+    Assert.assertEquals(2500, run.getMatched());
+    Assert.assertEquals(0, run.getExpired());
+    Assert.assertEquals(100, run.getProgress());
+    Assert.assertFalse(run.isRunning());
+    new Verifications() {
+      {
+        session.expire();
+        times = 0;
+      }
+    };
+  }
+
+  /**
+   * Expire test.
+   */
+  @Test
+  public void expireTest() {
+    recordMatchingSession();
+    SessionExpiry run = new SessionExpiry();
+    run.setRunning(true);
+    new SessionExpiryBean().expire(run, Collections.nCopies(5, session), matcher());
+
+    Assert.assertEquals(5, run.getMatched());
+    Assert.assertEquals(5, run.getExpired());
+    Assert.assertEquals(100, run.getProgress());
+    new Verifications() {
+      {
+        session.expire();
+        times = 5;
+      }
+    };
+  }
+
+  /**
+   * Rate test.
+   */
+  @Test
+  public void rateTest() {
+    recordMatchingSession();
+    SessionExpiry run = new SessionExpiry();
+    run.setRate(100);
+    run.setRunning(true);
+    long start = System.nanoTime();
+    new SessionExpiryBean().expire(run, Collections.nCopies(10, session), matcher());
+
+    Assert.assertEquals(10, run.getExpired());
+    Assert.assertTrue(System.nanoTime() - start >= 90000000L);
+  }
+
+  /**
+   * Start without search test.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void startWithoutSearchTest() {
+    new SessionExpiryBean().start(Collections.<Context>emptyList(), new SessionSearchInfo(), null,
+        true, 0);
+  }
+
+}
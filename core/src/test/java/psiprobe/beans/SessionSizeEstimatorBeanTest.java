@@ -0,0 +1,249 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.apache.catalina.Context;
+import org.apache.catalina.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.ApplicationSession;
+import psiprobe.model.Attribute;
+import psiprobe.model.SessionSizeEstimate;
+import psiprobe.tools.SessionSizeCache;
+
+/**
+ * The Class SessionSizeEstimatorBeanTest.
+ */
+public class SessionSizeEstimatorBeanTest {
+
+  /**
+   * An estimator sizing the sessions to the given sizes, in the order they are sized, each
+   * session holding one "data" attribute and every other session a "user" attribute too.
+   */
+  private static class FixedSizeEstimator extends SessionSizeEstimatorBean {
+
+    /** The sizes of the data attributes. */
+    private final long[] sizes;
+
+    /** The number of sessions sized. */
+    int sized;
+
+    /**
+     * Instantiates a new fixed size estimator.
+     *
+     * @param sizes the sizes of the data attributes
+     */
+    FixedSizeEstimator(long... sizes) {
+      this.sizes = sizes;
+    }
+
+    @Override
+    protected ApplicationSession sizeSession(Session session) {
+      ApplicationSession appSession = new ApplicationSession();
+      long size = sizes[sized % sizes.length];
+      appSession.addAttribute(attribute("data", size));
+      if (sized % 2 == 0) {
+        appSession.addAttribute(attribute("user", 10));
+        size += 10;
+      }
+      appSession.setSize(size);
+      sized++;
+      return appSession;
+    }
+
+    /**
+     * Creates an attribute.
+     *
+     * @param name the name
+     * @param size the size
+     * @return the attribute
+     */
+    private static Attribute attribute(String name, long size) {
+      Attribute attribute = new Attribute();
+      attribute.setName(name);
+      attribute.setSize(size);
+      return attribute;
+    }
+
+  }
+
+  /**
+   * Sample test.
+   */
+  @Test
+  public void sampleTest() {
+    SessionSizeEstimatorBean estimator = new SessionSizeEstimatorBean();
+    int[] sample = estimator.sample(1000, 100);
+    Assert.assertEquals(100, sample.length);
+    Set<Integer> distinct = new HashSet<>();
+    for (int index : sample) {
+      Assert.assertTrue(index >= 0 && index < 1000);
+      distinct.add(index);
+    }
+    Assert.assertEquals(100, distinct.size());
+
+    int[] all = estimator.sample(10, 100);
+    Arrays.sort(all);
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, all);
+    Assert.assertEquals(0, estimator.sample(0, 100).length);
+  }
+
+  /**
+   * Exact when every session is sized test.
+   */
+  @Test
+  public void exactTest() {
+    FixedSizeEstimator estimator = new FixedSizeEstimator(100, 300);
+    SessionSizeEstimate estimate = estimator.estimate("/app", new Session[4]);
+
+    Assert.assertTrue(estimate.isExact());
+    Assert.assertEquals(4, estimator.sized);
+    Assert.assertEquals(100 + 10 + 300 + 100 + 10 + 300, estimate.getSize());
+    Assert.assertEquals(0, estimate.getMargin());
+    Assert.assertEquals("data", estimate.getTopAttributes().get(0).getName());
+    Assert.assertEquals(800, estimate.getTopAttributes().get(0).getSize());
+    Assert.assertEquals(4, estimate.getTopAttributes().get(0).getSessionCount());
+    Assert.assertEquals("user", estimate.getTopAttributes().get(1).getName());
+    Assert.assertEquals(2, estimate.getTopAttributes().get(1).getSessionCount());
+  }
+
+  /**
+   * Extrapolation test.
+   */
+  @Test
+  public void extrapolationTest() {
+    FixedSizeEstimator estimator = new FixedSizeEstimator(1000);
+    estimator.setSampleSize(50);
+    estimator.setTopAttributes(1);
+    SessionSizeEstimate estimate = estimator.estimate("/app", new Session[1000]);
+
+    Assert.assertFalse(estimate.isExact());
+    Assert.assertEquals(50, estimator.sized);
+    Assert.assertEquals(50, estimate.getSampledCount());
+    Assert.assertEquals(1000, estimate.getSessionCount());
+    // half of the sessions hold 1010 bytes and the other half 1000
+    Assert.assertEquals(1005000, estimate.getSize());
+    Assert.assertTrue(estimate.getMargin() > 0);
+    Assert.assertTrue(estimate.getMargin() < 5000);
+    Assert.assertEquals(1, estimate.getTopAttributes().size());
+    Assert.assertEquals(1000000, estimate.getTopAttributes().get(0).getSize());
+  }
+
+  /**
+   * Uniform sizes have no margin test.
+   */
+  @Test
+  public void uniformTest() {
+    FixedSizeEstimator estimator = new FixedSizeEstimator(500) {
+      @Override
+      protected ApplicationSession sizeSession(Session session) {
+        ApplicationSession appSession = new ApplicationSession();
+        appSession.setSize(500);
+        sized++;
+        return appSession;
+      }
+    };
+    estimator.setSampleSize(10);
+    SessionSizeEstimate estimate = estimator.estimate("/app", new Session[100]);
+    Assert.assertEquals(50000, estimate.getSize());
+    Assert.assertEquals(0, estimate.getMargin());
+  }
+
+  /**
+   * Time budget test.
+   */
+  @Test
+  public void timeBudgetTest() {
+    FixedSizeEstimator estimator = new FixedSizeEstimator(100) {
+      @Override
+      protected ApplicationSession sizeSession(Session session) {
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.sizeSession(session);
+      }
+    };
+    estimator.setTimeBudget(50);
+    SessionSizeEstimate estimate = estimator.estimate("/app", new Session[1000]);
+    Assert.assertTrue(estimate.getSampledCount() >= 1);
+    Assert.assertTrue(estimate.getSampledCount() < 100);
+    Assert.assertEquals(estimate.getSampledCount(), estimator.sized);
+  }
+
+  /**
+   * No sessions test.
+   */
+  @Test
+  public void emptyTest() {
+    SessionSizeEstimate estimate = new FixedSizeEstimator(100).estimate("/app", new Session[0]);
+    Assert.assertEquals(0, estimate.getSize());
+    Assert.assertEquals(0, estimate.getMargin());
+    Assert.assertTrue(estimate.getTopAttributes().isEmpty());
+  }
+
+  /**
+   * A missing estimate is made in the background, once, test.
+   *
+   * @param context the context
+   * @throws InterruptedException if interrupted while waiting for the estimate
+   */
+  @Test
+  public void pendingTest(@Mocked final Context context) throws InterruptedException {
+    new Expectations() {
+      {
+        context.getName();
+        result = "/app";
+        context.getManager().findSessions();
+        result = new Session[2];
+      }
+    };
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger started = new AtomicInteger();
+    FixedSizeEstimator estimator = new FixedSizeEstimator(100) {
+      @Override
+      protected ApplicationSession sizeSession(Session session) {
+        if (sized == 0) {
+          started.incrementAndGet();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return super.sizeSession(session);
+      }
+    };
+    try {
+      Assert.assertNull(estimator.getEstimate(context));
+      Assert.assertNull(estimator.getEstimate(context));
+      release.countDown();
+      long deadline = System.currentTimeMillis() + 10000;
+      while (estimator.getEstimate("/app") == null && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(1, started.get());
+      Assert.assertEquals(210, estimator.getEstimate(context).getSize());
+    } finally {
+      SessionSizeCache.getInstance().unwatchAll();
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.HighlightedSource;
+
+/**
+ * The Class SourceHighlighterBeanTest.
+ */
+public class SourceHighlighterBeanTest {
+
+  /**
+   * A source stream counting how often it is opened.
+   */
+  private static class CountingStream implements SourceHighlighterBean.SourceStream {
+
+    /** The opens. */
+    int opens;
+
+    @Override
+    public InputStream open() {
+      opens++;
+      return new ByteArrayInputStream(
+          "public class A {\n  int a;\n}\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+  }
+
+  /**
+   * Cache test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void cacheTest() throws Exception {
+    SourceHighlighterBean highlighter = new SourceHighlighterBean();
+    CountingStream stream = new CountingStream();
+
+    HighlightedSource source = highlighter.getSource("A.java", 1L, "UTF-8", "java", stream);
+    Assert.assertNotNull(source);
+    Assert.assertSame(source, highlighter.getSource("A.java", 1L, "UTF-8", "java", stream));
+    Assert.assertEquals(1, stream.opens);
+
+    // a modified file is rendered again
+    highlighter.getSource("A.java", 2L, "UTF-8", "java", stream);
+    Assert.assertEquals(2, stream.opens);
+
+    // an unknown modification time is never cached
+    highlighter.getSource("A.java", -1L, "UTF-8", "java", stream);
+    highlighter.getSource("A.java", -1L, "UTF-8", "java", stream);
+    Assert.assertEquals(4, stream.opens);
+  }
+
+  /**
+   * Size limit test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void sizeLimitTest() throws Exception {
+    SourceHighlighterBean highlighter = new SourceHighlighterBean();
+    highlighter.setMaxCachedChars(0);
+    CountingStream stream = new CountingStream();
+
+    highlighter.getSource("A.java", 1L, "UTF-8", "java", stream);
+    highlighter.getSource("A.java", 1L, "UTF-8", "java", stream);
+    Assert.assertEquals(2, stream.opens);
+  }
+
+  /**
+   * Unknown renderer test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void unknownRendererTest() throws Exception {
+    Assert.assertNull(new SourceHighlighterBean().getSource("A.txt", 1L, "UTF-8", "none",
+        new CountingStream()));
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.RequestProcessor;
+import psiprobe.model.StuckRequest;
+import psiprobe.model.StuckRequestSample;
+
+/**
+ * The Class StuckRequestDetectorBeanTest.
+ */
+public class StuckRequestDetectorBeanTest {
+
+  /** The context names of the deployed applications. */
+  private static final List<String> APPS = Arrays.asList("", "/shop", "/shop/admin");
+
+  /**
+   * Creates a busy request processor.
+   *
+   * @param threadName the worker thread name
+   * @param uri the uri
+   * @param processingTime the processing time
+   * @return the request processor
+   */
+  private static RequestProcessor busy(String threadName, String uri, long processingTime) {
+    RequestProcessor rp = new RequestProcessor();
+    rp.setWorkerThreadName(threadName);
+    rp.setMethod("GET");
+    rp.setCurrentUri(uri);
+    rp.setProcessingTime(processingTime);
+    return rp;
+  }
+
+  /**
+   * Uris belong to the application with the longest matching context name.
+   */
+  @Test
+  public void applicationName() {
+    Assert.assertEquals("/shop/admin",
+        StuckRequestDetectorBean.getApplicationName("/shop/admin/orders", APPS));
+    Assert.assertEquals("/shop", StuckRequestDetectorBean.getApplicationName("/shop", APPS));
+    Assert.assertEquals("/", StuckRequestDetectorBean.getApplicationName("/shopping", APPS));
+    Assert.assertNull(StuckRequestDetectorBean.getApplicationName("/shopping",
+        Collections.singletonList("/shop")));
+  }
+
+  /**
+   * Applications may have thresholds of their own.
+   */
+  @Test
+  public void contextThresholds() {
+    StuckRequestDetectorBean detector = new StuckRequestDetectorBean();
+    detector.setThreshold(30000);
+    detector.setContextThresholds("/shop=1m, /=5s,bogus");
+    Assert.assertEquals(60000, detector.getContextThreshold("/shop"));
+    Assert.assertEquals(5000, detector.getContextThreshold("/"));
+    Assert.assertEquals(30000, detector.getContextThreshold("/other"));
+    Assert.assertEquals(30000, detector.getContextThreshold(null));
+  }
+
+  /**
+   * A stuck request is sampled on every scan until it finishes.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void stuckRequestSampled() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    Thread worker = new Thread("test-exec-stuck") {
+      @Override
+      public void run() {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    worker.start();
+    try {
+      StuckRequestDetectorBean detector = new StuckRequestDetectorBean();
+      detector.setThreshold(10000);
+      detector.setContextThresholds("/shop=1m");
+
+      // below the threshold of its application
+      detector.collect(Arrays.asList(busy("test-exec-stuck", "/shop/cart", 20000),
+          busy("test-exec-quick", "/home", 2000)), APPS, 100000);
+      Assert.assertTrue(detector.getIncidents().isEmpty());
+
+      detector.collect(Collections.singletonList(busy("test-exec-stuck", "/shop/cart", 70000)),
+          APPS, 150000);
+      detector.collect(Collections.singletonList(busy("test-exec-stuck", "/shop/cart", 80000)),
+          APPS, 160000);
+
+      List<StuckRequest> incidents = detector.getIncidents();
+      Assert.assertEquals(1, incidents.size());
+      StuckRequest incident = incidents.get(0);
+      Assert.assertEquals("/shop", incident.getApplicationName());
+      Assert.assertEquals(80000, incident.getStartTime());
+      Assert.assertEquals(80000, incident.getDuration());
+      Assert.assertEquals(60000, incident.getThreshold());
+      Assert.assertFalse(incident.isFinished());
+
+      List<StuckRequestSample> samples = incident.getSamples();
+      Assert.assertEquals(2, samples.size());
+      Assert.assertFalse(samples.get(0).getStack().isEmpty());
+
+      detector.collect(Collections.<RequestProcessor>emptyList(), APPS, 170000);
+      Assert.assertTrue(incident.isFinished());
+    } finally {
+      release.countDown();
+      worker.join();
+    }
+  }
+
+  /**
+   * A new request stuck on the same worker thread is a new incident.
+   */
+  @Test
+  public void nextRequestOnSameThread() {
+    StuckRequestDetectorBean detector = new StuckRequestDetectorBean();
+    detector.setThreshold(10000);
+    detector.setMaxIncidents(1);
+
+    detector.collect(Collections.singletonList(busy("test-exec-gone", "/a", 15000)), APPS, 100000);
+    detector.collect(Collections.singletonList(busy("test-exec-gone", "/b", 12000)), APPS, 130000);
+
+    List<StuckRequest> incidents = detector.getIncidents();
+    Assert.assertEquals(1, incidents.size());
+    Assert.assertEquals("/b", incidents.get(0).getUri());
+    // there is no such thread to sample
+    Assert.assertTrue(incidents.get(0).getSamples().isEmpty());
+  }
+
+}
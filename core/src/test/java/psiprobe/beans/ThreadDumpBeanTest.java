@@ -0,0 +1,173 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import psiprobe.model.ThreadDumpInfo;
+import psiprobe.model.ThreadStackGroup;
+
+/**
+ * The Class ThreadDumpBeanTest.
+ */
+public class ThreadDumpBeanTest {
+
+  /** The temporary folder. */
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** The thread dump bean. */
+  private ThreadDumpBean threadDump;
+
+  /**
+   * Sets up a bean storing its dumps in a temporary folder.
+   */
+  @Before
+  public void setUp() {
+    threadDump = new ThreadDumpBean();
+    threadDump.setStoragePath(temporaryFolder.getRoot().getAbsolutePath());
+    threadDump.setMaxDumps(3);
+  }
+
+  /**
+   * A dump holds every thread and the current thread is found in it with its stack.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void captureAndRead() throws IOException {
+    ThreadDumpInfo dump = threadDump.capture("test");
+
+    Assert.assertEquals(1, dump.getId());
+    Assert.assertEquals("test", dump.getReason());
+    Assert.assertTrue(dump.getThreadCount() > 0);
+    Assert.assertTrue(threadDump.getFile(dump).length() > 0);
+
+    boolean found = false;
+    int threads = 0;
+    for (ThreadStackGroup group : threadDump.getStackGroups(dump)) {
+      threads += group.getCount();
+      if (group.getThreadNames().contains(Thread.currentThread().getName())) {
+        found = true;
+        Assert.assertEquals("RUNNABLE", group.getState());
+        Assert.assertTrue(group.getFrames().toString().contains("ThreadDumpBean.capture("));
+      }
+    }
+    Assert.assertTrue(found);
+    Assert.assertEquals(dump.getThreadCount(), threads);
+  }
+
+  /**
+   * Only the latest dumps are kept on disk, and they are found again after a restart.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void ring() throws IOException {
+    for (int i = 0; i < 5; i++) {
+      threadDump.capture("dump " + i);
+    }
+    List<ThreadDumpInfo> dumps = threadDump.getDumps();
+    Assert.assertEquals(3, dumps.size());
+    Assert.assertEquals(5, dumps.get(0).getId());
+    Assert.assertEquals(3, dumps.get(2).getId());
+    Assert.assertEquals(3, temporaryFolder.getRoot().list().length);
+    Assert.assertNull(threadDump.getDump(2));
+
+    ThreadDumpBean restarted = new ThreadDumpBean();
+    restarted.setStoragePath(temporaryFolder.getRoot().getAbsolutePath());
+    restarted.setMaxDumps(3);
+    dumps = restarted.getDumps();
+    Assert.assertEquals(3, dumps.size());
+    Assert.assertEquals("dump 4", dumps.get(0).getReason());
+    Assert.assertEquals(6, restarted.capture("after restart").getId());
+    Assert.assertFalse(new File(temporaryFolder.getRoot(), "threaddump-3.txt.gz").exists());
+  }
+
+  /**
+   * Automatic dumps are at least the minimum interval apart.
+   */
+  @Test
+  public void captureAutomatically() {
+    threadDump.setMinInterval(60000);
+    Assert.assertNotNull(threadDump.captureAutomatically("first"));
+    Assert.assertNull(threadDump.captureAutomatically("second"));
+    Assert.assertEquals(1, threadDump.getDumps().size());
+  }
+
+  /**
+   * Threads with the same state and stack are grouped, whatever they lock, and groups are ranked
+   * by how much they changed.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void diff() throws IOException {
+    String before = "Thread dump id=1 time=0 threads=3 reason=\n"
+        + "1970-01-01 00:00:00.000\n\n"
+        + "\"exec-1\" Id=10 WAITING on java.lang.Object@1\n"
+        + "\tat java.lang.Object.wait(Native Method)\n"
+        + "\t-  waiting on java.lang.Object@1\n"
+        + "\tat app.Pool.take(Pool.java:10)\n\n"
+        + "\"exec-2\" Id=11 RUNNABLE\n"
+        + "\tat app.Servlet.service(Servlet.java:20)\n\n";
+    String after = "Thread dump id=2 time=1000 threads=3 reason=\n"
+        + "1970-01-01 00:00:01.000\n\n"
+        + "\"exec-1\" Id=10 BLOCKED on java.lang.Object@2 owned by \"exec-3\" Id=12\n"
+        + "\tat app.Dao.query(Dao.java:5)\n"
+        + "\t-  blocked on java.lang.Object@2\n\n"
+        + "\"exec-2\" Id=11 BLOCKED on java.lang.Object@2 owned by \"exec-3\" Id=12\n"
+        + "\tat app.Dao.query(Dao.java:5)\n"
+        + "\t-  blocked on java.lang.Object@2\n\n"
+        + "\"exec-3\" Id=12 RUNNABLE\n"
+        + "\tat app.Servlet.service(Servlet.java:20)\n"
+        + "\t-  locked java.lang.Object@2\n\n";
+
+    List<ThreadStackGroup> groups = ThreadDumpBean.diff(
+        ThreadDumpBean.groupStacks(new BufferedReader(new StringReader(before))),
+        ThreadDumpBean.groupStacks(new BufferedReader(new StringReader(after))));
+
+    Assert.assertEquals(3, groups.size());
+    Assert.assertEquals("BLOCKED", groups.get(0).getState());
+    Assert.assertEquals("app.Dao.query(Dao.java:5)", groups.get(0).getTopFrame());
+    Assert.assertEquals(2, groups.get(0).getCount());
+    Assert.assertEquals(2, groups.get(0).getDelta());
+    Assert.assertEquals("WAITING", groups.get(1).getState());
+    Assert.assertEquals(-1, groups.get(1).getDelta());
+    Assert.assertEquals(2, groups.get(1).getFrames().size());
+    Assert.assertEquals("RUNNABLE", groups.get(2).getState());
+    Assert.assertEquals(0, groups.get(2).getDelta());
+    Assert.assertEquals("exec-3", groups.get(2).getThreadNames().get(0));
+  }
+
+  /**
+   * The first line of a dump is parsed back, with a reason of several words.
+   */
+  @Test
+  public void parseHeader() {
+    ThreadDumpInfo dump = ThreadDumpBean.parseHeader(
+        "Thread dump id=7 time=1234 threads=56 reason=os.cpu at 95", "threaddump-7.txt.gz", 10);
+    Assert.assertEquals(7, dump.getId());
+    Assert.assertEquals(1234, dump.getTime());
+    Assert.assertEquals(56, dump.getThreadCount());
+    Assert.assertEquals("os.cpu at 95", dump.getReason());
+    Assert.assertNull(ThreadDumpBean.parseHeader("garbage", "threaddump-8.txt.gz", 10));
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import com.codebox.bean.JavaBeanTester;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.beans.stats.collectors.AppHeapStatsCollectorBean.Pass;
+
+/**
+ * The Class AppHeapStatsCollectorBeanTest.
+ */
+public class AppHeapStatsCollectorBeanTest {
+
+  /**
+   * A class with a static field for the statics to be sized.
+   */
+  static class Holder {
+
+    /** The data. */
+    static final long[] DATA = new long[128];
+
+  }
+
+  /**
+   * Javabean tester.
+   */
+  @Test
+  public void javabeanTester() {
+    JavaBeanTester.builder(AppHeapStatsCollectorBean.class).loadData().test();
+  }
+
+  /**
+   * All roots are sized in one run when the budget allows.
+   */
+  @Test
+  public void completeInOneRun() {
+    Pass pass = new Pass();
+    List<Object> attributes = Arrays.<Object>asList(new int[64], "value");
+    List<Class<?>> classes = Collections.<Class<?>>singletonList(Holder.class);
+    // the statics of a class are only read once it is initialized
+    Assert.assertEquals(128, Holder.DATA.length);
+
+    Assert.assertTrue(AppHeapStatsCollectorBean.advance(pass, attributes, classes,
+        getClass().getClassLoader(), Long.MAX_VALUE));
+    Assert.assertEquals(1, pass.runs);
+    Assert.assertEquals(1, pass.classCount);
+    Assert.assertTrue(pass.contextAttributesSize >= 64 * 4);
+    Assert.assertTrue(pass.staticsSize >= 128 * 8);
+    Assert.assertFalse(pass.truncated);
+  }
+
+  /**
+   * A pass out of time keeps its progress and completes on a later run.
+   */
+  @Test
+  public void resumedAfterDeadline() {
+    Pass pass = new Pass();
+    List<Object> attributes = new ArrayList<>();
+    attributes.add(new int[64]);
+    attributes.add(new int[64]);
+
+    Assert.assertFalse(AppHeapStatsCollectorBean.advance(pass, attributes, null,
+        getClass().getClassLoader(), 0));
+    Assert.assertEquals(1, pass.index);
+    Assert.assertTrue(pass.truncated);
+    long partial = pass.contextAttributesSize;
+
+    Assert.assertTrue(AppHeapStatsCollectorBean.advance(pass, attributes, null,
+        getClass().getClassLoader(), Long.MAX_VALUE));
+    Assert.assertEquals(2, pass.runs);
+    Assert.assertEquals(-1, pass.classCount);
+    Assert.assertTrue(pass.contextAttributesSize > partial);
+    Assert.assertEquals(0, pass.staticsSize);
+  }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import com.codebox.bean.JavaBeanTester;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psiprobe.model.LeakedClassLoader;
+import psiprobe.model.stats.StatsCollection;
+
+/**
+ * The Class ClassLoaderLeakCollectorBeanTest.
+ */
+public class ClassLoaderLeakCollectorBeanTest {
+
+  /** The collector. */
+  private ClassLoaderLeakCollectorBean collector;
+
+  /** The loader of the first deployment, kept reachable as a leak would. */
+  private ClassLoader first;
+
+  /** The loader of the second deployment. */
+  private ClassLoader second;
+
+  /**
+   * Sets up the collector.
+   */
+  @Before
+  public void setUp() {
+    collector = new ClassLoaderLeakCollectorBean();
+    collector.setStatsCollection(new StatsCollection());
+    collector.setGcThreshold(2);
+    first = new URLClassLoader(new URL[0]);
+    second = new URLClassLoader(new URL[0]);
+  }
+
+  /**
+   * Javabean tester.
+   */
+  @Test
+  public void javabeanTester() {
+    JavaBeanTester.builder(ClassLoaderLeakCollectorBean.class).loadData().test();
+  }
+
+  /**
+   * A reloaded application's old loader is leaked only after enough old generation collections.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void leakedAfterThreshold() throws InterruptedException {
+    collector.collect(loaders(first, "/app"), 10, 1000);
+    collector.collect(loaders(second, "/app"), 10, 2000);
+    collector.collect(loaders(second, "/app"), 11, 3000);
+    Assert.assertTrue(collector.getLeakedClassLoaders(11, 3000).isEmpty());
+
+    collector.collect(loaders(second, "/app"), 12, 4000);
+    List<LeakedClassLoader> leaked = collector.getLeakedClassLoaders(13, 5000);
+    Assert.assertEquals(1, leaked.size());
+    LeakedClassLoader loader = leaked.get(0);
+    Assert.assertEquals("/app", loader.getApplicationName());
+    Assert.assertEquals(2000, loader.getRetiredTime());
+    Assert.assertEquals(3000, loader.getAge());
+    Assert.assertEquals(3, loader.getGcCount());
+    Assert.assertTrue(loader.getLoaderName().startsWith("URLClassLoader@"));
+    Assert.assertEquals(1, collector.getStatsCollection().getLastValueForStat(
+        ClassLoaderLeakCollectorBean.LEAKED));
+  }
+
+  /**
+   * A loader retired right before a reload counts the collections from then on, even if no
+   * collection saw it being replaced.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void retiredBeforeCollection() throws InterruptedException {
+    collector.retire(first, "/app", 5, 1000);
+    collector.collect(loaders(second, "/app"), 7, 2000);
+    List<LeakedClassLoader> leaked = collector.getLeakedClassLoaders(7, 2000);
+    Assert.assertEquals(1, leaked.size());
+    Assert.assertEquals(1000, leaked.get(0).getRetiredTime());
+  }
+
+  /**
+   * The classes of a loader are counted as they were when it was retired, since stopping its
+   * context clears the entries they are listed from.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void classesListedWhenRetired() throws InterruptedException {
+    WebappLoader webapp = new WebappLoader();
+    webapp.resourceEntries.put("a", new ResourceEntry(WebappLoader.class));
+    webapp.resourceEntries.put("b", new ResourceEntry(ResourceEntry.class));
+    collector.retire(webapp, "/app", 5, 1000);
+    webapp.resourceEntries.clear();
+
+    collector.collect(loaders(second, "/app"), 7, 2000);
+    List<LeakedClassLoader> leaked = collector.getLeakedClassLoaders(7, 2000);
+    Assert.assertEquals(1, leaked.size());
+    Assert.assertEquals(2, leaked.get(0).getClassCount());
+  }
+
+  /**
+   * A loader retired before a stop that failed is in use again and not reported.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void stillInUse() throws InterruptedException {
+    collector.collect(loaders(first, "/app"), 0, 1000);
+    collector.retire(first, "/app", 0, 2000);
+    collector.collect(loaders(first, "/app"), 5, 3000);
+    Assert.assertTrue(collector.getLeakedClassLoaders(5, 3000).isEmpty());
+  }
+
+  /**
+   * Old generation collectors are told apart from young ones by name and pools.
+   */
+  @Test
+  public void oldCollector() {
+    String[] g1 = {"G1 Eden Space", "G1 Survivor Space", "G1 Old Gen"};
+    Assert.assertTrue(ClassLoaderLeakCollectorBean.isOldCollector("G1 Old Generation", g1));
+    Assert.assertFalse(ClassLoaderLeakCollectorBean.isOldCollector("G1 Young Generation", g1));
+    Assert.assertTrue(ClassLoaderLeakCollectorBean.isOldCollector("PS MarkSweep",
+        new String[] {"PS Eden Space", "PS Survivor Space", "PS Old Gen"}));
+    Assert.assertFalse(ClassLoaderLeakCollectorBean.isOldCollector("PS Scavenge",
+        new String[] {"PS Eden Space", "PS Survivor Space"}));
+    Assert.assertTrue(ClassLoaderLeakCollectorBean.isOldCollector("global",
+        new String[] {"nursery-allocate", "nursery-survivor", "tenured-LOA", "tenured-SOA"}));
+    Assert.assertFalse(ClassLoaderLeakCollectorBean.isOldCollector("ZGC",
+        new String[] {"ZHeap"}));
+  }
+
+  /**
+   * Builds the current loaders of the contexts.
+   *
+   * @param cl the class loader
+   * @param applicationName the application name
+   * @return the current loaders
+   */
+  private static Map<ClassLoader, String> loaders(ClassLoader cl, String applicationName) {
+    Map<ClassLoader, String> result = new IdentityHashMap<>();
+    result.put(cl, applicationName);
+    return result;
+  }
+
+  /**
+   * A loader listing its classes the way a Tomcat web application class loader does.
+   */
+  private static class WebappLoader extends URLClassLoader {
+
+    /** The resource entries. */
+    final Map<String, ResourceEntry> resourceEntries = new HashMap<>();
+
+    /**
+     * Instantiates a new webapp loader.
+     */
+    WebappLoader() {
+      super(new URL[0]);
+    }
+
+  }
+
+  /**
+   * A resource entry of a web application class loader.
+   */
+  private static class ResourceEntry {
+
+    /** The loaded class. */
+    final Class<?> loadedClass;
+
+    /**
+     * Instantiates a new resource entry.
+     *
+     * @param loadedClass the loaded class
+     */
+    ResourceEntry(Class<?> loadedClass) {
+      this.loadedClass = loadedClass;
+    }
+
+  }
+
+}
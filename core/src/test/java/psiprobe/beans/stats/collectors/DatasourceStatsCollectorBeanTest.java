@@ -11,7 +11,10 @@
 package psiprobe.beans.stats.collectors;
 
 import com.codebox.bean.JavaBeanTester;
+import org.junit.Assert;
 import org.junit.Test;
+import psiprobe.model.DataSourceInfo;
+import psiprobe.model.stats.StatsCollection;
 
 /**
  * The Class DatasourceStatsCollectorBeanTest.
@@ -26,4 +29,58 @@ public class DatasourceStatsCollectorBeanTest {
     JavaBeanTester.builder(DatasourceStatsCollectorBean.class).loadData().test();
   }
 
+  /**
+   * Waiters and wait times are recorded as they are, borrows and returns per interval.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void collectPoolStats() throws InterruptedException {
+    DatasourceStatsCollectorBean collector = new DatasourceStatsCollectorBean();
+    collector.setStatsCollection(new StatsCollection());
+    DataSourceInfo dsi = new DataSourceInfo();
+    dsi.setBusyConnections(8);
+    dsi.setEstablishedConnections(10);
+    dsi.setWaitingThreads(3);
+    dsi.setMeanWaitTime(40);
+    dsi.setMaxWaitTime(900);
+    dsi.setBorrowedCount(100);
+    dsi.setReturnedCount(95);
+
+    // the first value of a series only creates it
+    collector.collect("app/jdbc/db", dsi, 1000);
+    collector.collect("app/jdbc/db", dsi, 2000);
+    dsi.setBorrowedCount(130);
+    dsi.setReturnedCount(120);
+    collector.collect("app/jdbc/db", dsi, 3000);
+
+    StatsCollection stats = collector.getStatsCollection();
+    Assert.assertEquals(8, stats.getLastValueForStat("ds.busy.app/jdbc/db"));
+    Assert.assertEquals(10, stats.getLastValueForStat("ds.est.app/jdbc/db"));
+    Assert.assertEquals(3, stats.getLastValueForStat("ds.waiting.app/jdbc/db"));
+    Assert.assertEquals(40, stats.getLastValueForStat("ds.wait.mean.app/jdbc/db"));
+    Assert.assertEquals(900, stats.getLastValueForStat("ds.wait.max.app/jdbc/db"));
+    Assert.assertEquals(30, stats.getLastValueForStat("ds.borrowed.app/jdbc/db"));
+    Assert.assertEquals(25, stats.getLastValueForStat("ds.returned.app/jdbc/db"));
+  }
+
+  /**
+   * Statistics a pool does not expose have no series.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void unknownPoolStats() throws InterruptedException {
+    DatasourceStatsCollectorBean collector = new DatasourceStatsCollectorBean();
+    collector.setStatsCollection(new StatsCollection());
+
+    collector.collect("/jdbc/db", new DataSourceInfo(), 1000);
+
+    StatsCollection stats = collector.getStatsCollection();
+    Assert.assertNotNull(stats.getStats("ds.busy./jdbc/db"));
+    Assert.assertNull(stats.getStats("ds.waiting./jdbc/db"));
+    Assert.assertNull(stats.getStats("ds.wait.mean./jdbc/db"));
+    Assert.assertNull(stats.getStats("ds.borrowed./jdbc/db"));
+  }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.beans.stats.collectors;
+
+import com.codebox.bean.JavaBeanTester;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.ThreadPool;
+import psiprobe.model.stats.StatsCollection;
+
+/**
+ * The Class ThreadPoolStatsCollectorBeanTest.
+ */
+public class ThreadPoolStatsCollectorBeanTest {
+
+  /**
+   * Javabean tester.
+   */
+  @Test
+  public void javabeanTester() {
+    JavaBeanTester.builder(ThreadPoolStatsCollectorBean.class).loadData().test();
+  }
+
+  /**
+   * Every measure of a pool is recorded, with busy threads as a percentage of max threads.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void collectPool() throws InterruptedException {
+    ThreadPoolStatsCollectorBean collector = new ThreadPoolStatsCollectorBean();
+    collector.setStatsCollection(new StatsCollection());
+    ThreadPool pool = new ThreadPool();
+    pool.setName("exec");
+    pool.setMaxThreads(200);
+    pool.setCurrentThreadCount(60);
+    pool.setCurrentThreadsBusy(50);
+    pool.setQueueSize(7);
+
+    // the first value of a series only creates it
+    collector.collect(pool, 1000);
+    collector.collect(pool, 2000);
+
+    StatsCollection stats = collector.getStatsCollection();
+    Assert.assertEquals(50, stats.getLastValueForStat("stat.threadpool.exec.busy"));
+    Assert.assertEquals(60, stats.getLastValueForStat("stat.threadpool.exec.current"));
+    Assert.assertEquals(200, stats.getLastValueForStat("stat.threadpool.exec.max"));
+    Assert.assertEquals(7, stats.getLastValueForStat("stat.threadpool.exec.queue"));
+    Assert.assertEquals(25, stats.getLastValueForStat("stat.threadpool.exec.saturation"));
+  }
+
+  /**
+   * A pool not telling its queue size has no queue series.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  public void unknownQueue() throws InterruptedException {
+    ThreadPoolStatsCollectorBean collector = new ThreadPoolStatsCollectorBean();
+    collector.setStatsCollection(new StatsCollection());
+    ThreadPool pool = new ThreadPool();
+    pool.setName("http");
+    pool.setMaxThreads(10);
+
+    collector.collect(pool, 1000);
+
+    Assert.assertNotNull(collector.getStatsCollection().getStats("stat.threadpool.http.busy"));
+    Assert.assertNull(collector.getStatsCollection().getStats("stat.threadpool.http.queue"));
+  }
+
+}
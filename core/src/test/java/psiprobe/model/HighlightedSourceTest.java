@@ -0,0 +1,49 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.model;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class HighlightedSourceTest.
+ */
+public class HighlightedSourceTest {
+
+  /**
+   * Write window test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void writeWindowTest() throws IOException {
+    HighlightedSource source = new HighlightedSource(new String[] {"a", "", "bc", "d"});
+    Assert.assertEquals(4, source.getLineCount());
+    Assert.assertEquals(4, source.getSize());
+
+    StringWriter out = new StringWriter();
+    source.write(out, 2, 2);
+    Assert.assertEquals("\n<span class=\"codeline\"><span class=\"linenum\">"
+        + "&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;3</span>bc</span>\n", out.toString());
+
+    out = new StringWriter();
+    source.write(out, 4, 10);
+    Assert.assertEquals("<span class=\"codeline\"><span class=\"linenum\">"
+        + "&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;4</span>d</span>\n", out.toString());
+
+    out = new StringWriter();
+    source.write(out, 5, 10);
+    Assert.assertEquals("", out.toString());
+  }
+
+}
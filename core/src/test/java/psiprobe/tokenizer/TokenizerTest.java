@@ -0,0 +1,135 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tokenizer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class TokenizerTest.
+ */
+public class TokenizerTest {
+
+  /**
+   * Creates a tokenizer set up the way JSP directives are parsed.
+   *
+   * @param text the text
+   * @param cacheBufferSize the cache buffer size
+   * @return the tokenizer
+   */
+  private static Tokenizer directiveTokenizer(String text, int cacheBufferSize) {
+    Tokenizer tokenizer = new Tokenizer(new StringReader(text), cacheBufferSize);
+    tokenizer.addSymbol("\n", true);
+    tokenizer.addSymbol(" ", true);
+    tokenizer.addSymbol("\t", true);
+    tokenizer.addSymbol(new TokenizerSymbol("EQ", "=", null, false, false, true, false));
+    tokenizer.addSymbol(new TokenizerSymbol("STRING", "\"", "\"", false, false, true, false));
+    tokenizer.addSymbol(new TokenizerSymbol("STRING", "'", "'", false, false, true, false));
+    tokenizer.addSymbol(new TokenizerSymbol("COMMENT", "<%--", "--%>", false, false, true, false));
+    tokenizer.addSymbol(new TokenizerSymbol("DIRECTIVE_START", "<%@", null, false, false, true,
+        false));
+    tokenizer.addSymbol(new TokenizerSymbol("DIRECTIVE_END", "%>", null, false, false, true,
+        false));
+    return tokenizer;
+  }
+
+  /**
+   * Directive test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void directiveTest() throws IOException {
+    Tokenizer tokenizer =
+        directiveTokenizer("<%-- x --%>\n<%@ page contentType=\"text/html\" %>", 4096);
+
+    Token token = tokenizer.nextToken();
+    Assert.assertEquals(Tokenizer.TT_BLOCK, token.getType());
+    Assert.assertEquals("COMMENT", token.getName());
+    Assert.assertEquals(" x ", token.getInnerText());
+
+    token = tokenizer.nextToken();
+    Assert.assertEquals(Tokenizer.TT_SYMBOL, token.getType());
+    Assert.assertEquals("DIRECTIVE_START", token.getName());
+
+    token = tokenizer.nextToken();
+    Assert.assertEquals(Tokenizer.TT_TOKEN, token.getType());
+    Assert.assertEquals("page", token.getText());
+
+    Assert.assertEquals("contentType", tokenizer.nextToken().getText());
+    Assert.assertEquals("EQ", tokenizer.nextToken().getName());
+
+    token = tokenizer.nextToken();
+    Assert.assertEquals(Tokenizer.TT_BLOCK, token.getType());
+    Assert.assertEquals("\"text/html\"", token.getText());
+    Assert.assertEquals("text/html", token.getInnerText());
+
+    Assert.assertEquals("DIRECTIVE_END", tokenizer.nextToken().getName());
+    Assert.assertFalse(tokenizer.hasMore());
+  }
+
+  /**
+   * Longest symbol test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void longestSymbolTest() throws IOException {
+    Tokenizer tokenizer = new Tokenizer(new StringReader("a<%b<%@c"));
+    tokenizer.addSymbol("<%");
+    tokenizer.addSymbol("<%@");
+
+    Assert.assertEquals("a", tokenizer.nextToken().getText());
+    Assert.assertEquals("<%", tokenizer.nextToken().getText());
+    Assert.assertEquals("b", tokenizer.nextToken().getText());
+    Assert.assertEquals("<%@", tokenizer.nextToken().getText());
+    Assert.assertEquals("c", tokenizer.nextToken().getText());
+    Assert.assertFalse(tokenizer.hasMore());
+  }
+
+  /**
+   * Push back test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void pushBackTest() throws IOException {
+    Tokenizer tokenizer = directiveTokenizer("one two", 4096);
+
+    Assert.assertEquals("one", tokenizer.nextToken().getText());
+    tokenizer.pushBack();
+    Assert.assertEquals("one", tokenizer.nextToken().getText());
+    Assert.assertEquals("two", tokenizer.getNextString(null));
+    Assert.assertEquals("none", tokenizer.getNextString("none"));
+  }
+
+  /**
+   * Small cache test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void smallCacheTest() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      text.append("<%-- comment ").append(i).append(" --%>value").append(i).append(' ');
+    }
+    Tokenizer tokenizer = directiveTokenizer(text.toString(), 1);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(" comment " + i + " ", tokenizer.nextToken().getInnerText());
+      Assert.assertEquals("value" + i, tokenizer.nextToken().getText());
+    }
+    Assert.assertFalse(tokenizer.hasMore());
+  }
+
+}
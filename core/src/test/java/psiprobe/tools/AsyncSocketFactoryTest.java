@@ -0,0 +1,71 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class AsyncSocketFactoryTest.
+ */
+public class AsyncSocketFactoryTest {
+
+  /**
+   * Connect test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void connectTest() throws IOException {
+    try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      String host = InetAddress.getLoopbackAddress().getHostAddress();
+      for (int i = 0; i < 20; i++) {
+        try (Socket socket = AsyncSocketFactory.createSocket(host, server.getLocalPort(), 5);
+            Socket accepted = server.accept()) {
+          Assert.assertTrue(socket.isConnected());
+          socket.getOutputStream().write(i);
+          Assert.assertEquals(i, accepted.getInputStream().read());
+        }
+      }
+    }
+  }
+
+  /**
+   * Refused test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test(expected = IOException.class)
+  public void refusedTest() throws IOException {
+    int port;
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      port = server.getLocalPort();
+    }
+    AsyncSocketFactory.createSocket(InetAddress.getLoopbackAddress().getHostAddress(), port, 5)
+        .close();
+  }
+
+  /**
+   * Unknown host test.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test(expected = UnknownHostException.class)
+  public void unknownHostTest() throws IOException {
+    AsyncSocketFactory.createSocket("unknown.invalid", 43, 5).close();
+  }
+
+}
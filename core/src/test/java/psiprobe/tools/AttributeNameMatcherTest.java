@@ -0,0 +1,107 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class AttributeNameMatcherTest.
+ */
+public class AttributeNameMatcherTest {
+
+  /**
+   * Checks whether every pattern matches one of some names.
+   *
+   * @param regexes the regular expressions
+   * @param names the names
+   * @return true, if every pattern matches a name
+   */
+  private static boolean matches(String[] regexes, String... names) {
+    List<Pattern> patterns = new ArrayList<>();
+    for (String regex : regexes) {
+      patterns.add(Pattern.compile(regex));
+    }
+    return new AttributeNameMatcher(patterns)
+        .matches(Collections.enumeration(Arrays.asList(names)));
+  }
+
+  /**
+   * Literal length test.
+   */
+  @Test
+  public void literalLengthTest() {
+    Assert.assertEquals(4, AttributeNameMatcher.literalLength("user"));
+    Assert.assertEquals(5, AttributeNameMatcher.literalLength("cart_.*"));
+    Assert.assertEquals(3, AttributeNameMatcher.literalLength("cart?"));
+    Assert.assertEquals(4, AttributeNameMatcher.literalLength("cart+"));
+    Assert.assertEquals(0, AttributeNameMatcher.literalLength("^cart"));
+    Assert.assertEquals(0, AttributeNameMatcher.literalLength("cart|user"));
+    Assert.assertEquals(2, AttributeNameMatcher.literalLength("ab\\.c"));
+  }
+
+  /**
+   * Literal test.
+   */
+  @Test
+  public void literalTest() {
+    String[] regexes = {"user", "locale"};
+    Assert.assertTrue(matches(regexes, "cart", "locale", "user"));
+    Assert.assertFalse(matches(regexes, "cart", "user"));
+    Assert.assertFalse(matches(regexes, "users", "locale"));
+  }
+
+  /**
+   * Prefix test.
+   */
+  @Test
+  public void prefixTest() {
+    String[] regexes = {"cart.*", "user"};
+    Assert.assertTrue(matches(regexes, "user", "cart"));
+    Assert.assertTrue(matches(regexes, "cart.items", "user"));
+    Assert.assertFalse(matches(regexes, "mycart", "user"));
+  }
+
+  /**
+   * Regular expression test.
+   */
+  @Test
+  public void regexTest() {
+    String[] regexes = {"cart_[0-9]+", "use?r|admin", ".*Token"};
+    Assert.assertTrue(matches(regexes, "cart_12", "usr", "csrfToken"));
+    Assert.assertTrue(matches(regexes, "admin", "cart_1", "Token"));
+    Assert.assertFalse(matches(regexes, "cart_x", "user", "csrfToken"));
+  }
+
+  /**
+   * One name matching several patterns test.
+   */
+  @Test
+  public void oneNameSeveralPatternsTest() {
+    Assert.assertTrue(matches(new String[] {"user", "us.*", "u[a-z]+"}, "user"));
+    Assert.assertTrue(matches(new String[] {"user", "user"}, "user"));
+  }
+
+  /**
+   * No names test.
+   */
+  @Test
+  public void noNamesTest() {
+    Assert.assertFalse(matches(new String[] {"user"}));
+    Assert.assertTrue(matches(new String[0]));
+  }
+
+}
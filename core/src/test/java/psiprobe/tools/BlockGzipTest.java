@@ -0,0 +1,185 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class BlockGzipTest.
+ */
+public class BlockGzipTest {
+
+  /** The temporary folder. */
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * Compress several blocks and read them back as a single gzip stream.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void compressTest() throws IOException {
+    byte[] content = new byte[3 * 1024 * 1024 + 17];
+    new Random(42).nextBytes(content);
+    File file = temporaryFolder.newFile("test.log");
+    Files.write(file.toPath(), content);
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    BlockGzip.compress(file, compressed);
+
+    Assert.assertArrayEquals(content, gunzip(compressed.toByteArray()));
+  }
+
+  /**
+   * Compress an empty file.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void compressEmptyTest() throws IOException {
+    File file = temporaryFolder.newFile("empty.log");
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    BlockGzip.compress(file, compressed);
+
+    Assert.assertEquals(0, gunzip(compressed.toByteArray()).length);
+  }
+
+  /**
+   * Cache a compressed file under the temporary directory and get it again from there.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void getCompressedFileTest() throws IOException {
+    File tempDir = temporaryFolder.newFolder("work");
+    byte[] content = new byte[100000];
+    new Random(7).nextBytes(content);
+    File file = newQuietFile("rotated.log", content);
+
+    File artifact = BlockGzip.getCompressedFile(file, tempDir);
+
+    Assert.assertNotNull(artifact);
+    Assert.assertEquals(new File(tempDir, BlockGzip.CACHE_DIR_NAME), artifact.getParentFile());
+    Assert.assertArrayEquals(content, gunzip(Files.readAllBytes(artifact.toPath())));
+    Assert.assertEquals(artifact, BlockGzip.getCompressedFile(file, tempDir));
+    BlockGzip.release(artifact, false);
+    BlockGzip.release(artifact, false);
+  }
+
+  /**
+   * Files are not cached without a temporary directory.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void getCompressedFileWithoutTempDirTest() throws IOException {
+    File file = newQuietFile("rotated.log", new byte[10]);
+
+    Assert.assertNull(BlockGzip.getCompressedFile(file, null));
+  }
+
+  /**
+   * The artifact of a file which is gone is deleted the next time the cache is used.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void pruneMissingSourceTest() throws IOException {
+    File tempDir = temporaryFolder.newFolder("work");
+    File deleted = newQuietFile("deleted.log", new byte[1000]);
+    File kept = newQuietFile("kept.log", new byte[1000]);
+    File deletedArtifact = BlockGzip.getCompressedFile(deleted, tempDir);
+    BlockGzip.release(deletedArtifact, false);
+    File keptArtifact = BlockGzip.getCompressedFile(kept, tempDir);
+    BlockGzip.release(keptArtifact, false);
+    Files.delete(deleted.toPath());
+
+    BlockGzip.release(BlockGzip.getCompressedFile(kept, tempDir), false);
+
+    Assert.assertFalse(deletedArtifact.exists());
+    Assert.assertTrue(keptArtifact.exists());
+  }
+
+  /**
+   * An artifact is not deleted while leased, nor while the connector may still be sending it.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void leasedTest() throws IOException {
+    File tempDir = temporaryFolder.newFolder("work");
+    File cacheDir = new File(tempDir, BlockGzip.CACHE_DIR_NAME);
+    File sent = newQuietFile("sent.log", new byte[1000]);
+    File pending = newQuietFile("pending.log", new byte[1000]);
+    File sentArtifact = BlockGzip.getCompressedFile(sent, tempDir);
+    File pendingArtifact = BlockGzip.getCompressedFile(pending, tempDir);
+    Files.delete(sent.toPath());
+    Files.delete(pending.toPath());
+
+    BlockGzip.prune(cacheDir);
+    Assert.assertTrue(sentArtifact.exists());
+    Assert.assertTrue(pendingArtifact.exists());
+
+    BlockGzip.release(sentArtifact, false);
+    BlockGzip.release(pendingArtifact, true);
+    BlockGzip.prune(cacheDir);
+    Assert.assertFalse(sentArtifact.exists());
+    Assert.assertTrue(pendingArtifact.exists());
+  }
+
+  /**
+   * Creates a file which was last modified long enough ago to be cached.
+   *
+   * @param name the name
+   * @param content the content
+   * @return the file
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private File newQuietFile(String name, byte[] content) throws IOException {
+    File file = temporaryFolder.newFile(name);
+    Files.write(file.toPath(), content);
+    Assert.assertTrue(file.setLastModified(System.currentTimeMillis() - 3600 * 1000L));
+    return file;
+  }
+
+  /**
+   * Gunzip.
+   *
+   * @param data the data
+   * @return the uncompressed data
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private static byte[] gunzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      byte[] buffer = new byte[8192];
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        out.write(buffer, 0, count);
+      }
+    }
+    return out.toByteArray();
+  }
+
+}
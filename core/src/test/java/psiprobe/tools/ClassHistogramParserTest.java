@@ -0,0 +1,93 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.jmx.ClassHistogram;
+
+/**
+ * The Class ClassHistogramParserTest.
+ */
+public class ClassHistogramParserTest {
+
+  /** A histogram as printed by Java 9 and later. */
+  private static final String HISTOGRAM = "\n"
+      + " num     #instances         #bytes  class name (module)\n"
+      + "-------------------------------------------------------\n"
+      + "   1:         12345         678901  [B (java.base@11.0.2)\n"
+      + "   2:           100           2400  java.lang.String (java.base@11.0.2)\r\n"
+      + "   3:             7            168  com.example.Cart\n"
+      + "Total         12452         681469\n";
+
+  /**
+   * Parse test.
+   */
+  @Test
+  public void parseTest() {
+    ClassHistogram histogram = new ClassHistogramParser().parse(HISTOGRAM, 1, 1000);
+    Assert.assertEquals(1, histogram.getId());
+    Assert.assertEquals(1000, histogram.getTime());
+    Assert.assertEquals(3, histogram.getClassCount());
+    Assert.assertEquals("[B", histogram.getClassName(0));
+    Assert.assertEquals(12345, histogram.getInstances(0));
+    Assert.assertEquals(678901, histogram.getBytes(0));
+    Assert.assertEquals("java.lang.String", histogram.getClassName(1));
+    Assert.assertEquals("com.example.Cart", histogram.getClassName(2));
+    Assert.assertEquals(168, histogram.getBytes(2));
+    Assert.assertEquals(12452, histogram.getTotalInstances());
+    Assert.assertEquals(681469, histogram.getTotalBytes());
+  }
+
+  /**
+   * Empty test.
+   */
+  @Test
+  public void emptyTest() {
+    ClassHistogram histogram = new ClassHistogramParser().parse("", 1, 0);
+    Assert.assertEquals(0, histogram.getClassCount());
+    Assert.assertEquals(0, new ClassHistogramParser().parse("Total 0 0", 1, 0).getClassCount());
+  }
+
+  /**
+   * Pooled names test.
+   */
+  @Test
+  public void pooledNamesTest() {
+    ClassHistogramParser parser = new ClassHistogramParser();
+    ClassHistogram first = parser.parse(HISTOGRAM, 1, 0);
+    ClassHistogram second = parser.parse(HISTOGRAM, 2, 0);
+    Assert.assertSame(first.getClassName(1), second.getClassName(1));
+    Assert.assertEquals(3, parser.getPoolSize());
+
+    parser.retain(Collections.<ClassHistogram>emptyList());
+    Assert.assertEquals(0, parser.getPoolSize());
+  }
+
+  /**
+   * Large histogram test.
+   */
+  @Test
+  public void largeTest() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 1; i <= 30000; i++) {
+      text.append(String.format("%6d: %12d %14d  com.example.Class%d%n", i, i, i * 24L, i));
+    }
+    ClassHistogramParser parser = new ClassHistogramParser();
+    ClassHistogram histogram = parser.parse(text.toString(), 1, 0);
+    Assert.assertEquals(30000, histogram.getClassCount());
+    Assert.assertEquals("com.example.Class30000", histogram.getClassName(29999));
+    Assert.assertEquals(30000 * 24L, histogram.getBytes(29999));
+    Assert.assertEquals(30000, parser.getPoolSize());
+  }
+
+}
@@ -0,0 +1,55 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class InstrumentsStaticsTest.
+ */
+public class InstrumentsStaticsTest {
+
+  /**
+   * Test statics of a class not initialized yet.
+   *
+   * @throws ClassNotFoundException the class not found exception
+   */
+  @Test
+  public void testStaticsUninitialized() throws ClassNotFoundException {
+    Class<?> clazz = Class.forName(Lazy.class.getName(), false, getClass().getClassLoader());
+    Assert.assertFalse(Instruments.isClassInitialized(clazz));
+    Instruments.sizeOfStatics(clazz, new HashSet<>(), Long.MAX_VALUE);
+    Assert.assertFalse(Instruments.isClassInitialized(clazz));
+    Assert.assertTrue(Instruments.isClassInitialized(InstrumentsStaticsTest.class));
+  }
+
+  /**
+   * A class that must never be initialized.
+   */
+  private static class Lazy {
+
+    /** The data, set by the initializer. */
+    static final Object DATA = init();
+
+    /**
+     * Fails the test if the class is ever initialized.
+     *
+     * @return never
+     */
+    private static Object init() {
+      throw new AssertionError("initialized");
+    }
+
+  }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class JmxToolsTest.
+ */
+public class JmxToolsTest {
+
+  /**
+   * Get attributes test.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void getAttributesTest() throws Exception {
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    Map<String, Object> attrs = JmxTools.getAttributes(mbeanServer,
+        new ObjectName(ManagementFactory.RUNTIME_MXBEAN_NAME),
+        new String[] {"VmName", "StartTime", "NoSuchAttribute"});
+
+    Assert.assertEquals(ManagementFactory.getRuntimeMXBean().getVmName(),
+        JmxTools.getStringAttr(attrs, "VmName"));
+    Assert.assertEquals(ManagementFactory.getRuntimeMXBean().getStartTime(),
+        JmxTools.getLongAttr(attrs, "StartTime", -1));
+    Assert.assertFalse(attrs.containsKey("NoSuchAttribute"));
+    Assert.assertEquals(-1, JmxTools.getLongAttr(attrs, "NoSuchAttribute", -1));
+    Assert.assertEquals(7, JmxTools.getIntAttr(attrs, "NoSuchAttribute", 7));
+    Assert.assertFalse(JmxTools.getBooleanAttr(attrs, "VmName"));
+  }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import javax.servlet.http.HttpSession;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.apache.catalina.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.model.ApplicationSession;
+import psiprobe.model.SessionSearchInfo;
+
+/**
+ * The Class SessionMatcherTest.
+ */
+public class SessionMatcherTest {
+
+  /** The session. */
+  @Mocked
+  Session session;
+
+  /** The http session. */
+  @Mocked
+  HttpSession httpSession;
+
+  /**
+   * Creates an applied search.
+   *
+   * @param sessionId the session id regular expression
+   * @param attrName the attribute name regular expressions
+   * @return the search info
+   */
+  private static SessionSearchInfo search(String sessionId, String attrName) {
+    SessionSearchInfo searchInfo = new SessionSearchInfo();
+    searchInfo.setSearchAction(SessionSearchInfo.ACTION_APPLY);
+    searchInfo.setSessionId(sessionId);
+    searchInfo.setAttrName(attrName);
+    return searchInfo;
+  }
+
+  /**
+   * Search not in use test.
+   */
+  @Test
+  public void searchNotInUseTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+      }
+    };
+    Assert.assertTrue(new SessionMatcher(new SessionSearchInfo()).matches(session, 0));
+  }
+
+  /**
+   * Invalid session test.
+   */
+  @Test
+  public void invalidSessionTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = false;
+      }
+    };
+    Assert.assertFalse(new SessionMatcher(new SessionSearchInfo()).matches(session, 0));
+  }
+
+  /**
+   * Idle time test.
+   */
+  @Test
+  public void idleTimeTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+        session.getId();
+        result = "ABC";
+        session.getLastAccessedTime();
+        result = 0L;
+      }
+    };
+    SessionSearchInfo searchInfo = search("A.*", null);
+    searchInfo.setIdleTimeFrom("60");
+    SessionMatcher matcher = new SessionMatcher(searchInfo);
+    Assert.assertTrue(matcher.matches(session, 120000));
+    Assert.assertFalse(matcher.matches(session, 30000));
+  }
+
+  /**
+   * Session id test.
+   */
+  @Test
+  public void sessionIdTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+        session.getId();
+        result = "XYZ";
+      }
+    };
+    Assert.assertFalse(new SessionMatcher(search("A.*", null)).matches(session, 0));
+  }
+
+  /**
+   * Attribute names test.
+   */
+  @Test
+  public void attributeNamesTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+        session.getSession();
+        result = httpSession;
+        httpSession.getAttributeNames();
+        returns(Collections.enumeration(Arrays.asList("cart.items", "user")),
+            Collections.enumeration(Arrays.asList("user")));
+      }
+    };
+    SessionMatcher matcher = new SessionMatcher(search(null, "user,cart\\..*"));
+    Assert.assertTrue(matcher.matches(session, 0));
+    Assert.assertFalse(matcher.matches(session, 0));
+  }
+
+  /**
+   * Unknown last ip test.
+   */
+  @Test
+  public void unknownLastIpTest() {
+    new Expectations() {
+      {
+        session.isValid();
+        result = true;
+        session.getSession();
+        result = httpSession;
+        httpSession.getAttribute(ApplicationSession.LAST_ACCESSED_BY_IP);
+        returns("10.1.2.3", null);
+      }
+    };
+    SessionSearchInfo searchInfo = search(null, null);
+    searchInfo.setLastIp("10.1.");
+    SessionMatcher matcher = new SessionMatcher(searchInfo);
+    Assert.assertTrue(matcher.matches(session, 0));
+    Assert.assertFalse(matcher.matches(session, 0));
+  }
+
+}
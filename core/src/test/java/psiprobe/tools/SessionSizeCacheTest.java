@@ -0,0 +1,185 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.ServletContext;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.apache.catalina.LifecycleState;
+import org.apache.catalina.core.StandardContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Class SessionSizeCacheTest.
+ */
+public class SessionSizeCacheTest {
+
+  /** The sizes cached. */
+  private static final Map<String, Long> SIZES = Collections.singletonMap("user", 100L);
+
+  /**
+   * Cached test.
+   */
+  @Test
+  public void cachedTest() {
+    SessionSizeCache cache = new SessionSizeCache();
+    Assert.assertNull(cache.get("id", 1));
+
+    Object token = cache.begin("id");
+    Assert.assertNull(cache.get("id", 1));
+    cache.put("id", token, 1, Long.MAX_VALUE, SIZES);
+    Assert.assertEquals(SIZES, cache.get("id", 1));
+
+    // a new session reusing the id
+    Assert.assertNull(cache.get("id", 2));
+  }
+
+  /**
+   * Invalidate test.
+   */
+  @Test
+  public void invalidateTest() {
+    SessionSizeCache cache = new SessionSizeCache();
+    cache.put("id", cache.begin("id"), 1, Long.MAX_VALUE, SIZES);
+    cache.invalidate("other");
+    Assert.assertEquals(SIZES, cache.get("id", 1));
+
+    cache.invalidate("id");
+    Assert.assertNull(cache.get("id", 1));
+    cache.invalidate(null);
+  }
+
+  /**
+   * Used while sized test.
+   */
+  @Test
+  public void usedWhileSizedTest() {
+    SessionSizeCache cache = new SessionSizeCache();
+    Object token = cache.begin("id");
+    cache.invalidate("id");
+    cache.put("id", token, 1, Long.MAX_VALUE, SIZES);
+    Assert.assertNull(cache.get("id", 1));
+
+    // the latest of two concurrent sizings wins
+    Object first = cache.begin("id");
+    Object second = cache.begin("id");
+    cache.put("id", first, 1, Long.MAX_VALUE, SIZES);
+    Assert.assertNull(cache.get("id", 1));
+    cache.put("id", second, 1, Long.MAX_VALUE, SIZES);
+    Assert.assertEquals(SIZES, cache.get("id", 1));
+  }
+
+  /**
+   * Prune test.
+   */
+  @Test
+  public void pruneTest() {
+    SessionSizeCache cache = new SessionSizeCache();
+    long now = System.currentTimeMillis();
+    cache.put("expired", cache.begin("expired"), 1, now + 1000, SIZES);
+    cache.put("idle", cache.begin("idle"), 1, Long.MAX_VALUE, SIZES);
+    cache.put("used", cache.begin("used"), 1, Long.MAX_VALUE, SIZES);
+    cache.invalidate("used");
+    Assert.assertEquals(3, cache.size());
+
+    cache.prune(now + 120000);
+    Assert.assertEquals(1, cache.size());
+    Assert.assertEquals(SIZES, cache.get("idle", 1));
+  }
+
+  /**
+   * Watched again after a reload test.
+   *
+   * @param context the context
+   * @param servletContext the servlet context before the reload
+   * @param reloaded the servlet context after the reload
+   */
+  @Test
+  public void reloadTest(@Mocked final StandardContext context,
+      @Mocked final ServletContext servletContext, @Mocked final ServletContext reloaded) {
+    final SessionSizeCache cache = new SessionSizeCache();
+    final Object other = new Object();
+    new Expectations() {
+      {
+        context.getApplicationEventListeners();
+        result = new Object[0];
+        result = new Object[] {cache};
+        result = new Object[] {other};
+        context.getServletContext();
+        returns(servletContext, servletContext, reloaded);
+      }
+    };
+
+    cache.watch(context);
+    Assert.assertTrue(cache.isWatched(servletContext));
+    // already registered
+    cache.watch(context);
+    // the reload dropped the listeners
+    cache.watch(context);
+    Assert.assertTrue(cache.isWatched(reloaded));
+
+    new Verifications() {
+      {
+        context.addApplicationEventListener(cache);
+        times = 2;
+        context.setApplicationEventListeners((Object[]) any);
+        times = 0;
+      }
+    };
+  }
+
+  /**
+   * Unregistered only from stopped contexts test.
+   *
+   * @param running the running context
+   * @param stopped the stopped context
+   */
+  @Test
+  public void unwatchTest(@Mocked final StandardContext running,
+      @Mocked final StandardContext stopped) {
+    final SessionSizeCache cache = new SessionSizeCache();
+    final Object other = new Object();
+    new Expectations() {
+      {
+        running.getState();
+        result = LifecycleState.STARTED;
+        stopped.getState();
+        result = LifecycleState.STOPPED;
+        stopped.getApplicationEventListeners();
+        result = new Object[0];
+        result = new Object[] {other, cache};
+      }
+    };
+
+    cache.watch(running);
+    cache.watch(stopped);
+    cache.unwatchAll();
+
+    new Verifications() {
+      {
+        running.setApplicationEventListeners((Object[]) any);
+        times = 0;
+        List<Object[]> registered = new ArrayList<>();
+        stopped.setApplicationEventListeners(withCapture(registered));
+        times = 1;
+        Assert.assertEquals(Arrays.asList(other), Arrays.asList(registered.get(0)));
+      }
+    };
+  }
+
+}
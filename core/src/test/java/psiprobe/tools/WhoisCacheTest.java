@@ -0,0 +1,83 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import psiprobe.tools.Whois.Response;
+
+/**
+ * The Class WhoisCacheTest.
+ */
+public class WhoisCacheTest {
+
+  /**
+   * Test cached lookup against a local stand-in whois server.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void testCachedLookup() throws Exception {
+    Whois.clearCache();
+    final AtomicInteger queries = new AtomicInteger();
+    try (final ServerSocket server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            while (true) {
+              try (Socket client = server.accept()) {
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                String query = in.readLine();
+                OutputStream out = client.getOutputStream();
+                out.write(("% stand-in\nNetName: LOCAL-" + queries.incrementAndGet() + "\nQuery: "
+                    + query + "\n").getBytes(StandardCharsets.UTF_8));
+              }
+            }
+          } catch (IOException e) {
+            // server closed
+          }
+        }
+      });
+      thread.setDaemon(true);
+      thread.start();
+
+      String host = InetAddress.getLoopbackAddress().getHostAddress();
+      int port = server.getLocalPort();
+      Response response = Whois.cachedLookup(host, port, "n 10.0.0.1", 5, 60);
+      Assert.assertEquals("LOCAL-1", response.getData().get("NetName"));
+      Assert.assertEquals("n 10.0.0.1", response.getData().get("Query"));
+      Assert.assertSame(response, Whois.cachedLookup(host, port, "n 10.0.0.1", 5, 60));
+      Assert.assertEquals(1, queries.get());
+
+      // another query, or no caching, goes to the server
+      Assert.assertEquals("LOCAL-2",
+          Whois.cachedLookup(host, port, "n 10.0.0.2", 5, 60).getData().get("NetName"));
+      Assert.assertEquals("LOCAL-3",
+          Whois.cachedLookup(host, port, "n 10.0.0.3", 5, 0).getData().get("NetName"));
+      Assert.assertEquals("LOCAL-4",
+          Whois.cachedLookup(host, port, "n 10.0.0.3", 5, 0).getData().get("NetName"));
+    } finally {
+      Whois.clearCache();
+    }
+  }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Licensed under the GPL License. You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE.
+ */
+package psiprobe.tools.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import psiprobe.model.LogSearchHit;
+
+/**
+ * The Class LogScannerTest.
+ */
+public class LogScannerTest {
+
+  /** The temporary folder. */
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * Writes a log file.
+   *
+   * @return the file
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  private File writeLog() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append(String.format("2018-05-01 10:%02d:%02d INFO line %d%s\r\n", i / 60, i % 60, i,
+          i % 100 == 0 ? " ERROR" : ""));
+    }
+    File file = temporaryFolder.newFile("test.log");
+    Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  /**
+   * Literal search with a limit.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void literalTest() throws IOException {
+    File file = writeLog();
+    LogScanner scanner = new LogScanner(file, StandardCharsets.UTF_8, "ERROR", false, false);
+    Assert.assertEquals(10, scanner.scan(0, file.length(), 100).size());
+
+    List<Long> hits = scanner.scan(0, file.length(), 3);
+    Assert.assertEquals(3, hits.size());
+    LogSearchHit hit = scanner.readHit(hits.get(1), 2);
+    Assert.assertEquals("2018-05-01 10:01:40 INFO line 100 ERROR", hit.getLine());
+    Assert.assertEquals(2, hit.getBefore().size());
+    Assert.assertEquals("2018-05-01 10:01:39 INFO line 99", hit.getBefore().get(1));
+    Assert.assertEquals("2018-05-01 10:01:41 INFO line 101", hit.getAfter().get(0));
+
+    // resuming after a hit skips the rest of its line
+    Assert.assertEquals(hits.get(2), scanner.scan(hits.get(1) + 1, file.length(), 1).get(0));
+  }
+
+  /**
+   * Regular expression and case insensitive searches.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void patternTest() throws IOException {
+    File file = writeLog();
+    Assert.assertEquals(10, new LogScanner(file, StandardCharsets.UTF_8, "error", false, true)
+        .scan(0, file.length(), 100).size());
+    Assert.assertEquals(10, new LogScanner(file, StandardCharsets.UTF_8, "line \\d*0 ", true, false)
+        .scan(0, file.length(), 100).size());
+  }
+
+  /**
+   * Search restricted to a period.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void periodTest() throws IOException {
+    File file = writeLog();
+    LogScanner scanner = new LogScanner(file, StandardCharsets.UTF_8, "ERROR", false, false);
+    scanner.setPeriod(TimestampIndex.parseTimestamp("2018-05-01 10:05:00"),
+        TimestampIndex.parseTimestamp("2018-05-01 10:10:00"));
+    Assert.assertEquals(4, scanner.scan(0, file.length(), 100).size());
+  }
+
+  /**
+   * Literal bytes found with shifts computed once.
+   */
+  @Test
+  public void indexOfTest() {
+    byte[] pattern = "abcab".getBytes(StandardCharsets.US_ASCII);
+    int[] shift = LogScanner.shifts(pattern);
+    ByteBuffer buffer = ByteBuffer.wrap("xxabcabcabxx".getBytes(StandardCharsets.US_ASCII));
+    Assert.assertEquals(2, LogScanner.indexOf(buffer, 0, buffer.limit(), pattern, shift));
+    Assert.assertEquals(5, LogScanner.indexOf(buffer, 3, buffer.limit(), pattern, shift));
+    Assert.assertEquals(-1, LogScanner.indexOf(buffer, 6, buffer.limit(), pattern, shift));
+  }
+
+  /**
+   * Searches of the same file in a row, on the shared threads.
+   *
+   * @throws IOException Signals that an I/O exception has occurred.
+   */
+  @Test
+  public void repeatedTest() throws IOException {
+    File file = writeLog();
+    for (int i = 0; i < 3; i++) {
+      LogScanner scanner = new LogScanner(file, StandardCharsets.UTF_8, "ERROR", false, false);
+      Assert.assertEquals(1, scanner.scan(0, file.length(), 1).size());
+    }
+    Assert.assertTrue(file.delete());
+  }
+
+}
@@ -17,9 +17,11 @@ import org.apache.catalina.connector.Response;
 import org.apache.catalina.valves.ValveBase;
 import psiprobe.model.ApplicationSession;
 import psiprobe.model.IpInfo;
+import psiprobe.tools.SessionSizeCache;
 
 /**
- * Valve which inserts the client's IP address into the session for Tomcat 8.5.
+ * Valve which inserts the client's IP address into the session, and marks the session as used for
+ * the session size cache, for Tomcat 8.5.
  */
 public class Tomcat85AgentValve extends ValveBase {
 
@@ -40,6 +42,8 @@ public class Tomcat85AgentValve extends ValveBase {
       request.getSession(false).setAttribute(ApplicationSession.LAST_ACCESSED_BY_IP, ip);
       request.getSession(false).setAttribute(ApplicationSession.LAST_ACCESSED_LOCALE,
           request.getLocale());
+      // the request may have changed attribute values in place
+      SessionSizeCache.getInstance().invalidate(request.getSession(false).getId());
     }
   }
 
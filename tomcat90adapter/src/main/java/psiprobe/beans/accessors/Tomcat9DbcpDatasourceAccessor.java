@@ -31,6 +31,7 @@ public class Tomcat9DbcpDatasourceAccessor implements DatasourceAccessor {
       dataSourceInfo.setUsername(source.getUsername());
       dataSourceInfo.setResettable(false);
       dataSourceInfo.setType("tomcat-dbcp2");
+      Dbcp2DatasourceAccessor.setPoolStats(dataSourceInfo, source.getJmxName());
     }
     return dataSourceInfo;
   }
@@ -72,7 +72,19 @@
 					</td>
 					<c:if test="${param.size}">
 						<td>
-							<probe:volume value="${app.size}"/>
+							<c:choose>
+								<c:when test="${! empty sizeEstimate}">
+									<span title="<spring:message code='probe.jsp.app.summary.sessionSize.title' arguments='${sizeEstimate.sampledCount},${sizeEstimate.sessionCount}'/>">
+										<probe:volume value="${app.size}"/>
+										<c:if test="${app.sizeMargin > 0}">
+											&#177;&#160;<probe:volume value="${app.sizeMargin}"/>
+										</c:if>
+									</span>
+								</c:when>
+								<c:otherwise>
+									<spring:message code="probe.jsp.applications.size.pending"/>
+								</c:otherwise>
+							</c:choose>
 						</td>
 					</c:if>
 					<td>
@@ -91,6 +103,33 @@
 				</tr>
 			</tbody>
 		</table>
+
+		<c:if test="${param.size && ! empty sizeEstimate.topAttributes}">
+			<table class="statsTable" style="padding:0;border-spacing:0;border-collapse:separate;">
+				<thead>
+					<tr>
+						<th class="leftMost">
+							<spring:message code="probe.jsp.app.summary.topAttributes.name"/>
+						</th>
+						<th>
+							<spring:message code="probe.jsp.app.summary.topAttributes.sessionCount"/>
+						</th>
+						<th>
+							<spring:message code="probe.jsp.app.summary.topAttributes.size"/>
+						</th>
+					</tr>
+				</thead>
+				<tbody>
+					<c:forEach items="${sizeEstimate.topAttributes}" var="attribute">
+						<tr>
+							<td class="leftMost"><c:out value="${attribute.name}"/></td>
+							<td>${attribute.sessionCount}</td>
+							<td><probe:volume value="${attribute.size}"/></td>
+						</tr>
+					</c:forEach>
+				</tbody>
+			</table>
+		</c:if>
 	</c:when>
 	<c:otherwise>
 		<div class="warningMessage">
@@ -140,6 +140,65 @@
 				<c:param name="s4o" value="#D26900"/>
 			</c:url>
 
+			<%-- Cumulative Sessions --%>
+			<c:url value="/chart.png" var="total_sessions_url">
+				<c:param name="ct" value="area"/>
+				<c:param name="p" value="total_sessions"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="s1c" value="#95FE8B"/>
+				<c:param name="s1o" value="#009406"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+
+			<c:url value="/chart.png" var="total_sessions_url_full">
+				<c:param name="p" value="total_sessions"/>
+				<c:param name="xz" value="${fullChartWidth}"/>
+				<c:param name="yz" value="${fullChartHeight}"/>
+				<c:param name="s1c" value="#95FE8B"/>
+				<c:param name="s1o" value="#009406"/>
+				<c:param name="s1l">
+					<spring:message code="probe.jsp.allappstats.charts.totalSessions.legend"/>
+				</c:param>
+				<c:param name="s2l">
+					<spring:message code="probe.jsp.allappstats.charts.createdSessions.legend"/>
+				</c:param>
+				<c:param name="s3l">
+					<spring:message code="probe.jsp.allappstats.charts.expiredSessions.legend"/>
+				</c:param>
+			</c:url>
+
+			<%-- Sessions By App --%>
+			<c:url value="/chart.png" var="all_app_sessions_url">
+				<c:param name="ct" value="line"/>
+				<c:param name="p" value="all_app_sessions"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="s1c" value="#9BD2FB"/>
+				<c:param name="s1o" value="#0665AA"/>
+				<c:param name="s2c" value="#FFCCCC"/>
+				<c:param name="s2o" value="#FF8484"/>
+				<c:param name="s3c" value="#95FE8B"/>
+				<c:param name="s3o" value="#009406"/>
+				<c:param name="s4c" value="#FFCD9B"/>
+				<c:param name="s4o" value="#D26900"/>
+			</c:url>
+
+			<c:url value="/chart.png" var="all_app_sessions_url_full">
+				<c:param name="ct" value="line"/>
+				<c:param name="p" value="all_app_sessions"/>
+				<c:param name="xz" value="${fullChartWidth}"/>
+				<c:param name="yz" value="${fullChartHeight}"/>
+				<c:param name="s1c" value="#9BD2FB"/>
+				<c:param name="s1o" value="#0665AA"/>
+				<c:param name="s2c" value="#FFCCCC"/>
+				<c:param name="s2o" value="#FF8484"/>
+				<c:param name="s3c" value="#95FE8B"/>
+				<c:param name="s3o" value="#009406"/>
+				<c:param name="s4c" value="#FFCD9B"/>
+				<c:param name="s4o" value="#D26900"/>
+			</c:url>
+
 			<div id="chart_group">
 				<div class="cumulative">
 					<div class="chartContainer">
@@ -177,6 +236,24 @@
 						</dl>
 					</div>
 				</div>
+				<div class="cumulative">
+					<div class="chartContainer">
+						<dl>
+							<dt><spring:message code="probe.jsp.allappstats.charts.totalSessions.title"/></dt>
+							<dd class="image">
+								<img id="total_sessions_chart" border="0" src="${total_sessions_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+							</dd>
+						</dl>
+					</div>
+					<div class="chartContainer">
+						<dl>
+							<dt><spring:message code="probe.jsp.allappstats.charts.allAppSessions.title"/></dt>
+							<dd class="image">
+								<img id="all_app_sessions_chart" border="0" src="${all_app_sessions_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+							</dd>
+						</dl>
+					</div>
+				</div>
 			</div>
 
 			<div id="full_chart" class="chartContainer" style="display: none;">
@@ -243,6 +320,16 @@
 						zoomIn('${all_app_req_url_full}', '<spring:message code="probe.jsp.allappstats.charts.allAppReq.title"/>');
 					}
 				},
+				'#total_sessions_chart': function(element) {
+					element.onclick = function() {
+						zoomIn('${total_sessions_url_full}', '<spring:message code="probe.jsp.allappstats.charts.totalSessions.title"/>');
+					}
+				},
+				'#all_app_sessions_chart': function(element) {
+					element.onclick = function() {
+						zoomIn('${all_app_sessions_url_full}', '<spring:message code="probe.jsp.allappstats.charts.allAppSessions.title"/>');
+					}
+				},
 				'#full_chart': function(element) {
 					element.onclick = function() {
 						zoomOut();
@@ -256,6 +343,8 @@
 			imageUpdaters[1] = new Ajax.ImgUpdater('all_app_avg_proc_time_chart', '${probe:max(collectionPeriod, 5)}');
 			imageUpdaters[2] = new Ajax.ImgUpdater('total_req_chart', '${probe:max(collectionPeriod, 5)}');
 			imageUpdaters[3] = new Ajax.ImgUpdater('all_app_req_chart', '${probe:max(collectionPeriod, 5)}');
+			imageUpdaters[4] = new Ajax.ImgUpdater('total_sessions_chart', '${probe:max(collectionPeriod, 5)}');
+			imageUpdaters[5] = new Ajax.ImgUpdater('all_app_sessions_chart', '${probe:max(collectionPeriod, 5)}');
 		</script>
 	</body>
 </html>
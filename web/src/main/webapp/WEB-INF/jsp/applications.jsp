@@ -202,10 +202,34 @@
 			<c:if test="${param.size}">
 				<display:column sortProperty="size" sortable="true"
 								titleKey="probe.jsp.applications.col.size" class="highlighted">
-					<probe:volume value="${app.size}"/>
+					<c:choose>
+						<c:when test="${app.size >= 0}">
+							<probe:volume value="${app.size}"/>
+							<c:if test="${app.sizeMargin > 0}">
+								&#177;&#160;<probe:volume value="${app.sizeMargin}"/>
+							</c:if>
+						</c:when>
+						<c:otherwise>
+							<spring:message code="probe.jsp.applications.size.pending"/>
+						</c:otherwise>
+					</c:choose>
 				</display:column>
 			</c:if>
 
+			<display:column sortProperty="heapSize" sortable="true"
+					titleKey="probe.jsp.applications.col.heapSize">
+				<span title="<spring:message code='probe.jsp.applications.help.heapSize'/>">
+					<c:choose>
+						<c:when test="${app.heapSize >= 0}">
+							<probe:volume value="${app.heapSize}"/>
+						</c:when>
+						<c:otherwise>
+							<spring:message code="probe.jsp.applications.heapSize.na"/>
+						</c:otherwise>
+					</c:choose>
+				</span>
+			</display:column>
+
 			<display:column sortable="true" sortProperty="contextAttributeCount"
 					titleKey="probe.jsp.applications.col.contextAttributeCount">
 				<a href="<c:url value='/appattributes.htm'><c:param name='webapp' value='${app.name}'/></c:url>">
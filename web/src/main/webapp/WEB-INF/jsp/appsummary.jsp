@@ -192,6 +192,61 @@
 							</c:param>
 						</c:url>
 
+						<c:url value="/chart.png" var="sessions_url">
+							<c:param name="p" value="app_sessions"/>
+							<c:param name="sp" value="${param.webapp}"/>
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="s1c" value="#95FE8B"/>
+							<c:param name="s1o" value="#009406"/>
+							<c:param name="l" value="false"/>
+						</c:url>
+
+						<c:url value="/chart.png" var="sessions_url_full">
+							<c:param name="p" value="app_sessions"/>
+							<c:param name="sp" value="${param.webapp}"/>
+							<c:param name="xz" value="${fullChartWidth}"/>
+							<c:param name="yz" value="${fullChartHeight}"/>
+							<c:param name="s1c" value="#95FE8B"/>
+							<c:param name="s1o" value="#009406"/>
+							<c:param name="s1l">
+								<spring:message code="probe.jsp.app.summary.charts.activeSessions.legend"/>
+							</c:param>
+							<c:param name="s2l">
+								<spring:message code="probe.jsp.app.summary.charts.createdSessions.legend"/>
+							</c:param>
+							<c:param name="s3l">
+								<spring:message code="probe.jsp.app.summary.charts.expiredSessions.legend"/>
+							</c:param>
+						</c:url>
+
+						<c:url value="/chart.png" var="heap_url">
+							<c:param name="p" value="app_heap"/>
+							<c:param name="sp" value="${param.webapp}"/>
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="l" value="false"/>
+						</c:url>
+
+						<c:url value="/chart.png" var="heap_url_full">
+							<c:param name="p" value="app_heap"/>
+							<c:param name="sp" value="${param.webapp}"/>
+							<c:param name="xz" value="${fullChartWidth}"/>
+							<c:param name="yz" value="${fullChartHeight}"/>
+							<c:param name="s1l">
+								<spring:message code="probe.jsp.app.summary.charts.heapTotal.legend"/>
+							</c:param>
+							<c:param name="s2l">
+								<spring:message code="probe.jsp.app.summary.charts.heapContext.legend"/>
+							</c:param>
+							<c:param name="s3l">
+								<spring:message code="probe.jsp.app.summary.charts.heapSessions.legend"/>
+							</c:param>
+							<c:param name="s4l">
+								<spring:message code="probe.jsp.app.summary.charts.heapStatics.legend"/>
+							</c:param>
+						</c:url>
+
 						<div id="chart_group">
 							<div class="chartContainer">
 								<dl>
@@ -200,7 +255,9 @@
 										<img id="req_chart" border="0" src="${req_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
 									</dd>
 									<dd id="dd-req">
-										<div class="ajax_activity"></div>
+										<span class="name"><spring:message code="probe.jsp.app.summary.requestCount"/></span>&#160;<span data-field="requestCount">${app.requestCount}</span>
+										&#160;
+										<span class="name"><spring:message code="probe.jsp.app.summary.errorCount"/></span>&#160;<span data-field="errorCount">${app.errorCount}</span>
 									</dd>
 								</dl>
 							</div>
@@ -212,7 +269,31 @@
 										<img id="avg_proc_time_chart" border="0" src="${avg_proc_time_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
 									</dd>
 									<dd id="dd-proc_time">
-										<div class="ajax_activity"></div>
+										<span class="name"><spring:message code="probe.jsp.app.summary.processingTime"/></span>&#160;<span data-field="processingTime">${app.processingTime}</span>
+										&#160;
+										<span class="name"><spring:message code="probe.jsp.app.summary.minTime"/></span>&#160;<span data-field="minTime">${app.minTime}</span>
+										&#160;
+										<span class="name"><spring:message code="probe.jsp.app.summary.maxTime"/></span>&#160;<span data-field="maxTime">${app.maxTime}</span>
+										&#160;
+										<span class="name"><spring:message code="probe.jsp.app.summary.avgTime"/></span>&#160;<span data-field="avgTime">${app.avgTime}</span>
+									</dd>
+								</dl>
+							</div>
+
+							<div class="chartContainer">
+								<dl>
+									<dt><spring:message code="probe.jsp.app.summary.charts.sessions.title"/></dt>
+									<dd class="image">
+										<img id="sessions_chart" border="0" src="${sessions_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+									</dd>
+								</dl>
+							</div>
+
+							<div class="chartContainer">
+								<dl>
+									<dt><spring:message code="probe.jsp.app.summary.charts.heap.title"/></dt>
+									<dd class="image">
+										<img id="heap_chart" border="0" src="${heap_url}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
 									</dd>
 								</dl>
 							</div>
@@ -273,6 +354,16 @@
 									zoomIn('${avg_proc_time_url_full}', '<spring:message code="probe.jsp.app.summary.charts.avgProcTime.title"/>');
 								}
 							},
+							'#sessions_chart': function(element) {
+								element.onclick = function() {
+									zoomIn('${sessions_url_full}', '<spring:message code="probe.jsp.app.summary.charts.sessions.title"/>');
+								}
+							},
+							'#heap_chart': function(element) {
+								element.onclick = function() {
+									zoomIn('${heap_url_full}', '<spring:message code="probe.jsp.app.summary.charts.heap.title"/>');
+								}
+							},
 							'#full_chart': function(element) {
 								element.onclick = function() {
 									zoomOut();
@@ -284,8 +375,12 @@
 
 						imageUpdaters[0] = new Ajax.ImgUpdater('req_chart', '${probe:max(collectionPeriod, 5)}');
 						imageUpdaters[1] = new Ajax.ImgUpdater('avg_proc_time_chart', '${probe:max(collectionPeriod, 5)}');
-						new Ajax.PeriodicalUpdater('dd-req', '<c:url value="/appreqdetails.ajax"><c:param name="webapp" value="${app.name}" /></c:url>', {method:'get', frequency: 3});
-						new Ajax.PeriodicalUpdater('dd-proc_time', '<c:url value="/appprocdetails.ajax"><c:param name="webapp" value="${app.name}" /></c:url>', {method:'get', frequency: 3});
+						imageUpdaters[2] = new Ajax.ImgUpdater('sessions_chart', '${probe:max(collectionPeriod, 5)}');
+						imageUpdaters[3] = new Ajax.ImgUpdater('heap_chart', '${probe:max(collectionPeriod, 5)}');
+						new Ajax.DashboardUpdater('<c:url value="/dashboard.ajax"/>', 3)
+								.watch('dd-req', 'app.requests:${probe:escapeJS(app.name)}')
+								.watch('dd-proc_time', 'app.proc_time:${probe:escapeJS(app.name)}')
+								.start();
 					</script>
 				</c:if>
 
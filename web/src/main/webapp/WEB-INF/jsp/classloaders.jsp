@@ -0,0 +1,111 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="http://displaytag.sf.net" prefix="display" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Lists the class loaders of stopped, reloaded and undeployed applications that are still reachable. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.classloaders"/></title>
+		<script type="text/javascript" src="<c:url value='/js/prototype.js'/>"></script>
+		<script type="text/javascript" src="<c:url value='/js/func.js'/>"></script>
+	</head>
+
+	<c:set var="navTabSystem" value="active" scope="request"/>
+	<c:set var="systemTabClassLoaders" value="active" scope="request"/>
+	<c:set var="use_decorator" value="system" scope="request"/>
+
+	<c:set var="chartWidth" value="750"/>
+	<c:set var="chartHeight" value="200"/>
+
+	<body>
+		<ul class="options">
+			<li id="adviseGC">
+				<a href="<c:url value='/adm/advisegc.htm'/>">
+					<spring:message code="probe.jsp.memory.advise.gc"/>
+				</a>
+			</li>
+		</ul>
+
+		<c:choose>
+			<c:when test="${empty leakedClassLoaders}">
+				<div class="infoMessage">
+					<p><spring:message code="probe.jsp.classloaders.empty" arguments="${gcThreshold}"/></p>
+				</div>
+			</c:when>
+			<c:otherwise>
+				<div class="errorMessage">
+					<p><spring:message code="probe.jsp.classloaders.leaked" arguments="${gcThreshold}"/></p>
+				</div>
+
+				<display:table name="leakedClassLoaders" uid="loader" class="genericTbl" style="border-spacing:0;border-collapse:separate;" requestURI="">
+					<display:column titleKey="probe.jsp.classloaders.col.application" class="leftmost">
+						<c:out value="${loader.applicationName}"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.classloaders.col.loader">
+						<c:out value="${loader.loaderName}"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.classloaders.col.retired">
+						<fmt:formatDate value="${loader.retiredDate}" pattern="yyyy-MM-dd HH:mm:ss"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.classloaders.col.age">
+						<probe:duration value="${loader.age}"/>
+					</display:column>
+					<display:column property="gcCount" titleKey="probe.jsp.classloaders.col.gcCount"/>
+					<display:column titleKey="probe.jsp.classloaders.col.classCount">
+						<c:choose>
+							<c:when test="${loader.classCount < 0}">
+								<spring:message code="probe.jsp.classloaders.unknown"/>
+							</c:when>
+							<c:otherwise>
+								${loader.classCount}
+							</c:otherwise>
+						</c:choose>
+					</display:column>
+					<display:column titleKey="probe.jsp.classloaders.col.retainedSize">
+						<c:choose>
+							<c:when test="${loader.retainedSize < 0}">
+								<spring:message code="probe.jsp.classloaders.unknown"/>
+							</c:when>
+							<c:otherwise>
+								<probe:volume value="${loader.retainedSize}"/>
+							</c:otherwise>
+						</c:choose>
+					</display:column>
+				</display:table>
+			</c:otherwise>
+		</c:choose>
+
+		<h3><spring:message code="probe.jsp.classloaders.h3.chart"/></h3>
+
+		<c:url value="/chart.png" var="leakedChartUrl">
+			<c:param name="p" value="leaked_classloaders"/>
+			<c:param name="xz" value="${chartWidth}"/>
+			<c:param name="yz" value="${chartHeight}"/>
+			<c:param name="s1l"><spring:message code="probe.jsp.classloaders.chart.leaked"/></c:param>
+		</c:url>
+
+		<div>
+			<img id="img_leaked_classloaders" src="<c:out value='${leakedChartUrl}' escapeXml='false'/>" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+		</div>
+
+		<script type="text/javascript">
+			new Ajax.ImgUpdater('img_leaked_classloaders', '${probe:max(collectionPeriod, 5)}');
+		</script>
+	</body>
+</html>
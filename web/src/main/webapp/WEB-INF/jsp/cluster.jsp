@@ -105,7 +105,10 @@
 								<dd>
 									<img id="cl_traffic" border="0" src="${trafficimg}" width="${chartWidth}" height="${chartHeight}" alt="Bytes received"/>
 								</dd>
-								<dd id="dd_traffic"><div class="ajax_activity"></div></dd>
+								<dd id="dd_traffic">
+									<span class="name"><spring:message code="probe.jsp.cluster.sent"/></span> <span data-field="sent"><probe:volume value="${cluster.senderTotalBytes}"/></span>
+									<span class="name"><spring:message code="probe.jsp.cluster.received"/></span> <span data-field="received"><probe:volume value="${cluster.totalReceivedBytes}"/></span>
+								</dd>
 							</dl>
 						</div>
 
@@ -115,7 +118,80 @@
 								<dd>
 									<img id="cl_requests" border="0" src="${requestsimg}" width="${chartWidth}" height="${chartHeight}" alt="Bytes sent"/>
 								</dd>
-								<dd id="dd_requests"><div class="ajax_activity"></div></dd>
+								<dd id="dd_requests">
+									<span class="name"><spring:message code="probe.jsp.cluster.sent"/></span> <span data-field="sent">${cluster.senderNrOfRequests}</span>
+									<span class="name"><spring:message code="probe.jsp.cluster.received"/></span> <span data-field="received">${cluster.nrOfMsgsReceived}</span>
+								</dd>
+							</dl>
+						</div>
+					</div>
+
+					<div style="clear: both;"></div>
+
+					<h3><spring:message code="probe.jsp.cluster.h3.replication"/></h3>
+
+					<div>
+						<c:url value="/chart.png" var="membertimeimg">
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="l" value="true"/>
+							<c:param name="p" value="cl_member_time"/>
+						</c:url>
+
+						<div class="chartContainer">
+							<dl>
+								<dt><spring:message code="probe.jsp.cluster.chart.member.time"/></dt>
+								<dd>
+									<img id="cl_member_time" border="0" src="${membertimeimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+								</dd>
+							</dl>
+						</div>
+
+						<c:url value="/chart.png" var="memberqueueimg">
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="l" value="true"/>
+							<c:param name="p" value="cl_member_queue"/>
+						</c:url>
+
+						<div class="chartContainer">
+							<dl>
+								<dt><spring:message code="probe.jsp.cluster.chart.member.queue"/></dt>
+								<dd>
+									<img id="cl_member_queue" border="0" src="${memberqueueimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+								</dd>
+							</dl>
+						</div>
+
+						<c:url value="/chart.png" var="memberfailuresimg">
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="l" value="true"/>
+							<c:param name="p" value="cl_member_failures"/>
+						</c:url>
+
+						<div class="chartContainer">
+							<dl>
+								<dt><spring:message code="probe.jsp.cluster.chart.member.failures"/></dt>
+								<dd>
+									<img id="cl_member_failures" border="0" src="${memberfailuresimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+								</dd>
+							</dl>
+						</div>
+
+						<c:url value="/chart.png" var="membersentimg">
+							<c:param name="xz" value="${chartWidth}"/>
+							<c:param name="yz" value="${chartHeight}"/>
+							<c:param name="l" value="true"/>
+							<c:param name="p" value="cl_member_sent"/>
+						</c:url>
+
+						<div class="chartContainer">
+							<dl>
+								<dt><spring:message code="probe.jsp.cluster.chart.member.sent"/></dt>
+								<dd>
+									<img id="cl_member_sent" border="0" src="${membersentimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/>
+								</dd>
 							</dl>
 						</div>
 					</div>
@@ -133,8 +209,14 @@
 				<script type="text/javascript">
 					new Ajax.ImgUpdater('cl_traffic', '${probe:max(collectionPeriod, 5)}');
 					new Ajax.ImgUpdater('cl_requests', '${probe:max(collectionPeriod, 5)}');
-					new Ajax.PeriodicalUpdater('dd_traffic', '<c:url value="/cluster/traffic.ajax"/>', {frequency: 3});
-					new Ajax.PeriodicalUpdater('dd_requests', '<c:url value="/cluster/requests.ajax"/>', {frequency: 3});
+					new Ajax.ImgUpdater('cl_member_time', '${probe:max(collectionPeriod, 5)}');
+					new Ajax.ImgUpdater('cl_member_queue', '${probe:max(collectionPeriod, 5)}');
+					new Ajax.ImgUpdater('cl_member_failures', '${probe:max(collectionPeriod, 5)}');
+					new Ajax.ImgUpdater('cl_member_sent', '${probe:max(collectionPeriod, 5)}');
+					new Ajax.DashboardUpdater('<c:url value="/dashboard.ajax"/>', 3)
+							.watch('dd_traffic', 'cluster.traffic')
+							.watch('dd_requests', 'cluster.requests')
+							.start();
 					new Ajax.PeriodicalUpdater('members', '<c:url value="/cluster/members.ajax"/>?<%=StringEscapeUtils.escapeHtml4(request.getQueryString())%>', {method:'get',frequency: 3});
 				</script>
 
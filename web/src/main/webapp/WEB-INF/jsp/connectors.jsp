@@ -51,6 +51,10 @@
 			</div>
 
 
+			<script type="text/javascript">
+				var dashboard = new Ajax.DashboardUpdater('<c:url value="/dashboard.ajax"/>', 3);
+			</script>
+
 			<c:forEach items="${connectors}" var="connector">
 
 				<c:set var="protocolHandler" value="${connector.protocolHandler}" />
@@ -101,18 +105,6 @@
 					<c:param name="sp" value="${protocolHandler}" />
 				</c:url>
 
-				<c:url value="/cnreqdetails.ajax" var="reqAjaxUrl">
-					<c:param name="cn" value="${protocolHandler}" />
-				</c:url>
-
-				<c:url value="/cnprocdetails.ajax" var="proctimeAjaxUrl">
-					<c:param name="cn" value="${protocolHandler}" />
-				</c:url>
-
-				<c:url value="/cntrafdetails.ajax" var="trafficAjaxUrl">
-					<c:param name="cn" value="${protocolHandler}" />
-				</c:url>
-
 				<c:url value="/app/connectorReset.htm" var="reset_url">
 					<c:param name="cn" value="${protocolHandler}"/>
 				</c:url>
@@ -183,7 +175,9 @@
 										alt="+"/></a>
 							</dd>
 							<dd id="dd-req-${probe:escapeHtml(protocolHandler)}">
-								<div class="ajax_activity"></div>
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.requestCount"/></span>&#160;<span data-field="requestCount">${connector.requestCount}</span>
+								&#160;
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.errorCount"/></span>&#160;<span data-field="errorCount">${connector.errorCount}</span>
 							</dd>
 						</dl>
 					</div>
@@ -200,7 +194,9 @@
 										alt="+"/></a>
 							</dd>
 							<dd id="dd-proc_time-${probe:escapeHtml(protocolHandler)}">
-								<div class="ajax_activity"></div>
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.processingTime"/></span>&#160;<span data-field="processingTime">${connector.processingTime}</span>
+								&#160;
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.maxTime"/></span>&#160;<span data-field="maxTime">${connector.maxTime}</span>
 							</dd>
 						</dl>
 					</div>
@@ -217,7 +213,9 @@
 										alt="+"/></a>
 							</dd>
 							<dd id="dd-traf-${probe:escapeHtml(protocolHandler)}">
-								<div class="ajax_activity"></div>
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.sent"/></span>&#160;<span data-field="bytesSent"><probe:volume value="${connector.bytesSent}"/></span>
+								&#160;
+								<span class="name"><spring:message code="probe.jsp.connectors.processor.received"/></span>&#160;<span data-field="bytesReceived"><probe:volume value="${connector.bytesReceived}"/></span>
 							</dd>
 						</dl>
 					</div>
@@ -226,9 +224,9 @@
 						new Ajax.ImgUpdater('req-${probe:escapeJS(protocolHandler)}', '${probe:max(collectionPeriod, 5)}');
 						new Ajax.ImgUpdater('proc_time-${probe:escapeJS(protocolHandler)}', '${probe:max(collectionPeriod, 5)}');
 						new Ajax.ImgUpdater('traf-${probe:escapeJS(protocolHandler)}', '${probe:max(collectionPeriod, 5)}');
-						new Ajax.PeriodicalUpdater('dd-req-${probe:escapeJS(protocolHandler)}', '${reqAjaxUrl}', {frequency: 3});
-						new Ajax.PeriodicalUpdater('dd-proc_time-${probe:escapeJS(protocolHandler)}', '${proctimeAjaxUrl}', {frequency: 3});
-						new Ajax.PeriodicalUpdater('dd-traf-${probe:escapeJS(protocolHandler)}', '${trafficAjaxUrl}', {frequency: 3});
+						dashboard.watch('dd-req-${probe:escapeJS(protocolHandler)}', 'connector.requests:${probe:escapeJS(protocolHandler)}');
+						dashboard.watch('dd-proc_time-${probe:escapeJS(protocolHandler)}', 'connector.proc_time:${probe:escapeJS(protocolHandler)}');
+						dashboard.watch('dd-traf-${probe:escapeJS(protocolHandler)}', 'connector.traffic:${probe:escapeJS(protocolHandler)}');
 					</script>
 
 					<div class="connectorInfo">
@@ -380,6 +378,7 @@
 				}
 			}
 			Behaviour.register(rules);
+			dashboard.start();
 		</script>
 
 	</body>
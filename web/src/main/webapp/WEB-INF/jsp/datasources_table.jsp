@@ -85,6 +85,12 @@
 	<display:column titleKey="probe.jsp.datasources.list.col.max" sortable="true" property="dataSourceInfo.maxConnections"/>
 	<display:column titleKey="probe.jsp.datasources.list.col.established" sortable="true" property="dataSourceInfo.establishedConnections"/>
 	<display:column titleKey="probe.jsp.datasources.list.col.busy" sortable="true" property="dataSourceInfo.busyConnections"/>
+	<display:column titleKey="probe.jsp.datasources.list.col.waiting" sortable="true" sortProperty="dataSourceInfo.waitingThreads">
+		<c:choose>
+			<c:when test="${resource.dataSourceInfo.waitingThreads >= 0}">${resource.dataSourceInfo.waitingThreads}</c:when>
+			<c:otherwise><spring:message code="probe.jsp.datasources.list.na"/></c:otherwise>
+		</c:choose>
+	</display:column>
 
 	<display:column titleKey="probe.jsp.datasources.list.col.user" sortable="true" sortProperty="dataSourceInfo.username" property="dataSourceInfo.username" nulls="false">
 		${resource.dataSourceInfo.username}&#160;
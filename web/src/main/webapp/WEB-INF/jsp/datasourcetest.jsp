@@ -173,10 +173,61 @@
 					</dd>
 				</dl>
 			</div>
+
+			<c:url value="/chart.png" var="waiting_img" scope="page">
+				<c:param name="p" value="datasource_waiting"/>
+				<c:param name="sp" value="${param.webapp == null ? '' : param.webapp}/${param.resource}"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.dataSourceTest.chart.waiting.title"/></dt>
+					<dd class="image">
+						<img id='<c:out value="waiting-${param.resource}" />' border="0" src="${waiting_img}" width="${chartWidth}" height="${chartHeight}" alt="Threads waiting for a connection"/>
+					</dd>
+				</dl>
+			</div>
+
+			<c:url value="/chart.png" var="wait_time_img" scope="page">
+				<c:param name="p" value="datasource_wait_time"/>
+				<c:param name="sp" value="${param.webapp == null ? '' : param.webapp}/${param.resource}"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.dataSourceTest.chart.waitTime.title"/></dt>
+					<dd class="image">
+						<img id='<c:out value="waittime-${param.resource}" />' border="0" src="${wait_time_img}" width="${chartWidth}" height="${chartHeight}" alt="Connection wait time"/>
+					</dd>
+				</dl>
+			</div>
+
+			<c:url value="/chart.png" var="throughput_img" scope="page">
+				<c:param name="p" value="datasource_throughput"/>
+				<c:param name="sp" value="${param.webapp == null ? '' : param.webapp}/${param.resource}"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.dataSourceTest.chart.throughput.title"/></dt>
+					<dd class="image">
+						<img id='<c:out value="throughput-${param.resource}" />' border="0" src="${throughput_img}" width="${chartWidth}" height="${chartHeight}" alt="Connections borrowed and returned"/>
+					</dd>
+				</dl>
+			</div>
 		</div>
 
 		<script type="text/javascript">
 			new Ajax.ImgUpdater('<c:out value="usage-${param.resource}" />', '${probe:max(collectionPeriod, 5)}');
+			new Ajax.ImgUpdater('<c:out value="waiting-${param.resource}" />', '${probe:max(collectionPeriod, 5)}');
+			new Ajax.ImgUpdater('<c:out value="waittime-${param.resource}" />', '${probe:max(collectionPeriod, 5)}');
+			new Ajax.ImgUpdater('<c:out value="throughput-${param.resource}" />', '${probe:max(collectionPeriod, 5)}');
 			setupAjaxActions(
 				'<c:url value="/sql/connection.ajax"/>',
 				'<c:url value="/sql/recordset.ajax"/>',
@@ -30,6 +30,16 @@
 				<spring:message code="probe.jsp.decorator.system.memory"/>
 			</a>
 		</li>
+		<li>
+			<a class="${systemTabHistogram}" href="<c:url value='/histogram.htm'/>">
+				<spring:message code="probe.jsp.decorator.system.histogram"/>
+			</a>
+		</li>
+		<li>
+			<a class="${systemTabClassLoaders}" href="<c:url value='/classloaders.htm'/>">
+				<spring:message code="probe.jsp.decorator.system.classloaders"/>
+			</a>
+		</li>
 		<li>
 			<a class="${systemTabSysProps}" href="<c:url value='/sysprops.htm'/>">
 				<spring:message code="probe.jsp.decorator.system.props"/>
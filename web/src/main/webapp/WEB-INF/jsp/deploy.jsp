@@ -40,6 +40,9 @@
 					</a>
 				</c:set>
 				<spring:message code="probe.jsp.deployment.war.success" arguments="${successLink}" />
+				<c:if test="${! empty sha256}">
+					<spring:message code="probe.jsp.deployment.war.sha256" arguments="${sha256}"/>
+				</c:if>
 				<c:if test="${compileSuccess}">
 					<a href="<c:url value='/app/jsp.htm'><c:param name='webapp' value='${contextName}'/></c:url>">
 						<spring:message code="probe.jsp.deployment.compilationDetails"/>
@@ -74,6 +77,8 @@
 						<dd><input id="war" type="file" name="war" size="90"/></dd>
 						<dt><label for="context"><spring:message code="probe.jsp.deployment.s2.context.label"/>&#160;</label></dt>
 						<dd><input id="context" type="text" name="context" size="90"/></dd>
+						<dt><label for="sha256"><spring:message code="probe.jsp.deployment.s1.sha256.label"/>&#160;</label></dt>
+						<dd><input id="sha256" type="text" name="sha256" size="90"/></dd>
 						<dt><span class="cb"><input id="update" type="checkbox" name="update" value="yes"/><label for="update">&#160;
 									<spring:message code="probe.jsp.deployment.s1.update.label"/></label></span></dt>
 						<dt><span class="cb"><input id="discard" type="checkbox" name="discard" value="yes"/><label for="discard">&#160;
@@ -0,0 +1,113 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="http://displaytag.sf.net" prefix="display" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Compares two class histograms of the heap. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.histogram"/></title>
+	</head>
+
+	<c:set var="navTabSystem" value="active" scope="request"/>
+	<c:set var="systemTabHistogram" value="active" scope="request"/>
+	<c:set var="use_decorator" value="system" scope="request"/>
+
+	<body>
+		<c:choose>
+			<c:when test="${! supported}">
+				<div class="errorMessage">
+					<p><spring:message code="probe.jsp.histogram.notSupported"/></p>
+				</div>
+			</c:when>
+			<c:otherwise>
+				<ul class="options">
+					<li id="takeHistogram">
+						<a href="<c:url value='/adm/histogram.htm'/>">
+							<spring:message code="probe.jsp.histogram.take"/>
+						</a>
+					</li>
+					<c:if test="${! empty to}">
+						<li id="histogramJson">
+							<a href="<c:url value='/histogram.ajax'><c:param name='from' value='${from.id}'/><c:param name='to' value='${to.id}'/><c:param name='sort' value='${sort}'/><c:param name='top' value='${top}'/></c:url>">
+								<spring:message code="probe.jsp.histogram.json"/>
+							</a>
+						</li>
+					</c:if>
+				</ul>
+
+				<c:choose>
+					<c:when test="${empty snapshots}">
+						<div class="infoMessage">
+							<p><spring:message code="probe.jsp.histogram.empty"/></p>
+						</div>
+					</c:when>
+					<c:otherwise>
+						<form action="<c:url value='/histogram.htm'/>" method="get">
+							<spring:message code="probe.jsp.histogram.from"/>
+							<select name="from">
+								<option value="0"><spring:message code="probe.jsp.histogram.none"/></option>
+								<c:forEach items="${snapshots}" var="snapshot">
+									<option value="${snapshot.id}" ${snapshot.id == from.id ? 'selected="selected"' : ''}>
+										#${snapshot.id} <fmt:formatDate value="${snapshot.date}" pattern="yyyy-MM-dd HH:mm:ss"/>
+									</option>
+								</c:forEach>
+							</select>
+							<spring:message code="probe.jsp.histogram.to"/>
+							<select name="to">
+								<c:forEach items="${snapshots}" var="snapshot">
+									<option value="${snapshot.id}" ${snapshot.id == to.id ? 'selected="selected"' : ''}>
+										#${snapshot.id} <fmt:formatDate value="${snapshot.date}" pattern="yyyy-MM-dd HH:mm:ss"/>
+									</option>
+								</c:forEach>
+							</select>
+							<spring:message code="probe.jsp.histogram.sort"/>
+							<select name="sort">
+								<option value="bytes" ${sort == 'bytes' ? 'selected="selected"' : ''}><spring:message code="probe.jsp.histogram.sort.bytes"/></option>
+								<option value="instances" ${sort == 'instances' ? 'selected="selected"' : ''}><spring:message code="probe.jsp.histogram.sort.instances"/></option>
+							</select>
+							<input type="text" name="top" value="${top}" size="5"/>
+							<input type="submit" value="<spring:message code='probe.jsp.histogram.compare'/>"/>
+						</form>
+
+						<display:table name="deltas" uid="delta" class="genericTbl" style="border-spacing:0;border-collapse:separate;" requestURI="">
+							<display:column titleKey="probe.jsp.histogram.col.class" class="leftmost">
+								<c:out value="${delta.className}"/>
+							</display:column>
+							<display:column property="instances" titleKey="probe.jsp.histogram.col.instances"/>
+							<display:column titleKey="probe.jsp.histogram.col.bytes">
+								<probe:volume value="${delta.bytes}"/>
+							</display:column>
+							<display:column property="instancesDelta" titleKey="probe.jsp.histogram.col.instancesDelta"/>
+							<display:column titleKey="probe.jsp.histogram.col.bytesDelta">
+								<c:choose>
+									<c:when test="${delta.bytesDelta < 0}">
+										-<probe:volume value="${-delta.bytesDelta}"/>
+									</c:when>
+									<c:otherwise>
+										<probe:volume value="${delta.bytesDelta}"/>
+									</c:otherwise>
+								</c:choose>
+							</display:column>
+						</display:table>
+					</c:otherwise>
+				</c:choose>
+			</c:otherwise>
+		</c:choose>
+	</body>
+</html>
@@ -0,0 +1,177 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Log file search. Hits are paged by resuming the scan after the last hit of the previous page. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.logsearch"/></title>
+	</head>
+
+	<c:set var="navTabLogs" value="active" scope="request"/>
+
+	<body>
+
+		<ul class="options">
+			<li id="back">
+				<a href="<c:url value='/logs/list.htm'/>">
+					<spring:message code="probe.jsp.follow.menu.back"/>
+				</a>
+			</li>
+		</ul>
+
+		<div class="blockContainer">
+
+			<h3><spring:message code="probe.jsp.logsearch.h3" arguments="${log.file.name}"/></h3>
+
+			<form action="<c:url value='/logs/search.htm'/>" method="get" id="logSearchForm">
+				<input type="hidden" name="logType" value="<c:out value='${param.logType}'/>"/>
+				<c:if test="${! empty param.webapp}">
+					<input type="hidden" name="webapp" value="<c:out value='${param.webapp}'/>"/>
+				</c:if>
+				<c:if test="${! empty param.context}">
+					<input type="hidden" name="context" value="<c:out value='${param.context}'/>"/>
+				</c:if>
+				<c:if test="${! empty param.root}">
+					<input type="hidden" name="root" value="<c:out value='${param.root}'/>"/>
+				</c:if>
+				<c:if test="${! empty param.logName}">
+					<input type="hidden" name="logName" value="<c:out value='${param.logName}'/>"/>
+				</c:if>
+				<c:if test="${! empty param.logIndex}">
+					<input type="hidden" name="logIndex" value="<c:out value='${param.logIndex}'/>"/>
+				</c:if>
+
+				<table id="searchFormTable">
+					<tr>
+						<td class="labelCell">
+							<spring:message code="probe.jsp.logsearch.query"/>
+						</td>
+						<td class="inputCell" colspan="3">
+							<input name="q" type="text" value="<c:out value='${param.q}'/>" class="txtInput" size="60"/>
+							<label>
+								<input name="regex" type="checkbox" value="true" ${param.regex ? 'checked="checked"' : ''}/>
+								<spring:message code="probe.jsp.logsearch.regex"/>
+							</label>
+							<label>
+								<input name="ignoreCase" type="checkbox" value="true" ${param.ignoreCase ? 'checked="checked"' : ''}/>
+								<spring:message code="probe.jsp.logsearch.ignoreCase"/>
+							</label>
+						</td>
+					</tr>
+					<tr>
+						<td class="labelCell">
+							<spring:message code="probe.jsp.logsearch.from"/>
+						</td>
+						<td class="inputCell">
+							<input name="from" type="text" value="<c:out value='${param.from}'/>" class="txtInput" size="20"/>
+						</td>
+						<td class="labelCell">
+							<spring:message code="probe.jsp.logsearch.to"/>
+						</td>
+						<td class="inputCell">
+							<input name="to" type="text" value="<c:out value='${param.to}'/>" class="txtInput" size="20"/>
+						</td>
+					</tr>
+					<tr>
+						<td class="labelCell">
+							<spring:message code="probe.jsp.logsearch.lines"/>
+						</td>
+						<td class="inputCell">
+							<input name="lines" type="text" value="${empty param.lines ? 2 : fn:escapeXml(param.lines)}" class="txtInput" size="5"/>
+						</td>
+						<td class="labelCell">
+							<spring:message code="probe.jsp.logsearch.pageSize"/>
+						</td>
+						<td class="inputCell">
+							<input name="pageSize" type="text" value="${empty param.pageSize ? 50 : fn:escapeXml(param.pageSize)}" class="txtInput" size="5"/>
+						</td>
+					</tr>
+				</table>
+				<input type="submit" value="<spring:message code='probe.jsp.logsearch.submit'/>"/>
+			</form>
+
+			<c:if test="${! empty errorMessage}">
+				<div class="errorMessage">
+					<p>
+						<spring:message code="probe.jsp.logsearch.invalidPattern"/>
+						<c:out value="${errorMessage}"/>
+					</p>
+				</div>
+			</c:if>
+
+			<c:if test="${result != null}">
+				<h3>
+					<spring:message code="probe.jsp.logsearch.results" arguments="${result.page},${fn:length(result.hits)}"/>
+				</h3>
+				<p>
+					<spring:message code="probe.jsp.logsearch.scanned"/>
+					<probe:volume value="${result.scanned}"/>
+					(${result.time} ms)
+				</p>
+
+				<c:choose>
+					<c:when test="${empty result.hits}">
+						<div class="infoMessage">
+							<spring:message code="probe.jsp.logsearch.empty"/>
+						</div>
+					</c:when>
+					<c:otherwise>
+						<div class="shaper">
+							<div id="file_content" class="fixed_width">
+								<c:forEach items="${result.hits}" var="hit">
+									<div class="logSearchHit">
+										<c:forEach items="${hit.before}" var="line">
+											<div class="context"><c:out value="${line}"/></div>
+										</c:forEach>
+										<div class="hit"><strong><c:out value="${hit.line}"/></strong></div>
+										<c:forEach items="${hit.after}" var="line">
+											<div class="context"><c:out value="${line}"/></div>
+										</c:forEach>
+										<hr/>
+									</div>
+								</c:forEach>
+							</div>
+						</div>
+					</c:otherwise>
+				</c:choose>
+
+				<c:if test="${result.more}">
+					<c:url value="/logs/search.htm" var="nextUrl">
+						<c:forEach items="${paramValues}" var="entry">
+							<c:if test="${entry.key != 'offset' && entry.key != 'page'}">
+								<c:forEach items="${entry.value}" var="value">
+									<c:param name="${entry.key}" value="${value}"/>
+								</c:forEach>
+							</c:if>
+						</c:forEach>
+						<c:param name="offset" value="${result.endOffset}"/>
+						<c:param name="page" value="${result.page + 1}"/>
+					</c:url>
+					<ul class="options">
+						<li id="nextPage">
+							<a href="${nextUrl}">
+								<spring:message code="probe.jsp.logsearch.next"/>
+							</a>
+						</li>
+					</ul>
+				</c:if>
+			</c:if>
+		</div>
+	</body>
+</html>
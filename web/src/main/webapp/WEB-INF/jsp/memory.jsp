@@ -120,6 +120,45 @@
 				<div id="fullMemoryChart" style="display: none;">
 					<img id="fullImg" class="clickable" src="${fullChartBase}&sp=Total" width="${fullChartWidth}" height="${fullChartHeight}" alt="-" onclick="zoomOut();"/>
 				</div>
+
+				<h3><spring:message code="probe.jsp.memory.h3.gc"/></h3>
+
+				<div id="gcChartGroup">
+					<c:url value="/chart.png" var="gcPauseUrl">
+						<c:param name="p" value="gc_pause"/>
+						<c:param name="xz" value="${chartWidth}"/>
+						<c:param name="yz" value="${chartHeight}"/>
+					</c:url>
+
+					<c:url value="/chart.png" var="gcAllocationUrl">
+						<c:param name="p" value="gc_allocation"/>
+						<c:param name="xz" value="${chartWidth}"/>
+						<c:param name="yz" value="${chartHeight}"/>
+						<c:param name="s1l"><spring:message code="probe.jsp.memory.gc.allocationRate"/></c:param>
+						<c:param name="s2l"><spring:message code="probe.jsp.memory.gc.promoted"/></c:param>
+					</c:url>
+
+					<div class="memoryChart">
+						<dl>
+							<dt><spring:message code="probe.jsp.memory.gc.pause"/></dt>
+							<dd class="image"><img id="img_gc_pause"
+												src="<c:out value='${gcPauseUrl}' escapeXml='false'/>" width="${chartWidth}" height="${chartHeight}" alt="+"/></dd>
+						</dl>
+					</div>
+
+					<div class="memoryChart">
+						<dl>
+							<dt><spring:message code="probe.jsp.memory.gc.allocation"/></dt>
+							<dd class="image"><img id="img_gc_allocation"
+												src="<c:out value='${gcAllocationUrl}' escapeXml='false'/>" width="${chartWidth}" height="${chartHeight}" alt="+"/></dd>
+						</dl>
+					</div>
+
+					<script type="text/javascript">
+						new Ajax.ImgUpdater('img_gc_pause', '${probe:max(collectionPeriod, 5)}');
+						new Ajax.ImgUpdater('img_gc_allocation', '${probe:max(collectionPeriod, 5)}');
+					</script>
+				</div>
 			</div>
 
 			<script type="text/javascript">
@@ -24,7 +24,126 @@
 	<c:set var="systemTabOshi" value="active" scope="request"/>
 	<c:set var="use_decorator" value="system" scope="request"/>
 
+	<c:set var="chartWidth" value="260"/>
+	<c:set var="chartHeight" value="140"/>
+
+	<c:url value="/chart.png" var="cpu_core_usage_url">
+		<c:param name="p" value="all_cpu_core_usage"/>
+		<c:param name="xz" value="${chartWidth}"/>
+		<c:param name="yz" value="${chartHeight}"/>
+	</c:url>
+
+	<c:url value="/chart.png" var="load_url">
+		<c:param name="p" value="os_load"/>
+		<c:param name="xz" value="${chartWidth}"/>
+		<c:param name="yz" value="${chartHeight}"/>
+		<c:param name="l" value="false"/>
+	</c:url>
+
+	<c:url value="/chart.png" var="fs_usage_url">
+		<c:param name="p" value="all_fs_usage"/>
+		<c:param name="xz" value="${chartWidth}"/>
+		<c:param name="yz" value="${chartHeight}"/>
+	</c:url>
+
 	<body>
+		<div id="chart_group" style="width: 99%;">
+			<h3><spring:message code="probe.jsp.os.h3.charts"/></h3>
+
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.cpuCores"/></dt>
+					<dd class="image">
+						<img border="0" src="<c:out value='${cpu_core_usage_url}' escapeXml='false'/>"
+								width="${chartWidth}" height="${chartHeight}"
+								alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.cpuCores'/>"/>
+					</dd>
+				</dl>
+			</div>
+
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.load"/></dt>
+					<dd class="image">
+						<img border="0" src="<c:out value='${load_url}' escapeXml='false'/>"
+								width="${chartWidth}" height="${chartHeight}"
+								alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.load'/>"/>
+					</dd>
+				</dl>
+			</div>
+
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.fs"/></dt>
+					<dd class="image">
+						<img border="0" src="<c:out value='${fs_usage_url}' escapeXml='false'/>"
+								width="${chartWidth}" height="${chartHeight}"
+								alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.fs'/>"/>
+					</dd>
+				</dl>
+			</div>
+
+			<c:forEach items="${disks}" var="disk">
+				<c:url value="/chart.png" var="disk_io_url">
+					<c:param name="p" value="os_disk_io"/>
+					<c:param name="sp" value="${disk}"/>
+					<c:param name="xz" value="${chartWidth}"/>
+					<c:param name="yz" value="${chartHeight}"/>
+					<c:param name="l" value="false"/>
+				</c:url>
+				<c:url value="/chart.png" var="disk_ops_url">
+					<c:param name="p" value="os_disk_ops"/>
+					<c:param name="sp" value="${disk}"/>
+					<c:param name="xz" value="${chartWidth}"/>
+					<c:param name="yz" value="${chartHeight}"/>
+					<c:param name="l" value="false"/>
+				</c:url>
+
+				<div class="chartContainer">
+					<dl>
+						<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.diskIo" arguments="${disk}"/></dt>
+						<dd class="image">
+							<img border="0" src="<c:out value='${disk_io_url}' escapeXml='false'/>"
+									width="${chartWidth}" height="${chartHeight}"
+									alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.diskIo' arguments='${disk}'/>"/>
+						</dd>
+					</dl>
+				</div>
+
+				<div class="chartContainer">
+					<dl>
+						<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.diskOps" arguments="${disk}"/></dt>
+						<dd class="image">
+							<img border="0" src="<c:out value='${disk_ops_url}' escapeXml='false'/>"
+									width="${chartWidth}" height="${chartHeight}"
+									alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.diskOps' arguments='${disk}'/>"/>
+						</dd>
+					</dl>
+				</div>
+			</c:forEach>
+
+			<c:forEach items="${networkIfs}" var="networkIf">
+				<c:url value="/chart.png" var="net_traffic_url">
+					<c:param name="p" value="os_net_traffic"/>
+					<c:param name="sp" value="${networkIf}"/>
+					<c:param name="xz" value="${chartWidth}"/>
+					<c:param name="yz" value="${chartHeight}"/>
+					<c:param name="l" value="false"/>
+				</c:url>
+
+				<div class="chartContainer">
+					<dl>
+						<dt><spring:message code="probe.jsp.sysinfo.oshi.chart.net" arguments="${networkIf}"/></dt>
+						<dd class="image">
+							<img border="0" src="<c:out value='${net_traffic_url}' escapeXml='false'/>"
+									width="${chartWidth}" height="${chartHeight}"
+									alt="<spring:message code='probe.jsp.sysinfo.oshi.chart.net' arguments='${networkIf}'/>"/>
+						</dd>
+					</dl>
+				</div>
+			</c:forEach>
+		</div>
+
 		<div id="oshi">
 			<table>
 				<c:forEach items="${oshi}" var="oshi">
@@ -0,0 +1,174 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Shows the progress and counts of the last run expiring the sessions matching a search. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.sessionexpiry"/></title>
+	</head>
+
+	<body>
+
+		<c:set var="navTabApps" value="active" scope="request"/>
+
+		<ul class="options">
+			<li id="back">
+				<a href="<c:url value='/sessions.htm'/>">
+					<spring:message code="probe.jsp.sessionexpiry.back"/>
+				</a>
+			</li>
+			<c:if test="${expiry.running}">
+				<li id="cancel">
+					<a href="<c:url value='/app/expire_matching.htm'><c:param name='cancel' value='true'/></c:url>">
+						<spring:message code="probe.jsp.sessionexpiry.cancel"/>
+					</a>
+				</li>
+			</c:if>
+		</ul>
+
+		<c:if test="${! empty errorMessage}">
+			<div class="errorMessage">
+				<p><c:out value="${errorMessage}"/></p>
+			</div>
+		</c:if>
+
+		<c:choose>
+			<c:when test="${empty expiry}">
+				<div class="infoMessage">
+					<p><spring:message code="probe.jsp.sessionexpiry.empty"/></p>
+				</div>
+			</c:when>
+			<c:otherwise>
+				<div class="blockContainer">
+					<h3>
+						<c:choose>
+							<c:when test="${expiry.dryRun}">
+								<spring:message code="probe.jsp.sessionexpiry.h3.dryRun"/>
+							</c:when>
+							<c:otherwise>
+								<spring:message code="probe.jsp.sessionexpiry.h3"/>
+							</c:otherwise>
+						</c:choose>
+					</h3>
+					<p>
+						<span class="name"><spring:message code="probe.jsp.sessionexpiry.application"/></span>
+						<c:choose>
+							<c:when test="${empty expiry.applicationName}">
+								<spring:message code="probe.jsp.sessionexpiry.allApplications"/>
+							</c:when>
+							<c:otherwise>
+								<c:out value="${expiry.applicationName}"/>
+							</c:otherwise>
+						</c:choose>
+						&#160;
+						<span class="name"><spring:message code="probe.jsp.sessionexpiry.started"/></span>
+						<fmt:formatDate value="${expiry.startDate}" pattern="yyyy-MM-dd HH:mm:ss"/>
+						&#160;
+						<span class="name"><spring:message code="probe.jsp.sessionexpiry.duration"/></span>
+						<probe:duration value="${expiry.duration}"/>
+						&#160;
+						<span class="name"><spring:message code="probe.jsp.sessionexpiry.rate"/></span>
+						<c:choose>
+							<c:when test="${expiry.rate > 0}">
+								<spring:message code="probe.jsp.sessionexpiry.perSecond" arguments="${expiry.rate}"/>
+							</c:when>
+							<c:otherwise>
+								<spring:message code="probe.jsp.sessionexpiry.unlimited"/>
+							</c:otherwise>
+						</c:choose>
+					</p>
+					<p>
+						<span class="name"><spring:message code="probe.jsp.sessionexpiry.criteria"/></span>
+						<c:if test="${! empty expiry.searchInfo.sessionId}">
+							<spring:message code="probe.jsp.sessions.search.sessionId"/>: <c:out value="${expiry.searchInfo.sessionId}"/>&#160;
+						</c:if>
+						<c:if test="${! empty expiry.searchInfo.lastIp}">
+							<spring:message code="probe.jsp.sessions.search.lastIp"/>: <c:out value="${expiry.searchInfo.lastIp}"/>&#160;
+						</c:if>
+						<c:if test="${! empty expiry.searchInfo.idleTimeFrom or ! empty expiry.searchInfo.idleTimeTo}">
+							<spring:message code="probe.jsp.sessions.search.idleTimeFrom"/>: <c:out value="${expiry.searchInfo.idleTimeFrom}"/>
+							<spring:message code="probe.jsp.sessions.search.idleTimeTo"/> <c:out value="${expiry.searchInfo.idleTimeTo}"/>&#160;
+						</c:if>
+						<c:if test="${! empty expiry.searchInfo.ageFrom or ! empty expiry.searchInfo.ageTo}">
+							<spring:message code="probe.jsp.sessions.search.ageFrom"/>: <c:out value="${expiry.searchInfo.ageFrom}"/>
+							<spring:message code="probe.jsp.sessions.search.ageTo"/> <c:out value="${expiry.searchInfo.ageTo}"/>&#160;
+						</c:if>
+						<c:if test="${! empty expiry.searchInfo.attrName}">
+							<spring:message code="probe.jsp.sessions.search.attrName"/>: <c:out value="${expiry.searchInfo.attrName}"/>
+						</c:if>
+					</p>
+					<table class="genericTbl" style="border-spacing:0;border-collapse:separate;">
+						<thead>
+							<tr>
+								<th class="leftmost"><spring:message code="probe.jsp.sessionexpiry.col.total"/></th>
+								<th><spring:message code="probe.jsp.sessionexpiry.col.scanned"/></th>
+								<th><spring:message code="probe.jsp.sessionexpiry.col.matched"/></th>
+								<c:if test="${! expiry.dryRun}">
+									<th><spring:message code="probe.jsp.sessionexpiry.col.expired"/></th>
+									<th><spring:message code="probe.jsp.sessionexpiry.col.skipped"/></th>
+									<th><spring:message code="probe.jsp.sessionexpiry.col.failed"/></th>
+								</c:if>
+								<th><spring:message code="probe.jsp.sessionexpiry.col.progress"/></th>
+							</tr>
+						</thead>
+						<tbody>
+							<tr>
+								<td class="leftmost">${expiry.total}</td>
+								<td>${expiry.scanned}</td>
+								<td class="highlighted">${expiry.matched}</td>
+								<c:if test="${! expiry.dryRun}">
+									<td>${expiry.expired}</td>
+									<td>${expiry.skipped}</td>
+									<td>${expiry.failed}</td>
+								</c:if>
+								<td>
+									${expiry.progress}%
+									<c:if test="${expiry.eta >= 0}">
+										&#160;<spring:message code="probe.jsp.sessionexpiry.eta"/>&#160;<probe:duration value="${expiry.eta}"/>
+									</c:if>
+								</td>
+							</tr>
+						</tbody>
+					</table>
+					<p>
+						<c:choose>
+							<c:when test="${expiry.running}">
+								<strong><spring:message code="probe.jsp.sessionexpiry.running"/></strong>
+							</c:when>
+							<c:when test="${expiry.cancelled}">
+								<spring:message code="probe.jsp.sessionexpiry.cancelled"/>
+							</c:when>
+							<c:otherwise>
+								<spring:message code="probe.jsp.sessionexpiry.finished"/>
+							</c:otherwise>
+						</c:choose>
+					</p>
+				</div>
+				<c:if test="${expiry.running}">
+					<script type="text/javascript">
+						setTimeout(function() {
+							window.location.reload();
+						}, 3000);
+					</script>
+				</c:if>
+			</c:otherwise>
+		</c:choose>
+
+	</body>
+</html>
@@ -98,6 +98,16 @@
 							<spring:message code="probe.jsp.sessions.menu.applySearch"/>
 						</a>
 					</li>
+					<li id="dryRunMatching" ${! searchInfo.apply ? 'style="display: none;"' : ''}>
+						<a href="#" onclick="expireMatching(true);">
+							<spring:message code="probe.jsp.sessions.menu.dryRunMatching"/>
+						</a>
+					</li>
+					<li id="expireMatching" ${! searchInfo.apply ? 'style="display: none;"' : ''}>
+						<a href="#" onclick="expireMatching(false);">
+							<spring:message code="probe.jsp.sessions.menu.expireMatching"/>
+						</a>
+					</li>
 				</c:if>
 				<c:if test="${! empty sessions}">
 					<c:choose>
@@ -327,6 +337,21 @@
 			</c:if>
 		</c:url>
 
+		<c:url value="/app/expire_matching.htm" var="urlExpireMatching">
+			<c:param name="start" value="true"/>
+			<c:if test="${not empty param.webapp}">
+				<c:param name="webapp" value="${param.webapp}"/>
+			</c:if>
+		</c:url>
+
+		<c:url value="/app/expire_matching.htm" var="urlDryRunMatching">
+			<c:param name="start" value="true"/>
+			<c:param name="dryRun" value="true"/>
+			<c:if test="${not empty param.webapp}">
+				<c:param name="webapp" value="${param.webapp}"/>
+			</c:if>
+		</c:url>
+
 		<script type="text/javascript">
 			var rules = {
 				'#ttdiv_close': function(e) {
@@ -344,6 +369,8 @@
 				Element.hide('showSearch');
 				Element.show('applySearch');
 				Element.show('clearSearch');
+				Element.show('dryRunMatching');
+				Element.show('expireMatching');
 				Element.show('abbreviations');
 				Effect.Appear('searchFormContainer', {duration:0.15});
 				$('searchSessionId').focus();
@@ -354,6 +381,14 @@
 				$('sessionForm').submit();
 			}
 
+			function expireMatching(dryRun) {
+				if (!dryRun && !confirm('<spring:message code="probe.jsp.sessions.confirm.expireMatching"/>')) {
+					return;
+				}
+				$('sessionForm').action = dryRun ? '<c:out value="${urlDryRunMatching}" />' : '<c:out value="${urlExpireMatching}" />';
+				$('sessionForm').submit();
+			}
+
 			function clearSearch() {
 				$('sessionForm').action = '<c:out value="${urlClear}" />';
 				$('sessionForm').submit();
@@ -28,6 +28,25 @@
 	<c:set var="appTabJSPs" value="active" scope="request"/>
 
 	<body>
+		<c:if test="${summary.running}">
+			<div class="infoMessage">
+				<p>
+					<spring:message code="probe.jsp.jsps.progress"
+							arguments="${summary.processed},${summary.total},${summary.progress}"/>
+					<c:if test="${summary.eta >= 0}">
+						<spring:message code="probe.jsp.jsps.eta"/>&#160;<probe:duration value="${summary.eta}"/>
+					</c:if>
+					<a href="<c:url value='/app/jsp.htm'><c:param name='cancel' value='true'/><c:param name='webapp' value='${param.webapp}'/></c:url>">
+						<spring:message code="probe.jsp.jsps.opt.cancel"/>
+					</a>
+				</p>
+			</div>
+			<script type="text/javascript">
+				setTimeout(function() {
+					window.location.reload();
+				}, 3000);
+			</script>
+		</c:if>
 		<c:choose>
 			<c:when test="${ empty summary.items}">
 				<div class="infoMessage">
@@ -0,0 +1,111 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Lists the requests recently found stuck, with the stack samples of their worker threads. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.stuckrequests"/></title>
+	</head>
+
+	<body>
+
+		<c:set var="navTabThreads" value="active" scope="request"/>
+
+		<ul class="options">
+			<li id="threads">
+				<a href="<c:url value='/threads.htm'/>">
+					<spring:message code="probe.jsp.threadpools.menu.threads"/>
+				</a>
+			</li>
+		</ul>
+
+		<c:choose>
+			<c:when test="${empty incidents}">
+				<div class="infoMessage">
+					<p><spring:message code="probe.jsp.stuckrequests.empty" arguments="${threshold}"/></p>
+				</div>
+			</c:when>
+			<c:otherwise>
+				<c:forEach items="${incidents}" var="incident">
+					<div class="blockContainer">
+						<h3>
+							<c:out value="${incident.method} ${incident.uri}"/><c:if test="${! empty incident.queryString}">?<c:out value="${incident.queryString}"/></c:if>
+						</h3>
+						<p>
+							<span class="name"><spring:message code="probe.jsp.stuckrequests.application"/></span>
+							<c:out value="${incident.applicationName}"/>
+							&#160;
+							<span class="name"><spring:message code="probe.jsp.stuckrequests.thread"/></span>
+							<c:out value="${incident.workerThreadName}"/>
+							&#160;
+							<span class="name"><spring:message code="probe.jsp.stuckrequests.started"/></span>
+							<fmt:formatDate value="${incident.startDate}" pattern="yyyy-MM-dd HH:mm:ss"/>
+							&#160;
+							<span class="name"><spring:message code="probe.jsp.stuckrequests.duration"/></span>
+							<probe:duration value="${incident.duration}"/>
+							&#160;
+							<span class="name"><spring:message code="probe.jsp.stuckrequests.threshold"/></span>
+							<probe:duration value="${incident.threshold}"/>
+							&#160;
+							<c:choose>
+								<c:when test="${incident.finished}">
+									<spring:message code="probe.jsp.stuckrequests.finished"/>
+								</c:when>
+								<c:otherwise>
+									<strong><spring:message code="probe.jsp.stuckrequests.running"/></strong>
+								</c:otherwise>
+							</c:choose>
+						</p>
+						<c:forEach items="${incident.samples}" var="sample">
+							<div>
+								<p>
+									<span class="name"><spring:message code="probe.jsp.stuckrequests.sampled"/></span>
+									<fmt:formatDate value="${sample.date}" pattern="HH:mm:ss"/>
+									&#160;
+									<c:out value="${sample.threadState}"/>
+									<c:if test="${! empty sample.lockName}">
+										<spring:message code="probe.jsp.stuckrequests.lock"/> <c:out value="${sample.lockName}"/>
+									</c:if>
+								</p>
+								<c:forEach items="${sample.stack}" var="element">
+									<div>
+										<c:out value="${element.className}.${element.methodName}"/>
+										(
+										<c:choose>
+											<c:when test="${!element.nativeMethod && element.lineNumber > 0}">
+												<c:out value="${element.fileName}"/>:${element.lineNumber}
+											</c:when>
+											<c:when test="${element.nativeMethod}">
+												<spring:message code="probe.jsp.threadstack.native"/>
+											</c:when>
+											<c:otherwise>
+												<spring:message code="probe.jsp.threadstack.unknown"/>
+											</c:otherwise>
+										</c:choose>
+										)
+									</div>
+								</c:forEach>
+							</div>
+						</c:forEach>
+					</div>
+				</c:forEach>
+			</c:otherwise>
+		</c:choose>
+	</body>
+</html>
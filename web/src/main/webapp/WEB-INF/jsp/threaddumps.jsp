@@ -0,0 +1,117 @@
+<%--
+
+    Licensed under the GPL License. You may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+      https://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+    THIS PACKAGE IS PROVIDED "AS IS" AND WITHOUT ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+    WITHOUT LIMITATION, THE IMPLIED WARRANTIES OF MERCHANTIBILITY AND FITNESS FOR A PARTICULAR
+    PURPOSE.
+
+--%>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="http://displaytag.sf.net" prefix="display" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
+
+<%-- Lists the thread dumps kept and compares two of them by grouping their threads by stack. --%>
+
+<html>
+	<head>
+		<title><spring:message code="probe.jsp.title.threaddumps"/></title>
+	</head>
+
+	<body>
+
+		<c:set var="navTabThreads" value="active" scope="request"/>
+
+		<ul class="options">
+			<li id="threads">
+				<a href="<c:url value='/threads.htm'/>">
+					<spring:message code="probe.jsp.threadpools.menu.threads"/>
+				</a>
+			</li>
+			<li id="captureThreadDump">
+				<a href="<c:url value='/adm/threaddumps.htm'/>">
+					<spring:message code="probe.jsp.threaddumps.capture"/>
+				</a>
+			</li>
+		</ul>
+
+		<c:choose>
+			<c:when test="${empty dumps}">
+				<div class="infoMessage">
+					<p><spring:message code="probe.jsp.threaddumps.empty"/></p>
+				</div>
+			</c:when>
+			<c:otherwise>
+				<display:table name="dumps" uid="dump" class="genericTbl" style="border-spacing:0;border-collapse:separate;" requestURI="">
+					<display:column titleKey="probe.jsp.threaddumps.col.id" class="leftmost">
+						#${dump.id}
+					</display:column>
+					<display:column titleKey="probe.jsp.threaddumps.col.date">
+						<fmt:formatDate value="${dump.date}" pattern="yyyy-MM-dd HH:mm:ss.SSS"/>
+					</display:column>
+					<display:column property="threadCount" titleKey="probe.jsp.threaddumps.col.threads"/>
+					<display:column titleKey="probe.jsp.threaddumps.col.size">
+						<probe:volume value="${dump.size}"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.threaddumps.col.reason">
+						<c:out value="${dump.reason}"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.threaddumps.col.download">
+						<a href="<c:url value='/downloadthreaddump.htm'><c:param name='id' value='${dump.id}'/></c:url>">
+							<c:out value="${dump.fileName}"/>
+						</a>
+					</display:column>
+				</display:table>
+
+				<form action="<c:url value='/threaddumps.htm'/>" method="get">
+					<spring:message code="probe.jsp.threaddumps.from"/>
+					<select name="from">
+						<option value="0"><spring:message code="probe.jsp.threaddumps.none"/></option>
+						<c:forEach items="${dumps}" var="dump">
+							<option value="${dump.id}" ${dump.id == from.id ? 'selected="selected"' : ''}>
+								#${dump.id} <fmt:formatDate value="${dump.date}" pattern="yyyy-MM-dd HH:mm:ss"/>
+							</option>
+						</c:forEach>
+					</select>
+					<spring:message code="probe.jsp.threaddumps.to"/>
+					<select name="to">
+						<c:forEach items="${dumps}" var="dump">
+							<option value="${dump.id}" ${dump.id == to.id ? 'selected="selected"' : ''}>
+								#${dump.id} <fmt:formatDate value="${dump.date}" pattern="yyyy-MM-dd HH:mm:ss"/>
+							</option>
+						</c:forEach>
+					</select>
+					<input type="submit" value="<spring:message code='probe.jsp.threaddumps.compare'/>"/>
+				</form>
+
+				<display:table name="groups" uid="group" class="genericTbl" style="border-spacing:0;border-collapse:separate;" requestURI="">
+					<display:column property="count" titleKey="probe.jsp.threaddumps.col.count" class="leftmost"/>
+					<display:column property="previousCount" titleKey="probe.jsp.threaddumps.col.previousCount"/>
+					<display:column property="delta" titleKey="probe.jsp.threaddumps.col.delta"/>
+					<display:column titleKey="probe.jsp.threaddumps.col.state">
+						<c:out value="${group.state}"/>
+					</display:column>
+					<display:column titleKey="probe.jsp.threaddumps.col.stack">
+						<c:forEach items="${group.frames}" var="frame">
+							<div><c:out value="${frame}"/></div>
+						</c:forEach>
+						<c:if test="${! empty group.threadNames}">
+							<p>
+								<span class="name"><spring:message code="probe.jsp.threaddumps.threads"/></span>
+								<c:forEach items="${group.threadNames}" var="threadName" varStatus="status">
+									<c:out value="${threadName}"/><c:if test="${! status.last}">, </c:if>
+								</c:forEach>
+							</p>
+						</c:if>
+					</display:column>
+				</display:table>
+			</c:otherwise>
+		</c:choose>
+	</body>
+</html>
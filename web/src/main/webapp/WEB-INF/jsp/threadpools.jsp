@@ -14,12 +14,15 @@
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
 <%@ taglib uri="http://displaytag.sf.net" prefix="display" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
 
 <%-- Displays current thread pool information. --%>
 
 <html>
 	<head>
 		<title><spring:message code="probe.jsp.title.threadpools"/></title>
+		<script type="text/javascript" src="<c:url value='/js/prototype.js'/>"></script>
+		<script type="text/javascript" src="<c:url value='/js/func.js'/>"></script>
 	</head>
 
 	<body>
@@ -41,6 +44,74 @@
 			<display:column property="maxThreads"         sortable="true" titleKey="probe.jsp.threadpools.maxThreads"         style="white-space:nowrap;"/>
 			<display:column property="maxSpareThreads"    sortable="true" titleKey="probe.jsp.threadpools.maxSpareThreads"    style="white-space:nowrap;"/>
 			<display:column property="minSpareThreads"    sortable="true" titleKey="probe.jsp.threadpools.minSpareThreads"    style="white-space:nowrap;"/>
+			<display:column sortable="true" sortProperty="queueSize" titleKey="probe.jsp.threadpools.queueSize" style="white-space:nowrap;">
+				<c:choose>
+					<c:when test="${pool.queueSize >= 0}">${pool.queueSize}</c:when>
+					<c:otherwise><spring:message code="probe.jsp.threadpools.na"/></c:otherwise>
+				</c:choose>
+			</display:column>
+			<display:column sortable="true" sortProperty="saturation" titleKey="probe.jsp.threadpools.saturation" style="white-space:nowrap;">
+				<c:choose>
+					<c:when test="${pool.saturation >= 0}">${pool.saturation}%</c:when>
+					<c:otherwise><spring:message code="probe.jsp.threadpools.na"/></c:otherwise>
+				</c:choose>
+			</display:column>
 		</display:table>
+
+		<c:set var="chartWidth" value="280"/>
+		<c:set var="chartHeight" value="175"/>
+
+		<c:forEach items="${pools}" var="pool">
+			<c:url value="/chart.png" var="threadsimg" scope="page">
+				<c:param name="p" value="threadpool_threads"/>
+				<c:param name="sp" value="${pool.name}"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+
+			<c:url value="/chart.png" var="saturationimg" scope="page">
+				<c:param name="p" value="threadpool_saturation"/>
+				<c:param name="sp" value="${pool.name}"/>
+				<c:param name="xz" value="${chartWidth}"/>
+				<c:param name="yz" value="${chartHeight}"/>
+				<c:param name="s1c" value="#FFCD9B"/>
+				<c:param name="s1o" value="#D26900"/>
+				<c:param name="l" value="false"/>
+			</c:url>
+
+			<c:url value="/zoomchart.htm" var="threadsZoomUrl">
+				<c:param name="p" value="threadpool_threads"/>
+				<c:param name="sp" value="${pool.name}"/>
+			</c:url>
+
+			<c:url value="/zoomchart.htm" var="saturationZoomUrl">
+				<c:param name="p" value="threadpool_saturation"/>
+				<c:param name="sp" value="${pool.name}"/>
+			</c:url>
+
+			<h3>${probe:escapeHtml(pool.name)}</h3>
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.threadpools.threads.title"/></dt>
+					<dd class="image">
+						<a href="${threadsZoomUrl}"><img id="threads-${probe:escapeHtml(pool.name)}" border="0" src="${threadsimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/></a>
+					</dd>
+				</dl>
+			</div>
+			<div class="chartContainer">
+				<dl>
+					<dt><spring:message code="probe.jsp.threadpools.saturation.title"/></dt>
+					<dd class="image">
+						<a href="${saturationZoomUrl}"><img id="saturation-${probe:escapeHtml(pool.name)}" border="0" src="${saturationimg}" width="${chartWidth}" height="${chartHeight}" alt="+"/></a>
+					</dd>
+				</dl>
+			</div>
+
+			<script type="text/javascript">
+				new Ajax.ImgUpdater('threads-${probe:escapeJS(pool.name)}', '${probe:max(collectionPeriod, 5)}');
+				new Ajax.ImgUpdater('saturation-${probe:escapeJS(pool.name)}', '${probe:max(collectionPeriod, 5)}');
+			</script>
+		</c:forEach>
 	</body>
 </html>
@@ -36,6 +36,16 @@
 						<spring:message code="probe.jsp.threads.menu.threadpools"/>
 					</a>
 				</li>
+				<li id="stuckRequests">
+					<a href="<c:url value='/stuckrequests.htm'/>">
+						<spring:message code="probe.jsp.threads.menu.stuckrequests"/>
+					</a>
+				</li>
+				<li id="threadDumps">
+					<a href="<c:url value='/threaddumps.htm'/>">
+						<spring:message code="probe.jsp.threads.menu.threaddumps"/>
+					</a>
+				</li>
 				<li id="abbreviations">
 					<a href="#">
 						<spring:message code="probe.jsp.generic.abbreviations"/>
@@ -40,7 +40,7 @@
 					<spring:message code="probe.jsp.viewsource.opt.back"/>
 				</a>
 			</li>
-			<c:if test="${! empty content || ! empty highlightedContent}">
+			<c:if test="${! empty content || ! empty source}">
 				<c:if test="${item.state == 2}">
 					<li id="viewservlet">
 						<a href="<c:url value='/app/viewservlet.htm'>
@@ -60,11 +60,35 @@
 						<spring:message code="probe.jsp.viewsource.opt.compile"/>
 					</a>
 				</li>
+				<c:if test="${from > 1}">
+					<li id="previousLines">
+						<a href="<c:url value='/app/viewsource.htm'>
+								<c:param name='webapp' value='${param.webapp}'/>
+								<c:param name='source' value='${param.source}'/>
+								<c:param name='from' value='${probe:max(1, from - lines)}'/>
+								<c:param name='lines' value='${lines}'/>
+								</c:url>">
+							<spring:message code="probe.jsp.viewsource.opt.previousLines" arguments="${lines}"/>
+						</a>
+					</li>
+				</c:if>
+				<c:if test="${from + lines <= source.lineCount}">
+					<li id="nextLines">
+						<a href="<c:url value='/app/viewsource.htm'>
+								<c:param name='webapp' value='${param.webapp}'/>
+								<c:param name='source' value='${param.source}'/>
+								<c:param name='from' value='${from + lines}'/>
+								<c:param name='lines' value='${lines}'/>
+								</c:url>">
+							<spring:message code="probe.jsp.viewsource.opt.nextLines" arguments="${lines}"/>
+						</a>
+					</li>
+				</c:if>
 			</c:if>
 		</ul>
 
 		<c:choose>
-			<c:when test="${empty content && empty highlightedContent}">
+			<c:when test="${empty content && empty source}">
 				<div class="errorMessage">
 					<p>
 						<spring:message code="probe.jsp.viewsource.notfound"/>
@@ -112,8 +136,8 @@
 								<div id="srccontent" class="scrollable_content">
 									<code>
 										<c:choose>
-											<c:when test="${! empty highlightedContent}">
-												<c:out value="${highlightedContent}" escapeXml="false"/>
+											<c:when test="${! empty source}">
+												<probe:source value="${source}" from="${from}" lines="${lines}"/>
 											</c:when>
 											<c:otherwise>
 												${content}
@@ -13,6 +13,7 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
+<%@ taglib uri="https://github.com/psi-probe/psi-probe/jsp/tags" prefix="probe" %>
 
 <html>
 	<head>
@@ -55,6 +56,30 @@
 					<spring:message code="probe.jsp.follow.menu.download"/>
 				</a>
 			</li>
+			<c:if test="${from > 1}">
+				<li id="previousLines">
+					<a href="<c:url value='/app/viewservlet.htm'>
+							<c:param name='webapp' value='${param.webapp}'/>
+							<c:param name='source' value='${param.source}'/>
+							<c:param name='from' value='${probe:max(1, from - lines)}'/>
+							<c:param name='lines' value='${lines}'/>
+							</c:url>">
+						<spring:message code="probe.jsp.viewsource.opt.previousLines" arguments="${lines}"/>
+					</a>
+				</li>
+			</c:if>
+			<c:if test="${from + lines <= source.lineCount}">
+				<li id="nextLines">
+					<a href="<c:url value='/app/viewservlet.htm'>
+							<c:param name='webapp' value='${param.webapp}'/>
+							<c:param name='source' value='${param.source}'/>
+							<c:param name='from' value='${from + lines}'/>
+							<c:param name='lines' value='${lines}'/>
+							</c:url>">
+						<spring:message code="probe.jsp.viewsource.opt.nextLines" arguments="${lines}"/>
+					</a>
+				</li>
+			</c:if>
 
 		</ul>
 		<div class="embeddedBlockContainer">
@@ -67,7 +92,7 @@
 					<td>
 						<div class="scrollable_content" id="srccontent">
 							<code>
-								<c:out value="${content}" escapeXml="false"/>
+								<probe:source value="${source}" from="${from}" lines="${lines}"/>
 							</code>
 						</div>
 					</td>
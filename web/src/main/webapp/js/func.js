@@ -55,6 +55,66 @@ Ajax.ImgUpdater.prototype = {
 	}
 }
 
+/**
+ * Keeps the live panels of a page up to date through a single long-polling request to the
+ * dashboard. Each watched container shows the panel values in its elements carrying a data-field
+ * attribute. Requires prototype.js (http://prototype.conio.net/)
+ */
+Ajax.DashboardUpdater = Class.create();
+Ajax.DashboardUpdater.prototype = {
+	initialize: function(url, retryDelay) {
+		this.url = url;
+		this.retryDelay = retryDelay;
+		this.containers = {};
+		this.version = 0;
+	},
+
+	watch: function(containerID, panel) {
+		this.containers[panel] = containerID;
+		return this;
+	},
+
+	start: function() {
+		var succeeded = false;
+		new Ajax.Request(this.url, {
+			method: 'get',
+			parameters: {panel: Object.keys(this.containers), since: this.version},
+			onSuccess: function(transport) {
+				succeeded = this.update(transport.responseText.evalJSON());
+			}.bind(this),
+			onComplete: function() {
+				this.timer = setTimeout(this.start.bind(this), succeeded ? 0 : this.retryDelay * 1000);
+			}.bind(this)
+		});
+	},
+
+	update: function(update) {
+		if (!update || !update.panels) {
+			return false;
+		}
+		for (let panel in update.panels) {
+			let container = $(this.containers[panel]);
+			if (container) {
+				let values = update.panels[panel];
+				container.select('[data-field]').each(function(element) {
+					let value = values[element.readAttribute('data-field')];
+					if (value !== undefined) {
+						element.update(value.escapeHTML());
+					}
+				});
+			}
+		}
+		this.version = update.version;
+		return true;
+	},
+
+	stop: function() {
+		if (this.timer) {
+			clearTimeout(this.timer);
+		}
+	}
+}
+
 function togglePanel(container, remember_url) {
 	if (Element.getStyle(container, "display") == 'none') {
 		if (remember_url) {